@@ -0,0 +1,176 @@
+package ch.qfs.phonebook.generator.config;
+
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Benchmarks the representations of a list of phonebook entries the REST API can be asked for,
+ * encoding and decoding them with the message converters of {@link JacksonConfiguration}. The
+ * payload size of every representation is reported next to the timings, see {@link PayloadSize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PhonebookRepresentationBenchmark {
+
+    private static final Type ENTRY_LIST = new TypeReference<List<PhonebookEntryDTO>>() {}.getType();
+
+    @Param({ "json", "cbor", "smile", "protobuf" })
+    private String representation;
+
+    @Param({ "20", "1000" })
+    private int entries;
+
+    private GenericHttpMessageConverter<Object> converter;
+
+    private List<PhonebookEntryDTO> phonebookEntries;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        converter = converter(representation);
+        phonebookEntries = new ArrayList<>(entries);
+        for (int i = 1; i <= entries; i++) {
+            PhonebookEntryDTO entry = new PhonebookEntryDTO();
+            entry.setId((long) i);
+            entry.setDescription("Employee " + i);
+            PhoneNumberDTO phoneNumber = new PhoneNumberDTO();
+            phoneNumber.setId(2L * i);
+            phoneNumber.setNumber("044 " + (2000000 + i));
+            phoneNumber.setNormalizedNumber("+4144" + (2000000 + i));
+            entry.getPhoneNumbers().add(phoneNumber);
+            phonebookEntries.add(entry);
+        }
+        payload = write().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream encode(PayloadSize payloadSize) throws IOException {
+        payloadSize.payloadBytes = payload.length;
+        return write();
+    }
+
+    @Benchmark
+    public Object decode(PayloadSize payloadSize) throws IOException {
+        payloadSize.payloadBytes = payload.length;
+        return converter.read(ENTRY_LIST, null, new BufferedInputMessage(payload));
+    }
+
+    private ByteArrayOutputStream write() throws IOException {
+        BufferedOutputMessage outputMessage = new BufferedOutputMessage();
+        converter.write(phonebookEntries, ENTRY_LIST, null, outputMessage);
+        return outputMessage.body;
+    }
+
+    /**
+     * Reports the size in bytes of the encoded entries as a secondary result of the benchmarks.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+    }
+
+    private static GenericHttpMessageConverter<Object> converter(String representation) {
+        switch (representation) {
+            case "json":
+                return new MappingJackson2HttpMessageConverter(objectMapper(new JsonFactory()));
+            case "cbor":
+                return new MappingJackson2CborHttpMessageConverter(objectMapper(new CBORFactory()));
+            case "smile":
+                return new MappingJackson2SmileHttpMessageConverter(objectMapper(new SmileFactory()));
+            case "protobuf":
+                return new PhonebookProtobufHttpMessageConverter(objectMapper(new ProtobufFactory()));
+            default:
+                throw new IllegalArgumentException("Unknown representation: " + representation);
+        }
+    }
+
+    /**
+     * @return a mapper with the modules registered by JacksonConfiguration, apart from the problem modules.
+     */
+    private static ObjectMapper objectMapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+            .registerModule(new JavaTimeModule())
+            .registerModule(new Jdk8Module())
+            .registerModule(new Hibernate5Module());
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class BufferedInputMessage implements HttpInputMessage {
+
+        private final byte[] body;
+
+        private BufferedInputMessage(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    }
+}
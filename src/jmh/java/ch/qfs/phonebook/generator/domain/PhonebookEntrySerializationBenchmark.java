@@ -0,0 +1,72 @@
+package ch.qfs.phonebook.generator.domain;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JSON mapping of phonebook entries with their phone numbers, as done by the REST API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PhonebookEntrySerializationBenchmark {
+
+    private static final TypeReference<List<PhonebookEntry>> ENTRY_LIST = new TypeReference<>() {};
+
+    @Param({ "20", "1000" })
+    private int entries;
+
+    private ObjectMapper objectMapper;
+
+    private List<PhonebookEntry> phonebookEntries;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        // the modules registered by JacksonConfiguration, apart from the problem modules
+        objectMapper =
+            new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new Jdk8Module()).registerModule(new Hibernate5Module());
+        phonebookEntries = new ArrayList<>(entries);
+        for (int i = 1; i <= entries; i++) {
+            PhonebookEntry entry = new PhonebookEntry().description("Employee " + i);
+            entry.setId((long) i);
+            PhoneNumber phoneNumber = new PhoneNumber("+41 44 " + (2000000 + i));
+            phoneNumber.setId(2L * i);
+            entry.addPhoneNumber(phoneNumber);
+            phonebookEntries.add(entry);
+        }
+        json = objectMapper.writeValueAsBytes(phonebookEntries);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(phonebookEntries);
+    }
+
+    @Benchmark
+    public List<PhonebookEntry> deserialize() throws IOException {
+        return objectMapper.readValue(json, ENTRY_LIST);
+    }
+}
@@ -0,0 +1,126 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks writing a phonebook document from entries held in memory, without the database.
+ * <p>
+ * Other formats than the Yealink directory are selected with {@code -p format=cisco}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PhonebookGenerationBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int entries;
+
+    @Param({ PhonebookXmlWriter.NAME })
+    private String format;
+
+    private PhonebookFormat phonebookFormat;
+
+    private List<PhonebookEntry> phonebookEntries;
+
+    private ForkJoinPool renderPool;
+
+    @Setup
+    public void setup() {
+        PhonebookFormatRegistry registry = new PhonebookFormatRegistry(
+            List.of(
+                new PhonebookXmlWriter(),
+                new CiscoPhonebookFormat(),
+                new SnomPhonebookFormat(),
+                new GrandstreamPhonebookFormat(),
+                new VcardPhonebookFormat(),
+                new CsvPhonebookFormat()
+            )
+        );
+        phonebookFormat = registry.getFormat(format).orElseThrow();
+        phonebookEntries = createEntries(entries);
+        renderPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderPool.shutdownNow();
+    }
+
+    @Benchmark
+    public void writeDocument() throws IOException {
+        try (PhonebookOutput phonebook = phonebookFormat.open(OutputStream.nullOutputStream())) {
+            for (PhonebookEntry entry : phonebookEntries) {
+                phonebook.write(entry);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeDocumentInParallel() throws IOException {
+        try (
+            PhonebookOutput phonebook = new ParallelPhonebookOutput(
+                phonebookFormat,
+                OutputStream.nullOutputStream(),
+                renderPool,
+                1000,
+                2 * renderPool.getParallelism()
+            )
+        ) {
+            for (PhonebookEntry entry : phonebookEntries) {
+                phonebook.write(entry);
+            }
+        }
+    }
+
+    @Benchmark
+    public int renderFragments() throws IOException {
+        int length = phonebookFormat.renderHeader().length;
+        for (PhonebookEntry entry : phonebookEntries) {
+            length += phonebookFormat.renderEntry(entry).length;
+        }
+        return length + phonebookFormat.renderFooter().length;
+    }
+
+    /**
+     * Creates entries looking like a company directory, most with one and some with two numbers.
+     */
+    static List<PhonebookEntry> createEntries(int count) {
+        List<PhonebookEntry> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            PhonebookEntry entry = new PhonebookEntry().description("Employee " + i + ", Sales & Marketing");
+            entry.setId((long) i);
+            PhoneNumber office = new PhoneNumber("+41 44 " + (2000000 + i));
+            office.setId(2L * i);
+            entry.addPhoneNumber(office);
+            if (i % 4 == 0) {
+                PhoneNumber mobile = new PhoneNumber("+41 79 " + (5000000 + i));
+                mobile.setId(2L * i + 1);
+                entry.addPhoneNumber(mobile);
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+}
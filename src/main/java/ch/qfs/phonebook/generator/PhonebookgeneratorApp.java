@@ -1,12 +1,18 @@
 package ch.qfs.phonebook.generator;
 
 import ch.qfs.phonebook.generator.config.ApplicationProperties;
-import ch.qfs.phonebook.generator.domain.PhoneNumber;
-import ch.qfs.phonebook.generator.domain.PhonebookEntry;
-import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
-import java.io.PrintWriter;
+import ch.qfs.phonebook.generator.service.dto.PhonebookImportResultDTO;
+import ch.qfs.phonebook.generator.service.export.MultiFormatPhonebookOutput;
+import ch.qfs.phonebook.generator.service.export.PhonebookArtifactService;
+import ch.qfs.phonebook.generator.service.export.PhonebookExportService;
+import ch.qfs.phonebook.generator.service.export.PhonebookRegenerationService;
+import ch.qfs.phonebook.generator.service.export.PhonebookVersion;
+import ch.qfs.phonebook.generator.service.importer.PhonebookImportService;
+import ch.qfs.phonebook.generator.service.ivy.IvyPhonebookClient;
+import ch.qfs.phonebook.generator.service.ivy.IvyPhonebookSyncService;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Optional;
@@ -14,30 +20,28 @@ import javax.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
-import org.springframework.web.client.RestTemplate;
 import tech.jhipster.config.DefaultProfileUtil;
 import tech.jhipster.config.JHipsterConstants;
 
 @SpringBootApplication
 @EnableConfigurationProperties({ LiquibaseProperties.class, ApplicationProperties.class })
-public class PhonebookgeneratorApp {
-
-    @Autowired
-    PhonebookEntryRepository repo;
+public class PhonebookgeneratorApp implements ExitCodeGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(PhonebookgeneratorApp.class);
 
     private final Environment env;
 
+    private volatile int exitCode;
+
     public PhonebookgeneratorApp(Environment env) {
         this.env = env;
     }
@@ -80,8 +84,20 @@ public class PhonebookgeneratorApp {
     public static void main(String[] args) {
         SpringApplication app = new SpringApplication(PhonebookgeneratorApp.class);
         DefaultProfileUtil.addDefaultProfile(app);
-        Environment env = app.run(args).getEnvironment();
-        logApplicationStartup(env);
+        ConfigurableApplicationContext applicationContext = app.run(args);
+        if (StringUtils.isNotBlank(applicationContext.getBean(ApplicationProperties.class).getBulkImport().getFile())) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+        logApplicationStartup(applicationContext.getEnvironment());
+    }
+
+    /**
+     * @return the exit code of a bulk import given by {@code --application.bulk-import.file}, {@code 1} if not all records were
+     * imported.
+     */
+    @Override
+    public int getExitCode() {
+        return exitCode;
     }
 
     private static void logApplicationStartup(Environment env) {
@@ -115,47 +131,81 @@ public class PhonebookgeneratorApp {
         );
     }
 
-    // @Bean
-    // public RestTemplate restTemplateIvy(RestTemplateBuilder builder) {
-    // builder.basicAuthentication("Developer", "Developer");
-    // return builder.build();
-    // }
-
     @Bean
-    public CommandLineRunner run(RestTemplateBuilder builder) throws Exception {
+    public CommandLineRunner run(
+        ApplicationProperties applicationProperties,
+        IvyPhonebookClient ivyPhonebookClient,
+        PhonebookExportService phonebookExportService,
+        PhonebookArtifactService phonebookArtifactService,
+        IvyPhonebookSyncService ivyPhonebookSyncService,
+        PhonebookRegenerationService phonebookRegenerationService,
+        PhonebookImportService phonebookImportService
+    ) {
         return args -> {
-            RestTemplate restTemplateIvy = builder.basicAuthentication("Developer", "Developer").build();
-            PhonebookEntry[] entries = restTemplateIvy.getForObject(
-                "http://localhost:8081/ivy/api/designer/phonebook",
-                PhonebookEntry[].class
-            );
-            // PhonebookEntry[] entries = response.getBody();
-            // for(PhonebookEntry e : entries){
-            // repo.save(e);
-            // }
-            generatePhoneBookXML(entries);
+            if (StringUtils.isNotBlank(applicationProperties.getBulkImport().getFile())) {
+                boolean imported = importPhonebookEntries(phonebookImportService, Path.of(applicationProperties.getBulkImport().getFile()));
+                exitCode = imported ? 0 : 1;
+                return;
+            }
+            if (!applicationProperties.getIvy().isEnabled()) {
+                log.info("Ivy phonebook import is disabled, no phonebook is generated");
+                return;
+            }
+            if (applicationProperties.getIvy().getSync().isEnabled()) {
+                synchronizePhonebooks(ivyPhonebookSyncService, phonebookRegenerationService);
+            } else {
+                generatePhonebooks(ivyPhonebookClient, phonebookExportService, phonebookArtifactService);
+            }
         };
     }
 
-    private void generatePhoneBookXML(PhonebookEntry[] entries) {
-        PrintWriter writer;
+    /**
+     * Imports the phonebook entries of a dump given by {@code --application.bulk-import.file}.
+     *
+     * @return whether all records of the dump were imported.
+     */
+    private boolean importPhonebookEntries(PhonebookImportService phonebookImportService, Path file) {
+        log.info("Start importing phonebook entries from {}...", file);
+        try {
+            PhonebookImportResultDTO result = phonebookImportService.importFile(file);
+            result.getErrors().forEach(error -> log.warn("Line {} not imported: {}", error.getLine(), error.getMessage()));
+            log.info("Imported {} of {} phonebook entries in {} ms.", result.getImported(), result.getRead(), result.getDurationMs());
+            return result.getFailed() == 0;
+        } catch (Exception e) {
+            log.error("Exception at importing phonebook entries", e);
+            return false;
+        }
+    }
+
+    private void synchronizePhonebooks(
+        IvyPhonebookSyncService ivyPhonebookSyncService,
+        PhonebookRegenerationService phonebookRegenerationService
+    ) {
+        log.info("Start synchronizing the Ivy phonebook...");
+        try {
+            ivyPhonebookSyncService.synchronize();
+            phonebookRegenerationService.regenerate();
+        } catch (Exception e) {
+            log.error("Exception at synchronizing phonebooks", e);
+        }
+    }
+
+    private void generatePhonebooks(
+        IvyPhonebookClient ivyPhonebookClient,
+        PhonebookExportService phonebookExportService,
+        PhonebookArtifactService phonebookArtifactService
+    ) {
+        log.info("Start generating phonebooks...");
         try {
-            log.info("Start generating phonebook.xml...");
-            writer = new PrintWriter("phonebook.xml", "UTF-8");
-            writer.println("<VitabadIPPhoneDirectory>");
-            for (PhonebookEntry e : entries) {
-                writer.println("    <DirectoryEntry>");
-                writer.println("        <Name>" + e.getDescription() + "</Name>");
-                for (PhoneNumber number : e.getPhoneNumbers()) {
-                    writer.println("        <Telephone>" + number.getNumber() + "</Telephone>");
-                }
-                writer.println("    </DirectoryEntry>");
+            PhonebookVersion version;
+            try (MultiFormatPhonebookOutput phonebooks = phonebookExportService.open()) {
+                ivyPhonebookClient.readEntries(phonebooks::write);
+                version = phonebooks.commit();
+                log.info("Phonebooks successfully generated with {} entries as version {}.", phonebooks.getEntryCount(), version.getId());
             }
-            writer.println("</VitabadIPPhoneDirectory>");
-            writer.close();
-            log.info("phonebook.xml successfully generated.");
+            phonebookArtifactService.publish(phonebookExportService.getConfiguredFormats(), version);
         } catch (Exception e) {
-            log.error("Exception at generating yealink phonebook", e);
+            log.error("Exception at generating phonebooks", e);
         }
     }
 }
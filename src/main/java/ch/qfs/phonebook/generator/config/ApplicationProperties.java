@@ -1,5 +1,9 @@
 package ch.qfs.phonebook.generator.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,700 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Ivy ivy = new Ivy();
+
+    private final Export export = new Export();
+
+    private final Lookup lookup = new Lookup();
+
+    private final Normalization normalization = new Normalization();
+
+    private final Search search = new Search();
+
+    private final Cache cache = new Cache();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final Changes changes = new Changes();
+
+    private final Events events = new Events();
+
+    public Ivy getIvy() {
+        return ivy;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Lookup getLookup() {
+        return lookup;
+    }
+
+    public Normalization getNormalization() {
+        return normalization;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    /**
+     * Connection to the Axon Ivy designer phonebook the directory is generated from.
+     */
+    public static class Ivy {
+
+        private boolean enabled = true;
+
+        private String url = "http://localhost:8081/ivy/api/designer/phonebook";
+
+        private String username = "Developer";
+
+        private String password = "Developer";
+
+        private final Sync sync = new Sync();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Sync getSync() {
+            return sync;
+        }
+    }
+
+    /**
+     * Synchronization of the Ivy phonebook into the database, which the phonebook files are then generated from.
+     */
+    public static class Sync {
+
+        private boolean enabled = false;
+
+        /**
+         * The number of valid entries the Ivy phonebook must have at least for the entries gone from it to be
+         * deleted. Guards against an empty or truncated answer of Ivy wiping out the phonebook.
+         */
+        private int minEntries = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinEntries() {
+            return minEntries;
+        }
+
+        public void setMinEntries(int minEntries) {
+            this.minEntries = minEntries;
+        }
+    }
+
+    /**
+     * Generated phonebook files.
+     */
+    public static class Export {
+
+        private String directory = ".";
+
+        private List<String> formats = new ArrayList<>(List.of("yealink"));
+
+        private int retainedVersions = 5;
+
+        private final Incremental incremental = new Incremental();
+
+        private final Parallel parallel = new Parallel();
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public List<String> getFormats() {
+            return formats;
+        }
+
+        public void setFormats(List<String> formats) {
+            this.formats = formats;
+        }
+
+        public int getRetainedVersions() {
+            return retainedVersions;
+        }
+
+        public void setRetainedVersions(int retainedVersions) {
+            this.retainedVersions = retainedVersions;
+        }
+
+        public Incremental getIncremental() {
+            return incremental;
+        }
+
+        public Parallel getParallel() {
+            return parallel;
+        }
+    }
+
+    /**
+     * Regeneration of the phonebook files from the database, driven by the phonebook change log.
+     */
+    public static class Incremental {
+
+        private boolean enabled = false;
+
+        private long delayMs = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+    }
+
+    /**
+     * Rendering of the phonebook files on several threads, in chunks of entries.
+     */
+    public static class Parallel {
+
+        /**
+         * The number of rendering threads, {@code 0} for one per available processor and {@code 1} to render sequentially.
+         */
+        private int threads = 0;
+
+        private int chunkSize = 1000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * In-memory caller-ID index of the phone numbers, kept current from the phonebook change log.
+     */
+    public static class Lookup {
+
+        private boolean enabled = true;
+
+        private long delayMs = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+    }
+
+    /**
+     * Canonical form of the phone numbers, stored alongside every number.
+     */
+    public static class Normalization {
+
+        /**
+         * The country code given to national numbers, without {@code +}.
+         */
+        private String countryCode = "41";
+
+        /**
+         * The area code given to local numbers, without trunk prefix, empty to keep local numbers as they are.
+         */
+        private String areaCode = "";
+
+        private int maxExtensionLength = 6;
+
+        private final Backfill backfill = new Backfill();
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+
+        public void setCountryCode(String countryCode) {
+            this.countryCode = countryCode;
+        }
+
+        public String getAreaCode() {
+            return areaCode;
+        }
+
+        public void setAreaCode(String areaCode) {
+            this.areaCode = areaCode;
+        }
+
+        public int getMaxExtensionLength() {
+            return maxExtensionLength;
+        }
+
+        public void setMaxExtensionLength(int maxExtensionLength) {
+            this.maxExtensionLength = maxExtensionLength;
+        }
+
+        public Backfill getBackfill() {
+            return backfill;
+        }
+    }
+
+    /**
+     * Normalization of the phone numbers stored without canonical form, like rows older than the column, or with the canonical form of
+     * previous settings.
+     */
+    public static class Backfill {
+
+        private boolean enabled = true;
+
+        private int batchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * In-memory type-ahead search index of the phonebook entries, kept current from the phonebook change log.
+     */
+    public static class Search {
+
+        private boolean enabled = true;
+
+        private long delayMs = 1000;
+
+        private int maxResults = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+    }
+
+    /**
+     * Ehcache regions of the second-level and Spring caches.
+     */
+    public static class Cache {
+
+        /**
+         * Settings of single regions by region name, e.g. the entity class name. Regions without
+         * settings use {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, CacheRegion> regions = new LinkedHashMap<>();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        public Map<String, CacheRegion> getRegions() {
+            return regions;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+    }
+
+    /**
+     * Preloading of the phonebook regions of the second-level cache at startup and after bulk changes.
+     */
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        /**
+         * The number of phonebook entries read per statement and transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * The number of entries a bulk change may insert or update for only these to be loaded again.
+         * The whole phonebook is loaded again after larger changes.
+         */
+        private int maxChangedEntries = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxChangedEntries() {
+            return maxChangedEntries;
+        }
+
+        public void setMaxChangedEntries(int maxChangedEntries) {
+            this.maxChangedEntries = maxChangedEntries;
+        }
+    }
+
+    /**
+     * Size and expiry of a cache region. Entries are evicted from a tier once it is full, and moved
+     * to the off-heap tier, if any, when evicted from the heap.
+     */
+    public static class CacheRegion {
+
+        /**
+         * The maximal number of entries on the heap, {@code null} for {@code jhipster.cache.ehcache.max-entries}.
+         */
+        private Long heapEntries;
+
+        /**
+         * The size of the off-heap tier in megabytes, {@code 0} for none.
+         */
+        private long offHeapMb = 0;
+
+        /**
+         * The time to live of the entries, {@code null} for {@code jhipster.cache.ehcache.time-to-live-seconds}, {@code 0} for unlimited.
+         */
+        private Long timeToLiveSeconds;
+
+        /**
+         * The time an entry may stay unread, {@code 0} for unlimited. Replaces the time to live when set.
+         */
+        private long timeToIdleSeconds = 0;
+
+        public Long getHeapEntries() {
+            return heapEntries;
+        }
+
+        public void setHeapEntries(Long heapEntries) {
+            this.heapEntries = heapEntries;
+        }
+
+        public long getOffHeapMb() {
+            return offHeapMb;
+        }
+
+        public void setOffHeapMb(long offHeapMb) {
+            this.offHeapMb = offHeapMb;
+        }
+
+        public Long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getTimeToIdleSeconds() {
+            return timeToIdleSeconds;
+        }
+
+        public void setTimeToIdleSeconds(long timeToIdleSeconds) {
+            this.timeToIdleSeconds = timeToIdleSeconds;
+        }
+    }
+
+    /**
+     * Import of phonebook entries from CSV and NDJSON directory dumps.
+     */
+    public static class BulkImport {
+
+        /**
+         * A file to import at startup, after which the application exits, {@code null} for none.
+         */
+        private String file;
+
+        /**
+         * The number of records inserted per transaction.
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * The number of invalid records reported in detail, the others are only counted.
+         */
+        private int maxReportedErrors = 100;
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    /**
+     * Delta synchronization of phonebook mirrors from the phonebook change log.
+     */
+    public static class Changes {
+
+        /**
+         * The number of days changes are kept. Clients whose change token is older must reload the phonebook.
+         */
+        private int retentionDays = 30;
+
+        /**
+         * The time a change may take from drawing its id to its commit. Changes are sent again to
+         * clients until the changes with lower ids are committed or this time has passed.
+         */
+        private long lateCommitMs = 60000;
+
+        /**
+         * The maximal number of changes read per request.
+         */
+        private int maxChanges = 1000;
+
+        /**
+         * When the changes older than the retention are deleted.
+         */
+        private String compactionCron = "0 30 1 * * ?";
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public long getLateCommitMs() {
+            return lateCommitMs;
+        }
+
+        public void setLateCommitMs(long lateCommitMs) {
+            this.lateCommitMs = lateCommitMs;
+        }
+
+        public int getMaxChanges() {
+            return maxChanges;
+        }
+
+        public void setMaxChanges(int maxChanges) {
+            this.maxChanges = maxChanges;
+        }
+
+        public String getCompactionCron() {
+            return compactionCron;
+        }
+
+        public void setCompactionCron(String compactionCron) {
+            this.compactionCron = compactionCron;
+        }
+    }
+
+    /**
+     * Server-sent events of the changes of the phonebook, published from the phonebook change log.
+     */
+    public static class Events {
+
+        private boolean enabled = true;
+
+        private long delayMs = 1000;
+
+        /**
+         * The number of events buffered per subscriber. A subscriber falling further behind is disconnected.
+         */
+        private int bufferSize = 256;
+
+        /**
+         * The number of threads sending the buffered events to the subscribers.
+         */
+        private int threads = 2;
+
+        /**
+         * The interval of the comments keeping idle connections open through proxies.
+         */
+        private long heartbeatMs = 30000;
+
+        /**
+         * The time a write to a subscriber may block. A subscriber blocking longer is disconnected at the next heartbeat.
+         */
+        private long sendTimeoutMs = 10000;
+
+        /**
+         * The time after which a subscription is closed, for the client to reconnect.
+         */
+        private long timeoutMs = 1800000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public long getHeartbeatMs() {
+            return heartbeatMs;
+        }
+
+        public void setHeartbeatMs(long heartbeatMs) {
+            this.heartbeatMs = heartbeatMs;
+        }
+
+        public long getSendTimeoutMs() {
+            return sendTimeoutMs;
+        }
+
+        public void setSendTimeoutMs(long sendTimeoutMs) {
+            this.sendTimeoutMs = sendTimeoutMs;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+}
@@ -2,16 +2,23 @@ package ch.qfs.phonebook.generator.config;
 
 import java.time.Duration;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCache;
 import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -21,10 +28,13 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ehcache = jHipsterProperties.getCache().getEhcache();
+        cacheProperties = applicationProperties.getCache();
 
         jcacheConfiguration =
             Eh107Configuration.fromEhcacheCacheConfiguration(
@@ -55,13 +65,69 @@ public class CacheConfiguration {
         };
     }
 
+    /**
+     * Keeps the statistics of the Ehcache tiers of the regions, for the {@link CacheRegionStatistics}.
+     */
+    @Bean
+    public EhcacheTierStatistics ehcacheTierStatistics(javax.cache.CacheManager cacheManager) {
+        return new EhcacheTierStatistics(cacheManager);
+    }
+
+    /**
+     * Binds every JCache region, including the Hibernate second-level cache regions created above,
+     * to the meter registry with its {@link CacheRegionStatistics}, ahead of the generic JCache binding.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CacheMeterBinderProvider<JCacheCache> cacheRegionMeterBinderProvider(EhcacheTierStatistics tierStatistics) {
+        return (cache, tags) -> new CacheRegionMetrics(cache.getNativeCache(), tags, tierStatistics);
+    }
+
+    @Bean
+    public CacheRegionsEndpoint cacheRegionsEndpoint(javax.cache.CacheManager cacheManager, EhcacheTierStatistics tierStatistics) {
+        return new CacheRegionsEndpoint(cacheManager, tierStatistics);
+    }
+
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            ApplicationProperties.CacheRegion region = cacheProperties.getRegions().get(cacheName);
+            cm.createCache(cacheName, region == null ? jcacheConfiguration : regionConfiguration(region));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Builds the configuration of a region with its own settings. The entries of an off-heap tier
+     * are stored serialized, which the Hibernate cache entries and keys support.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> regionConfiguration(ApplicationProperties.CacheRegion region) {
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(heapEntries);
+        if (region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiry(region));
+        if (region.getOffHeapMb() > 0) {
+            ClassLoader classLoader = CacheConfiguration.class.getClassLoader();
+            builder =
+                builder.withKeySerializer(new PlainJavaSerializer<>(classLoader)).withValueSerializer(new PlainJavaSerializer<>(classLoader));
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    private ExpiryPolicy<Object, Object> expiry(ApplicationProperties.CacheRegion region) {
+        if (region.getTimeToIdleSeconds() > 0) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()));
         }
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+        return timeToLiveSeconds > 0
+            ? ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds))
+            : ExpiryPolicyBuilder.noExpiration();
     }
 
     @Autowired(required = false)
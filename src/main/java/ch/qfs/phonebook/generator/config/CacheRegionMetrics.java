@@ -0,0 +1,81 @@
+package ch.qfs.phonebook.generator.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import javax.cache.Cache;
+
+/**
+ * Binds the {@link CacheRegionStatistics} of a JCache region to a meter registry.
+ * <p>
+ * Besides the {@code cache.size}, {@code cache.gets}, {@code cache.puts} and {@code cache.evictions}
+ * meters common to all caches, a region reports its removals, the mean duration of its gets and the
+ * number of entries per tier.
+ */
+public class CacheRegionMetrics extends CacheMeterBinder {
+
+    private final Cache<?, ?> cache;
+
+    private final CacheRegionStatistics statistics;
+
+    public CacheRegionMetrics(Cache<?, ?> cache, Iterable<Tag> tags, EhcacheTierStatistics tierStatistics) {
+        super(cache, cache.getName(), tags);
+        this.cache = cache;
+        this.statistics = new CacheRegionStatistics(cache, tierStatistics);
+    }
+
+    @Override
+    protected Long size() {
+        return statistics.getSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.removals", cache, c -> statistics.getRemovals())
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache")
+            .register(registry);
+        Gauge
+            .builder("cache.gets.latency", cache, c -> statistics.getAverageGetTime() / 1_000_000)
+            .tags(getTagsWithCacheName())
+            .description("The mean duration of a cache get")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge
+            .builder("cache.tier.size", cache, c -> statistics.getHeapSize())
+            .tags(Tags.of(getTagsWithCacheName()).and("tier", "heap"))
+            .description("The number of entries in a tier of the cache")
+            .register(registry);
+        if (statistics.getOffHeapSize() != null) {
+            Gauge
+                .builder("cache.tier.size", cache, c -> statistics.getOffHeapSize())
+                .tags(Tags.of(getTagsWithCacheName()).and("tier", "offheap"))
+                .description("The number of entries in a tier of the cache")
+                .register(registry);
+        }
+    }
+}
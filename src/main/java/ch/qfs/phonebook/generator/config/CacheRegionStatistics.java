@@ -0,0 +1,129 @@
+package ch.qfs.phonebook.generator.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.cache.Cache;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Live statistics of a JCache region, as exported to the meter registry and shown by the
+ * {@link CacheRegionsEndpoint}.
+ * <p>
+ * The operation counts and the average get time come from the JSR-107 statistics MXBean of the
+ * region, which Ehcache registers once statistics are enabled for the region, see
+ * {@link CacheConfiguration}; they are {@code 0} while statistics are disabled. The sizes come from
+ * the statistics of the Ehcache tiers of the region, see {@link EhcacheTierStatistics}: the heap
+ * holds the most recently used entries, the off-heap tier, if any, all entries.
+ */
+public class CacheRegionStatistics {
+
+    private static final String HEAP_TIER = "OnHeap";
+
+    private static final String OFF_HEAP_TIER = "OffHeap";
+
+    private final String name;
+
+    private final MBeanServer mBeanServer;
+
+    private final ObjectName objectName;
+
+    private final CacheStatisticsMXBean statistics;
+
+    private final TierStatistics heap;
+
+    private final TierStatistics offHeap;
+
+    public CacheRegionStatistics(Cache<?, ?> cache, EhcacheTierStatistics tierStatistics) {
+        this.name = cache.getName();
+        this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        this.objectName = objectName(cache);
+        this.statistics = JMX.newMXBeanProxy(mBeanServer, objectName, CacheStatisticsMXBean.class);
+        Map<String, TierStatistics> tiers = tierStatistics.of(name);
+        this.heap = tiers.get(HEAP_TIER);
+        this.offHeap = tiers.get(OFF_HEAP_TIER);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return whether statistics are enabled for the region.
+     */
+    public boolean isStatisticsEnabled() {
+        return mBeanServer.isRegistered(objectName);
+    }
+
+    /**
+     * @return the number of entries of the region.
+     */
+    public long getSize() {
+        return offHeap != null ? offHeap.getMappings() : getHeapSize();
+    }
+
+    /**
+     * @return the number of entries on the heap.
+     */
+    public long getHeapSize() {
+        return heap != null ? heap.getMappings() : 0;
+    }
+
+    /**
+     * @return the number of entries off-heap, {@code null} if the region has no off-heap tier.
+     */
+    public Long getOffHeapSize() {
+        return offHeap != null ? offHeap.getMappings() : null;
+    }
+
+    public long getHits() {
+        return isStatisticsEnabled() ? statistics.getCacheHits() : 0;
+    }
+
+    public long getMisses() {
+        return isStatisticsEnabled() ? statistics.getCacheMisses() : 0;
+    }
+
+    public long getPuts() {
+        return isStatisticsEnabled() ? statistics.getCachePuts() : 0;
+    }
+
+    public long getRemovals() {
+        return isStatisticsEnabled() ? statistics.getCacheRemovals() : 0;
+    }
+
+    public long getEvictions() {
+        return isStatisticsEnabled() ? statistics.getCacheEvictions() : 0;
+    }
+
+    /**
+     * @return the mean duration of a get in microseconds.
+     */
+    public double getAverageGetTime() {
+        return isStatisticsEnabled() ? statistics.getAverageGetTime() : 0;
+    }
+
+    /**
+     * @return the name Ehcache registers the statistics MXBean of the region with.
+     */
+    private static ObjectName objectName(Cache<?, ?> cache) {
+        try {
+            return new ObjectName(
+                "javax.cache:type=CacheStatistics,CacheManager=" +
+                sanitize(cache.getCacheManager().getURI().toString()) +
+                ",Cache=" +
+                sanitize(cache.getName())
+            );
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid cache name " + cache.getName(), e);
+        }
+    }
+
+    private static String sanitize(String string) {
+        return string == null ? "" : string.replaceAll(",|:|=|\n", ".");
+    }
+}
@@ -0,0 +1,51 @@
+package ch.qfs.phonebook.generator.config;
+
+import java.util.Map;
+import java.util.TreeMap;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Management endpoint showing the {@link CacheRegionStatistics} of the JCache regions, next to the
+ * {@code caches} endpoint listing and clearing them.
+ */
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+    private final CacheManager cacheManager;
+
+    private final EhcacheTierStatistics tierStatistics;
+
+    public CacheRegionsEndpoint(CacheManager cacheManager, EhcacheTierStatistics tierStatistics) {
+        this.cacheManager = cacheManager;
+        this.tierStatistics = tierStatistics;
+    }
+
+    /**
+     * @return the statistics of all regions by region name.
+     */
+    @ReadOperation
+    public Map<String, CacheRegionStatistics> regions() {
+        Map<String, CacheRegionStatistics> regions = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache != null) {
+                regions.put(name, new CacheRegionStatistics(cache, tierStatistics));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * @param region the name of the region.
+     * @return the statistics of the region, {@code null} if there is no such region.
+     */
+    @ReadOperation
+    public CacheRegionStatistics region(@Selector String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        return cache == null ? null : new CacheRegionStatistics(cache, tierStatistics);
+    }
+}
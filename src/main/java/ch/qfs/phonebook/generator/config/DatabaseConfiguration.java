@@ -1,7 +1,19 @@
 package ch.qfs.phonebook.generator.config;
 
+import ch.qfs.phonebook.generator.repository.PhoneNumberNormalizationListener;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeListener;
+import ch.qfs.phonebook.generator.service.PhoneNumberNormalizer;
+import java.util.List;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
@@ -13,4 +25,29 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableJpaRepositories({ "ch.qfs.phonebook.generator.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Registers the {@link PhonebookChangeListener} and the {@link PhoneNumberNormalizationListener} with Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer phonebookChangeListenerCustomizer(PhoneNumberNormalizer phoneNumberNormalizer) {
+        PhonebookChangeListener listener = new PhonebookChangeListener();
+        PhoneNumberNormalizationListener normalizationListener = new PhoneNumberNormalizationListener(phoneNumberNormalizer);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+                EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.PRE_INSERT, normalizationListener);
+                registry.appendListeners(EventType.PRE_UPDATE, normalizationListener);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {}
+        };
+        return hibernateProperties -> hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+    }
+}
@@ -0,0 +1,69 @@
+package ch.qfs.phonebook.generator.config;
+
+import java.util.Map;
+import org.ehcache.Status;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.core.spi.ServiceLocator;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.store.InternalCacheManager;
+import org.ehcache.core.statistics.TierStatistics;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
+
+/**
+ * Statistics of the Ehcache tiers of the regions of a JCache cache manager.
+ * <p>
+ * The JCache provider of Ehcache cannot be given services, so a {@link DefaultStatisticsService}
+ * of its own is started for the cache manager built by Spring, see {@link CacheConfiguration}. It
+ * keeps the statistics of the regions the cache manager has, and of the ones it creates afterwards,
+ * until the cache manager is closed or this is closed.
+ */
+public class EhcacheTierStatistics implements AutoCloseable {
+
+    private final DefaultStatisticsService statisticsService = new DefaultStatisticsService();
+
+    /**
+     * @param cacheManager a JCache cache manager of Ehcache.
+     */
+    public EhcacheTierStatistics(javax.cache.CacheManager cacheManager) {
+        InternalCacheManager ehcacheManager = (InternalCacheManager) cacheManager.unwrap(org.ehcache.CacheManager.class);
+        statisticsService.start(cacheManagerProvider(ehcacheManager));
+        // registers the regions created before
+        statisticsService.stateTransition(Status.UNINITIALIZED, Status.AVAILABLE);
+    }
+
+    /**
+     * @param region the name of the region.
+     * @return the statistics of the tiers of the region by tier name, like {@code OnHeap} and {@code OffHeap}.
+     * @throws IllegalArgumentException if the cache manager has no such region or is closed.
+     */
+    public Map<String, TierStatistics> of(String region) {
+        return statisticsService.getCacheStatistics(region).getTierStatistics();
+    }
+
+    @Override
+    public void close() {
+        statisticsService.stop();
+    }
+
+    private static ServiceProvider<Service> cacheManagerProvider(InternalCacheManager cacheManager) {
+        return ServiceLocator
+            .dependencySet()
+            .withoutMandatoryServices()
+            .with(
+                new CacheManagerProviderService() {
+                    @Override
+                    public InternalCacheManager getCacheManager() {
+                        return cacheManager;
+                    }
+
+                    @Override
+                    public void start(ServiceProvider<Service> serviceProvider) {}
+
+                    @Override
+                    public void stop() {}
+                }
+            )
+            .build();
+    }
+}
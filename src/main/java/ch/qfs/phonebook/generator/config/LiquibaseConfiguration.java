@@ -28,9 +28,14 @@ public class LiquibaseConfiguration {
         this.env = env;
     }
 
+    @Bean
+    public LiquibaseMigrationExecutor liquibaseMigrationExecutor(@Qualifier("taskExecutor") Executor executor) {
+        return new LiquibaseMigrationExecutor(executor);
+    }
+
     @Bean
     public SpringLiquibase liquibase(
-        @Qualifier("taskExecutor") Executor executor,
+        LiquibaseMigrationExecutor executor,
         @LiquibaseDataSource ObjectProvider<DataSource> liquibaseDataSource,
         LiquibaseProperties liquibaseProperties,
         ObjectProvider<DataSource> dataSource,
@@ -0,0 +1,47 @@
+package ch.qfs.phonebook.generator.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor of the asynchronous Liquibase migration, telling when the migration is done.
+ * <p>
+ * JHipster migrates the database asynchronously in the {@code dev} and {@code heroku} profiles, so
+ * the application may start before the tables are migrated. Liquibase hands its migration to this
+ * executor while its bean is created; if it did not by the time the application started, it
+ * migrated synchronously or not at all.
+ */
+public class LiquibaseMigrationExecutor implements Executor {
+
+    private final Executor executor;
+
+    private final CompletableFuture<Void> migrated = new CompletableFuture<>();
+
+    private volatile boolean started;
+
+    public LiquibaseMigrationExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable migration) {
+        started = true;
+        executor.execute(() -> {
+            try {
+                migration.run();
+            } finally {
+                migrated.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Must only be called once the application context is refreshed.
+     *
+     * @return a future completed once an asynchronous migration is done, already completed if there
+     * is none.
+     */
+    public CompletableFuture<Void> whenMigrated() {
+        return started ? migrated : CompletableFuture.completedFuture(null);
+    }
+}
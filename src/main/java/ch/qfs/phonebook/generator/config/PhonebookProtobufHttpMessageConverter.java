@@ -0,0 +1,191 @@
+package ch.qfs.phonebook.generator.config;
+
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.Assert;
+
+/**
+ * Reads and writes phonebook entries and phone numbers, single or as list, in the Protobuf
+ * representation of {@value #SCHEMA_LOCATION}.
+ * <p>
+ * The DTOs are mapped by Jackson with the schema, so the Protobuf messages have the fields of the
+ * JSON representation and no classes are generated from the schema. Lists are wrapped into the
+ * {@code ...List} messages of the schema. Every response names its schema and message in the
+ * {@value #SCHEMA_HEADER} and {@value #MESSAGE_HEADER} headers, like Spring's converter for
+ * generated messages does.
+ */
+public class PhonebookProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final String SCHEMA_LOCATION = "proto/phonebook/v1/phonebook.proto";
+
+    public static final String SCHEMA_HEADER = "X-Protobuf-Schema";
+
+    public static final String MESSAGE_HEADER = "X-Protobuf-Message";
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, Representation> representations;
+
+    /**
+     * @param objectMapper a mapper with a {@link ProtobufFactory}.
+     */
+    public PhonebookProtobufHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_PROTOBUF);
+        Assert.isInstanceOf(ProtobufFactory.class, objectMapper.getFactory(), "ProtobufFactory required");
+        // newer clients may send fields this version does not know, and the DTOs may have more fields than the schema
+        this.objectMapper = objectMapper.copy();
+        this.objectMapper.enable(JsonParser.Feature.IGNORE_UNDEFINED);
+        this.objectMapper.enable(JsonGenerator.Feature.IGNORE_UNKNOWN);
+        NativeProtobufSchema schema = loadSchema();
+        this.representations =
+            Map.of(
+                PhonebookEntryDTO.class,
+                new Representation(schema, "PhonebookEntry", "PhonebookEntryList", "phonebookEntries"),
+                PhoneNumberDTO.class,
+                new Representation(schema, "PhoneNumber", "PhoneNumberList", "phoneNumbers")
+            );
+    }
+
+    /**
+     * @return the schema of all messages of the Protobuf representation.
+     */
+    public static NativeProtobufSchema loadSchema() {
+        try (InputStream inputStream = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+            return ProtobufSchemaLoader.std.loadNative(inputStream, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load the Protobuf schema " + SCHEMA_LOCATION, e);
+        }
+    }
+
+    /**
+     * Lists are supported here, as Spring MVC looks up the media types of a response by its raw class;
+     * the types of their elements are checked by {@link #canRead(Type, Class, MediaType)} and
+     * {@link #canWrite(Type, Class, MediaType)}.
+     */
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return representations.containsKey(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return message(getJavaType(type, contextClass)) != null && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return message(getJavaType(type != null ? type : clazz, null)) != null && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType javaType = getJavaType(type, contextClass);
+        Message message = message(javaType);
+        try {
+            // read as tree first, as the Protobuf parser loses its position when the DTO ignores a field, e.g. a read-only one
+            JsonNode node = objectMapper.readerFor(JsonNode.class).with(message.schema).readValue(inputMessage.getBody());
+            if (message.listField != null) {
+                node = node == null || !node.has(message.listField) ? objectMapper.createArrayNode() : node.get(message.listField);
+            } else if (node == null) {
+                node = objectMapper.createObjectNode();
+            }
+            return objectMapper.readerFor(javaType).readValue(node);
+        } catch (IOException e) {
+            String messageName = message.schema.getRootType().getName();
+            throw new HttpMessageNotReadableException("Invalid " + messageName + ": " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message = message(getJavaType(type != null ? type : object.getClass(), null));
+        if (message == null) {
+            throw new HttpMessageNotWritableException("No Protobuf message for " + (type != null ? type : object.getClass()));
+        }
+        outputMessage.getHeaders().set(SCHEMA_HEADER, SCHEMA_LOCATION);
+        outputMessage.getHeaders().set(MESSAGE_HEADER, message.schema.getRootType().getName());
+        Object value = message.listField == null ? object : Collections.singletonMap(message.listField, object);
+        objectMapper.writer(message.schema).writeValue(outputMessage.getBody(), value);
+    }
+
+    private JavaType getJavaType(Type type, Class<?> contextClass) {
+        return objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+    }
+
+    /**
+     * @return the message of a DTO or a list of DTOs, {@code null} if the type is not supported.
+     */
+    private Message message(JavaType javaType) {
+        if (javaType.isCollectionLikeType()) {
+            Representation representation = javaType.getRawClass().isAssignableFrom(List.class)
+                ? representations.get(javaType.getContentType().getRawClass())
+                : null;
+            return representation == null ? null : representation.list;
+        }
+        Representation representation = representations.get(javaType.getRawClass());
+        return representation == null ? null : representation.single;
+    }
+
+    /**
+     * The messages of a DTO.
+     */
+    private static final class Representation {
+
+        private final Message single;
+
+        private final Message list;
+
+        private Representation(NativeProtobufSchema schema, String messageName, String listMessageName, String listField) {
+            this.single = new Message(schema.forType(messageName), null);
+            this.list = new Message(schema.forType(listMessageName), listField);
+        }
+    }
+
+    /**
+     * A message with the field holding the list it wraps, {@code null} for messages of a single DTO.
+     */
+    private static final class Message {
+
+        private final ProtobufSchema schema;
+
+        private final String listField;
+
+        private Message(ProtobufSchema schema, String listField) {
+            this.schema = schema;
+            this.listField = listField;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ch.qfs.phonebook.generator.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -10,6 +11,7 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -40,6 +42,21 @@ public class PhoneNumber implements Serializable {
     @Column(name = "number", nullable = false)
     private String number;
 
+    /**
+     * The canonical form of the number, maintained by {@link ch.qfs.phonebook.generator.repository.PhoneNumberNormalizationListener}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "normalized_number")
+    private String normalizedNumber;
+
+    /**
+     * The version of the number, incremented by every update. The updates of the
+     * {@link ch.qfs.phonebook.generator.service.PhoneNumberService PhoneNumberService} are conditional on it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JsonIgnoreProperties(value = { "phoneNumbers" }, allowSetters = true)
     private PhonebookEntry phonebookEntry;
@@ -72,6 +89,32 @@ public class PhoneNumber implements Serializable {
         this.number = number;
     }
 
+    public String getNormalizedNumber() {
+        return this.normalizedNumber;
+    }
+
+    public PhoneNumber normalizedNumber(String normalizedNumber) {
+        this.setNormalizedNumber(normalizedNumber);
+        return this;
+    }
+
+    public void setNormalizedNumber(String normalizedNumber) {
+        this.normalizedNumber = normalizedNumber;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public PhoneNumber version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public PhonebookEntry getPhonebookEntry() {
         return this.phonebookEntry;
     }
@@ -110,6 +153,8 @@ public class PhoneNumber implements Serializable {
         return "PhoneNumber{" +
             "id=" + getId() +
             ", number='" + getNumber() + "'" +
+            ", normalizedNumber='" + getNormalizedNumber() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
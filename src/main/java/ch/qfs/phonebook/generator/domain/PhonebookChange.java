@@ -0,0 +1,138 @@
+package ch.qfs.phonebook.generator.domain;
+
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A change of a {@link PhonebookEntry} or a {@link PhoneNumber}.
+ * <p>
+ * Changes are written by {@link ch.qfs.phonebook.generator.repository.PhonebookChangeListener}
+ * and are never modified, their id grows with every change.
+ */
+@Entity
+@Immutable
+@Table(name = "phonebook_change")
+public class PhonebookChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private ChangedEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * The phonebook entry whose content is affected by the change, if any.
+     */
+    @Column(name = "phonebook_entry_id")
+    private Long phonebookEntryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_date", nullable = false)
+    private Instant changedDate;
+
+    public PhonebookChange() {}
+
+    public PhonebookChange(ChangedEntityType entityType, Long entityId, Long phonebookEntryId, ChangeOperation operation) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.phonebookEntryId = phonebookEntryId;
+        this.operation = operation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ChangedEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(ChangedEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Long getPhonebookEntryId() {
+        return phonebookEntryId;
+    }
+
+    public void setPhonebookEntryId(Long phonebookEntryId) {
+        this.phonebookEntryId = phonebookEntryId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedDate() {
+        return changedDate;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PhonebookChange)) {
+            return false;
+        }
+        return id != null && id.equals(((PhonebookChange) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookChange{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", entityId=" + getEntityId() +
+            ", phonebookEntryId=" + getPhonebookEntryId() +
+            ", operation='" + getOperation() + "'" +
+            ", changedDate='" + getChangedDate() + "'" +
+            "}";
+    }
+}
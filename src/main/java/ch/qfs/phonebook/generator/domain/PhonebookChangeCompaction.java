@@ -0,0 +1,79 @@
+package ch.qfs.phonebook.generator.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A compaction of the {@link PhonebookChange} log.
+ * <p>
+ * Its id is the id of the last change the compaction deleted, a change token up to a lower id
+ * misses deleted changes.
+ */
+@Entity
+@Immutable
+@Table(name = "phonebook_change_compaction")
+public class PhonebookChangeCompaction implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "compacted_date", nullable = false)
+    private Instant compactedDate;
+
+    public PhonebookChangeCompaction() {}
+
+    public PhonebookChangeCompaction(Long id, Instant compactedDate) {
+        this.id = id;
+        this.compactedDate = compactedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getCompactedDate() {
+        return compactedDate;
+    }
+
+    public void setCompactedDate(Instant compactedDate) {
+        this.compactedDate = compactedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PhonebookChangeCompaction)) {
+            return false;
+        }
+        return id != null && id.equals(((PhonebookChangeCompaction) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookChangeCompaction{" +
+            "id=" + getId() +
+            ", compactedDate='" + getCompactedDate() + "'" +
+            "}";
+    }
+}
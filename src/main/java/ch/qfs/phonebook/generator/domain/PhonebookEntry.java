@@ -1,6 +1,7 @@
 package ch.qfs.phonebook.generator.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,7 +30,23 @@ public class PhonebookEntry implements Serializable {
     @Column(name = "description", nullable = false)
     private String description;
 
+    /**
+     * The id of the entry in the Ivy phonebook it is synchronized from, {@code null} for entries maintained here.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "external_id", unique = true, updatable = false)
+    private String externalId;
+
+    /**
+     * The version of the entry, incremented by every update. The updates of the
+     * {@link ch.qfs.phonebook.generator.service.PhonebookEntryService PhonebookEntryService} are conditional on it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "phonebookEntry")
+    @OrderBy("id")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "phonebookEntry" }, allowSetters = true)
     private Set<PhoneNumber> phoneNumbers = new HashSet<>();
@@ -62,6 +79,32 @@ public class PhonebookEntry implements Serializable {
         this.description = description;
     }
 
+    public String getExternalId() {
+        return this.externalId;
+    }
+
+    public PhonebookEntry externalId(String externalId) {
+        this.setExternalId(externalId);
+        return this;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public PhonebookEntry version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<PhoneNumber> getPhoneNumbers() {
         return this.phoneNumbers;
     }
@@ -118,6 +161,8 @@ public class PhonebookEntry implements Serializable {
         return "PhonebookEntry{" +
             "id=" + getId() +
             ", description='" + getDescription() + "'" +
+            ", externalId='" + getExternalId() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
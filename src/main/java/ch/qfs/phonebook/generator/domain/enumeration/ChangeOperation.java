@@ -0,0 +1,15 @@
+package ch.qfs.phonebook.generator.domain.enumeration;
+
+/**
+ * The ChangeOperation enumeration.
+ */
+public enum ChangeOperation {
+    /**
+     * The entity was created or updated.
+     */
+    UPSERT,
+    /**
+     * The entity was deleted, or a phone number was moved away from the phonebook entry of the change.
+     */
+    DELETE,
+}
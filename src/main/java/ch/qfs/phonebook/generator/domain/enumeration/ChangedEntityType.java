@@ -0,0 +1,9 @@
+package ch.qfs.phonebook.generator.domain.enumeration;
+
+/**
+ * The ChangedEntityType enumeration.
+ */
+public enum ChangedEntityType {
+    PHONEBOOK_ENTRY,
+    PHONE_NUMBER,
+}
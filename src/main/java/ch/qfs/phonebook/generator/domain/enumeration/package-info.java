@@ -0,0 +1,4 @@
+/**
+ * Enumerations used by the domain objects.
+ */
+package ch.qfs.phonebook.generator.domain.enumeration;
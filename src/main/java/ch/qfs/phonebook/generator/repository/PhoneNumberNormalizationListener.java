@@ -0,0 +1,55 @@
+package ch.qfs.phonebook.generator.repository;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.service.PhoneNumberNormalizer;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener storing the {@link PhoneNumber#getNormalizedNumber() canonical form} of every
+ * {@link PhoneNumber} inserted or updated through the Hibernate session.
+ * <p>
+ * The canonical form is computed from the number right before the row is written, so it cannot
+ * get out of sync with the number whichever way the entity was changed. Rows written around the
+ * session are normalized by {@link ch.qfs.phonebook.generator.service.PhoneNumberNormalizationService}.
+ */
+public class PhoneNumberNormalizationListener implements PreInsertEventListener, PreUpdateEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String NORMALIZED_NUMBER_PROPERTY = "normalizedNumber";
+
+    private final transient PhoneNumberNormalizer phoneNumberNormalizer;
+
+    public PhoneNumberNormalizationListener(PhoneNumberNormalizer phoneNumberNormalizer) {
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if (event.getEntity() instanceof PhoneNumber) {
+            normalize((PhoneNumber) event.getEntity(), event.getPersister(), event.getState());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if (event.getEntity() instanceof PhoneNumber) {
+            normalize((PhoneNumber) event.getEntity(), event.getPersister(), event.getState());
+        }
+        return false;
+    }
+
+    /**
+     * Sets the canonical form on the entity and in the state Hibernate is about to write.
+     */
+    private void normalize(PhoneNumber phoneNumber, EntityPersister persister, Object[] state) {
+        String normalizedNumber = phoneNumberNormalizer.normalize(phoneNumber.getNumber());
+        phoneNumber.setNormalizedNumber(normalizedNumber);
+        state[persister.getEntityMetamodel().getPropertyIndex(NORMALIZED_NUMBER_PROPERTY)] = normalizedNumber;
+    }
+}
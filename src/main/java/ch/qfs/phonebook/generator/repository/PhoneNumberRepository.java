@@ -1,7 +1,14 @@
 package ch.qfs.phonebook.generator.repository;
 
 import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,88 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PhoneNumberRepository extends JpaRepository<PhoneNumber, Long> {}
+public interface PhoneNumberRepository extends JpaRepository<PhoneNumber, Long> {
+    /**
+     * A phone number of an entry synchronized from Ivy.
+     */
+    interface SyncedNumber {
+        Long getPhonebookEntryId();
+
+        String getNumber();
+    }
+
+    /**
+     * A phone number together with the description of its entry.
+     */
+    interface PhonebookEntryNumber {
+        Long getPhonebookEntryId();
+
+        String getDescription();
+
+        String getNumber();
+
+        String getNormalizedNumber();
+    }
+
+    /**
+     * A phone number with the canonical form stored with it.
+     */
+    interface StoredNumber {
+        Long getId();
+
+        String getNumber();
+
+        String getNormalizedNumber();
+    }
+
+    /**
+     * A phone number with the id and description of its entry, both {@code null} for numbers without entry.
+     */
+    interface PhoneNumberView {
+        Long getId();
+
+        String getNumber();
+
+        String getNormalizedNumber();
+
+        Long getVersion();
+
+        Long getPhonebookEntryId();
+
+        String getPhonebookEntryDescription();
+    }
+
+    String PHONE_NUMBER_VIEW_SELECT =
+        "select n.id as id, n.number as number, n.normalizedNumber as normalizedNumber, n.version as version, " +
+        "e.id as phonebookEntryId, e.description as phonebookEntryDescription from PhoneNumber n left join n.phonebookEntry e";
+
+    @Query(value = PHONE_NUMBER_VIEW_SELECT, countQuery = "select count(n) from PhoneNumber n")
+    Page<PhoneNumberView> findAllViews(Pageable pageable);
+
+    @Query(PHONE_NUMBER_VIEW_SELECT + " where n.id > :after")
+    Slice<PhoneNumberView> findViewsAfter(@Param("after") long after, Pageable pageable);
+
+    @Query(PHONE_NUMBER_VIEW_SELECT + " where n.id = :id")
+    Optional<PhoneNumberView> findViewById(@Param("id") Long id);
+
+    @Query(PHONE_NUMBER_VIEW_SELECT + " where n.id in :ids")
+    List<PhoneNumberView> findAllViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select n.phonebookEntry.id as phonebookEntryId, n.number as number from PhoneNumber n where n.phonebookEntry.id in :ids")
+    List<SyncedNumber> findAllSyncedNumbersByPhonebookEntryIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select e.id as phonebookEntryId, e.description as description, n.number as number, n.normalizedNumber as normalizedNumber " +
+        "from PhoneNumber n join n.phonebookEntry e"
+    )
+    List<PhonebookEntryNumber> findAllEntryNumbers();
+
+    @Query(
+        "select e.id as phonebookEntryId, e.description as description, n.number as number, n.normalizedNumber as normalizedNumber " +
+        "from PhoneNumber n join n.phonebookEntry e where e.id in :ids"
+    )
+    List<PhonebookEntryNumber> findAllEntryNumbersByPhonebookEntryIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select n.id as id, n.number as number, n.normalizedNumber as normalizedNumber from PhoneNumber n where n.id > :after")
+    Slice<StoredNumber> findStoredNumbersAfter(@Param("after") long after, Pageable pageable);
+}
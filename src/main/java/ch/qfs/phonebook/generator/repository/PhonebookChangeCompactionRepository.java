@@ -0,0 +1,17 @@
+package ch.qfs.phonebook.generator.repository;
+
+import ch.qfs.phonebook.generator.domain.PhonebookChangeCompaction;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the PhonebookChangeCompaction entity.
+ */
+@Repository
+public interface PhonebookChangeCompactionRepository extends JpaRepository<PhonebookChangeCompaction, Long> {
+    /**
+     * @return the id of the last change deleted by a compaction, 0 if none was.
+     */
+    @Query("select coalesce(max(c.id), 0) from PhonebookChangeCompaction c")
+    long findLastCompactedId();
+}
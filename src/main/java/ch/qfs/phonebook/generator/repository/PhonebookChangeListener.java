@@ -0,0 +1,243 @@
+package ch.qfs.phonebook.generator.repository;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener recording every change of a {@link PhonebookEntry} or a {@link PhoneNumber}
+ * in the {@link PhonebookChange} log.
+ * <p>
+ * The changes of a transaction are collected while the session is flushed and inserted with a
+ * single JDBC batch right before the transaction commits, so the log is written atomically with
+ * the changes it describes. They are dated when they are inserted, not when they are flushed.
+ * A phone number moved to another entry is logged as a deletion from the previous entry followed
+ * by an upsert in the new one.
+ * <p>
+ * The entries whose phone numbers changed get their version incremented in the same batch, unless
+ * they were written themselves, so the version of an entry covers the numbers embedded in it.
+ */
+public class PhonebookChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String INSERT_SQL =
+        "insert into phonebook_change (id, entity_type, entity_id, phonebook_entry_id, operation, changed_date) " +
+        "values (next value for phonebook_change_sequence, ?, ?, ?, ?, ?)";
+
+    public static final String INCREMENT_VERSION_SQL = "update phonebook_entry set version = version + 1 where id = ?";
+
+    private static final String PHONEBOOK_ENTRY_PROPERTY = "phonebookEntry";
+
+    private final transient Map<SharedSessionContractImplementor, PendingChanges> pendingChanges = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof PhonebookEntry) {
+            Long id = ((PhonebookEntry) entity).getId();
+            record(event.getSession(), new PhonebookChange(ChangedEntityType.PHONEBOOK_ENTRY, id, id, ChangeOperation.UPSERT));
+        } else if (entity instanceof PhoneNumber) {
+            PhoneNumber phoneNumber = (PhoneNumber) entity;
+            record(
+                event.getSession(),
+                new PhonebookChange(ChangedEntityType.PHONE_NUMBER, phoneNumber.getId(), idOf(phoneNumber.getPhonebookEntry()), ChangeOperation.UPSERT)
+            );
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof PhonebookEntry) {
+            Long id = ((PhonebookEntry) entity).getId();
+            record(event.getSession(), new PhonebookChange(ChangedEntityType.PHONEBOOK_ENTRY, id, id, ChangeOperation.UPSERT));
+        } else if (entity instanceof PhoneNumber) {
+            PhoneNumber phoneNumber = (PhoneNumber) entity;
+            Long entryId = idOf(phoneNumber.getPhonebookEntry());
+            if (event.getOldState() != null) {
+                int index = event.getPersister().getEntityMetamodel().getPropertyIndex(PHONEBOOK_ENTRY_PROPERTY);
+                Long previousEntryId = idOf((PhonebookEntry) event.getOldState()[index]);
+                if (previousEntryId != null && !previousEntryId.equals(entryId)) {
+                    record(
+                        event.getSession(),
+                        new PhonebookChange(ChangedEntityType.PHONE_NUMBER, phoneNumber.getId(), previousEntryId, ChangeOperation.DELETE)
+                    );
+                }
+            }
+            record(event.getSession(), new PhonebookChange(ChangedEntityType.PHONE_NUMBER, phoneNumber.getId(), entryId, ChangeOperation.UPSERT));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof PhonebookEntry) {
+            Long id = (Long) event.getId();
+            record(event.getSession(), new PhonebookChange(ChangedEntityType.PHONEBOOK_ENTRY, id, id, ChangeOperation.DELETE));
+        } else if (entity instanceof PhoneNumber) {
+            int index = event.getPersister().getEntityMetamodel().getPropertyIndex(PHONEBOOK_ENTRY_PROPERTY);
+            Long entryId = idOf((PhonebookEntry) event.getDeletedState()[index]);
+            record(event.getSession(), new PhonebookChange(ChangedEntityType.PHONE_NUMBER, (Long) event.getId(), entryId, ChangeOperation.DELETE));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, PhonebookChange change) {
+        pendingChanges
+            .computeIfAbsent(
+                session,
+                key -> {
+                    PendingChanges pending = new PendingChanges();
+                    session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) pending);
+                    session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) pending);
+                    return pending;
+                }
+            )
+            .changes.add(change);
+    }
+
+    private static Long idOf(PhonebookEntry phonebookEntry) {
+        return phonebookEntry == null ? null : phonebookEntry.getId();
+    }
+
+    /**
+     * Inserts the given changes into the log with a JDBC batch.
+     * <p>
+     * Writers bypassing the Hibernate session, like bulk JDBC statements, use this method to log
+     * their changes on their own connection. Changes without a date are dated now, when their ids
+     * are drawn, as the delta synchronization expects a change to be committed shortly after its
+     * date, however long its transaction has been running.
+     *
+     * @param connection the connection of the transaction making the changes.
+     * @param changes the changes to log.
+     * @throws SQLException if the changes cannot be inserted.
+     */
+    public static void insert(Connection connection, Collection<PhonebookChange> changes) throws SQLException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Instant now = Instant.now();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (PhonebookChange change : changes) {
+                statement.setString(1, change.getEntityType().name());
+                statement.setLong(2, change.getEntityId());
+                if (change.getPhonebookEntryId() == null) {
+                    statement.setNull(3, Types.BIGINT);
+                } else {
+                    statement.setLong(3, change.getPhonebookEntryId());
+                }
+                statement.setString(4, change.getOperation().name());
+                statement.setTimestamp(5, Timestamp.from(Objects.requireNonNullElse(change.getChangedDate(), now)), utc);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Increments the versions of the given entries with a JDBC batch.
+     * <p>
+     * Writers bypassing the Hibernate session use this method for the entries whose phone numbers
+     * they change, and evict these entries from the second-level cache.
+     *
+     * @param connection the connection of the transaction making the changes.
+     * @param phonebookEntryIds the ids of the entries, in ascending order so concurrent writers lock them alike.
+     * @throws SQLException if the versions cannot be incremented.
+     */
+    public static void incrementVersions(Connection connection, Collection<Long> phonebookEntryIds) throws SQLException {
+        if (phonebookEntryIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INCREMENT_VERSION_SQL)) {
+            for (Long phonebookEntryId : phonebookEntryIds) {
+                statement.setLong(1, phonebookEntryId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private final class PendingChanges implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final List<PhonebookChange> changes = new ArrayList<>();
+
+        private Set<Long> versionedEntryIds = Set.of();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            pendingChanges.remove(session);
+            versionedEntryIds = entriesOfChangedNumbers();
+            session.doWork(connection -> {
+                insert(connection, changes);
+                incrementVersions(connection, versionedEntryIds);
+            });
+        }
+
+        /**
+         * Evicts the entries whose versions were incremented from the second-level cache, which
+         * still holds their previous versions. Hibernate caches none of them after the transaction,
+         * as it did not write them.
+         */
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pendingChanges.remove(session);
+            for (Long phonebookEntryId : versionedEntryIds) {
+                session.getFactory().getCache().evictEntityData(PhonebookEntry.class, phonebookEntryId);
+            }
+        }
+
+        /**
+         * @return the ids of the entries whose phone numbers changed and which were not written themselves,
+         * whose versions Hibernate incremented already.
+         */
+        private Set<Long> entriesOfChangedNumbers() {
+            Set<Long> writtenEntryIds = new TreeSet<>();
+            Set<Long> phonebookEntryIds = new TreeSet<>();
+            for (PhonebookChange change : changes) {
+                if (change.getEntityType() == ChangedEntityType.PHONEBOOK_ENTRY) {
+                    writtenEntryIds.add(change.getEntityId());
+                } else if (change.getPhonebookEntryId() != null) {
+                    phonebookEntryIds.add(change.getPhonebookEntryId());
+                }
+            }
+            phonebookEntryIds.removeAll(writtenEntryIds);
+            return phonebookEntryIds;
+        }
+    }
+}
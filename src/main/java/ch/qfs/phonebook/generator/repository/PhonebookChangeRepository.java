@@ -0,0 +1,38 @@
+package ch.qfs.phonebook.generator.repository;
+
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the PhonebookChange entity.
+ */
+@Repository
+public interface PhonebookChangeRepository extends JpaRepository<PhonebookChange, Long> {
+    @Query("select coalesce(max(c.id), 0) from PhonebookChange c")
+    long findLastId();
+
+    List<PhonebookChange> findAllByIdGreaterThanOrderById(long id);
+
+    List<PhonebookChange> findAllByIdGreaterThanOrderById(long id, Pageable pageable);
+
+    /**
+     * @return the id of the first change logged at or after the given time, {@code null} if there is none.
+     */
+    @Query("select min(c.id) from PhonebookChange c where c.changedDate >= :since")
+    Long findFirstIdChangedSince(@Param("since") Instant since);
+
+    /**
+     * @return the id of the last change logged before the given time, {@code null} if there is none.
+     */
+    @Query("select max(c.id) from PhonebookChange c where c.changedDate < :before")
+    Long findLastIdChangedBefore(@Param("before") Instant before);
+
+    @Modifying
+    @Query("delete from PhonebookChange c where c.changedDate < :before")
+    int deleteAllChangedBefore(@Param("before") Instant before);
+}
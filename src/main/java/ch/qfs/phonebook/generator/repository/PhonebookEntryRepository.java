@@ -1,12 +1,124 @@
 package ch.qfs.phonebook.generator.repository;
 
 import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the PhonebookEntry entity.
+ * <p>
+ * Pages of entries with their phone numbers are read in two phases: the ids of a page first,
+ * then the rows of these entries joined with their phone numbers. Paginating a query that joins a
+ * collection would otherwise be done in memory by Hibernate.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PhonebookEntryRepository extends JpaRepository<PhonebookEntry, Long> {}
+public interface PhonebookEntryRepository extends JpaRepository<PhonebookEntry, Long> {
+    /**
+     * The state of an entry synchronized from Ivy, without its phone numbers.
+     */
+    interface SyncedEntry {
+        Long getId();
+
+        String getExternalId();
+
+        String getDescription();
+    }
+
+    /**
+     * The description of an entry, without its phone numbers.
+     */
+    interface DescribedEntry {
+        Long getId();
+
+        String getDescription();
+    }
+
+    /**
+     * An entry with one of its phone numbers, the phone number being {@code null} for entries without any.
+     */
+    interface ExportedEntryNumber {
+        Long getId();
+
+        String getDescription();
+
+        String getExternalId();
+
+        Long getVersion();
+
+        Long getPhoneNumberId();
+
+        String getNumber();
+
+        String getNormalizedNumber();
+
+        Long getPhoneNumberVersion();
+    }
+
+    /**
+     * The number of rows fetched per round trip when streaming.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    @Query("select e.id as id, e.description as description from PhonebookEntry e")
+    List<DescribedEntry> findAllDescribed();
+
+    /**
+     * Streams all entries with their phone numbers, one row per phone number, ordered by entry and
+     * phone number id. The rows are read from a forward-only cursor as they are consumed; the stream
+     * must be closed within the transaction it was opened in.
+     *
+     * @return the rows.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(
+        "select e.id as id, e.description as description, e.externalId as externalId, e.version as version, " +
+        "n.id as phoneNumberId, n.number as number, n.normalizedNumber as normalizedNumber, n.version as phoneNumberVersion " +
+        "from PhonebookEntry e left join e.phoneNumbers n order by e.id, n.id"
+    )
+    Stream<ExportedEntryNumber> streamAllEntryNumbers();
+
+    @Query(
+        "select e.id as id, e.description as description, e.externalId as externalId, e.version as version, " +
+        "n.id as phoneNumberId, n.number as number, n.normalizedNumber as normalizedNumber, n.version as phoneNumberVersion " +
+        "from PhonebookEntry e left join e.phoneNumbers n where e.id in :ids order by e.id, n.id"
+    )
+    List<ExportedEntryNumber> findAllEntryNumbersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.id as id, e.description as description from PhonebookEntry e where e.id in :ids")
+    List<DescribedEntry> findAllDescribedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select e.id as id, e.externalId as externalId, e.description as description from PhonebookEntry e " +
+        "where e.externalId in :externalIds"
+    )
+    List<SyncedEntry> findAllSyncedByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
+    @Query(
+        "select e.id as id, e.externalId as externalId, e.description as description from PhonebookEntry e " +
+        "where e.externalId is not null and e.id > :after order by e.id"
+    )
+    List<SyncedEntry> findAllSyncedAfter(@Param("after") long after, Pageable pageable);
+
+    @Query(value = "select e.id from PhonebookEntry e", countQuery = "select count(e) from PhonebookEntry e")
+    Page<Long> findIds(Pageable pageable);
+
+    @Query("select e.id from PhonebookEntry e where e.id > :after")
+    Slice<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = "phoneNumbers")
+    @Query("select distinct e from PhonebookEntry e where e.id in :ids order by e.id")
+    List<PhonebookEntry> findAllWithPhoneNumbersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "phoneNumbers")
+    Optional<PhonebookEntry> findOneWithPhoneNumbersById(Long id);
+}
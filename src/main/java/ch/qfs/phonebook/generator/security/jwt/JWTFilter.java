@@ -1,11 +1,15 @@
 package ch.qfs.phonebook.generator.security.jwt;
 
 import java.io.IOException;
+import java.util.Objects;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
@@ -13,12 +17,18 @@ import org.springframework.web.filter.GenericFilterBean;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
- * found.
+ * found. The phonebook event stream, which browsers cannot request with headers, may pass the token as
+ * {@code access_token} parameter instead. The parameter is ignored on any other request, so a token in a URL
+ * only ever authenticates that stream.
  */
 public class JWTFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
+    public static final String AUTHORIZATION_TOKEN = "access_token";
+
+    public static final String EVENT_STREAM_PATH = "/api/phonebook/events";
+
     private final TokenProvider tokenProvider;
 
     public JWTFilter(TokenProvider tokenProvider) {
@@ -42,6 +52,20 @@ public class JWTFilter extends GenericFilterBean {
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        if (isEventStreamRequest(request)) {
+            return request.getParameter(AUTHORIZATION_TOKEN);
+        }
         return null;
     }
+
+    private static boolean isEventStreamRequest(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String contextPath = Objects.requireNonNullElse(request.getContextPath(), "");
+        return (
+            HttpMethod.GET.matches(request.getMethod()) &&
+            accept != null &&
+            accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE) &&
+            (contextPath + EVENT_STREAM_PATH).equals(request.getRequestURI())
+        );
+    }
 }
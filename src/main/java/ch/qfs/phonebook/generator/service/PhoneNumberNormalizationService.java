@@ -0,0 +1,141 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository.StoredNumber;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service filling in the canonical form of the {@link PhoneNumber phone numbers} stored without
+ * one, like the rows older than the column or loaded around Hibernate, and replacing the canonical
+ * forms stored with previous settings, like another country or area code.
+ * <p>
+ * All numbers are read in id order, one transaction per
+ * {@code application.normalization.backfill.batch-size} numbers, and the ones whose stored canonical
+ * form differs are updated with a JDBC batch. A row is only updated if its number did not change
+ * meanwhile. The backfill is not recorded in the phonebook change log, as the
+ * canonical form follows from the number and readers normalize missing ones on their own. As the
+ * rows are updated around Hibernate, the phone numbers are evicted from the second-level cache and
+ * a {@link PhonebookReloadedEvent} is published afterwards.
+ */
+@Service
+public class PhoneNumberNormalizationService {
+
+    static final String UPDATE_SQL = "update phone_number set normalized_number = ? where id = ? and number = ?";
+
+    private final Logger log = LoggerFactory.getLogger(PhoneNumberNormalizationService.class);
+
+    private final ApplicationProperties.Backfill backfill;
+
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PhoneNumberNormalizationService(
+        ApplicationProperties applicationProperties,
+        PhoneNumberNormalizer phoneNumberNormalizer,
+        PhoneNumberRepository phoneNumberRepository,
+        EntityManager entityManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.backfill = applicationProperties.getNormalization().getBackfill();
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.entityManager = entityManager;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fills in the missing or outdated canonical forms when {@code application.normalization.backfill.enabled} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfill.isEnabled()) {
+            backfill();
+        }
+    }
+
+    /**
+     * Stores the canonical form of every phone number stored without one or with another one, as
+     * after a change of the normalization settings. Numbers without digits have no canonical form.
+     * <p>
+     * Must not be called within a transaction, as every batch is committed on its own.
+     *
+     * @return the number of updated phone numbers.
+     */
+    public long backfill() {
+        PageRequest pageRequest = PageRequest.of(0, Math.max(1, backfill.getBatchSize()), Sort.by("id"));
+        long[] updated = { 0 };
+        long after = 0;
+        Slice<StoredNumber> batch;
+        do {
+            long lastId = after;
+            batch =
+                transactionTemplate.execute(status -> {
+                    Slice<StoredNumber> numbers = phoneNumberRepository.findStoredNumbersAfter(lastId, pageRequest);
+                    updated[0] += update(numbers.getContent());
+                    return numbers;
+                });
+            if (batch.hasContent()) {
+                after = batch.getContent().get(batch.getNumberOfElements() - 1).getId();
+            }
+        } while (batch.hasNext());
+        if (updated[0] > 0) {
+            entityManager.getEntityManagerFactory().getCache().evict(PhoneNumber.class);
+            log.info("Normalized {} phone numbers", updated[0]);
+            applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("phone number normalization", updated[0]));
+        }
+        return updated[0];
+    }
+
+    private int update(List<StoredNumber> numbers) {
+        return numbers.isEmpty() ? 0 : entityManager.unwrap(Session.class).doReturningWork(connection -> update(connection, numbers));
+    }
+
+    private int update(Connection connection, List<StoredNumber> numbers) throws SQLException {
+        int updated = 0;
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            for (StoredNumber number : numbers) {
+                String normalizedNumber = phoneNumberNormalizer.normalize(number.getNumber());
+                if (!Objects.equals(normalizedNumber, number.getNormalizedNumber())) {
+                    statement.setString(1, normalizedNumber);
+                    statement.setLong(2, number.getId());
+                    statement.setString(3, number.getNumber());
+                    statement.addBatch();
+                }
+            }
+            // drivers rewriting the batch into one statement, like MariaDB's, do not report the rows per number
+            for (int count : statement.executeBatch()) {
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,91 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts phone numbers as typed by people or sent by the PBX into a canonical, E.164-like form,
+ * so that numbers written differently compare equal.
+ * <p>
+ * Separators like spaces, dashes, dots, slashes and parentheses are removed, the international
+ * prefix {@code 00} is written as {@code +} and a trunk prefix written as {@code (0)} after the
+ * country code is dropped. National numbers starting with the trunk prefix {@code 0} get the
+ * configured country code, local numbers the configured country and area code. Numbers of at most
+ * {@code application.normalization.max-extension-length} digits are internal extensions and only
+ * have their separators removed.
+ */
+@Component
+public class PhoneNumberNormalizer {
+
+    private static final String TRUNK_PREFIX = "(0)";
+
+    private final String countryCode;
+
+    private final String areaCode;
+
+    private final int maxExtensionLength;
+
+    @Autowired
+    public PhoneNumberNormalizer(ApplicationProperties applicationProperties) {
+        this(
+            applicationProperties.getNormalization().getCountryCode(),
+            applicationProperties.getNormalization().getAreaCode(),
+            applicationProperties.getNormalization().getMaxExtensionLength()
+        );
+    }
+
+    /**
+     * @param countryCode the country code of national numbers, without {@code +}.
+     * @param areaCode the area code of local numbers without trunk prefix, empty to keep local numbers as they are.
+     * @param maxExtensionLength the maximal number of digits of internal extensions.
+     */
+    public PhoneNumberNormalizer(String countryCode, String areaCode, int maxExtensionLength) {
+        this.countryCode = digitsOf(countryCode);
+        this.areaCode = digitsOf(areaCode);
+        this.maxExtensionLength = maxExtensionLength;
+    }
+
+    /**
+     * @param number the number to normalize, may be {@code null}.
+     * @return the canonical form of the number, or {@code null} if it has no digits.
+     */
+    public String normalize(String number) {
+        if (number == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(number.length());
+        boolean international = false;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '+' && digits.length() == 0) {
+                international = true;
+            } else if (c == '(' && digits.length() > 0 && number.startsWith(TRUNK_PREFIX, i)) {
+                i += TRUNK_PREFIX.length() - 1;
+            }
+        }
+        if (digits.length() == 0) {
+            return null;
+        }
+        if (!international && digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            digits.delete(0, 2);
+            international = true;
+        }
+        if (international) {
+            return "+" + digits;
+        }
+        if (digits.length() <= maxExtensionLength || countryCode.isEmpty()) {
+            return digits.toString();
+        }
+        if (digits.charAt(0) == '0') {
+            return "+" + countryCode + digits.substring(1);
+        }
+        return areaCode.isEmpty() ? digits.toString() : "+" + countryCode + areaCode + digits;
+    }
+
+    private static String digitsOf(String code) {
+        return code == null ? "" : code.replaceAll("\\D", "");
+    }
+}
@@ -0,0 +1,359 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeListener;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.mapper.PhoneNumberMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service Implementation for managing {@link PhoneNumber}.
+ * <p>
+ * Phone numbers are read as projections joined with the id and description of their entry in
+ * read-only transactions, so no entity is loaded into the persistence context on a read.
+ * <p>
+ * A number is updated with a single conditional {@code UPDATE} after a single locked read of its
+ * row, which tells the entry it is moved out of, without loading the entity. Its canonical form is
+ * computed here, as the statement bypasses the session and its listeners. The update is logged in
+ * the phonebook change log on the same connection, a number moved to another entry as a deletion
+ * from the previous entry first, and the versions of the entries of the number are incremented. An
+ * update that would not change the number is skipped.
+ */
+@Service
+@Transactional
+public class PhoneNumberService {
+
+    static final String CURRENT_SQL =
+        "select number, normalized_number, phonebook_entry_id, version from phone_number where id = ? for update";
+
+    static final String UPDATE_SQL =
+        "update phone_number set number = ?, normalized_number = ?, phonebook_entry_id = ?, version = version + 1 " +
+        "where id = ? and version = ?";
+
+    private static final String PHONE_NUMBERS_ROLE = PhonebookEntry.class.getName() + ".phoneNumbers";
+
+    private final Logger log = LoggerFactory.getLogger(PhoneNumberService.class);
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhoneNumberMapper phoneNumberMapper;
+
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+
+    private final EntityManager entityManager;
+
+    public PhoneNumberService(
+        PhoneNumberRepository phoneNumberRepository,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhoneNumberMapper phoneNumberMapper,
+        PhoneNumberNormalizer phoneNumberNormalizer,
+        EntityManager entityManager
+    ) {
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phoneNumberMapper = phoneNumberMapper;
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Save a new phoneNumber.
+     *
+     * @param phoneNumberDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public PhoneNumberDTO save(PhoneNumberDTO phoneNumberDTO) {
+        log.debug("Request to save PhoneNumber : {}", phoneNumberDTO);
+        PhoneNumber phoneNumber = phoneNumberMapper.toEntity(phoneNumberDTO);
+        phoneNumber.setPhonebookEntry(phonebookEntryOf(phoneNumberDTO.getPhonebookEntry()));
+        phoneNumber = phoneNumberRepository.save(phoneNumber);
+        return phoneNumberMapper.toDto(phoneNumber);
+    }
+
+    /**
+     * Update a phoneNumber, including the entry it belongs to.
+     *
+     * @param phoneNumberDTO the entity to update, only if it still has the version of the DTO, if any.
+     * @return the given entity with its new version, empty if there is no such entity.
+     * @throws ObjectOptimisticLockingFailureException if the entity has another version.
+     */
+    public Optional<PhoneNumberDTO> update(PhoneNumberDTO phoneNumberDTO) {
+        log.debug("Request to update PhoneNumber : {}", phoneNumberDTO);
+        return update(phoneNumberDTO, true);
+    }
+
+    /**
+     * Partially update a phoneNumber. The number is the only field to update, the entry is kept.
+     *
+     * @param phoneNumberDTO the entity to update partially, only if it still has the version of the DTO, if any.
+     * @return the given entity with its number, entry and new version, empty if there is no such entity.
+     * @throws ObjectOptimisticLockingFailureException if the entity has another version.
+     */
+    public Optional<PhoneNumberDTO> partialUpdate(PhoneNumberDTO phoneNumberDTO) {
+        log.debug("Request to partially update PhoneNumber : {}", phoneNumberDTO);
+        return update(phoneNumberDTO, false);
+    }
+
+    /**
+     * Get a page of the phoneNumbers.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<PhoneNumberDTO> findAll(Pageable pageable) {
+        log.debug("Request to get all PhoneNumbers");
+        return phoneNumberRepository.findAllViews(pageable).map(phoneNumberMapper::toDto);
+    }
+
+    /**
+     * Get the phoneNumbers following the given id.
+     *
+     * @param after the id after which the slice starts.
+     * @param pageable the pagination information, sorted by id.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PhoneNumberDTO> findAllAfter(long after, Pageable pageable) {
+        log.debug("Request to get the PhoneNumbers after : {}", after);
+        return phoneNumberRepository.findViewsAfter(after, pageable).map(phoneNumberMapper::toDto);
+    }
+
+    /**
+     * Get one phoneNumber by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PhoneNumberDTO> findOne(Long id) {
+        log.debug("Request to get PhoneNumber : {}", id);
+        return phoneNumberRepository.findViewById(id).map(phoneNumberMapper::toDto);
+    }
+
+    /**
+     * Delete the phoneNumber by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete PhoneNumber : {}", id);
+        phoneNumberRepository.deleteById(id);
+    }
+
+    /**
+     * Updates the number, unless it is {@code null}, and the entry if requested, and increments the
+     * version, unless nothing changes. The result is built from the given DTO and the locked row.
+     */
+    private Optional<PhoneNumberDTO> update(PhoneNumberDTO phoneNumberDTO, boolean withPhonebookEntry) {
+        Long id = phoneNumberDTO.getId();
+        Optional<CurrentNumber> current = entityManager
+            .unwrap(Session.class)
+            .doReturningWork(connection -> Optional.ofNullable(current(connection, id)));
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        CurrentNumber previous = current.get();
+        if (phoneNumberDTO.getVersion() != null && phoneNumberDTO.getVersion() != previous.version) {
+            throw new ObjectOptimisticLockingFailureException(PhoneNumber.class, id);
+        }
+        String number = phoneNumberDTO.getNumber() != null ? phoneNumberDTO.getNumber() : previous.number;
+        Long phonebookEntryId = withPhonebookEntry ? idOf(phoneNumberDTO.getPhonebookEntry()) : previous.phonebookEntryId;
+        long version = previous.version;
+        String normalizedNumber = previous.normalizedNumber;
+        if (!Objects.equals(number, previous.number) || !Objects.equals(phonebookEntryId, previous.phonebookEntryId)) {
+            String normalized = Objects.equals(number, previous.number)
+                ? previous.normalizedNumber
+                : phoneNumberNormalizer.normalize(number);
+            entityManager
+                .unwrap(Session.class)
+                .doWork(connection -> update(connection, id, number, normalized, phonebookEntryId, previous));
+            refreshIfLoaded(id);
+            evictAfterCompletion(id, phonebookEntryId, previous.phonebookEntryId);
+            version++;
+            normalizedNumber = normalized;
+        }
+        phoneNumberDTO.setNumber(number);
+        phoneNumberDTO.setNormalizedNumber(normalizedNumber);
+        phoneNumberDTO.setVersion(version);
+        phoneNumberDTO.setPhonebookEntry(phonebookEntryDTO(phonebookEntryId, phoneNumberDTO.getPhonebookEntry()));
+        return Optional.of(phoneNumberDTO);
+    }
+
+    /**
+     * @return the number, entry and version of the row of the number, locked for the update, {@code null} if there is no such row.
+     */
+    private static CurrentNumber current(Connection connection, Long id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CURRENT_SQL)) {
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return new CurrentNumber(
+                    resultSet.getString(1),
+                    resultSet.getString(2),
+                    resultSet.getObject(3, Long.class),
+                    resultSet.getLong(4)
+                );
+            }
+        }
+    }
+
+    /**
+     * Updates the locked row, logs the change, a move as a deletion from the previous entry first, and
+     * increments the versions of the entries of the number.
+     */
+    private static void update(
+        Connection connection,
+        Long id,
+        String number,
+        String normalizedNumber,
+        Long phonebookEntryId,
+        CurrentNumber previous
+    ) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            int index = 0;
+            statement.setString(++index, number);
+            statement.setString(++index, normalizedNumber);
+            statement.setObject(++index, phonebookEntryId, Types.BIGINT);
+            statement.setLong(++index, id);
+            statement.setLong(++index, previous.version);
+            if (statement.executeUpdate() == 0) {
+                throw new ObjectOptimisticLockingFailureException(PhoneNumber.class, id);
+            }
+        }
+        List<PhonebookChange> changes = new ArrayList<>();
+        Set<Long> phonebookEntryIds = new TreeSet<>();
+        if (previous.phonebookEntryId != null && !previous.phonebookEntryId.equals(phonebookEntryId)) {
+            changes.add(new PhonebookChange(ChangedEntityType.PHONE_NUMBER, id, previous.phonebookEntryId, ChangeOperation.DELETE));
+            phonebookEntryIds.add(previous.phonebookEntryId);
+        }
+        changes.add(new PhonebookChange(ChangedEntityType.PHONE_NUMBER, id, phonebookEntryId, ChangeOperation.UPSERT));
+        if (phonebookEntryId != null) {
+            phonebookEntryIds.add(phonebookEntryId);
+        }
+        PhonebookChangeListener.insert(connection, changes);
+        PhonebookChangeListener.incrementVersions(connection, phonebookEntryIds);
+    }
+
+    /**
+     * Refreshes the number if it is loaded in the persistence context, which the update bypassed.
+     */
+    private void refreshIfLoaded(Long id) {
+        PhoneNumber reference = entityManager.getReference(PhoneNumber.class, id);
+        if (Hibernate.isInitialized(reference)) {
+            entityManager.refresh(reference);
+        }
+    }
+
+    /**
+     * Evicts the number from the second-level cache now and once the transaction is completed, as
+     * a concurrent reader may cache its previous state meanwhile. The entry of the number and its
+     * cached phone numbers are evicted too, and those of the entry it belonged to before.
+     */
+    private void evictAfterCompletion(Long id, Long phonebookEntryId, Long previousEntryId) {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        Runnable evict = () -> {
+            sessionFactory.getCache().evictEntityData(PhoneNumber.class, id);
+            for (Long entryId : new Long[] { phonebookEntryId, previousEntryId }) {
+                if (entryId != null) {
+                    sessionFactory.getCache().evictEntityData(PhonebookEntry.class, entryId);
+                    sessionFactory.getCache().evictCollectionData(PHONE_NUMBERS_ROLE, entryId);
+                }
+            }
+        };
+        evict.run();
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            }
+        );
+    }
+
+    private static Long idOf(PhonebookEntryDTO phonebookEntryDTO) {
+        return phonebookEntryDTO == null ? null : phonebookEntryDTO.getId();
+    }
+
+    /**
+     * @return the given DTO if it has the given id, a DTO of the id only otherwise.
+     */
+    private static PhonebookEntryDTO phonebookEntryDTO(Long id, PhonebookEntryDTO phonebookEntryDTO) {
+        if (id == null) {
+            return null;
+        }
+        if (phonebookEntryDTO != null && id.equals(phonebookEntryDTO.getId())) {
+            return phonebookEntryDTO;
+        }
+        PhonebookEntryDTO result = new PhonebookEntryDTO();
+        result.setId(id);
+        return result;
+    }
+
+    /**
+     * @return a reference to the entry with the id of the given DTO, which is not loaded.
+     */
+    private PhonebookEntry phonebookEntryOf(PhonebookEntryDTO phonebookEntryDTO) {
+        if (phonebookEntryDTO == null || phonebookEntryDTO.getId() == null) {
+            return null;
+        }
+        return phonebookEntryRepository.getById(phonebookEntryDTO.getId());
+    }
+
+    /**
+     * The number, entry and version of a locked row of a number.
+     */
+    private static final class CurrentNumber {
+
+        private final String number;
+
+        private final String normalizedNumber;
+
+        private final Long phonebookEntryId;
+
+        private final long version;
+
+        CurrentNumber(String number, String normalizedNumber, Long phonebookEntryId, long version) {
+            this.number = number;
+            this.normalizedNumber = normalizedNumber;
+            this.phonebookEntryId = phonebookEntryId;
+            this.version = version;
+        }
+    }
+}
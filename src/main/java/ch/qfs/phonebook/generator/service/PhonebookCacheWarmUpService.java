@@ -0,0 +1,187 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.config.LiquibaseMigrationExecutor;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service loading the phonebook into the {@link PhonebookEntry}, {@code PhonebookEntry.phoneNumbers}
+ * and {@link PhoneNumber} regions of the second-level cache, so that the first requests after a
+ * start or a bulk change do not all go to the database.
+ * <p>
+ * The warm-up runs on the {@code ApplicationReadyEvent}, before the readiness state changes to
+ * {@code ACCEPTING_TRAFFIC}, or once the Liquibase migration is done if it still runs asynchronously,
+ * so no table is read while it is migrated. It runs again in the background on a
+ * {@link PhonebookReloadedEvent}, after the transaction publishing it, if any, committed: for the
+ * changed entries only if the event has their ids, or for all of them if there were more than
+ * {@code application.cache.warm-up.max-changed-entries}.
+ * The entries are read in id order, {@code application.cache.warm-up.batch-size} entries with their
+ * phone numbers per statement and read-only transaction, so the persistence context never holds more
+ * than one batch. Cached entries are replaced rather than read, so stale ones are refreshed as well.
+ */
+@Service
+public class PhonebookCacheWarmUpService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookCacheWarmUpService.class);
+
+    private final ApplicationProperties.WarmUp warmUp;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final LiquibaseMigrationExecutor liquibaseMigrationExecutor;
+
+    public PhonebookCacheWarmUpService(
+        ApplicationProperties applicationProperties,
+        PhonebookEntryRepository phonebookEntryRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        LiquibaseMigrationExecutor liquibaseMigrationExecutor
+    ) {
+        this.warmUp = applicationProperties.getCache().getWarmUp();
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.liquibaseMigrationExecutor = liquibaseMigrationExecutor;
+    }
+
+    /**
+     * Warms the cache up once the database is migrated when {@code application.cache.warm-up.enabled} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (warmUp.isEnabled()) {
+            liquibaseMigrationExecutor.whenMigrated().thenRun(() -> warmUpQuietly(this::warmUp));
+        }
+    }
+
+    /**
+     * Warms the cache up again after a bulk change when {@code application.cache.warm-up.enabled} is set.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void warmUpAfterReload(PhonebookReloadedEvent event) {
+        if (warmUp.isEnabled()) {
+            log.debug("Warming up the second-level cache after {}", event);
+            Set<Long> ids = event.getPhonebookEntryIds();
+            if (ids != null && ids.size() <= warmUp.getMaxChangedEntries()) {
+                warmUpQuietly(() -> warmUp(ids));
+            } else {
+                warmUpQuietly(this::warmUp);
+            }
+        }
+    }
+
+    /**
+     * Loads all phonebook entries with their phone numbers into the second-level cache.
+     * <p>
+     * Must not be called within a transaction, as every batch is read in a transaction of its own.
+     *
+     * @return the number of loaded entries, {@code 0} if the second-level cache is disabled.
+     */
+    public synchronized long warmUp() {
+        if (!isSecondLevelCacheEnabled()) {
+            log.debug("Second-level cache disabled, no warm-up");
+            return 0;
+        }
+        long start = System.nanoTime();
+        PageRequest pageRequest = PageRequest.of(0, Math.max(1, warmUp.getBatchSize()), Sort.by("id"));
+        long loaded = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            long lastId = after;
+            ids =
+                readOnlyTransaction.execute(status -> {
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+                    List<Long> batch = phonebookEntryRepository.findIdsAfter(lastId, pageRequest).getContent();
+                    if (!batch.isEmpty()) {
+                        phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(batch);
+                    }
+                    return batch;
+                });
+            if (!ids.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+                loaded += ids.size();
+            }
+        } while (ids.size() == pageRequest.getPageSize());
+        log.info("Second-level cache warmed up with {} phonebook entries in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /**
+     * Loads the given phonebook entries with their phone numbers into the second-level cache.
+     * <p>
+     * Must not be called within a transaction, as every batch is read in a transaction of its own.
+     *
+     * @param ids the ids of the entries, missing entries are skipped.
+     * @return the number of loaded entries, {@code 0} if the second-level cache is disabled.
+     */
+    public synchronized long warmUp(Collection<Long> ids) {
+        if (!isSecondLevelCacheEnabled()) {
+            log.debug("Second-level cache disabled, no warm-up");
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+        int batchSize = Math.max(1, warmUp.getBatchSize());
+        long loaded = 0;
+        for (int from = 0; from < sorted.size(); from += batchSize) {
+            List<Long> batch = sorted.subList(from, Math.min(from + batchSize, sorted.size()));
+            loaded +=
+                readOnlyTransaction.execute(status -> {
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+                    return phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(batch).size();
+                });
+        }
+        log.info(
+            "Second-level cache warmed up with {} changed phonebook entries in {} ms",
+            loaded,
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return loaded;
+    }
+
+    private void warmUpQuietly(LongSupplier task) {
+        try {
+            task.getAsLong();
+        } catch (RuntimeException e) {
+            log.warn("Could not warm up the second-level cache, it fills up on demand: {}", e.toString());
+        }
+    }
+
+    private boolean isSecondLevelCacheEnabled() {
+        return entityManager
+            .getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getSessionFactoryOptions()
+            .isSecondLevelCacheEnabled();
+    }
+}
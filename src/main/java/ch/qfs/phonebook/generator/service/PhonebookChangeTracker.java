@@ -0,0 +1,122 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Follows the {@link PhonebookChange} log on behalf of one consumer keeping derived state, like the
+ * generated files or an index, up to date with the phonebook entries.
+ * <p>
+ * Change ids are drawn from a sequence before the transaction commits, so a change can become
+ * visible after changes with a higher id. Ids this close to the highest seen id are looked at again,
+ * and the changes already seen among them are remembered. The log is read in pages of
+ * {@link #PAGE_SIZE} changes. Instances are not thread-safe.
+ */
+public class PhonebookChangeTracker {
+
+    static final long CHANGE_WINDOW = 1000;
+
+    static final int PAGE_SIZE = 1000;
+
+    private final PhonebookChangeRepository phonebookChangeRepository;
+
+    /**
+     * The change ids already seen within the last {@link #CHANGE_WINDOW} ids, {@code null} before {@link #start()}.
+     */
+    private NavigableSet<Long> seenChangeIds;
+
+    public PhonebookChangeTracker(PhonebookChangeRepository phonebookChangeRepository) {
+        this.phonebookChangeRepository = phonebookChangeRepository;
+    }
+
+    /**
+     * @return whether {@link #start()} was called.
+     */
+    public boolean isStarted() {
+        return seenChangeIds != null;
+    }
+
+    /**
+     * Marks all changes logged so far as seen, to be called right before the consumer reads the
+     * whole phonebook.
+     *
+     * @return the id of the last change seen.
+     */
+    public long start() {
+        seenChangeIds = new TreeSet<>();
+        long lastId = phonebookChangeRepository.findLastId();
+        readAfter(Math.max(0, lastId - CHANGE_WINDOW), change -> {});
+        return lastId;
+    }
+
+    /**
+     * @return the ids of the phonebook entries affected by the changes logged since the previous call.
+     * @throws IllegalStateException if the tracker was not started.
+     */
+    public Set<Long> pollChangedEntryIds() {
+        Set<Long> changedIds = new TreeSet<>();
+        poll(change -> {
+            if (change.getPhonebookEntryId() != null) {
+                changedIds.add(change.getPhonebookEntryId());
+            }
+        });
+        return changedIds;
+    }
+
+    /**
+     * @return the changes logged since the previous call, ordered by id.
+     * @throws IllegalStateException if the tracker was not started.
+     */
+    public List<PhonebookChange> pollChanges() {
+        List<PhonebookChange> changes = new ArrayList<>();
+        poll(changes::add);
+        return changes;
+    }
+
+    private void poll(Consumer<PhonebookChange> newChanges) {
+        if (seenChangeIds == null) {
+            throw new IllegalStateException("The phonebook change tracker is not started");
+        }
+        readAfter(seenChangeIds.isEmpty() ? 0 : Math.max(0, seenChangeIds.last() - CHANGE_WINDOW), newChanges);
+    }
+
+    /**
+     * Reads the changes after the given id page by page and hands the ones not seen before to the consumer, in id order.
+     */
+    private void readAfter(long after, Consumer<PhonebookChange> newChanges) {
+        List<PhonebookChange> page;
+        long from = after;
+        do {
+            page = phonebookChangeRepository.findAllByIdGreaterThanOrderById(from, PageRequest.of(0, PAGE_SIZE));
+            markSeen(page).forEach(newChanges);
+            if (!page.isEmpty()) {
+                from = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    /**
+     * Remembers the given changes and drops the ids that left the window of possibly late commits.
+     *
+     * @return the changes not seen before.
+     */
+    private List<PhonebookChange> markSeen(List<PhonebookChange> changes) {
+        List<PhonebookChange> newChanges = new ArrayList<>();
+        for (PhonebookChange change : changes) {
+            if (seenChangeIds.add(change.getId())) {
+                newChanges.add(change);
+            }
+        }
+        if (!seenChangeIds.isEmpty()) {
+            seenChangeIds.headSet(seenChangeIds.last() - CHANGE_WINDOW).clear();
+        }
+        return newChanges;
+    }
+}
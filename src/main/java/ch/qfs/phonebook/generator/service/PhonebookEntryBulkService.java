@@ -0,0 +1,242 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryBulkResultDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryBulkResultDTO.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service creating and updating many {@link PhonebookEntry phonebook entries} with their phone numbers at once,
+ * for the bulk API and the import of dumps.
+ * <p>
+ * Items are validated up front, then saved in transactions of {@link #TRANSACTION_SIZE} items by default. The
+ * persistence context is flushed and cleared every {@code hibernate.jdbc.batch_size} items, so the
+ * inserts and updates are sent as JDBC batches and the ids are drawn from the pooled sequence. When a
+ * transaction fails, its items are saved again one by one, so that only the failing items are reported.
+ */
+@Service
+public class PhonebookEntryBulkService {
+
+    static final int TRANSACTION_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEntryBulkService.class);
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public PhonebookEntryBulkService(
+        PhonebookEntryRepository phonebookEntryRepository,
+        EntityManager entityManager,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int batchSize
+    ) {
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Creates the given entries without id and updates the entries with an id, replacing the phone
+     * numbers of an updated entry by the given ones. Phone numbers without id are created.
+     * <p>
+     * Must not be called within a transaction, as every chunk of items is committed on its own.
+     *
+     * @param entries the entries to save.
+     * @return the result of every entry, in the order of the given entries.
+     */
+    public List<PhonebookEntryBulkResultDTO> saveAll(List<PhonebookEntry> entries) {
+        return saveAll(entries, TRANSACTION_SIZE);
+    }
+
+    /**
+     * Like {@link #saveAll(List)}, with the given number of items per transaction.
+     *
+     * @param entries the entries to save.
+     * @param transactionSize the number of items saved per transaction.
+     * @return the result of every entry, in the order of the given entries.
+     */
+    public List<PhonebookEntryBulkResultDTO> saveAll(List<PhonebookEntry> entries, int transactionSize) {
+        log.debug("Request to save {} PhonebookEntries", entries.size());
+        PhonebookEntryBulkResultDTO[] results = new PhonebookEntryBulkResultDTO[entries.size()];
+        List<Integer> valid = new ArrayList<>(entries.size());
+        for (int index = 0; index < entries.size(); index++) {
+            String error = validate(entries.get(index));
+            if (error == null) {
+                valid.add(index);
+            } else {
+                results[index] = PhonebookEntryBulkResultDTO.failed(index, idOf(entries.get(index)), error);
+            }
+        }
+        int chunkSize = Math.max(1, transactionSize);
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.execute(status -> save(entries, chunk)).forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException e) {
+                log.warn("Could not save {} PhonebookEntries at once, saving them one by one: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    results[index] = saveOne(entries, index);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private PhonebookEntryBulkResultDTO saveOne(List<PhonebookEntry> entries, int index) {
+        try {
+            return transactionTemplate.execute(status -> save(entries, List.of(index))).get(0);
+        } catch (RuntimeException e) {
+            log.debug("Could not save PhonebookEntry {}", entries.get(index), e);
+            return PhonebookEntryBulkResultDTO.failed(index, idOf(entries.get(index)), "Could not be saved");
+        }
+    }
+
+    private List<PhonebookEntryBulkResultDTO> save(List<PhonebookEntry> entries, List<Integer> indexes) {
+        List<PhonebookEntryBulkResultDTO> results = new ArrayList<>(indexes.size());
+        for (int from = 0; from < indexes.size(); from += batchSize) {
+            List<Integer> batch = indexes.subList(from, Math.min(from + batchSize, indexes.size()));
+            Map<Long, PhonebookEntry> existingEntries = findExisting(entries, batch);
+            for (Integer index : batch) {
+                PhonebookEntry entry = entries.get(index);
+                if (entry.getId() == null) {
+                    results.add(new PhonebookEntryBulkResultDTO(index, create(entry), Status.CREATED, null));
+                } else if (!existingEntries.containsKey(entry.getId())) {
+                    results.add(PhonebookEntryBulkResultDTO.failed(index, entry.getId(), "Entity not found"));
+                } else {
+                    String error = update(existingEntries.get(entry.getId()), entry);
+                    Status status = error == null ? Status.UPDATED : Status.FAILED;
+                    results.add(new PhonebookEntryBulkResultDTO(index, entry.getId(), status, error));
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return results;
+    }
+
+    private Map<Long, PhonebookEntry> findExisting(List<PhonebookEntry> entries, List<Integer> batch) {
+        Set<Long> ids = new HashSet<>();
+        for (Integer index : batch) {
+            if (entries.get(index).getId() != null) {
+                ids.add(entries.get(index).getId());
+            }
+        }
+        Map<Long, PhonebookEntry> existingEntries = new HashMap<>();
+        if (!ids.isEmpty()) {
+            phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(ids).forEach(entry -> existingEntries.put(entry.getId(), entry));
+        }
+        return existingEntries;
+    }
+
+    /**
+     * Persists a copy of the given entry, so the entry can be saved again if the transaction fails.
+     */
+    private Long create(PhonebookEntry entry) {
+        PhonebookEntry created = new PhonebookEntry().description(entry.getDescription());
+        entityManager.persist(created);
+        for (PhoneNumber phoneNumber : phoneNumbersOf(entry)) {
+            PhoneNumber number = new PhoneNumber(phoneNumber.getNumber());
+            created.addPhoneNumber(number);
+            entityManager.persist(number);
+        }
+        return created.getId();
+    }
+
+    /**
+     * @return why the entry cannot be updated, {@code null} once it is updated.
+     */
+    private String update(PhonebookEntry existing, PhonebookEntry entry) {
+        Map<Long, PhoneNumber> existingNumbers = new HashMap<>();
+        existing.getPhoneNumbers().forEach(phoneNumber -> existingNumbers.put(phoneNumber.getId(), phoneNumber));
+        Set<Long> keptIds = new HashSet<>();
+        for (PhoneNumber phoneNumber : phoneNumbersOf(entry)) {
+            if (phoneNumber.getId() != null) {
+                if (!existingNumbers.containsKey(phoneNumber.getId())) {
+                    return "Phone number " + phoneNumber.getId() + " not found in phonebookEntry";
+                }
+                keptIds.add(phoneNumber.getId());
+            }
+        }
+
+        existing.setDescription(entry.getDescription());
+        for (PhoneNumber phoneNumber : existingNumbers.values()) {
+            if (!keptIds.contains(phoneNumber.getId())) {
+                existing.removePhoneNumber(phoneNumber);
+                entityManager.remove(phoneNumber);
+            }
+        }
+        for (PhoneNumber phoneNumber : phoneNumbersOf(entry)) {
+            if (phoneNumber.getId() != null) {
+                existingNumbers.get(phoneNumber.getId()).setNumber(phoneNumber.getNumber());
+            } else {
+                PhoneNumber number = new PhoneNumber(phoneNumber.getNumber());
+                existing.addPhoneNumber(number);
+                entityManager.persist(number);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the validation errors of the entry and its phone numbers, {@code null} if it is valid.
+     */
+    private String validate(PhonebookEntry entry) {
+        if (entry == null) {
+            return "Invalid: phonebookEntry must not be null";
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<PhonebookEntry> violation : validator.validate(entry)) {
+            errors.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        int position = 0;
+        for (PhoneNumber phoneNumber : phoneNumbersOf(entry)) {
+            if (phoneNumber == null) {
+                errors.add("phoneNumbers[" + position + "] must not be null");
+            } else {
+                for (ConstraintViolation<PhoneNumber> violation : validator.validate(phoneNumber)) {
+                    errors.add("phoneNumbers[" + position + "]." + violation.getPropertyPath() + " " + violation.getMessage());
+                }
+                if (entry.getId() == null && phoneNumber.getId() != null) {
+                    errors.add("phoneNumbers[" + position + "].id must be null for a new phonebookEntry");
+                }
+            }
+            position++;
+        }
+        return errors.isEmpty() ? null : "Invalid: " + String.join(", ", errors);
+    }
+
+    private static Set<PhoneNumber> phoneNumbersOf(PhonebookEntry entry) {
+        return entry.getPhoneNumbers() == null ? Set.of() : entry.getPhoneNumbers();
+    }
+
+    private static Long idOf(PhonebookEntry entry) {
+        return entry == null ? null : entry.getId();
+    }
+}
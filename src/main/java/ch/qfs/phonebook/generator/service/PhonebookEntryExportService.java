@@ -0,0 +1,141 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.ExportedEntryNumber;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service writing all phonebook entries with their phone numbers as a JSON array, in the
+ * representation of the REST API.
+ * <p>
+ * The rows are read from a forward-only cursor, one per phone number, and every entry is written
+ * as soon as its last row has been read. The rows are projections, so neither the persistence
+ * context nor the second-level cache fill up and memory use does not grow with the phonebook. The
+ * output is flushed after the first entry, so clients do not wait for the whole phonebook to be read.
+ */
+@Service
+public class PhonebookEntryExportService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEntryExportService.class);
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PhonebookEntryExportService(
+        PhonebookEntryRepository phonebookEntryRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes all phonebook entries to the given stream, which is flushed but not closed.
+     * <p>
+     * Must not be called within a transaction, as the rows are read in a transaction of their own.
+     *
+     * @param outputStream the stream to write to.
+     * @return the number of written entries.
+     * @throws IOException if the stream cannot be written, e.g. because the client went away.
+     */
+    public long writeJson(OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        long count;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            count =
+                readOnlyTransaction.execute(status -> {
+                    try (Stream<ExportedEntryNumber> rows = phonebookEntryRepository.streamAllEntryNumbers()) {
+                        return write(generator, rows.iterator());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.debug("Exported {} phonebook entries in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private long write(JsonGenerator generator, Iterator<ExportedEntryNumber> rows) throws IOException {
+        long count = 0;
+        Long entryId = null;
+        while (rows.hasNext()) {
+            ExportedEntryNumber row = rows.next();
+            if (!row.getId().equals(entryId)) {
+                if (entryId != null) {
+                    endEntry(generator);
+                    if (++count == 1) {
+                        generator.flush();
+                    }
+                }
+                entryId = row.getId();
+                startEntry(generator, row);
+            }
+            if (row.getPhoneNumberId() != null) {
+                writePhoneNumber(generator, row);
+            }
+        }
+        if (entryId != null) {
+            endEntry(generator);
+            count++;
+        }
+        return count;
+    }
+
+    private static void startEntry(JsonGenerator generator, ExportedEntryNumber row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("description", row.getDescription());
+        generator.writeStringField("externalId", row.getExternalId());
+        writeVersionField(generator, row.getVersion());
+        generator.writeArrayFieldStart("phoneNumbers");
+    }
+
+    private static void writePhoneNumber(JsonGenerator generator, ExportedEntryNumber row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getPhoneNumberId());
+        generator.writeStringField("number", row.getNumber());
+        generator.writeStringField("normalizedNumber", row.getNormalizedNumber());
+        writeVersionField(generator, row.getPhoneNumberVersion());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the version like the REST API does, as {@code null} if there is none.
+     */
+    private static void writeVersionField(JsonGenerator generator, Long version) throws IOException {
+        generator.writeFieldName("version");
+        if (version == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(version);
+        }
+    }
+
+    private static void endEntry(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,328 @@
+package ch.qfs.phonebook.generator.service;
+
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeListener;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.ExportedEntryNumber;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.mapper.PhonebookEntryMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service Implementation for managing {@link PhonebookEntry}.
+ * <p>
+ * Entries are read as projections of the columns of the DTO in read-only transactions, so no entity
+ * is loaded into the persistence context, dirty-checked or flushed on a read. Pages are read by id
+ * first, then the rows of these entries joined with their phone numbers.
+ * <p>
+ * An entry is updated with a single conditional {@code UPDATE}, without loading it first. The
+ * update is logged in the phonebook change log on the same connection and, as it bypasses the
+ * session, the entry is evicted from the second-level cache. An update that would not change the
+ * description is skipped, so it neither increments the version nor logs a change.
+ */
+@Service
+@Transactional
+public class PhonebookEntryService {
+
+    static final String UPDATE_SQL =
+        "update phonebook_entry set description = ?, version = version + 1 " +
+        "where id = ? and version = ? and (description is null or description <> ?)";
+
+    static final String CURRENT_SQL = "select description, version from phonebook_entry where id = ?";
+
+    static final String FOR_UPDATE = " for update";
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEntryService.class);
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhonebookEntryMapper phonebookEntryMapper;
+
+    private final EntityManager entityManager;
+
+    public PhonebookEntryService(
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhonebookEntryMapper phonebookEntryMapper,
+        EntityManager entityManager
+    ) {
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phonebookEntryMapper = phonebookEntryMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Save a new phonebookEntry, without phone numbers.
+     *
+     * @param phonebookEntryDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public PhonebookEntryDTO save(PhonebookEntryDTO phonebookEntryDTO) {
+        log.debug("Request to save PhonebookEntry : {}", phonebookEntryDTO);
+        PhonebookEntry phonebookEntry = phonebookEntryMapper.toEntity(phonebookEntryDTO);
+        phonebookEntry = phonebookEntryRepository.save(phonebookEntry);
+        return phonebookEntryMapper.toDto(phonebookEntry);
+    }
+
+    /**
+     * Update a phonebookEntry, keeping its phone numbers and external id.
+     *
+     * @param phonebookEntryDTO the entity to update, only if it still has the version of the DTO, if any.
+     * @return the given entity with its new version, empty if there is no such entity.
+     * @throws ObjectOptimisticLockingFailureException if the entity has another version.
+     */
+    public Optional<PhonebookEntryDTO> update(PhonebookEntryDTO phonebookEntryDTO) {
+        log.debug("Request to update PhonebookEntry : {}", phonebookEntryDTO);
+        return updateDescription(phonebookEntryDTO);
+    }
+
+    /**
+     * Partially update a phonebookEntry. The description is the only field to update.
+     *
+     * @param phonebookEntryDTO the entity to update partially, only if it still has the version of the DTO, if any.
+     * @return the given entity with its description and new version, empty if there is no such entity.
+     * @throws ObjectOptimisticLockingFailureException if the entity has another version.
+     */
+    public Optional<PhonebookEntryDTO> partialUpdate(PhonebookEntryDTO phonebookEntryDTO) {
+        log.debug("Request to partially update PhonebookEntry : {}", phonebookEntryDTO);
+        return updateDescription(phonebookEntryDTO);
+    }
+
+    /**
+     * Get a page of the phonebookEntries with their phone numbers.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<PhonebookEntryDTO> findAll(Pageable pageable) {
+        log.debug("Request to get all PhonebookEntries");
+        Page<Long> ids = phonebookEntryRepository.findIds(pageable);
+        return new PageImpl<>(findAllInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Get the phonebookEntries following the given id with their phone numbers.
+     *
+     * @param after the id after which the slice starts.
+     * @param pageable the pagination information, sorted by id.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PhonebookEntryDTO> findAllAfter(long after, Pageable pageable) {
+        log.debug("Request to get the PhonebookEntries after : {}", after);
+        Slice<Long> ids = phonebookEntryRepository.findIdsAfter(after, pageable);
+        return new SliceImpl<>(findAllInOrder(ids.getContent()), pageable, ids.hasNext());
+    }
+
+    /**
+     * Get one phonebookEntry by id with its phone numbers.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PhonebookEntryDTO> findOne(Long id) {
+        log.debug("Request to get PhonebookEntry : {}", id);
+        return phonebookEntryMapper.rowsToDtos(phonebookEntryRepository.findAllEntryNumbersByIdIn(List.of(id))).stream().findFirst();
+    }
+
+    /**
+     * Delete the phonebookEntry by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete PhonebookEntry : {}", id);
+        phonebookEntryRepository.deleteById(id);
+    }
+
+    /**
+     * Updates the description of the entry, unless it is {@code null} or unchanged, and increments
+     * its version. The result is built from the given DTO, so its phone numbers and external id are
+     * the ones sent, which the update keeps as they are.
+     */
+    private Optional<PhonebookEntryDTO> updateDescription(PhonebookEntryDTO phonebookEntryDTO) {
+        Long id = phonebookEntryDTO.getId();
+        Optional<CurrentEntry> updated = entityManager
+            .unwrap(Session.class)
+            .doReturningWork(connection -> update(connection, phonebookEntryDTO));
+        updated
+            .filter(CurrentEntry::isChanged)
+            .ifPresent(entry -> {
+                refreshIfLoaded(id);
+                evictAfterCompletion(id);
+            });
+        return updated.map(entry -> {
+            phonebookEntryDTO.setDescription(entry.getDescription());
+            phonebookEntryDTO.setVersion(entry.getVersion());
+            return phonebookEntryDTO;
+        });
+    }
+
+    /**
+     * Runs the conditional {@code UPDATE} right away if the version is known. Otherwise, or if it
+     * matched no row, the row is read to tell a missing entry, a version conflict and an unchanged
+     * description apart; it is locked if the update is still to be run.
+     */
+    private static Optional<CurrentEntry> update(Connection connection, PhonebookEntryDTO phonebookEntryDTO) throws SQLException {
+        Long id = phonebookEntryDTO.getId();
+        String description = phonebookEntryDTO.getDescription();
+        Long version = phonebookEntryDTO.getVersion();
+        if (description != null && version != null && update(connection, id, description, version)) {
+            return Optional.of(new CurrentEntry(description, version + 1, true));
+        }
+        CurrentEntry current = current(connection, id, description != null && version == null);
+        if (current == null) {
+            return Optional.empty();
+        }
+        if (version != null && version != current.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(PhonebookEntry.class, id);
+        }
+        if (description == null || description.equals(current.getDescription())) {
+            return Optional.of(current);
+        }
+        if (version != null || !update(connection, id, description, current.getVersion())) {
+            // The description changed between the update and the read
+            throw new ObjectOptimisticLockingFailureException(PhonebookEntry.class, id);
+        }
+        return Optional.of(new CurrentEntry(description, current.getVersion() + 1, true));
+    }
+
+    /**
+     * Updates the description of the entry if it has the given version and another description,
+     * and logs the change.
+     *
+     * @return whether the entry was updated.
+     */
+    private static boolean update(Connection connection, Long id, String description, long version) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            statement.setString(1, description);
+            statement.setLong(2, id);
+            statement.setLong(3, version);
+            statement.setString(4, description);
+            if (statement.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        PhonebookChangeListener.insert(
+            connection,
+            List.of(new PhonebookChange(ChangedEntityType.PHONEBOOK_ENTRY, id, id, ChangeOperation.UPSERT))
+        );
+        return true;
+    }
+
+    /**
+     * @return the description and version of the entry, {@code null} if there is no such entry.
+     */
+    private static CurrentEntry current(Connection connection, Long id, boolean forUpdate) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(forUpdate ? CURRENT_SQL + FOR_UPDATE : CURRENT_SQL)) {
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? new CurrentEntry(resultSet.getString(1), resultSet.getLong(2), false) : null;
+            }
+        }
+    }
+
+    /**
+     * Refreshes the entry if it is loaded in the persistence context, which the update bypassed.
+     */
+    private void refreshIfLoaded(Long id) {
+        PhonebookEntry reference = entityManager.getReference(PhonebookEntry.class, id);
+        if (Hibernate.isInitialized(reference)) {
+            entityManager.refresh(reference);
+        }
+    }
+
+    /**
+     * Evicts the entry from the second-level cache now and once the transaction is completed, as
+     * a concurrent reader may cache its previous state meanwhile.
+     */
+    private void evictAfterCompletion(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(PhonebookEntry.class, id);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(PhonebookEntry.class, id);
+                }
+            }
+        );
+    }
+
+    private List<PhonebookEntryDTO> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PhonebookEntryDTO> phonebookEntries = new HashMap<>();
+        List<ExportedEntryNumber> rows = phonebookEntryRepository.findAllEntryNumbersByIdIn(ids);
+        for (PhonebookEntryDTO phonebookEntryDTO : phonebookEntryMapper.rowsToDtos(rows)) {
+            phonebookEntries.put(phonebookEntryDTO.getId(), phonebookEntryDTO);
+        }
+        List<PhonebookEntryDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PhonebookEntryDTO phonebookEntryDTO = phonebookEntries.get(id);
+            if (phonebookEntryDTO != null) {
+                result.add(phonebookEntryDTO);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The description and version of an entry, and whether they were just updated.
+     */
+    private static final class CurrentEntry {
+
+        private final String description;
+
+        private final long version;
+
+        private final boolean changed;
+
+        CurrentEntry(String description, long version, boolean changed) {
+            this.description = description;
+            this.version = version;
+            this.changed = changed;
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        boolean isChanged() {
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ch.qfs.phonebook.generator.service;
+
+import java.util.Set;
+
+/**
+ * Application event published after a bulk change of the phonebook tables, like an Ivy
+ * synchronization or a normalization backfill, that left large parts of the second-level cache
+ * evicted.
+ */
+public class PhonebookReloadedEvent {
+
+    private final String cause;
+
+    private final long changed;
+
+    private final Set<Long> phonebookEntryIds;
+
+    /**
+     * @param cause what changed the phonebook, for logging.
+     * @param changed the number of changed rows.
+     */
+    public PhonebookReloadedEvent(String cause, long changed) {
+        this(cause, changed, null);
+    }
+
+    /**
+     * @param cause what changed the phonebook, for logging.
+     * @param changed the number of changed rows.
+     * @param phonebookEntryIds the ids of the inserted and updated entries, {@code null} if they are not known.
+     */
+    public PhonebookReloadedEvent(String cause, long changed, Set<Long> phonebookEntryIds) {
+        this.cause = cause;
+        this.changed = changed;
+        this.phonebookEntryIds = phonebookEntryIds;
+    }
+
+    public String getCause() {
+        return cause;
+    }
+
+    public long getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return the ids of the inserted and updated entries, {@code null} if they are not known, e.g. as there were too many.
+     */
+    public Set<Long> getPhonebookEntryIds() {
+        return phonebookEntryIds;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "PhonebookReloadedEvent{cause='" +
+            cause +
+            "', changed=" +
+            changed +
+            ", phonebookEntryIds=" +
+            (phonebookEntryIds == null ? "unknown" : phonebookEntryIds.size()) +
+            "}"
+        );
+    }
+}
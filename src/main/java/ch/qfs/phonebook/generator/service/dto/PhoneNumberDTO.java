@@ -0,0 +1,108 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.Objects;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO for the {@link ch.qfs.phonebook.generator.domain.PhoneNumber} entity.
+ */
+public class PhoneNumberDTO implements Serializable {
+
+    private Long id;
+
+    @NotNull
+    private String number;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String normalizedNumber;
+
+    private Long version;
+
+    @JsonIgnoreProperties(value = { "phoneNumbers" }, allowSetters = true)
+    private PhonebookEntryDTO phonebookEntry;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    /**
+     * @return the canonical form of the number, {@code null} if it has none.
+     */
+    public String getNormalizedNumber() {
+        return normalizedNumber;
+    }
+
+    public void setNormalizedNumber(String normalizedNumber) {
+        this.normalizedNumber = normalizedNumber;
+    }
+
+    /**
+     * @return the version of the number, sent back as {@code ETag}. On an update, the version the client read, if any.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return the entry of the number with its id and description only.
+     */
+    public PhonebookEntryDTO getPhonebookEntry() {
+        return phonebookEntry;
+    }
+
+    public void setPhonebookEntry(PhonebookEntryDTO phonebookEntry) {
+        this.phonebookEntry = phonebookEntry;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PhoneNumberDTO)) {
+            return false;
+        }
+
+        PhoneNumberDTO phoneNumberDTO = (PhoneNumberDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, phoneNumberDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhoneNumberDTO{" +
+            "id=" + getId() +
+            ", number='" + getNumber() + "'" +
+            ", normalizedNumber='" + getNormalizedNumber() + "'" +
+            ", version=" + getVersion() +
+            ", phonebookEntry=" + getPhonebookEntry() +
+            "}";
+    }
+}
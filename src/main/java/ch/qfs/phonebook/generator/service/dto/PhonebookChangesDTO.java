@@ -0,0 +1,70 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the changes of the phonebook since a change token.
+ */
+public class PhonebookChangesDTO {
+
+    private String token;
+
+    private boolean more;
+
+    private List<PhonebookEntryDTO> phonebookEntries = new ArrayList<>();
+
+    private List<Long> deletedPhonebookEntryIds = new ArrayList<>();
+
+    /**
+     * @return the token to ask for the next changes with.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return whether there are more changes, to be asked for right away.
+     */
+    public boolean isMore() {
+        return more;
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    /**
+     * @return the created and changed phonebook entries, with all their phone numbers.
+     */
+    public List<PhonebookEntryDTO> getPhonebookEntries() {
+        return phonebookEntries;
+    }
+
+    public void setPhonebookEntries(List<PhonebookEntryDTO> phonebookEntries) {
+        this.phonebookEntries = phonebookEntries;
+    }
+
+    public List<Long> getDeletedPhonebookEntryIds() {
+        return deletedPhonebookEntryIds;
+    }
+
+    public void setDeletedPhonebookEntryIds(List<Long> deletedPhonebookEntryIds) {
+        this.deletedPhonebookEntryIds = deletedPhonebookEntryIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookChangesDTO{" +
+            "token='" + token + "'" +
+            ", more=" + more +
+            ", phonebookEntries=" + phonebookEntries.size() +
+            ", deletedPhonebookEntryIds=" + deletedPhonebookEntryIds +
+            "}";
+    }
+}
@@ -0,0 +1,85 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+/**
+ * A DTO representing the outcome of one item of a bulk save of phonebook entries.
+ */
+public class PhonebookEntryBulkResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED,
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private String message;
+
+    public PhonebookEntryBulkResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PhonebookEntryBulkResultDTO(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static PhonebookEntryBulkResultDTO failed(int index, Long id, String message) {
+        return new PhonebookEntryBulkResultDTO(index, id, Status.FAILED, message);
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return why the item failed, {@code null} if it was saved.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookEntryBulkResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", message='" + message + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,110 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO for the {@link ch.qfs.phonebook.generator.domain.PhonebookEntry} entity.
+ */
+public class PhonebookEntryDTO implements Serializable {
+
+    private Long id;
+
+    @NotNull
+    private String description;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String externalId;
+
+    private Long version;
+
+    @JsonIgnoreProperties(value = { "phonebookEntry" }, allowSetters = true)
+    private List<PhoneNumberDTO> phoneNumbers = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return the id of the entry in the Ivy phonebook it is synchronized from, {@code null} for entries maintained here.
+     */
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    /**
+     * @return the version of the entry, also incremented when its phone numbers change, sent back as {@code ETag}. On an update,
+     * the version the client read, if any.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return the phone numbers of the entry, ordered by id.
+     */
+    public List<PhoneNumberDTO> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(List<PhoneNumberDTO> phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PhonebookEntryDTO)) {
+            return false;
+        }
+
+        PhonebookEntryDTO phonebookEntryDTO = (PhonebookEntryDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, phonebookEntryDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookEntryDTO{" +
+            "id=" + getId() +
+            ", description='" + getDescription() + "'" +
+            ", externalId='" + getExternalId() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -0,0 +1,90 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+
+/**
+ * A DTO representing a change of a phonebook entry or phone number, published to the subscribers
+ * of the phonebook events.
+ *
+ * @param <T> the DTO type of the changed entity.
+ */
+public class PhonebookEventDTO<T> {
+
+    private long changeId;
+
+    private ChangedEntityType entityType;
+
+    private ChangeOperation operation;
+
+    private Long id;
+
+    private T entity;
+
+    public PhonebookEventDTO() {}
+
+    public PhonebookEventDTO(long changeId, ChangedEntityType entityType, ChangeOperation operation, Long id, T entity) {
+        this.changeId = changeId;
+        this.entityType = entityType;
+        this.operation = operation;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    /**
+     * @return the id of the last logged change of the entity.
+     */
+    public long getChangeId() {
+        return changeId;
+    }
+
+    public void setChangeId(long changeId) {
+        this.changeId = changeId;
+    }
+
+    public ChangedEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(ChangedEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the current state of the entity, {@code null} if it was deleted.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    public void setEntity(T entity) {
+        this.entity = entity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookEventDTO{" +
+            "changeId=" + changeId +
+            ", entityType='" + entityType + "'" +
+            ", operation='" + operation + "'" +
+            ", id=" + id +
+            "}";
+    }
+}
@@ -0,0 +1,130 @@
+package ch.qfs.phonebook.generator.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of an import of phonebook entries from a dump.
+ */
+public class PhonebookImportResultDTO {
+
+    private long read;
+
+    private long imported;
+
+    private long failed;
+
+    private long durationMs;
+
+    private List<RecordError> errors = new ArrayList<>();
+
+    /**
+     * @return the number of records read from the dump.
+     */
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    /**
+     * @return the number of created phonebook entries.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return the number of records that were invalid or could not be saved.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * @return the first failed records, at most {@code application.bulk-import.max-reported-errors}.
+     */
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RecordError> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookImportResultDTO{" +
+            "read=" + read +
+            ", imported=" + imported +
+            ", failed=" + failed +
+            ", durationMs=" + durationMs +
+            "}";
+    }
+
+    /**
+     * A record that could not be imported.
+     */
+    public static class RecordError {
+
+        private long line;
+
+        private String message;
+
+        public RecordError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RecordError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * @return the line the record starts on, starting at 1.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RecordError{" +
+                "line=" + line +
+                ", message='" + message + '\'' +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the Cisco {@code <CiscoIPPhoneDirectory>} phonebook.
+ * <p>
+ * A Cisco directory entry holds a single telephone number, so an entry with several numbers
+ * is written as one {@code <DirectoryEntry>} per number.
+ */
+@Component
+public class CiscoPhonebookFormat extends XmlPhonebookFormat {
+
+    public static final String NAME = "cisco";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook-cisco.xml";
+    }
+
+    @Override
+    protected String getRootElement() {
+        return "CiscoIPPhoneDirectory";
+    }
+
+    @Override
+    protected void writeEntry(XMLStreamWriter xml, PhonebookEntry entry) throws XMLStreamException {
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            startElement(xml, 1, "DirectoryEntry");
+            writeElement(xml, 2, "Name", entry.getDescription());
+            writeElement(xml, 2, "Telephone", number.getNumber());
+            endElement(xml, 1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.IOException;
+import java.io.Writer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the phonebook as {@code ;} separated values with one line per phone number.
+ * <p>
+ * Entries without a phone number are written as a single line with an empty number.
+ */
+@Component
+public class CsvPhonebookFormat extends TextPhonebookFormat {
+
+    public static final String NAME = "csv";
+
+    private static final char SEPARATOR = ';';
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook.csv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    @Override
+    protected void writeHeader(Writer writer) throws IOException {
+        writer.write("name" + SEPARATOR + "number\n");
+    }
+
+    @Override
+    protected void writeEntry(Writer writer, PhonebookEntry entry) throws IOException {
+        String name = quote(entry.getDescription());
+        if (entry.getPhoneNumbers().isEmpty()) {
+            writer.write(name + SEPARATOR + "\n");
+        }
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            writer.write(name + SEPARATOR + quote(number.getNumber()) + "\n");
+        }
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(SEPARATOR) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
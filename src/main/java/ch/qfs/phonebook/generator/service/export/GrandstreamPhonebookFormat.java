@@ -0,0 +1,45 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the Grandstream {@code <AddressBook>} phonebook.
+ */
+@Component
+public class GrandstreamPhonebookFormat extends XmlPhonebookFormat {
+
+    public static final String NAME = "grandstream";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook-grandstream.xml";
+    }
+
+    @Override
+    protected String getRootElement() {
+        return "AddressBook";
+    }
+
+    @Override
+    protected void writeEntry(XMLStreamWriter xml, PhonebookEntry entry) throws XMLStreamException {
+        startElement(xml, 1, "Contact");
+        writeElement(xml, 2, "LastName", entry.getDescription());
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            startElement(xml, 2, "Phone");
+            xml.writeAttribute("type", "Work");
+            writeElement(xml, 3, "phonenumber", number.getNumber());
+            writeElement(xml, 3, "accountindex", "1");
+            endElement(xml, 2);
+        }
+        endElement(xml, 1);
+    }
+}
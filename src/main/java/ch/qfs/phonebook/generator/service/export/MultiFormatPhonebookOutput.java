@@ -0,0 +1,85 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes every entry to several phonebook documents at once, so the entries are read only once
+ * whatever the number of generated formats.
+ * <p>
+ * The documents are published together by {@link #commit()}. Closing the output without
+ * committing it discards the documents and leaves the previously published files in place.
+ */
+public class MultiFormatPhonebookOutput implements PhonebookOutput {
+
+    private final List<PhonebookOutput> outputs;
+
+    private final PhonebookPublication publication;
+
+    private long entryCount;
+
+    private boolean outputsClosed;
+
+    public MultiFormatPhonebookOutput(List<PhonebookOutput> outputs, PhonebookPublication publication) {
+        this.outputs = outputs;
+        this.publication = publication;
+    }
+
+    @Override
+    public void write(PhonebookEntry entry) throws IOException {
+        for (PhonebookOutput output : outputs) {
+            output.write(entry);
+        }
+        entryCount++;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Finishes all documents and publishes them atomically.
+     *
+     * @return the published version.
+     * @throws IOException if a document cannot be finished or published.
+     */
+    public PhonebookVersion commit() throws IOException {
+        closeOutputs();
+        return publication.commit();
+    }
+
+    /**
+     * Closes all outputs, even if some of them fail, and discards the documents unless they were committed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeOutputs();
+        } finally {
+            publication.close();
+        }
+    }
+
+    private void closeOutputs() throws IOException {
+        if (outputsClosed) {
+            return;
+        }
+        outputsClosed = true;
+        IOException failure = null;
+        for (PhonebookOutput output : outputs) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
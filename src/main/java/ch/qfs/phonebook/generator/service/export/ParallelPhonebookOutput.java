@@ -0,0 +1,113 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Output rendering a document on several threads.
+ * <p>
+ * Entries are collected in chunks, and every chunk is rendered on the executor into a buffer with
+ * {@link PhonebookFormat#renderEntries(List)}. The buffers are written to the stream in the order
+ * of their chunks, so the document is byte for byte equal to the one written sequentially. The
+ * number of chunks being rendered or waiting to be written is bounded, which also bounds memory.
+ */
+class ParallelPhonebookOutput implements PhonebookOutput {
+
+    private final PhonebookFormat format;
+    private final OutputStream out;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final Deque<CompletableFuture<byte[]>> pendingChunks = new ArrayDeque<>();
+
+    private List<PhonebookEntry> chunk;
+
+    /**
+     * Starts a new document on the given stream. The stream is closed together with the output.
+     *
+     * @param format the format of the document.
+     * @param out the stream to write to, preferably buffered.
+     * @param executor the executor rendering the chunks.
+     * @param chunkSize the number of entries per chunk.
+     * @param maxPendingChunks the number of chunks rendered or waiting to be written at most.
+     * @throws IOException if the header cannot be written.
+     */
+    ParallelPhonebookOutput(PhonebookFormat format, OutputStream out, Executor executor, int chunkSize, int maxPendingChunks)
+        throws IOException {
+        this.format = format;
+        this.out = out;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+        this.chunk = new ArrayList<>(chunkSize);
+        try {
+            out.write(format.renderHeader());
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(PhonebookEntry entry) throws IOException {
+        chunk.add(entry);
+        if (chunk.size() == chunkSize) {
+            submitChunk();
+        }
+    }
+
+    private void submitChunk() throws IOException {
+        List<PhonebookEntry> entries = chunk;
+        chunk = new ArrayList<>(chunkSize);
+        pendingChunks.add(CompletableFuture.supplyAsync(() -> render(entries), executor));
+        while (pendingChunks.size() > maxPendingChunks) {
+            writeNextChunk();
+        }
+    }
+
+    private byte[] render(List<PhonebookEntry> entries) {
+        try {
+            return format.renderEntries(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNextChunk() throws IOException {
+        byte[] rendered;
+        try {
+            rendered = pendingChunks.remove().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Could not render " + format.getName() + " phonebook entries", e.getCause());
+        }
+        out.write(rendered);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!chunk.isEmpty()) {
+                submitChunk();
+            }
+            while (!pendingChunks.isEmpty()) {
+                writeNextChunk();
+            }
+            out.write(format.renderFooter());
+        } finally {
+            pendingChunks.forEach(pending -> pending.cancel(false));
+            out.close();
+        }
+    }
+}
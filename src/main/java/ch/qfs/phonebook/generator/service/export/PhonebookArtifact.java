@@ -0,0 +1,78 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import java.time.Instant;
+
+/**
+ * A generated phonebook file held in memory together with its gzip encoding, ready to be served.
+ */
+public final class PhonebookArtifact {
+
+    private final String fileName;
+    private final String contentType;
+    private final byte[] content;
+    private final byte[] gzipContent;
+    private final String etag;
+    private final Instant lastModified;
+    private final long version;
+
+    public PhonebookArtifact(
+        String fileName,
+        String contentType,
+        byte[] content,
+        byte[] gzipContent,
+        String etag,
+        Instant lastModified,
+        long version
+    ) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.content = content;
+        this.gzipContent = gzipContent;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.version = version;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the file content, not to be modified.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the gzip encoded file content, not to be modified.
+     */
+    public byte[] getGzipContent() {
+        return gzipContent;
+    }
+
+    /**
+     * @return the unquoted entity tag of the content, the SHA-256 checksum of the content.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return when the content was published, truncated to seconds as in HTTP dates.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the id of the {@link PhonebookVersion} the content belongs to.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,111 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service holding the latest generated phonebook files in memory.
+ * <p>
+ * Files are read from their immutable {@link PhonebookVersion} snapshot and gzip compressed once
+ * when they are published, so that serving them to polling phones neither touches the database nor
+ * the file system, and never sees a partially written file.
+ */
+@Service
+public class PhonebookArtifactService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookArtifactService.class);
+
+    private final PhonebookExportService phonebookExportService;
+
+    private final PhonebookPublisher phonebookPublisher;
+
+    private final Map<String, PhonebookArtifact> artifacts = new ConcurrentHashMap<>();
+
+    public PhonebookArtifactService(PhonebookExportService phonebookExportService, PhonebookPublisher phonebookPublisher) {
+        this.phonebookExportService = phonebookExportService;
+        this.phonebookPublisher = phonebookPublisher;
+    }
+
+    /**
+     * Publishes the current version left by a previous run, so it is served right after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishExisting() {
+        Path directory = phonebookExportService.getDirectory();
+        try {
+            Optional<PhonebookVersion> version = phonebookPublisher.findCurrentVersion(directory);
+            if (version.isPresent()) {
+                List<PhonebookFormat> formats = new ArrayList<>(phonebookExportService.getConfiguredFormats());
+                formats.removeIf(format -> artifacts.containsKey(format.getFileName()));
+                publish(formats, version.get());
+            }
+        } catch (IOException e) {
+            log.warn("Could not publish existing phonebooks of {}", directory, e);
+        }
+    }
+
+    /**
+     * Publishes the files of the given formats in the given version, replacing the previous versions.
+     *
+     * @param formats the generated formats.
+     * @param version the published version holding the files.
+     * @throws IOException if a file cannot be read.
+     */
+    public void publish(List<PhonebookFormat> formats, PhonebookVersion version) throws IOException {
+        for (PhonebookFormat format : formats) {
+            String checksum = version.getChecksums().get(format.getFileName());
+            if (checksum != null) {
+                publish(format, version, checksum);
+            }
+        }
+    }
+
+    private void publish(PhonebookFormat format, PhonebookVersion version, String checksum) throws IOException {
+        Path file = version.getFile(format.getFileName());
+        byte[] content = Files.readAllBytes(file);
+        PhonebookArtifact artifact = new PhonebookArtifact(
+            format.getFileName(),
+            format.getContentType(),
+            content,
+            gzip(content),
+            checksum,
+            version.getCreatedDate().truncatedTo(ChronoUnit.SECONDS),
+            version.getId()
+        );
+        artifacts.put(artifact.getFileName(), artifact);
+        log.debug("Published phonebook {} with {} bytes, {} bytes gzipped", file, content.length, artifact.getGzipContent().length);
+    }
+
+    public Optional<PhonebookArtifact> getArtifact(String fileName) {
+        return Optional.ofNullable(artifacts.get(fileName));
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (
+            GZIPOutputStream out = new GZIPOutputStream(buffer, XmlPhonebookFormat.BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }
+        ) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+}
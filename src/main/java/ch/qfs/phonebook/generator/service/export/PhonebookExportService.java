@@ -0,0 +1,124 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service generating the phonebook files of all configured formats.
+ * <p>
+ * Unless {@code application.export.parallel.threads} is {@code 1}, the documents are rendered in
+ * chunks of entries on a dedicated {@link ForkJoinPool} and written in entry order.
+ */
+@Service
+public class PhonebookExportService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookExportService.class);
+
+    private final ApplicationProperties.Export export;
+
+    private final PhonebookFormatRegistry phonebookFormatRegistry;
+
+    private final PhonebookPublisher phonebookPublisher;
+
+    /**
+     * The pool rendering the chunks, {@code null} when rendering sequentially.
+     */
+    private final ForkJoinPool renderPool;
+
+    public PhonebookExportService(
+        ApplicationProperties applicationProperties,
+        PhonebookFormatRegistry phonebookFormatRegistry,
+        PhonebookPublisher phonebookPublisher
+    ) {
+        this.export = applicationProperties.getExport();
+        this.phonebookFormatRegistry = phonebookFormatRegistry;
+        this.phonebookPublisher = phonebookPublisher;
+        int threads = export.getParallel().getThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        this.renderPool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (renderPool != null) {
+            renderPool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the formats selected by {@code application.export.formats}.
+     */
+    public List<PhonebookFormat> getConfiguredFormats() {
+        return phonebookFormatRegistry.getFormats(export.getFormats());
+    }
+
+    /**
+     * @return the directory set by {@code application.export.directory}.
+     */
+    public Path getDirectory() {
+        return Paths.get(export.getDirectory());
+    }
+
+    /**
+     * Opens the files of all configured formats in {@code application.export.directory}.
+     *
+     * @return the output writing each entry to every file, to be committed to publish the files.
+     * @throws IOException if a file cannot be opened.
+     */
+    public MultiFormatPhonebookOutput open() throws IOException {
+        return open(getConfiguredFormats(), getDirectory());
+    }
+
+    /**
+     * Opens the files of the given formats in the given directory.
+     *
+     * @param formats the formats to generate.
+     * @param directory the directory the files are published to.
+     * @return the output writing each entry to every file, to be committed to publish the files.
+     * @throws IOException if a file cannot be opened.
+     */
+    public MultiFormatPhonebookOutput open(List<PhonebookFormat> formats, Path directory) throws IOException {
+        PhonebookPublication publication = phonebookPublisher.begin(directory);
+        List<PhonebookOutput> outputs = new ArrayList<>(formats.size());
+        try {
+            for (PhonebookFormat format : formats) {
+                log.debug("Opening {} phonebook {}", format.getName(), directory.resolve(format.getFileName()));
+                outputs.add(open(format, publication.newFile(format.getFileName())));
+            }
+        } catch (IOException e) {
+            try {
+                new MultiFormatPhonebookOutput(outputs, publication).close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        return new MultiFormatPhonebookOutput(outputs, publication);
+    }
+
+    private PhonebookOutput open(PhonebookFormat format, OutputStream out) throws IOException {
+        if (renderPool == null) {
+            return format.open(out);
+        }
+        return new ParallelPhonebookOutput(
+            format,
+            new BufferedOutputStream(out, XmlPhonebookFormat.BUFFER_SIZE),
+            renderPool,
+            export.getParallel().getChunkSize(),
+            2 * renderPool.getParallelism()
+        );
+    }
+}
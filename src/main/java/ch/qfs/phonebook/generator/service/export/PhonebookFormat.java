@@ -0,0 +1,110 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A directory format understood by a family of IP phones.
+ * <p>
+ * Implementations are Spring beans and are collected by the {@link PhonebookFormatRegistry}.
+ * They must be stateless, every call to {@link #open(OutputStream)} returns an independent output.
+ * <p>
+ * A document can also be assembled from separately rendered fragments: the header, the fragment of
+ * every entry and the footer concatenated in this order are byte for byte equal to the document
+ * written through {@link #open(OutputStream)} with the same entries. Fragments may be rendered
+ * concurrently on several threads.
+ */
+public interface PhonebookFormat {
+    /**
+     * @return the unique name used to select this format in the configuration.
+     */
+    String getName();
+
+    /**
+     * @return the name of the generated file.
+     */
+    String getFileName();
+
+    /**
+     * @return the MIME type of the generated document.
+     */
+    String getContentType();
+
+    /**
+     * Starts a new document on the given stream. The stream is closed together with the output.
+     *
+     * @param out the stream to write to.
+     * @return the open document.
+     * @throws IOException if the document cannot be started.
+     */
+    PhonebookOutput open(OutputStream out) throws IOException;
+
+    /**
+     * Starts a new document at the given path, replacing any existing file.
+     *
+     * @param target the file to write.
+     * @return the open document.
+     * @throws IOException if the file cannot be opened.
+     */
+    default PhonebookOutput open(Path target) throws IOException {
+        return open(newFileStream(target));
+    }
+
+    /**
+     * @return the bytes preceding the first entry of a document.
+     * @throws IOException if the header cannot be rendered.
+     */
+    byte[] renderHeader() throws IOException;
+
+    /**
+     * @param entry the entry to render.
+     * @return the bytes of the given entry within a document.
+     * @throws IOException if the entry cannot be rendered.
+     */
+    byte[] renderEntry(PhonebookEntry entry) throws IOException;
+
+    /**
+     * Renders consecutive entries, equal to the concatenation of their {@link #renderEntry(PhonebookEntry)} results.
+     *
+     * @param entries the entries to render.
+     * @return the bytes of the given entries within a document.
+     * @throws IOException if an entry cannot be rendered.
+     */
+    default byte[] renderEntries(List<PhonebookEntry> entries) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (PhonebookEntry entry : entries) {
+            buffer.write(renderEntry(entry));
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @return the bytes following the last entry of a document.
+     * @throws IOException if the footer cannot be rendered.
+     */
+    byte[] renderFooter() throws IOException;
+
+    /**
+     * Opens an unbuffered stream replacing the given file.
+     *
+     * @param target the file to write.
+     * @return the stream writing to the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    static OutputStream newFileStream(Path target) throws IOException {
+        FileChannel channel = FileChannel.open(
+            target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        return Channels.newOutputStream(channel);
+    }
+}
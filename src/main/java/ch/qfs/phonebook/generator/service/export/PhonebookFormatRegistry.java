@@ -0,0 +1,61 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of all {@link PhonebookFormat} beans, by name.
+ */
+@Component
+public class PhonebookFormatRegistry {
+
+    private final Map<String, PhonebookFormat> formats = new LinkedHashMap<>();
+
+    public PhonebookFormatRegistry(List<PhonebookFormat> formats) {
+        for (PhonebookFormat format : formats) {
+            PhonebookFormat previous = this.formats.putIfAbsent(format.getName(), format);
+            if (previous != null) {
+                throw new IllegalStateException(
+                    "Phonebook formats " +
+                    previous.getClass().getName() +
+                    " and " +
+                    format.getClass().getName() +
+                    " share the name " +
+                    format.getName()
+                );
+            }
+        }
+    }
+
+    public Optional<PhonebookFormat> getFormat(String name) {
+        return Optional.ofNullable(formats.get(name));
+    }
+
+    public Collection<PhonebookFormat> getFormats() {
+        return Collections.unmodifiableCollection(formats.values());
+    }
+
+    /**
+     * Resolves the given format names.
+     *
+     * @param names the names of the formats.
+     * @return the formats, in the given order.
+     * @throws IllegalArgumentException if a name is not registered.
+     */
+    public List<PhonebookFormat> getFormats(Collection<String> names) {
+        List<PhonebookFormat> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(
+                getFormat(name)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown phonebook format " + name + ", known formats are " + formats.keySet()))
+            );
+        }
+        return result;
+    }
+}
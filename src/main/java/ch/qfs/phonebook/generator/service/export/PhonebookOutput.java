@@ -0,0 +1,20 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An open phonebook document accepting entries one at a time.
+ * <p>
+ * Closing the output completes the document and closes the underlying stream.
+ */
+public interface PhonebookOutput extends Closeable {
+    /**
+     * Appends one entry with its phone numbers.
+     *
+     * @param entry the entry to write.
+     * @throws IOException if the entry cannot be written.
+     */
+    void write(PhonebookEntry entry) throws IOException;
+}
@@ -0,0 +1,157 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A set of phonebook files being written, published together by {@link #commit()}.
+ * <p>
+ * Files are written to hidden temporary files next to their targets, so that they can be renamed
+ * atomically. Closing a publication that was not committed deletes the temporary files and leaves
+ * the published files untouched.
+ */
+public class PhonebookPublication implements Closeable {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final PhonebookPublisher publisher;
+    private final Path directory;
+    private final Map<String, TempFile> files = new LinkedHashMap<>();
+
+    private boolean finished;
+
+    PhonebookPublication(PhonebookPublisher publisher, Path directory) {
+        this.publisher = publisher;
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens a new file of this publication. The returned stream is not buffered.
+     *
+     * @param fileName the name of the file in the directory.
+     * @return the stream writing the file, computing its checksum and syncing it to disk when closed.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    public OutputStream newFile(String fileName) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("The publication is already finished");
+        }
+        if (files.containsKey(fileName)) {
+            throw new IllegalArgumentException("The file " + fileName + " is already part of the publication");
+        }
+        Path temp = directory.resolve("." + fileName + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        TempFile file = new TempFile(temp, FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        files.put(fileName, file);
+        return file;
+    }
+
+    /**
+     * Publishes all files of this publication as a new version.
+     *
+     * @return the published version.
+     * @throws IOException if a file cannot be synced or renamed, in which case the previous version stays published.
+     */
+    public PhonebookVersion commit() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("The publication is already finished");
+        }
+        Map<String, Path> tempFiles = new LinkedHashMap<>();
+        Map<String, String> checksums = new LinkedHashMap<>();
+        for (Map.Entry<String, TempFile> file : files.entrySet()) {
+            file.getValue().close();
+            tempFiles.put(file.getKey(), file.getValue().path);
+            checksums.put(file.getKey(), file.getValue().checksum);
+        }
+        PhonebookVersion version = publisher.publish(directory, tempFiles, checksums);
+        finished = true;
+        return version;
+    }
+
+    /**
+     * Deletes the temporary files, unless the publication was committed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        IOException failure = null;
+        for (TempFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+            Files.deleteIfExists(file.path);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class TempFile extends FilterOutputStream {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MessageDigest digest;
+
+        private String checksum;
+
+        private TempFile(Path path, FileChannel channel) {
+            super(Channels.newOutputStream(channel));
+            this.path = path;
+            this.channel = channel;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            digest.update(b, off, len);
+        }
+
+        /**
+         * Syncs the file to disk before closing it, so that it is complete once renamed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (checksum != null || !channel.isOpen()) {
+                return;
+            }
+            try {
+                channel.force(true);
+                checksum = String.format("%064x", new BigInteger(1, digest.digest()));
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
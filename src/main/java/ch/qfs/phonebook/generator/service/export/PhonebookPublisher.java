@@ -0,0 +1,216 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service publishing phonebook files atomically, so that readers never see a partially written file.
+ * <p>
+ * A publication is written to temporary files, which are synced to disk and then renamed over the
+ * published files. Every publication is also kept as an immutable version in the {@code versions}
+ * sub directory, with a {@code SHA256SUMS} file listing the checksums of its files. The id of the
+ * current version is stored in {@code versions/current}, and only the last
+ * {@code application.export.retained-versions} versions are kept.
+ */
+@Service
+public class PhonebookPublisher {
+
+    public static final String VERSIONS_DIRECTORY = "versions";
+
+    static final String CHECKSUMS_FILE = "SHA256SUMS";
+
+    static final String CURRENT_FILE = "current";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookPublisher.class);
+
+    private final ApplicationProperties.Export export;
+
+    public PhonebookPublisher(ApplicationProperties applicationProperties) {
+        this.export = applicationProperties.getExport();
+    }
+
+    /**
+     * Starts a new publication of files to the given directory.
+     *
+     * @param directory the directory the files are published to.
+     * @return the publication, to be committed or closed.
+     * @throws IOException if the directory cannot be created.
+     */
+    public PhonebookPublication begin(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new PhonebookPublication(this, directory);
+    }
+
+    /**
+     * @param directory the directory the files are published to.
+     * @return the version published last to the given directory, if any.
+     * @throws IOException if the version cannot be read.
+     */
+    public Optional<PhonebookVersion> findCurrentVersion(Path directory) throws IOException {
+        Path versions = directory.resolve(VERSIONS_DIRECTORY);
+        try {
+            long id = Long.parseLong(Files.readString(versions.resolve(CURRENT_FILE)).trim());
+            return Optional.of(readVersion(versions.resolve(String.valueOf(id)), id));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Publishes the given synced temporary files as a new version.
+     */
+    synchronized PhonebookVersion publish(Path directory, Map<String, Path> tempFiles, Map<String, String> checksums) throws IOException {
+        Path versions = directory.resolve(VERSIONS_DIRECTORY);
+        Files.createDirectories(versions);
+        long id = nextVersionId(versions);
+
+        Path staging = versions.resolve(id + TEMP_SUFFIX);
+        Files.createDirectories(staging);
+        StringBuilder checksumList = new StringBuilder();
+        for (Map.Entry<String, Path> file : tempFiles.entrySet()) {
+            snapshot(file.getValue(), staging.resolve(file.getKey()));
+            checksumList.append(checksums.get(file.getKey())).append("  ").append(file.getKey()).append('\n');
+        }
+        writeSynced(staging.resolve(CHECKSUMS_FILE), checksumList.toString());
+        syncDirectory(staging);
+        Path versionDirectory = versions.resolve(String.valueOf(id));
+        Files.move(staging, versionDirectory, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Map.Entry<String, Path> file : tempFiles.entrySet()) {
+            Path target = directory.resolve(file.getKey());
+            Files.move(file.getValue(), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(directory);
+
+        Path current = versions.resolve("." + CURRENT_FILE + TEMP_SUFFIX);
+        writeSynced(current, id + "\n");
+        Files.move(current, versions.resolve(CURRENT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(versions);
+
+        PhonebookVersion version = new PhonebookVersion(id, versionDirectory, new LinkedHashMap<>(checksums), Instant.now());
+        log.debug("Published phonebook {}", version);
+        removeOldVersions(versions);
+        return version;
+    }
+
+    private static long nextVersionId(Path versions) throws IOException {
+        long lastId = 0;
+        for (Long id : listVersionIds(versions)) {
+            lastId = Math.max(lastId, id);
+        }
+        return lastId + 1;
+    }
+
+    private static List<Long> listVersionIds(Path versions) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(versions, Files::isDirectory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.chars().allMatch(Character::isDigit)) {
+                    ids.add(Long.parseLong(name));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Links the file into the version directory, or copies it if the file system has no hard links.
+     */
+    private static void snapshot(Path file, Path target) throws IOException {
+        try {
+            Files.createLink(target, file);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(file, target);
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    private static void writeSynced(Path file, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Syncs the entries of a directory, so that renames survive a crash. Not supported on every platform.
+     */
+    private void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.trace("Could not sync directory {}", directory, e);
+        }
+    }
+
+    private void removeOldVersions(Path versions) throws IOException {
+        List<Long> ids = listVersionIds(versions);
+        ids.sort(Comparator.reverseOrder());
+        for (Long id : ids.subList(Math.min(ids.size(), Math.max(1, export.getRetainedVersions())), ids.size())) {
+            deleteRecursively(versions.resolve(String.valueOf(id)));
+        }
+        // staging directories left over by a crash
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(versions, "*" + TEMP_SUFFIX)) {
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry)) {
+                    deleteRecursively(entry);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static PhonebookVersion readVersion(Path versionDirectory, long id) throws IOException {
+        Map<String, String> checksums = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(versionDirectory.resolve(CHECKSUMS_FILE), StandardCharsets.UTF_8)) {
+            int separator = line.indexOf("  ");
+            if (separator > 0) {
+                checksums.put(line.substring(separator + 2), line.substring(0, separator));
+            }
+        }
+        return new PhonebookVersion(id, versionDirectory, checksums, Files.getLastModifiedTime(versionDirectory).toInstant());
+    }
+}
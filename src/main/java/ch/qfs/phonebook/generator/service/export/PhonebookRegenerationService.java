@@ -0,0 +1,217 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.PhonebookChangeTracker;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service generating the phonebook files from the database.
+ * <p>
+ * The rendered fragment of every entry is kept per format. After the first full build, only the
+ * entries referenced by the phonebook change log since the previous run are loaded and rendered
+ * again, and the files are reassembled from the cached fragments. The result is byte for byte
+ * equal to a full rebuild, as documents are the concatenation of their fragments in entry id order.
+ */
+@Service
+public class PhonebookRegenerationService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookRegenerationService.class);
+
+    private final ApplicationProperties.Export export;
+
+    private final PhonebookExportService phonebookExportService;
+
+    private final PhonebookArtifactService phonebookArtifactService;
+
+    private final PhonebookPublisher phonebookPublisher;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final PhonebookChangeTracker phonebookChangeTracker;
+
+    private final Map<String, NavigableMap<Long, byte[]>> fragments = new HashMap<>();
+
+    public PhonebookRegenerationService(
+        ApplicationProperties applicationProperties,
+        PhonebookExportService phonebookExportService,
+        PhonebookArtifactService phonebookArtifactService,
+        PhonebookPublisher phonebookPublisher,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhonebookChangeRepository phonebookChangeRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.export = applicationProperties.getExport();
+        this.phonebookExportService = phonebookExportService;
+        this.phonebookArtifactService = phonebookArtifactService;
+        this.phonebookPublisher = phonebookPublisher;
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phonebookChangeTracker = new PhonebookChangeTracker(phonebookChangeRepository);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Regenerates the phonebook files when {@code application.export.incremental.enabled} is set.
+     */
+    @Scheduled(fixedDelayString = "${application.export.incremental.delay-ms:60000}")
+    public void scheduledRegeneration() {
+        if (!export.getIncremental().isEnabled()) {
+            return;
+        }
+        try {
+            regenerate();
+        } catch (IOException e) {
+            log.error("Exception at regenerating phonebooks", e);
+        }
+    }
+
+    /**
+     * Brings the phonebook files of all configured formats up to date with the database.
+     * <p>
+     * The first call renders every entry, later calls only the entries changed since the previous call.
+     *
+     * @return the number of entries rendered.
+     * @throws IOException if a file cannot be written.
+     */
+    public synchronized long regenerate() throws IOException {
+        List<PhonebookFormat> formats = phonebookExportService.getConfiguredFormats();
+        long rendered;
+        if (!phonebookChangeTracker.isStarted() || !fragments.keySet().containsAll(names(formats))) {
+            long lastId = phonebookChangeTracker.start();
+            log.debug("Rendering all phonebook entries up to change {}", lastId);
+            fragments.clear();
+            formats.forEach(format -> fragments.put(format.getName(), new TreeMap<>()));
+            rendered = forEachEntry(entry -> renderFragments(formats, entry));
+        } else {
+            Set<Long> changedIds = phonebookChangeTracker.pollChangedEntryIds();
+            if (changedIds.isEmpty()) {
+                log.debug("Phonebooks are up to date");
+                return 0;
+            }
+            log.debug("Rendering {} changed phonebook entries", changedIds.size());
+            rendered = renderChanged(formats, new ArrayList<>(changedIds));
+        }
+        PhonebookVersion version;
+        try (PhonebookPublication publication = phonebookPublisher.begin(phonebookExportService.getDirectory())) {
+            for (PhonebookFormat format : formats) {
+                writeFragments(format, publication.newFile(format.getFileName()));
+            }
+            version = publication.commit();
+        }
+        phonebookArtifactService.publish(formats, version);
+        log.info("Phonebooks regenerated as version {}, {} entries rendered", version.getId(), rendered);
+        return rendered;
+    }
+
+    /**
+     * Writes the phonebook files of the given formats from scratch, reading every entry from the database,
+     * and publishes them as a new version.
+     *
+     * @param formats the formats to generate.
+     * @param directory the directory the files are published to.
+     * @return the number of entries written.
+     * @throws IOException if a file cannot be written.
+     */
+    public long generateFull(List<PhonebookFormat> formats, Path directory) throws IOException {
+        try (MultiFormatPhonebookOutput phonebooks = phonebookExportService.open(formats, directory)) {
+            long count = forEachEntry(phonebooks::write);
+            phonebooks.commit();
+            return count;
+        }
+    }
+
+    private long renderChanged(List<PhonebookFormat> formats, List<Long> changedIds) throws IOException {
+        long rendered = 0;
+        for (int from = 0; from < changedIds.size(); from += BATCH_SIZE) {
+            List<Long> ids = changedIds.subList(from, Math.min(from + BATCH_SIZE, changedIds.size()));
+            for (Long id : ids) {
+                fragments.values().forEach(entries -> entries.remove(id));
+            }
+            List<PhonebookEntry> entries = readOnlyTransaction.execute(status ->
+                phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(ids)
+            );
+            for (PhonebookEntry entry : entries) {
+                renderFragments(formats, entry);
+                rendered++;
+            }
+        }
+        return rendered;
+    }
+
+    private void renderFragments(List<PhonebookFormat> formats, PhonebookEntry entry) throws IOException {
+        for (PhonebookFormat format : formats) {
+            fragments.get(format.getName()).put(entry.getId(), format.renderEntry(entry));
+        }
+    }
+
+    private void writeFragments(PhonebookFormat format, OutputStream file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(file, XmlPhonebookFormat.BUFFER_SIZE)) {
+            out.write(format.renderHeader());
+            for (byte[] fragment : fragments.get(format.getName()).values()) {
+                out.write(fragment);
+            }
+            out.write(format.renderFooter());
+        }
+    }
+
+    /**
+     * Reads all entries with their phone numbers in id order, one batch per read-only transaction.
+     */
+    private long forEachEntry(EntryHandler handler) throws IOException {
+        long count = 0;
+        long after = 0;
+        List<PhonebookEntry> batch;
+        do {
+            long lastId = after;
+            batch = readOnlyTransaction.execute(status -> readBatch(lastId));
+            for (PhonebookEntry entry : batch) {
+                handler.handle(entry);
+                after = entry.getId();
+                count++;
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return count;
+    }
+
+    private List<PhonebookEntry> readBatch(long after) {
+        List<Long> ids = phonebookEntryRepository.findIdsAfter(after, PageRequest.of(0, BATCH_SIZE, Sort.by("id"))).getContent();
+        return ids.isEmpty() ? List.of() : phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(ids);
+    }
+
+    private static Collection<String> names(List<PhonebookFormat> formats) {
+        List<String> names = new ArrayList<>(formats.size());
+        formats.forEach(format -> names.add(format.getName()));
+        return names;
+    }
+
+    @FunctionalInterface
+    private interface EntryHandler {
+        void handle(PhonebookEntry entry) throws IOException;
+    }
+}
@@ -0,0 +1,63 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the phonebook files published together.
+ */
+public final class PhonebookVersion {
+
+    private final long id;
+    private final Path directory;
+    private final Map<String, String> checksums;
+    private final Instant createdDate;
+
+    public PhonebookVersion(long id, Path directory, Map<String, String> checksums, Instant createdDate) {
+        this.id = id;
+        this.directory = directory;
+        this.checksums = Collections.unmodifiableMap(checksums);
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * @return the id of the version, increasing with every publication to the same directory.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the directory holding the files of this version, never modified once published.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Set<String> getFileNames() {
+        return checksums.keySet();
+    }
+
+    /**
+     * @return the hex encoded SHA-256 checksum of every file, by file name.
+     */
+    public Map<String, String> getChecksums() {
+        return checksums;
+    }
+
+    public Path getFile(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    @Override
+    public String toString() {
+        return "PhonebookVersion{id=" + id + ", files=" + checksums.keySet() + "}";
+    }
+}
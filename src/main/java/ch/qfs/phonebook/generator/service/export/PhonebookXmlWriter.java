@@ -0,0 +1,41 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the Yealink {@code <VitabadIPPhoneDirectory>} phonebook.
+ */
+@Component
+public class PhonebookXmlWriter extends XmlPhonebookFormat {
+
+    public static final String NAME = "yealink";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook.xml";
+    }
+
+    @Override
+    protected String getRootElement() {
+        return "VitabadIPPhoneDirectory";
+    }
+
+    @Override
+    protected void writeEntry(XMLStreamWriter xml, PhonebookEntry entry) throws XMLStreamException {
+        startElement(xml, 1, "DirectoryEntry");
+        writeElement(xml, 2, "Name", entry.getDescription());
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            writeElement(xml, 2, "Telephone", number.getNumber());
+        }
+        endElement(xml, 1);
+    }
+}
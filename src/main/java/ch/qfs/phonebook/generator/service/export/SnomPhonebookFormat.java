@@ -0,0 +1,51 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the Snom {@code <tbook>} phonebook.
+ * <p>
+ * A Snom item holds a single number, so an entry with several numbers is written as one
+ * {@code <item>} per number.
+ */
+@Component
+public class SnomPhonebookFormat extends XmlPhonebookFormat {
+
+    public static final String NAME = "snom";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook-snom.xml";
+    }
+
+    @Override
+    protected String getRootElement() {
+        return "tbook";
+    }
+
+    @Override
+    protected void writeRootAttributes(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeAttribute("complete", "true");
+    }
+
+    @Override
+    protected void writeEntry(XMLStreamWriter xml, PhonebookEntry entry) throws XMLStreamException {
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            startElement(xml, 1, "item");
+            xml.writeAttribute("context", "active");
+            xml.writeAttribute("type", "none");
+            writeElement(xml, 2, "name", entry.getDescription());
+            writeElement(xml, 2, "number", number.getNumber());
+            endElement(xml, 1);
+        }
+    }
+}
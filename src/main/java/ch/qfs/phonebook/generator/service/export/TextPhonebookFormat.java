@@ -0,0 +1,93 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Base class for the plain text directory formats, written as UTF-8.
+ */
+public abstract class TextPhonebookFormat implements PhonebookFormat {
+
+    @Override
+    public PhonebookOutput open(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), XmlPhonebookFormat.BUFFER_SIZE);
+        try {
+            writeHeader(writer);
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return new Output(writer);
+    }
+
+    @Override
+    public byte[] renderHeader() throws IOException {
+        StringWriter buffer = new StringWriter();
+        writeHeader(buffer);
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] renderEntry(PhonebookEntry entry) throws IOException {
+        StringWriter buffer = new StringWriter(128);
+        writeEntry(buffer, entry);
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] renderEntries(List<PhonebookEntry> entries) throws IOException {
+        StringWriter buffer = new StringWriter(128 * entries.size());
+        for (PhonebookEntry entry : entries) {
+            writeEntry(buffer, entry);
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] renderFooter() {
+        return new byte[0];
+    }
+
+    /**
+     * Writes the start of the document, if the format has one.
+     *
+     * @param writer the writer.
+     * @throws IOException if the header cannot be written.
+     */
+    protected void writeHeader(Writer writer) throws IOException {}
+
+    /**
+     * Writes one entry.
+     *
+     * @param writer the writer.
+     * @param entry the entry to write.
+     * @throws IOException if the entry cannot be written.
+     */
+    protected abstract void writeEntry(Writer writer, PhonebookEntry entry) throws IOException;
+
+    private final class Output implements PhonebookOutput {
+
+        private final Writer writer;
+
+        private Output(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(PhonebookEntry entry) throws IOException {
+            writeEntry(writer, entry);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.IOException;
+import java.io.Writer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the phonebook as a list of vCard 3.0 contacts, as imported by most SIP softphones.
+ */
+@Component
+public class VcardPhonebookFormat extends TextPhonebookFormat {
+
+    public static final String NAME = "vcard";
+
+    private static final String CRLF = "\r\n";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileName() {
+        return "phonebook.vcf";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/vcard";
+    }
+
+    @Override
+    protected void writeEntry(Writer writer, PhonebookEntry entry) throws IOException {
+        String name = escape(entry.getDescription());
+        writer.write("BEGIN:VCARD" + CRLF);
+        writer.write("VERSION:3.0" + CRLF);
+        writer.write("FN:" + name + CRLF);
+        writer.write("N:" + name + ";;;;" + CRLF);
+        for (PhoneNumber number : entry.getPhoneNumbers()) {
+            writer.write("TEL;TYPE=WORK,VOICE:" + escape(number.getNumber()) + CRLF);
+        }
+        writer.write("END:VCARD" + CRLF);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                case ',':
+                case ';':
+                    escaped.append('\\').append(c);
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
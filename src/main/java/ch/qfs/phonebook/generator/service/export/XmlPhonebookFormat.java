@@ -0,0 +1,188 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Base class for the XML directory formats.
+ * <p>
+ * Entries are streamed one by one through an {@link XMLStreamWriter}, so memory usage does not
+ * depend on the size of the directory and all text content is escaped by the StAX implementation.
+ * The documents are indented with four spaces per level.
+ */
+public abstract class XmlPhonebookFormat implements PhonebookFormat {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] INDENTS = { "\n", "\n    ", "\n        ", "\n            ", "\n                " };
+
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public String getContentType() {
+        return "application/xml";
+    }
+
+    @Override
+    public PhonebookOutput open(OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try {
+            XMLStreamWriter xml = outputFactory.createXMLStreamWriter(buffered, StandardCharsets.UTF_8.name());
+            startDocument(xml);
+            return new Output(xml, buffered);
+        } catch (XMLStreamException e) {
+            buffered.close();
+            throw new IOException("Could not start " + getName() + " phonebook document", e);
+        }
+    }
+
+    @Override
+    public byte[] renderHeader() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = outputFactory.createXMLStreamWriter(buffer, StandardCharsets.UTF_8.name());
+            startDocument(xml);
+            // closes the start tag of the document element, as the first entry or the footer would
+            xml.writeCharacters("");
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not render " + getName() + " phonebook header", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public byte[] renderEntry(PhonebookEntry entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try {
+            XMLStreamWriter xml = outputFactory.createXMLStreamWriter(buffer, StandardCharsets.UTF_8.name());
+            writeEntry(xml, entry);
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not render " + getName() + " phonebook entry " + entry.getId(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public byte[] renderEntries(List<PhonebookEntry> entries) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * entries.size());
+        try {
+            XMLStreamWriter xml = outputFactory.createXMLStreamWriter(buffer, StandardCharsets.UTF_8.name());
+            for (PhonebookEntry entry : entries) {
+                writeEntry(xml, entry);
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not render " + getName() + " phonebook entries", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Renders the footer as the remainder of an empty document after its header, so that both can
+     * only be written by the same code.
+     */
+    @Override
+    public byte[] renderFooter() throws IOException {
+        byte[] header = renderHeader();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        open(buffer).close();
+        byte[] document = buffer.toByteArray();
+        if (!Arrays.equals(document, 0, header.length, header, 0, header.length)) {
+            throw new IllegalStateException("The " + getName() + " phonebook header does not start an empty document");
+        }
+        return Arrays.copyOfRange(document, header.length, document.length);
+    }
+
+    private void startDocument(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeCharacters(INDENTS[0]);
+        xml.writeStartElement(getRootElement());
+        writeRootAttributes(xml);
+    }
+
+    /**
+     * @return the name of the document element.
+     */
+    protected abstract String getRootElement();
+
+    /**
+     * Writes the attributes of the document element, if the format has any.
+     *
+     * @param xml the writer positioned on the document element.
+     * @throws XMLStreamException if the attributes cannot be written.
+     */
+    protected void writeRootAttributes(XMLStreamWriter xml) throws XMLStreamException {}
+
+    /**
+     * Writes the elements of one entry, at depth one below the document element.
+     *
+     * @param xml the writer.
+     * @param entry the entry to write.
+     * @throws XMLStreamException if the entry cannot be written.
+     */
+    protected abstract void writeEntry(XMLStreamWriter xml, PhonebookEntry entry) throws XMLStreamException;
+
+    protected static void startElement(XMLStreamWriter xml, int depth, String name) throws XMLStreamException {
+        xml.writeCharacters(INDENTS[depth]);
+        xml.writeStartElement(name);
+    }
+
+    protected static void endElement(XMLStreamWriter xml, int depth) throws XMLStreamException {
+        xml.writeCharacters(INDENTS[depth]);
+        xml.writeEndElement();
+    }
+
+    protected static void writeElement(XMLStreamWriter xml, int depth, String name, String value) throws XMLStreamException {
+        xml.writeCharacters(INDENTS[depth]);
+        xml.writeStartElement(name);
+        if (value != null) {
+            xml.writeCharacters(value);
+        }
+        xml.writeEndElement();
+    }
+
+    private final class Output implements PhonebookOutput {
+
+        private final XMLStreamWriter xml;
+        private final OutputStream out;
+
+        private Output(XMLStreamWriter xml, OutputStream out) {
+            this.xml = xml;
+            this.out = out;
+        }
+
+        @Override
+        public void write(PhonebookEntry entry) throws IOException {
+            try {
+                writeEntry(xml, entry);
+            } catch (XMLStreamException e) {
+                throw new IOException("Could not write " + getName() + " phonebook entry " + entry.getId(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                endElement(xml, 0);
+                xml.writeCharacters(INDENTS[0]);
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("Could not finish " + getName() + " phonebook document", e);
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
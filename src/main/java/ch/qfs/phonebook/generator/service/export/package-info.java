@@ -0,0 +1,4 @@
+/**
+ * Writers for the generated IP phone directories.
+ */
+package ch.qfs.phonebook.generator.service.export;
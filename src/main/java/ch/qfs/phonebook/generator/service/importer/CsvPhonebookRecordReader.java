@@ -0,0 +1,188 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Reads {@code ;} separated values with a header line, in the shape of the Liquibase fake phonebook
+ * entries and of the CSV phonebook export. Dumps without description column, like the Liquibase fake
+ * phone numbers, which belong to no entry, are not supported.
+ * <p>
+ * The columns are identified by their header: {@code description} or {@code name} holds the
+ * description, every {@code number} column a phone number, and an {@code id} column the id of the
+ * entry in the dump. Other columns are ignored. Consecutive lines of the same entry, that is with the
+ * same id or, without id column, the same description, are one record with the phone numbers of all
+ * lines. Values may be quoted with {@code "}, with {@code ""} for a quote; quoted values may span lines.
+ */
+class CsvPhonebookRecordReader implements PhonebookRecordReader {
+
+    static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private static final char SEPARATOR = ';';
+
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+
+    private long lineNumber;
+
+    private int fieldCount;
+
+    private int idColumn = -1;
+
+    private int descriptionColumn = -1;
+
+    private final List<Integer> numberColumns = new ArrayList<>();
+
+    /**
+     * The line read ahead, the start of the next record, {@code null} at the end of the dump.
+     */
+    private Line pending;
+
+    CsvPhonebookRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public PhonebookImportRecord next() throws IOException {
+        if (lineNumber == 0) {
+            readHeader();
+            pending = readLine();
+        }
+        if (pending == null) {
+            return null;
+        }
+        Line first = pending;
+        pending = readLine();
+        if (first.error != null) {
+            return PhonebookImportRecord.failed(first.number, first.error);
+        }
+        PhonebookEntry entry = new PhonebookEntry().description(value(first.fields, descriptionColumn));
+        addPhoneNumbers(entry, first.fields);
+        while (pending != null && pending.error == null && isSameEntry(first.fields, pending.fields)) {
+            addPhoneNumbers(entry, pending.fields);
+            pending = readLine();
+        }
+        return PhonebookImportRecord.of(first.number, entry);
+    }
+
+    private void readHeader() throws IOException {
+        Line header = readLine();
+        if (header == null || header.error != null) {
+            throw new IllegalArgumentException("The CSV header line is missing");
+        }
+        fieldCount = header.fields.size();
+        for (int column = 0; column < fieldCount; column++) {
+            String name = header.fields.get(column).trim().toLowerCase(Locale.ROOT);
+            if ("id".equals(name)) {
+                idColumn = column;
+            } else if ("description".equals(name) || "name".equals(name)) {
+                descriptionColumn = column;
+            } else if ("number".equals(name)) {
+                numberColumns.add(column);
+            }
+        }
+        if (descriptionColumn < 0) {
+            throw new IllegalArgumentException("The CSV header has no description column");
+        }
+    }
+
+    private boolean isSameEntry(List<String> fields, List<String> other) {
+        int keyColumn = idColumn >= 0 ? idColumn : descriptionColumn;
+        String key = value(fields, keyColumn);
+        return key != null && Objects.equals(key, value(other, keyColumn));
+    }
+
+    private void addPhoneNumbers(PhonebookEntry entry, List<String> fields) {
+        for (int column : numberColumns) {
+            String number = value(fields, column);
+            if (number != null) {
+                entry.addPhoneNumber(new PhoneNumber(number));
+            }
+        }
+    }
+
+    /**
+     * @return the trimmed value of a column, {@code null} if empty.
+     */
+    private static String value(List<String> fields, int column) {
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @return the next non-blank line split into its fields, {@code null} at the end of the dump.
+     */
+    private Line readLine() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            lineNumber++;
+            if (text == null) {
+                return null;
+            }
+            if (lineNumber == 1 && text.startsWith(BYTE_ORDER_MARK)) {
+                text = text.substring(1);
+            }
+        } while (text.isBlank());
+        long start = lineNumber;
+        List<String> fields = new ArrayList<>(Math.max(fieldCount, 2));
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != QUOTE) {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == QUOTE) {
+                        field.append(QUOTE);
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == QUOTE) {
+                    quoted = true;
+                } else if (c == SEPARATOR) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            text = reader.readLine();
+            if (text == null) {
+                return new Line(start, null, "Unterminated quoted value");
+            }
+            lineNumber++;
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        if (fieldCount > 0 && fields.size() != fieldCount) {
+            return new Line(start, null, "Expected " + fieldCount + " values but found " + fields.size());
+        }
+        return new Line(start, fields, null);
+    }
+
+    private static final class Line {
+
+        private final long number;
+        private final List<String> fields;
+        private final String error;
+
+        private Line(long number, List<String> fields, String error) {
+            this.number = number;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline delimited JSON: every non-blank line is a phonebook entry in the JSON
+ * representation of the REST API, e.g. {@code {"description":"Reception","phoneNumbers":[{"number":"100"}]}}.
+ * Ids are ignored, every record is a new entry.
+ */
+class NdjsonPhonebookRecordReader implements PhonebookRecordReader {
+
+    private final BufferedReader reader;
+
+    private final ObjectReader entryReader;
+
+    private long lineNumber;
+
+    NdjsonPhonebookRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.entryReader = objectMapper.readerFor(PhonebookEntry.class);
+    }
+
+    @Override
+    public PhonebookImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+            if (lineNumber == 1 && line.startsWith(CsvPhonebookRecordReader.BYTE_ORDER_MARK)) {
+                line = line.substring(1);
+            }
+        } while (line.isBlank());
+        try {
+            PhonebookEntry entry = entryReader.readValue(line);
+            if (entry == null) {
+                return PhonebookImportRecord.failed(lineNumber, "Invalid: phonebookEntry must not be null");
+            }
+            if (entry.getPhoneNumbers() != null) {
+                for (PhoneNumber phoneNumber : entry.getPhoneNumbers()) {
+                    if (phoneNumber != null) {
+                        phoneNumber.setId(null);
+                    }
+                }
+            }
+            return PhonebookImportRecord.of(lineNumber, entry.id(null));
+        } catch (JsonProcessingException e) {
+            return PhonebookImportRecord.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The formats of the dumps phonebook entries can be imported from.
+ */
+public enum PhonebookImportFormat {
+    /**
+     * {@code ;} separated values with a header line, see {@link CsvPhonebookRecordReader}.
+     */
+    CSV("text/csv", ".csv"),
+
+    /**
+     * One phonebook entry in the JSON representation of the REST API per line.
+     */
+    NDJSON("application/x-ndjson", ".ndjson", ".jsonl");
+
+    private final String contentType;
+
+    private final String[] extensions;
+
+    PhonebookImportFormat(String contentType, String... extensions) {
+        this.contentType = contentType;
+        this.extensions = extensions;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @param contentType a content type, possibly with parameters like the charset.
+     * @return the format of the content type, if it is supported.
+     */
+    public static Optional<PhonebookImportFormat> forContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        String type = contentType.split(";")[0].trim();
+        for (PhonebookImportFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(type)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param fileName the name of a file.
+     * @return the format of the file by its extension, if it is supported.
+     */
+    public static Optional<PhonebookImportFormat> forFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        for (PhonebookImportFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    PhonebookRecordReader reader(BufferedReader reader, ObjectMapper objectMapper) {
+        return this == CSV ? new CsvPhonebookRecordReader(reader) : new NdjsonPhonebookRecordReader(reader, objectMapper);
+    }
+}
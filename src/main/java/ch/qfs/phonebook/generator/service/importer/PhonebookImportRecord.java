@@ -0,0 +1,50 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+
+/**
+ * A record read from a dump: the phonebook entry it describes, or why it could not be read.
+ */
+final class PhonebookImportRecord {
+
+    private final long line;
+
+    private final PhonebookEntry entry;
+
+    private final String error;
+
+    private PhonebookImportRecord(long line, PhonebookEntry entry, String error) {
+        this.line = line;
+        this.entry = entry;
+        this.error = error;
+    }
+
+    static PhonebookImportRecord of(long line, PhonebookEntry entry) {
+        return new PhonebookImportRecord(line, entry, null);
+    }
+
+    static PhonebookImportRecord failed(long line, String error) {
+        return new PhonebookImportRecord(line, null, error);
+    }
+
+    /**
+     * @return the line the record starts on, starting at 1.
+     */
+    long getLine() {
+        return line;
+    }
+
+    /**
+     * @return the entry, {@code null} if the record could not be read.
+     */
+    PhonebookEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * @return why the record could not be read, {@code null} if it could.
+     */
+    String getError() {
+        return error;
+    }
+}
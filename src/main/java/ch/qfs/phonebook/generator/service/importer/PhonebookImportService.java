@@ -0,0 +1,174 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.service.PhonebookEntryBulkService;
+import ch.qfs.phonebook.generator.service.PhonebookReloadedEvent;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryBulkResultDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryBulkResultDTO.Status;
+import ch.qfs.phonebook.generator.service.dto.PhonebookImportResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service creating phonebook entries from a CSV or NDJSON dump.
+ * <p>
+ * The dump is parsed record by record while it is read. The records are handed to the
+ * {@link PhonebookEntryBulkService} in chunks of {@code application.bulk-import.chunk-size} records,
+ * which validates them like entries saved through the REST API and inserts the valid ones of a
+ * chunk in one transaction, as JDBC batches. The dump is only read on once a chunk is committed, so
+ * a fast client is held back by the database rather than buffered. Memory use depends on the chunk
+ * size, not on the size of the dump.
+ * <p>
+ * A chunk that fails is inserted again record by record, so that only the failing records are
+ * reported. The inserts go through Hibernate, so the phonebook change log, the canonical phone
+ * numbers and the second-level cache stay consistent. Committed chunks are kept if the dump cannot
+ * be read to its end.
+ */
+@Service
+public class PhonebookImportService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookImportService.class);
+
+    private final ApplicationProperties.BulkImport bulkImport;
+
+    private final ObjectMapper objectMapper;
+
+    private final PhonebookEntryBulkService phonebookEntryBulkService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final int maxChangedEntries;
+
+    public PhonebookImportService(
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper,
+        PhonebookEntryBulkService phonebookEntryBulkService,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.bulkImport = applicationProperties.getBulkImport();
+        this.objectMapper = objectMapper;
+        this.phonebookEntryBulkService = phonebookEntryBulkService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.maxChangedEntries = applicationProperties.getCache().getWarmUp().getMaxChangedEntries();
+    }
+
+    /**
+     * Imports a dump file, the format of which is given by its extension.
+     *
+     * @param file the dump.
+     * @return the counts of the imported and failed records.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the format of the file is not supported or the dump has no valid header.
+     */
+    public PhonebookImportResultDTO importFile(Path file) throws IOException {
+        PhonebookImportFormat format = PhonebookImportFormat
+            .forFileName(file.getFileName().toString())
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported file type: " + file));
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return importEntries(inputStream, format);
+        }
+    }
+
+    /**
+     * Creates a phonebook entry for every valid record of the dump.
+     * <p>
+     * Must not be called within a transaction, as every chunk of records is committed on its own.
+     *
+     * @param inputStream the dump, encoded in UTF-8, which is read to its end but not closed.
+     * @param format the format of the dump.
+     * @return the counts of the imported and failed records.
+     * @throws IOException if the dump cannot be read.
+     * @throws IllegalArgumentException if the dump has no valid header.
+     */
+    public PhonebookImportResultDTO importEntries(InputStream inputStream, PhonebookImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        PhonebookImportResultDTO result = new PhonebookImportResultDTO();
+        Set<Long> importedIds = new HashSet<>();
+        int chunkSize = Math.max(1, bulkImport.getChunkSize());
+        List<PhonebookImportRecord> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        PhonebookRecordReader records = format.reader(reader, objectMapper);
+        try {
+            for (PhonebookImportRecord record = records.next(); record != null; record = records.next()) {
+                result.setRead(result.getRead() + 1);
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    importedIds = insert(chunk, result, importedIds);
+                    chunk.clear();
+                    log.info(
+                        "Importing phonebook entries: {} records read, {} imported, {} failed",
+                        result.getRead(),
+                        result.getImported(),
+                        result.getFailed()
+                    );
+                }
+            }
+            importedIds = insert(chunk, result, importedIds);
+        } finally {
+            result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+            if (result.getImported() > 0) {
+                applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("phonebook import", result.getImported(), importedIds));
+            }
+        }
+        log.info("Phonebook entries imported: {}", result);
+        return result;
+    }
+
+    /**
+     * Inserts the chunk and adds the ids of the imported entries to the given ones.
+     *
+     * @return the ids of the imported entries, {@code null} once there are more than the cache warm-up reloads one by one.
+     */
+    private Set<Long> insert(List<PhonebookImportRecord> chunk, PhonebookImportResultDTO result, Set<Long> importedIds) {
+        if (chunk.isEmpty()) {
+            return importedIds;
+        }
+        List<PhonebookEntry> entries = new ArrayList<>(chunk.size());
+        for (PhonebookImportRecord record : chunk) {
+            if (record.getError() == null) {
+                entries.add(record.getEntry());
+            }
+        }
+        Iterator<PhonebookEntryBulkResultDTO> saved = phonebookEntryBulkService.saveAll(entries, chunk.size()).iterator();
+        List<Long> ids = new ArrayList<>();
+        for (PhonebookImportRecord record : chunk) {
+            PhonebookEntryBulkResultDTO entryResult = record.getError() == null ? saved.next() : null;
+            if (entryResult == null) {
+                fail(result, record, record.getError());
+            } else if (entryResult.getStatus() == Status.CREATED) {
+                result.setImported(result.getImported() + 1);
+                ids.add(entryResult.getId());
+            } else {
+                fail(result, record, entryResult.getMessage());
+            }
+        }
+        if (importedIds == null || importedIds.size() + ids.size() > maxChangedEntries) {
+            return null;
+        }
+        importedIds.addAll(ids);
+        return importedIds;
+    }
+
+    private void fail(PhonebookImportResultDTO result, PhonebookImportRecord record, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < bulkImport.getMaxReportedErrors()) {
+            result.getErrors().add(new PhonebookImportResultDTO.RecordError(record.getLine(), error));
+        }
+    }
+}
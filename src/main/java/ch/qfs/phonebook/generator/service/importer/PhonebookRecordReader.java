@@ -0,0 +1,14 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import java.io.IOException;
+
+/**
+ * Reads the records of a dump one at a time, so that the dump is never held in memory as a whole.
+ */
+interface PhonebookRecordReader {
+    /**
+     * @return the next record, {@code null} at the end of the dump.
+     * @throws IOException if the dump cannot be read.
+     */
+    PhonebookImportRecord next() throws IOException;
+}
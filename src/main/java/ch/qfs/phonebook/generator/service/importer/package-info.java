@@ -0,0 +1,4 @@
+/**
+ * Import of phonebook entries from CSV and NDJSON directory dumps.
+ */
+package ch.qfs.phonebook.generator.service.importer;
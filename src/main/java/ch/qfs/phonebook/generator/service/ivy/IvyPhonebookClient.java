@@ -0,0 +1,81 @@
+package ch.qfs.phonebook.generator.service.ivy;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Client for the Ivy designer phonebook API.
+ * <p>
+ * The response is parsed token by token and every {@link PhonebookEntry} is handed to the caller
+ * as soon as it has been read, so only one entry is held in memory at a time.
+ */
+@Service
+public class IvyPhonebookClient {
+
+    private final Logger log = LoggerFactory.getLogger(IvyPhonebookClient.class);
+
+    private final ApplicationProperties.Ivy ivy;
+
+    private final RestTemplate restTemplate;
+
+    private final ObjectReader entryReader;
+
+    public IvyPhonebookClient(ApplicationProperties applicationProperties, RestTemplateBuilder builder, ObjectMapper objectMapper) {
+        this.ivy = applicationProperties.getIvy();
+        this.restTemplate = builder.basicAuthentication(ivy.getUsername(), ivy.getPassword()).build();
+        this.entryReader = objectMapper.readerFor(PhonebookEntry.class);
+    }
+
+    /**
+     * Callback receiving the entries read from Ivy.
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+        void handle(PhonebookEntry entry) throws IOException;
+    }
+
+    /**
+     * Streams all entries of the Ivy phonebook to the given handler.
+     *
+     * @param handler the handler receiving each entry.
+     * @return the number of entries read.
+     */
+    public long readEntries(EntryHandler handler) {
+        log.debug("Request to read the Ivy phonebook from {}", ivy.getUrl());
+        Long count = restTemplate.execute(
+            ivy.getUrl(),
+            HttpMethod.GET,
+            request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+            response -> readEntries(response.getBody(), handler)
+        );
+        return count == null ? 0 : count;
+    }
+
+    long readEntries(InputStream body, EntryHandler handler) throws IOException {
+        long count = 0;
+        try (JsonParser parser = entryReader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of phonebook entries but got " + parser.currentToken());
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                handler.handle(entryReader.readValue(parser));
+                count++;
+            }
+        }
+        return count;
+    }
+}
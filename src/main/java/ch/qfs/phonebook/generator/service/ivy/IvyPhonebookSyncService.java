@@ -0,0 +1,361 @@
+package ch.qfs.phonebook.generator.service.ivy;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.PhonebookReloadedEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service mirroring the Ivy phonebook into the {@link PhonebookEntry} and {@link PhoneNumber} tables.
+ * <p>
+ * The Ivy id of an entry is its stable key, kept as {@link PhonebookEntry#getExternalId() external id}.
+ * The Ivy phonebook is read as a stream and compared with the synchronized entries of the database
+ * in chunks, so only the Ivy ids of the whole phonebook are held in memory. Only the differences are
+ * written: new entries are inserted, entries whose description or phone numbers differ are updated
+ * and entries gone from Ivy are deleted. Unchanged entries are neither written nor evicted from the
+ * second-level cache. Entries without an external id are maintained in the application and left alone.
+ * <p>
+ * The writes are sent in JDBC batches, in transactions of {@link #TRANSACTION_SIZE} entries. If a
+ * transaction or the reading from Ivy fails, the synchronization stops before deleting anything;
+ * the next run picks up the remaining differences. Nothing is deleted either if Ivy returned fewer
+ * valid entries than {@link ApplicationProperties.Sync#getMinEntries() min-entries}, as an empty
+ * or truncated answer would otherwise delete the phonebook.
+ * A {@link PhonebookReloadedEvent} is published once the differences are written.
+ */
+@Service
+public class IvyPhonebookSyncService {
+
+    static final int TRANSACTION_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(IvyPhonebookSyncService.class);
+
+    private final IvyPhonebookClient ivyPhonebookClient;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int batchSize;
+
+    private final int maxChangedEntries;
+
+    private final ApplicationProperties.Sync syncProperties;
+
+    public IvyPhonebookSyncService(
+        ApplicationProperties applicationProperties,
+        IvyPhonebookClient ivyPhonebookClient,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhoneNumberRepository phoneNumberRepository,
+        EntityManager entityManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        PlatformTransactionManager transactionManager,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int batchSize
+    ) {
+        this.ivyPhonebookClient = ivyPhonebookClient;
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.entityManager = entityManager;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxChangedEntries = applicationProperties.getCache().getWarmUp().getMaxChangedEntries();
+        this.syncProperties = applicationProperties.getIvy().getSync();
+    }
+
+    /**
+     * Reads the Ivy phonebook and synchronizes the database with it.
+     *
+     * @return the counts of the written and unchanged entries.
+     */
+    public IvySyncResult synchronize() {
+        Synchronization synchronization = new Synchronization();
+        ivyPhonebookClient.readEntries(synchronization::add);
+        return synchronization.finish();
+    }
+
+    /**
+     * Synchronizes the database with the given Ivy entries, the {@link PhonebookEntry#getId() id} of
+     * which is the id in Ivy.
+     *
+     * @param ivyEntries all entries of the Ivy phonebook.
+     * @return the counts of the written and unchanged entries.
+     */
+    public IvySyncResult synchronize(Collection<PhonebookEntry> ivyEntries) {
+        Synchronization synchronization = new Synchronization();
+        ivyEntries.forEach(synchronization::add);
+        return synchronization.finish();
+    }
+
+    /**
+     * One run of the synchronization. The Ivy entries are compared with the database and written in
+     * chunks of {@link #TRANSACTION_SIZE} as they are read, only their ids are kept until the entries
+     * gone from Ivy are deleted at the end.
+     */
+    private final class Synchronization {
+
+        private final long start = System.nanoTime();
+
+        private final Set<String> seen = new HashSet<>();
+
+        private final List<PhonebookEntry> chunk = new ArrayList<>();
+
+        /**
+         * The ids of the inserted and updated entries, {@code null} once there are too many to be worth keeping.
+         */
+        private Set<Long> changedIds = new HashSet<>();
+
+        private long inserted;
+
+        private long updated;
+
+        private long unchanged;
+
+        private long skipped;
+
+        private void add(PhonebookEntry entry) {
+            if (!isValid(entry)) {
+                log.warn("Skipping invalid Ivy phonebook entry {}", entry);
+                skipped++;
+            } else if (!seen.add(String.valueOf(entry.getId()))) {
+                log.warn("Skipping duplicate Ivy phonebook entry {}", entry);
+                skipped++;
+            } else {
+                chunk.add(entry);
+                if (chunk.size() == TRANSACTION_SIZE) {
+                    synchronizeChunk();
+                }
+            }
+        }
+
+        private IvySyncResult finish() {
+            if (!chunk.isEmpty()) {
+                synchronizeChunk();
+            }
+            List<Long> deletes = findDeletes();
+            if (!deletes.isEmpty() && seen.size() < syncProperties.getMinEntries()) {
+                log.warn(
+                    "Not deleting {} phonebook entries, Ivy returned {} valid entries, fewer than the {} required",
+                    deletes.size(),
+                    seen.size(),
+                    syncProperties.getMinEntries()
+                );
+                deletes = List.of();
+            }
+            log.debug("Synchronizing Ivy phonebook: {} deletes", deletes.size());
+            write(deletes, IvyPhonebookSyncService.this::delete);
+
+            IvySyncResult result = new IvySyncResult(
+                inserted,
+                updated,
+                deletes.size(),
+                unchanged,
+                skipped,
+                Duration.ofNanos(System.nanoTime() - start)
+            );
+            log.info("Ivy phonebook synchronized: {}", result);
+            long changed = result.getInserted() + result.getUpdated() + result.getDeleted();
+            if (changed > 0) {
+                applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("Ivy synchronization", changed, changedIds));
+            }
+            return result;
+        }
+
+        /**
+         * Compares the chunk with the entries of the same Ivy ids and writes the differences.
+         */
+        private void synchronizeChunk() {
+            Map<String, PhonebookEntryRepository.SyncedEntry> current = new HashMap<>();
+            Map<Long, List<String>> currentNumbers = new HashMap<>();
+            List<String> externalIds = new ArrayList<>();
+            chunk.forEach(entry -> externalIds.add(String.valueOf(entry.getId())));
+            readOnlyTransaction.executeWithoutResult(status -> {
+                phonebookEntryRepository
+                    .findAllSyncedByExternalIdIn(externalIds)
+                    .forEach(entry -> current.put(entry.getExternalId(), entry));
+                List<Long> ids = new ArrayList<>();
+                current.values().forEach(entry -> ids.add(entry.getId()));
+                if (!ids.isEmpty()) {
+                    phoneNumberRepository
+                        .findAllSyncedNumbersByPhonebookEntryIdIn(ids)
+                        .forEach(number ->
+                            currentNumbers.computeIfAbsent(number.getPhonebookEntryId(), id -> new ArrayList<>()).add(number.getNumber())
+                        );
+                }
+            });
+
+            List<PhonebookEntry> inserts = new ArrayList<>();
+            Map<Long, PhonebookEntry> updates = new LinkedHashMap<>();
+            for (PhonebookEntry entry : chunk) {
+                PhonebookEntryRepository.SyncedEntry existing = current.get(String.valueOf(entry.getId()));
+                if (existing == null) {
+                    inserts.add(entry);
+                } else if (
+                    !Objects.equals(existing.getDescription(), entry.getDescription()) ||
+                    !sorted(numbersOf(entry)).equals(sorted(currentNumbers.getOrDefault(existing.getId(), List.of())))
+                ) {
+                    updates.put(existing.getId(), entry);
+                } else {
+                    unchanged++;
+                }
+            }
+            log.debug("Synchronizing Ivy phonebook: {} inserts, {} updates", inserts.size(), updates.size());
+
+            write(inserts, entries -> insert(entries, this::changed));
+            write(new ArrayList<>(updates.keySet()), ids -> update(ids, updates));
+            updates.keySet().forEach(this::changed);
+            inserted += inserts.size();
+            updated += updates.size();
+            chunk.clear();
+        }
+
+        private void changed(Long id) {
+            if (changedIds != null && changedIds.add(id) && changedIds.size() > maxChangedEntries) {
+                changedIds = null;
+            }
+        }
+
+        /**
+         * Pages through the synchronized entries of the database for those gone from Ivy.
+         */
+        private List<Long> findDeletes() {
+            List<Long> deletes = new ArrayList<>();
+            long after = 0;
+            List<PhonebookEntryRepository.SyncedEntry> page;
+            do {
+                long from = after;
+                page =
+                    readOnlyTransaction.execute(status ->
+                        phonebookEntryRepository.findAllSyncedAfter(from, PageRequest.of(0, TRANSACTION_SIZE))
+                    );
+                for (PhonebookEntryRepository.SyncedEntry entry : page) {
+                    if (!seen.contains(entry.getExternalId())) {
+                        deletes.add(entry.getId());
+                    }
+                    after = entry.getId();
+                }
+            } while (page.size() == TRANSACTION_SIZE);
+            return deletes;
+        }
+    }
+
+    /**
+     * Hands the given items to the writer in batches of {@code hibernate.jdbc.batch_size}, flushing
+     * the persistence context after each batch.
+     */
+    private <T> void write(List<T> items, Consumer<List<T>> writer) {
+        for (int from = 0; from < items.size(); from += TRANSACTION_SIZE) {
+            List<T> chunk = items.subList(from, Math.min(from + TRANSACTION_SIZE, items.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int batch = 0; batch < chunk.size(); batch += batchSize) {
+                    writer.accept(chunk.subList(batch, Math.min(batch + batchSize, chunk.size())));
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+    private void insert(List<PhonebookEntry> entries, Consumer<Long> inserted) {
+        for (PhonebookEntry entry : entries) {
+            PhonebookEntry created = new PhonebookEntry().description(entry.getDescription()).externalId(String.valueOf(entry.getId()));
+            entityManager.persist(created);
+            for (String number : numbersOf(entry)) {
+                PhoneNumber phoneNumber = new PhoneNumber(number);
+                created.addPhoneNumber(phoneNumber);
+                entityManager.persist(phoneNumber);
+            }
+            inserted.accept(created.getId());
+        }
+    }
+
+    /**
+     * Updates the description if it differs and replaces only the phone numbers that differ.
+     */
+    private void update(List<Long> ids, Map<Long, PhonebookEntry> updates) {
+        for (PhonebookEntry existing : phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(ids)) {
+            PhonebookEntry entry = updates.get(existing.getId());
+            if (!Objects.equals(existing.getDescription(), entry.getDescription())) {
+                existing.setDescription(entry.getDescription());
+            }
+            List<String> missing = numbersOf(entry);
+            for (PhoneNumber phoneNumber : new ArrayList<>(existing.getPhoneNumbers())) {
+                if (!missing.remove(phoneNumber.getNumber())) {
+                    existing.removePhoneNumber(phoneNumber);
+                    entityManager.remove(phoneNumber);
+                }
+            }
+            for (String number : missing) {
+                PhoneNumber phoneNumber = new PhoneNumber(number);
+                existing.addPhoneNumber(phoneNumber);
+                entityManager.persist(phoneNumber);
+            }
+        }
+    }
+
+    private void delete(List<Long> ids) {
+        for (PhonebookEntry existing : phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(ids)) {
+            for (PhoneNumber phoneNumber : new ArrayList<>(existing.getPhoneNumbers())) {
+                existing.removePhoneNumber(phoneNumber);
+                entityManager.remove(phoneNumber);
+            }
+            entityManager.remove(existing);
+        }
+    }
+
+    private static boolean isValid(PhonebookEntry entry) {
+        if (entry == null || entry.getId() == null || entry.getDescription() == null) {
+            return false;
+        }
+        if (entry.getPhoneNumbers() == null) {
+            return true;
+        }
+        return entry.getPhoneNumbers().stream().allMatch(phoneNumber -> phoneNumber != null && phoneNumber.getNumber() != null);
+    }
+
+    private static List<String> numbersOf(PhonebookEntry entry) {
+        List<String> numbers = new ArrayList<>();
+        if (entry.getPhoneNumbers() != null) {
+            entry.getPhoneNumbers().forEach(phoneNumber -> numbers.add(phoneNumber.getNumber()));
+        }
+        return numbers;
+    }
+
+    private static List<String> sorted(List<String> numbers) {
+        List<String> sorted = new ArrayList<>(numbers);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,65 @@
+package ch.qfs.phonebook.generator.service.ivy;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a synchronization of the Ivy phonebook into the database.
+ */
+public final class IvySyncResult {
+
+    private final long inserted;
+    private final long updated;
+    private final long deleted;
+    private final long unchanged;
+    private final long skipped;
+    private final Duration duration;
+
+    public IvySyncResult(long inserted, long updated, long deleted, long unchanged, long skipped, Duration duration) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+        this.skipped = skipped;
+        this.duration = duration;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return the number of Ivy entries left out, for lack of an id or of required values, or as duplicates.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IvySyncResult{" +
+            "inserted=" + inserted +
+            ", updated=" + updated +
+            ", deleted=" + deleted +
+            ", unchanged=" + unchanged +
+            ", skipped=" + skipped +
+            ", duration=" + duration.toMillis() + "ms" +
+            "}";
+    }
+}
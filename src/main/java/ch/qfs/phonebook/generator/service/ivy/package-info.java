@@ -0,0 +1,4 @@
+/**
+ * Access to the Axon Ivy phonebook the directory is imported from.
+ */
+package ch.qfs.phonebook.generator.service.ivy;
@@ -0,0 +1,221 @@
+package ch.qfs.phonebook.generator.service.lookup;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository.PhonebookEntryNumber;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.service.PhoneNumberNormalizer;
+import ch.qfs.phonebook.generator.service.PhonebookChangeTracker;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service resolving phone numbers to their phonebook entry from an in-memory index.
+ * <p>
+ * The index maps the stored canonical form of every number to the entries having it, ordered by
+ * entry id. It is built from the database once the application is ready and then kept current from
+ * the phonebook change log: the entries changed since the previous refresh are read again and
+ * replace their numbers in the index. Lookups only read the index and never touch the database.
+ * <p>
+ * The index is never updated in place: a build swaps in a new index once it is complete, and a
+ * refresh computes the new matches of every number it touches before replacing them, so a lookup
+ * never misses a number an entry keeps.
+ */
+@Service
+public class PhoneNumberLookupService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Comparator<PhoneNumberMatch> BY_ENTRY_ID = Comparator.comparing(PhoneNumberMatch::getPhonebookEntryId);
+
+    private final Logger log = LoggerFactory.getLogger(PhoneNumberLookupService.class);
+
+    private final ApplicationProperties.Lookup lookup;
+
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final PhonebookChangeTracker phonebookChangeTracker;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Map<String, List<PhoneNumberMatch>> matchesByNumber = new ConcurrentHashMap<>();
+
+    /**
+     * The normalized numbers of every indexed entry, only accessed while holding the lock of this service.
+     */
+    private Map<Long, List<String>> numbersByEntry = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public PhoneNumberLookupService(
+        ApplicationProperties applicationProperties,
+        PhoneNumberNormalizer phoneNumberNormalizer,
+        PhoneNumberRepository phoneNumberRepository,
+        PhonebookChangeRepository phonebookChangeRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.lookup = applicationProperties.getLookup();
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.phonebookChangeTracker = new PhonebookChangeTracker(phonebookChangeRepository);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the index from the database when {@code application.lookup.enabled} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (lookup.isEnabled()) {
+            build();
+        }
+    }
+
+    /**
+     * Applies the changes logged since the previous refresh.
+     */
+    @Scheduled(fixedDelayString = "${application.lookup.delay-ms:1000}")
+    public void scheduledRefresh() {
+        if (ready) {
+            refresh();
+        }
+    }
+
+    /**
+     * Builds the index of all phone numbers from scratch.
+     *
+     * @return the number of indexed phone numbers.
+     */
+    public synchronized long build() {
+        long lastId = readOnlyTransaction.execute(status -> phonebookChangeTracker.start());
+        List<PhonebookEntryNumber> numbers = readOnlyTransaction.execute(status -> phoneNumberRepository.findAllEntryNumbers());
+        Map<String, List<PhoneNumberMatch>> matches = new ConcurrentHashMap<>();
+        Map<Long, List<String>> numbersByEntryId = new HashMap<>();
+        add(numbers, matches, numbersByEntryId, number -> new ArrayList<>());
+        matches.replaceAll((number, entryMatches) -> sorted(entryMatches));
+        matchesByNumber = matches;
+        numbersByEntry = numbersByEntryId;
+        ready = true;
+        log.info("Phone number lookup index built with {} numbers up to change {}", numbers.size(), lastId);
+        return numbers.size();
+    }
+
+    /**
+     * Re-indexes the phonebook entries changed since the previous refresh.
+     *
+     * @return the number of re-indexed entries.
+     */
+    public synchronized int refresh() {
+        Set<Long> changedIds = readOnlyTransaction.execute(status -> phonebookChangeTracker.pollChangedEntryIds());
+        List<Long> ids = new ArrayList<>(changedIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            List<PhonebookEntryNumber> numbers = readOnlyTransaction.execute(status ->
+                phoneNumberRepository.findAllEntryNumbersByPhonebookEntryIdIn(batch)
+            );
+            reindex(batch, numbers);
+        }
+        if (!ids.isEmpty()) {
+            log.debug("Phone number lookup index refreshed for {} phonebook entries", ids.size());
+        }
+        return ids.size();
+    }
+
+    /**
+     * @return whether the index was built and lookups can be answered.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param number the number to look up, in any notation.
+     * @return the entry with the lowest id having the given number, if any.
+     */
+    public Optional<PhoneNumberMatch> lookup(String number) {
+        String normalized = phoneNumberNormalizer.normalize(number);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        List<PhoneNumberMatch> matches = matchesByNumber.get(normalized);
+        return matches == null ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    /**
+     * Replaces the numbers of the given entries by the given ones, swapping in the new matches of every
+     * number they had or have.
+     */
+    private void reindex(List<Long> ids, List<PhonebookEntryNumber> numbers) {
+        Set<Long> changedIds = new HashSet<>(ids);
+        Function<String, List<PhoneNumberMatch>> unchangedMatches = number -> {
+            List<PhoneNumberMatch> matches = new ArrayList<>(matchesByNumber.getOrDefault(number, List.of()));
+            matches.removeIf(match -> changedIds.contains(match.getPhonebookEntryId()));
+            return matches;
+        };
+        Map<String, List<PhoneNumberMatch>> updated = new HashMap<>();
+        for (Long id : ids) {
+            for (String number : numbersByEntry.getOrDefault(id, List.of())) {
+                updated.computeIfAbsent(number, unchangedMatches);
+            }
+            numbersByEntry.remove(id);
+        }
+        add(numbers, updated, numbersByEntry, unchangedMatches);
+        updated.forEach((number, matches) -> {
+            if (matches.isEmpty()) {
+                matchesByNumber.remove(number);
+            } else {
+                matchesByNumber.put(number, sorted(matches));
+            }
+        });
+    }
+
+    /**
+     * Adds the matches of the given numbers to the given maps, starting the matches of a number not in
+     * the given ones with the given function.
+     */
+    private void add(
+        List<PhonebookEntryNumber> numbers,
+        Map<String, List<PhoneNumberMatch>> matches,
+        Map<Long, List<String>> numbersByEntryId,
+        Function<String, List<PhoneNumberMatch>> initialMatches
+    ) {
+        for (PhonebookEntryNumber number : numbers) {
+            String normalized = number.getNormalizedNumber();
+            if (normalized == null) {
+                normalized = phoneNumberNormalizer.normalize(number.getNumber());
+            }
+            if (normalized == null) {
+                continue;
+            }
+            matches
+                .computeIfAbsent(normalized, initialMatches)
+                .add(new PhoneNumberMatch(normalized, number.getPhonebookEntryId(), number.getDescription()));
+            numbersByEntryId.computeIfAbsent(number.getPhonebookEntryId(), id -> new ArrayList<>()).add(normalized);
+        }
+    }
+
+    private static List<PhoneNumberMatch> sorted(List<PhoneNumberMatch> matches) {
+        List<PhoneNumberMatch> sorted = new ArrayList<>(matches);
+        sorted.sort(BY_ENTRY_ID);
+        return List.copyOf(sorted);
+    }
+}
@@ -0,0 +1,42 @@
+package ch.qfs.phonebook.generator.service.lookup;
+
+/**
+ * A phonebook entry found for a phone number.
+ */
+public final class PhoneNumberMatch {
+
+    private final String number;
+    private final Long phonebookEntryId;
+    private final String description;
+
+    public PhoneNumberMatch(String number, Long phonebookEntryId, String description) {
+        this.number = number;
+        this.phonebookEntryId = phonebookEntryId;
+        this.description = description;
+    }
+
+    /**
+     * @return the normalized number.
+     */
+    public String getNumber() {
+        return number;
+    }
+
+    public Long getPhonebookEntryId() {
+        return phonebookEntryId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhoneNumberMatch{" +
+            "number='" + number + "'" +
+            ", phonebookEntryId=" + phonebookEntryId +
+            ", description='" + description + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Caller-ID lookup of phone numbers.
+ */
+package ch.qfs.phonebook.generator.service.lookup;
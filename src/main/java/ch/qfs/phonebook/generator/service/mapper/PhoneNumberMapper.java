@@ -0,0 +1,63 @@
+package ch.qfs.phonebook.generator.service.mapper;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository.PhoneNumberView;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link PhoneNumber} and its DTO {@link PhoneNumberDTO}.
+ * <p>
+ * The entry of a number is mapped to a DTO with its id and description only. It is not mapped back
+ * to the entity, as {@link ch.qfs.phonebook.generator.service.PhoneNumberService} sets it by id, nor
+ * is the version, which is maintained by Hibernate.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface PhoneNumberMapper extends EntityMapper<PhoneNumberDTO, PhoneNumber> {
+    @Override
+    @Mapping(target = "phonebookEntry", source = "phonebookEntry", qualifiedByName = "phonebookEntryDescription")
+    PhoneNumberDTO toDto(PhoneNumber s);
+
+    @Override
+    @Mapping(target = "normalizedNumber", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "phonebookEntry", ignore = true)
+    PhoneNumber toEntity(PhoneNumberDTO phoneNumberDTO);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "normalizedNumber", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "phonebookEntry", ignore = true)
+    void partialUpdate(@MappingTarget PhoneNumber entity, PhoneNumberDTO dto);
+
+    @Named("phonebookEntryDescription")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "description", source = "description")
+    PhonebookEntryDTO toDtoPhonebookEntryDescription(PhonebookEntry phonebookEntry);
+
+    /**
+     * Maps a phone number read as projection, without loading the entity.
+     *
+     * @param view the phone number with the id and description of its entry.
+     * @return the DTO.
+     */
+    default PhoneNumberDTO toDto(PhoneNumberView view) {
+        PhoneNumberDTO phoneNumberDTO = new PhoneNumberDTO();
+        phoneNumberDTO.setId(view.getId());
+        phoneNumberDTO.setNumber(view.getNumber());
+        phoneNumberDTO.setNormalizedNumber(view.getNormalizedNumber());
+        phoneNumberDTO.setVersion(view.getVersion());
+        if (view.getPhonebookEntryId() != null) {
+            PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+            phonebookEntryDTO.setId(view.getPhonebookEntryId());
+            phonebookEntryDTO.setDescription(view.getPhonebookEntryDescription());
+            phoneNumberDTO.setPhonebookEntry(phonebookEntryDTO);
+        }
+        return phoneNumberDTO;
+    }
+}
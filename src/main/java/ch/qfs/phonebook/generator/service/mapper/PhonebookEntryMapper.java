@@ -0,0 +1,74 @@
+package ch.qfs.phonebook.generator.service.mapper;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.ExportedEntryNumber;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import java.util.ArrayList;
+import java.util.List;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link PhonebookEntry} and its DTO {@link PhonebookEntryDTO}.
+ * <p>
+ * The phone numbers of an entry are mapped to DTOs without their entry. They are not mapped back to
+ * the entity, as they are maintained through their own resource or the bulk save. The version is
+ * not mapped back either, as it is maintained by Hibernate.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface PhonebookEntryMapper extends EntityMapper<PhonebookEntryDTO, PhonebookEntry> {
+    @Override
+    @Mapping(target = "phoneNumbers", source = "phoneNumbers", qualifiedByName = "phoneNumberWithoutEntry")
+    PhonebookEntryDTO toDto(PhonebookEntry s);
+
+    @Override
+    @Mapping(target = "externalId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "phoneNumbers", ignore = true)
+    @Mapping(target = "removePhoneNumber", ignore = true)
+    PhonebookEntry toEntity(PhonebookEntryDTO phonebookEntryDTO);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "externalId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "phoneNumbers", ignore = true)
+    @Mapping(target = "removePhoneNumber", ignore = true)
+    void partialUpdate(@MappingTarget PhonebookEntry entity, PhonebookEntryDTO dto);
+
+    @Named("phoneNumberWithoutEntry")
+    @Mapping(target = "phonebookEntry", ignore = true)
+    PhoneNumberDTO toDtoPhoneNumberWithoutEntry(PhoneNumber phoneNumber);
+
+    /**
+     * Maps entries read as projection rows, without loading the entities.
+     *
+     * @param rows the entries with their phone numbers, one row per phone number, ordered by entry.
+     * @return the DTOs in the order of the rows.
+     */
+    default List<PhonebookEntryDTO> rowsToDtos(List<ExportedEntryNumber> rows) {
+        List<PhonebookEntryDTO> phonebookEntryDTOs = new ArrayList<>();
+        PhonebookEntryDTO phonebookEntryDTO = null;
+        for (ExportedEntryNumber row : rows) {
+            if (phonebookEntryDTO == null || !phonebookEntryDTO.getId().equals(row.getId())) {
+                phonebookEntryDTO = new PhonebookEntryDTO();
+                phonebookEntryDTO.setId(row.getId());
+                phonebookEntryDTO.setDescription(row.getDescription());
+                phonebookEntryDTO.setExternalId(row.getExternalId());
+                phonebookEntryDTO.setVersion(row.getVersion());
+                phonebookEntryDTOs.add(phonebookEntryDTO);
+            }
+            if (row.getPhoneNumberId() != null) {
+                PhoneNumberDTO phoneNumberDTO = new PhoneNumberDTO();
+                phoneNumberDTO.setId(row.getPhoneNumberId());
+                phoneNumberDTO.setNumber(row.getNumber());
+                phoneNumberDTO.setNormalizedNumber(row.getNormalizedNumber());
+                phoneNumberDTO.setVersion(row.getPhoneNumberVersion());
+                phonebookEntryDTO.getPhoneNumbers().add(phoneNumberDTO);
+            }
+        }
+        return phonebookEntryDTOs;
+    }
+}
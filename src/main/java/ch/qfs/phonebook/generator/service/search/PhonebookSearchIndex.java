@@ -0,0 +1,348 @@
+package ch.qfs.phonebook.generator.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over the descriptions and phone numbers of the phonebook entries.
+ * <p>
+ * The words of every description and the digits of every phone number are indexed by their
+ * trigrams and by their first one and two characters. A query term of at least three characters
+ * finds the entries having all its trigrams, a shorter one the entries having a word or number
+ * starting with it. The candidates are then checked against the terms and ranked: exact words rank
+ * above word prefixes, which rank above infixes. Descriptions are compared in lower case without
+ * accents, numbers by their digits without international or trunk prefix. Numbers of the own
+ * country are also indexed without country code, so they are found as typed nationally. Instances
+ * are not thread-safe.
+ */
+public class PhonebookSearchIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final String ANCHOR = "^";
+
+    private static final Pattern NUMBER_QUERY = Pattern.compile("[+\\d\\s()./-]*\\d[+\\d\\s()./-]*");
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<PhonebookSearchMatch> RANKING = Comparator
+        .comparingInt(PhonebookSearchMatch::getScore)
+        .reversed()
+        .thenComparingInt(match -> match.getDescription() == null ? 0 : match.getDescription().length())
+        .thenComparing(PhonebookSearchMatch::getId);
+
+    private final String countryCode;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * @param countryCode the country code of national numbers, without {@code +}.
+     */
+    public PhonebookSearchIndex(String countryCode) {
+        this.countryCode = countryCode == null ? "" : countryCode.replaceAll("\\D", "");
+    }
+
+    /**
+     * Adds an entry to the index, replacing its previous version.
+     *
+     * @param id the id of the entry.
+     * @param description the description of the entry.
+     * @param numbers the phone numbers of the entry as stored, returned with the matches.
+     * @param normalizedNumbers the canonical forms of the phone numbers, which are searched.
+     */
+    public void put(Long id, String description, List<String> numbers, Collection<String> normalizedNumbers) {
+        remove(id);
+        Set<String> grams = new HashSet<>();
+        List<String> words = words(description);
+        words.forEach(word -> addGrams(word, grams));
+        List<String> digits = new ArrayList<>(normalizedNumbers.size());
+        for (String normalizedNumber : normalizedNumbers) {
+            String numberDigits = numberDigits(normalizedNumber);
+            if (numberDigits != null) {
+                digits.add(numberDigits);
+                addGrams(numberDigits, grams);
+                String nationalDigits = nationalDigits(normalizedNumber, numberDigits);
+                if (nationalDigits != null) {
+                    digits.add(nationalDigits);
+                    addGrams(nationalDigits, grams);
+                }
+            }
+        }
+        documents.put(id, new Document(id, description, List.copyOf(numbers), words, digits, grams));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Removes an entry from the index, if present.
+     *
+     * @param id the id of the entry.
+     */
+    public void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams) {
+            postings.computeIfPresent(
+                gram,
+                (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                }
+            );
+        }
+    }
+
+    /**
+     * @return the number of indexed entries.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Finds the entries matching every term of the query.
+     * <p>
+     * A query made of digits and phone number separators only, like {@code 044 123 45}, is a single
+     * number term; otherwise every word of the query is a term, matching a description word or, if it
+     * consists of digits, a phone number.
+     *
+     * @param query the search query.
+     * @param limit the maximal number of matches.
+     * @return the best matches, best first.
+     */
+    public List<PhonebookSearchMatch> search(String query, int limit) {
+        List<Term> terms = parse(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> candidates = null;
+        for (Term term : terms) {
+            Set<Long> termCandidates = candidates(term);
+            if (candidates == null) {
+                candidates = termCandidates;
+            } else {
+                candidates.retainAll(termCandidates);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        PriorityQueue<PhonebookSearchMatch> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            int score = 0;
+            for (Term term : terms) {
+                int termScore = term.score(document);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score > 0) {
+                best.add(new PhonebookSearchMatch(id, document.description, document.numbers, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<PhonebookSearchMatch> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    private Set<Long> candidates(Term term) {
+        Set<Long> candidates = new HashSet<>();
+        if (term.text != null) {
+            candidates.addAll(candidates(term.text));
+        }
+        if (term.digits != null) {
+            candidates.addAll(candidates(term.digits));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the ids of the entries having all trigrams of the given string, or a word or number
+     * starting with it if it is shorter than a trigram.
+     */
+    private Set<Long> candidates(String string) {
+        if (string.length() < GRAM_LENGTH) {
+            return postings.getOrDefault(ANCHOR + string, Set.of());
+        }
+        List<Set<Long>> gramPostings = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= string.length(); i++) {
+            Set<Long> ids = postings.get(string.substring(i, i + GRAM_LENGTH));
+            if (ids == null) {
+                return Set.of();
+            }
+            gramPostings.add(ids);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new HashSet<>(gramPostings.get(0));
+        for (int i = 1; i < gramPostings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(gramPostings.get(i));
+        }
+        return candidates;
+    }
+
+    private static void addGrams(String term, Set<String> grams) {
+        grams.add(ANCHOR + term.substring(0, 1));
+        if (term.length() > 1) {
+            grams.add(ANCHOR + term.substring(0, 2));
+        }
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    private static List<Term> parse(String query) {
+        List<Term> terms = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return terms;
+        }
+        if (NUMBER_QUERY.matcher(query).matches()) {
+            String digits = queryDigits(query);
+            if (digits != null) {
+                terms.add(new Term(null, digits));
+            }
+            return terms;
+        }
+        for (String word : words(query)) {
+            terms.add(new Term(word, queryDigits(word)));
+        }
+        return terms;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String word : WORD_SEPARATOR.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the digits of a canonical phone number, without {@code +}.
+     */
+    private static String numberDigits(String normalizedNumber) {
+        if (normalizedNumber == null) {
+            return null;
+        }
+        String digits = normalizedNumber.replaceAll("\\D", "");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    /**
+     * @return the digits of a canonical phone number of the own country without country code, {@code null} for other numbers.
+     */
+    private String nationalDigits(String normalizedNumber, String numberDigits) {
+        if (countryCode.isEmpty() || !normalizedNumber.startsWith("+" + countryCode) || numberDigits.length() <= countryCode.length()) {
+            return null;
+        }
+        return numberDigits.substring(countryCode.length());
+    }
+
+    /**
+     * @return the digits of a number typed in a query, without international or trunk prefix, or
+     * {@code null} if the query term is not made of digits.
+     */
+    private static String queryDigits(String term) {
+        if (term.chars().noneMatch(Character::isDigit) || term.chars().anyMatch(Character::isLetter)) {
+            return null;
+        }
+        String digits = term.replaceAll("\\D", "");
+        if (digits.startsWith("00")) {
+            digits = digits.substring(2);
+        } else if (digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        return digits.isEmpty() ? null : digits;
+    }
+
+    private static final class Document {
+
+        private final Long id;
+        private final String description;
+        private final List<String> numbers;
+        private final List<String> words;
+        private final List<String> digits;
+        private final Set<String> grams;
+
+        private Document(Long id, String description, List<String> numbers, List<String> words, List<String> digits, Set<String> grams) {
+            this.id = id;
+            this.description = description;
+            this.numbers = numbers;
+            this.words = words;
+            this.digits = digits;
+            this.grams = grams;
+        }
+    }
+
+    /**
+     * A term of a query, matching a description word by its text or a phone number by its digits.
+     */
+    private static final class Term {
+
+        private final String text;
+        private final String digits;
+
+        private Term(String text, String digits) {
+            this.text = text;
+            this.digits = digits;
+        }
+
+        /**
+         * @return how well the term matches the entry, {@code 0} if it does not.
+         */
+        private int score(Document document) {
+            int score = 0;
+            if (text != null) {
+                for (String word : document.words) {
+                    score = Math.max(score, score(word, text));
+                }
+            }
+            if (digits != null) {
+                for (String number : document.digits) {
+                    score = Math.max(score, score(number, digits));
+                }
+            }
+            return score;
+        }
+
+        private static int score(String value, String term) {
+            if (value.equals(term)) {
+                return 3;
+            } else if (value.startsWith(term) || (term.length() >= GRAM_LENGTH && value.endsWith(term))) {
+                return 2;
+            } else if (term.length() >= GRAM_LENGTH && value.contains(term)) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+}
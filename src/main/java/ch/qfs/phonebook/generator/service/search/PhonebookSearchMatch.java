@@ -0,0 +1,54 @@
+package ch.qfs.phonebook.generator.service.search;
+
+import java.util.List;
+
+/**
+ * A phonebook entry found by a search, with the score it was ranked by.
+ */
+public final class PhonebookSearchMatch {
+
+    private final Long id;
+    private final String description;
+    private final List<String> numbers;
+    private final int score;
+
+    public PhonebookSearchMatch(Long id, String description, List<String> numbers, int score) {
+        this.id = id;
+        this.description = description;
+        this.numbers = List.copyOf(numbers);
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the phone numbers of the entry, as stored.
+     */
+    public List<String> getNumbers() {
+        return numbers;
+    }
+
+    /**
+     * @return how well the entry matches, higher is better.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PhonebookSearchMatch{" +
+            "id=" + id +
+            ", description='" + description + "'" +
+            ", numbers=" + numbers +
+            ", score=" + score +
+            "}";
+    }
+}
@@ -0,0 +1,200 @@
+package ch.qfs.phonebook.generator.service.search;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository.PhonebookEntryNumber;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.DescribedEntry;
+import ch.qfs.phonebook.generator.service.PhoneNumberNormalizer;
+import ch.qfs.phonebook.generator.service.PhonebookChangeTracker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the phonebook entries by description and phone number from an in-memory
+ * {@link PhonebookSearchIndex}.
+ * <p>
+ * The index is built from the database once the application is ready and then kept current from
+ * the phonebook change log: the entries changed since the previous refresh are read again and
+ * replace their previous version in the index. Searches only read the index and never touch the
+ * database.
+ */
+@Service
+public class PhonebookSearchService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookSearchService.class);
+
+    private final ApplicationProperties.Search search;
+
+    private final String countryCode;
+
+    private final PhoneNumberNormalizer phoneNumberNormalizer;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final PhonebookChangeTracker phonebookChangeTracker;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The index, {@code null} until built, only accessed while holding {@link #lock}.
+     */
+    private PhonebookSearchIndex index;
+
+    public PhonebookSearchService(
+        ApplicationProperties applicationProperties,
+        PhoneNumberNormalizer phoneNumberNormalizer,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhoneNumberRepository phoneNumberRepository,
+        PhonebookChangeRepository phonebookChangeRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.search = applicationProperties.getSearch();
+        this.countryCode = applicationProperties.getNormalization().getCountryCode();
+        this.phoneNumberNormalizer = phoneNumberNormalizer;
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.phonebookChangeTracker = new PhonebookChangeTracker(phonebookChangeRepository);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the index from the database when {@code application.search.enabled} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (search.isEnabled()) {
+            build();
+        }
+    }
+
+    /**
+     * Applies the changes logged since the previous refresh.
+     */
+    @Scheduled(fixedDelayString = "${application.search.delay-ms:1000}")
+    public void scheduledRefresh() {
+        if (isReady()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Builds the index of all phonebook entries from scratch, replacing the current index once complete.
+     *
+     * @return the number of indexed entries.
+     */
+    public synchronized int build() {
+        long lastId = readOnlyTransaction.execute(status -> phonebookChangeTracker.start());
+        PhonebookSearchIndex built = new PhonebookSearchIndex(countryCode);
+        readOnlyTransaction.executeWithoutResult(status ->
+            index(built, phonebookEntryRepository.findAllDescribed(), phoneNumberRepository.findAllEntryNumbers())
+        );
+        lock.writeLock().lock();
+        try {
+            index = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Phonebook search index built with {} entries up to change {}", built.size(), lastId);
+        return built.size();
+    }
+
+    /**
+     * Re-indexes the phonebook entries changed since the previous refresh.
+     *
+     * @return the number of re-indexed entries.
+     */
+    public synchronized int refresh() {
+        Set<Long> changedIds = readOnlyTransaction.execute(status -> phonebookChangeTracker.pollChangedEntryIds());
+        List<Long> ids = new ArrayList<>(changedIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            List<DescribedEntry> entries = new ArrayList<>();
+            List<PhonebookEntryNumber> numbers = new ArrayList<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                entries.addAll(phonebookEntryRepository.findAllDescribedByIdIn(batch));
+                numbers.addAll(phoneNumberRepository.findAllEntryNumbersByPhonebookEntryIdIn(batch));
+            });
+            lock.writeLock().lock();
+            try {
+                batch.forEach(index::remove);
+                index(index, entries, numbers);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (!ids.isEmpty()) {
+            log.debug("Phonebook search index refreshed for {} phonebook entries", ids.size());
+        }
+        return ids.size();
+    }
+
+    /**
+     * @return whether the index was built and searches can be answered.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param query the words or the phone number to search for.
+     * @param limit the maximal number of matches, at most {@code application.search.max-results}.
+     * @return the best matching entries, best first.
+     * @throws IllegalStateException if the index is not built.
+     */
+    public List<PhonebookSearchMatch> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException("The phonebook search index is not built");
+            }
+            return index.search(query, Math.min(limit, search.getMaxResults()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(PhonebookSearchIndex target, List<DescribedEntry> entries, List<PhonebookEntryNumber> numbers) {
+        Map<Long, List<PhonebookEntryNumber>> numbersByEntry = new HashMap<>();
+        for (PhonebookEntryNumber number : numbers) {
+            numbersByEntry.computeIfAbsent(number.getPhonebookEntryId(), id -> new ArrayList<>()).add(number);
+        }
+        for (DescribedEntry entry : entries) {
+            List<PhonebookEntryNumber> entryNumbers = numbersByEntry.getOrDefault(entry.getId(), List.of());
+            List<String> stored = new ArrayList<>(entryNumbers.size());
+            List<String> normalized = new ArrayList<>(entryNumbers.size());
+            for (PhonebookEntryNumber number : entryNumbers) {
+                stored.add(number.getNumber());
+                String normalizedNumber = number.getNormalizedNumber();
+                normalized.add(normalizedNumber != null ? normalizedNumber : phoneNumberNormalizer.normalize(number.getNumber()));
+            }
+            target.put(entry.getId(), entry.getDescription(), stored, normalized);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Type-ahead search over the phonebook entries.
+ */
+package ch.qfs.phonebook.generator.service.search;
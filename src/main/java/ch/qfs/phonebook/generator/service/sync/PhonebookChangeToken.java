@@ -0,0 +1,76 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The position of a client in the phonebook change log: the id of the last change it has seen and
+ * the time the token was issued. Clients get the token as an opaque text.
+ */
+public final class PhonebookChangeToken {
+
+    private static final char SEPARATOR = '.';
+
+    private final long changeId;
+
+    private final Instant issuedAt;
+
+    public PhonebookChangeToken(long changeId, Instant issuedAt) {
+        this.changeId = changeId;
+        this.issuedAt = issuedAt;
+    }
+
+    /**
+     * @param text a token as returned by {@link #toString()}.
+     * @return the token.
+     * @throws IllegalArgumentException if the text is not a token.
+     */
+    public static PhonebookChangeToken parse(String text) {
+        int separator = text.indexOf(SEPARATOR);
+        try {
+            if (separator > 0) {
+                long changeId = Long.parseLong(text.substring(0, separator));
+                long issuedAt = Long.parseLong(text.substring(separator + 1));
+                if (changeId >= 0 && issuedAt >= 0) {
+                    return new PhonebookChangeToken(changeId, Instant.ofEpochMilli(issuedAt));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid change token: " + text);
+    }
+
+    /**
+     * @return the id of the last change the client has seen, changes with a higher id are new to it.
+     */
+    public long getChangeId() {
+        return changeId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PhonebookChangeToken)) {
+            return false;
+        }
+        PhonebookChangeToken other = (PhonebookChangeToken) o;
+        return changeId == other.changeId && issuedAt.equals(other.issuedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(changeId, issuedAt);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(changeId) + SEPARATOR + issuedAt.toEpochMilli();
+    }
+}
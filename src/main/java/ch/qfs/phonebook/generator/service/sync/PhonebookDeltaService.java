@@ -0,0 +1,163 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookChangeCompaction;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeCompactionRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.dto.PhonebookChangesDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.mapper.PhonebookEntryMapper;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service handing the changes of the phonebook to clients mirroring it, from the
+ * {@link PhonebookChange} log.
+ * <p>
+ * A client loads the phonebook once and then asks for the changes since the token of its last
+ * request. It gets the current state of every phonebook entry changed since, and the ids of the
+ * deleted entries, so the changes of an entry are merged into one and a change of a phone number
+ * is sent as its entry.
+ * <p>
+ * Change ids are drawn from a sequence before the transaction commits, so a change can become
+ * visible after changes with a higher id. The token does not move past a gap in the ids until the
+ * gap is filled or {@code application.changes.late-commit-ms} have passed since the change after
+ * the gap was dated; the changes after the gap are sent again meanwhile. Changes are dated when
+ * their ids are drawn, see {@link ch.qfs.phonebook.generator.repository.PhonebookChangeListener},
+ * so a transaction running for long does not settle the gaps in front of its changes early.
+ * <p>
+ * Tokens expire after {@code application.changes.retention-days}, and as soon as the compaction
+ * has deleted a change they would need. Each compaction records the
+ * last change it deleted, as a {@link PhonebookChangeCompaction}, as a client paging through the
+ * changes gets a new token with every page.
+ */
+@Service
+@Transactional
+public class PhonebookDeltaService {
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookDeltaService.class);
+
+    private final PhonebookChangeRepository phonebookChangeRepository;
+
+    private final PhonebookChangeCompactionRepository phonebookChangeCompactionRepository;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhonebookEntryMapper phonebookEntryMapper;
+
+    private final ApplicationProperties.Changes changes;
+
+    public PhonebookDeltaService(
+        PhonebookChangeRepository phonebookChangeRepository,
+        PhonebookChangeCompactionRepository phonebookChangeCompactionRepository,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhonebookEntryMapper phonebookEntryMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.phonebookChangeRepository = phonebookChangeRepository;
+        this.phonebookChangeCompactionRepository = phonebookChangeCompactionRepository;
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phonebookEntryMapper = phonebookEntryMapper;
+        this.changes = applicationProperties.getChanges();
+    }
+
+    /**
+     * Get the changes of the phonebook since the given token.
+     *
+     * @param since the token of the previous request, {@code null} for the token of the current
+     * phonebook without any changes, to be taken before the client loads the whole phonebook.
+     * @return the changes, at most {@code application.changes.max-changes}, empty if the token has expired.
+     * @throws IllegalArgumentException if the token is invalid.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PhonebookChangesDTO> findChanges(String since) {
+        log.debug("Request to get the phonebook changes since : {}", since);
+        Instant now = Instant.now();
+        Instant settled = now.minusMillis(changes.getLateCommitMs());
+        PhonebookChangesDTO result = new PhonebookChangesDTO();
+        if (since == null) {
+            // the recent changes are sent again, as changes with lower ids may not be committed yet
+            Long firstRecentId = phonebookChangeRepository.findFirstIdChangedSince(settled);
+            long changeId = firstRecentId != null ? firstRecentId - 1 : phonebookChangeRepository.findLastId();
+            // the log may have been compacted down to nothing
+            changeId = Math.max(changeId, phonebookChangeCompactionRepository.findLastCompactedId());
+            result.setToken(new PhonebookChangeToken(changeId, now).toString());
+            return Optional.of(result);
+        }
+        PhonebookChangeToken token = PhonebookChangeToken.parse(since);
+        if (token.getIssuedAt().isBefore(now.minus(changes.getRetentionDays(), ChronoUnit.DAYS))) {
+            log.debug("Phonebook change token {} has expired", token);
+            return Optional.empty();
+        }
+        int maxChanges = Math.max(1, changes.getMaxChanges());
+        List<PhonebookChange> newChanges = phonebookChangeRepository.findAllByIdGreaterThanOrderById(
+            token.getChangeId(),
+            PageRequest.of(0, maxChanges)
+        );
+        // checked after reading the changes, so a compaction committed in between is not missed
+        if (token.getChangeId() < phonebookChangeCompactionRepository.findLastCompactedId()) {
+            log.debug("Phonebook changes after token {} have been compacted", token);
+            return Optional.empty();
+        }
+        long seenId = token.getChangeId();
+        long previousId = token.getChangeId();
+        boolean gap = false;
+        Set<Long> changedIds = new TreeSet<>();
+        for (PhonebookChange change : newChanges) {
+            gap |= change.getId() != previousId + 1 && change.getChangedDate().isAfter(settled);
+            if (!gap) {
+                seenId = change.getId();
+            }
+            previousId = change.getId();
+            if (change.getPhonebookEntryId() != null) {
+                changedIds.add(change.getPhonebookEntryId());
+            }
+        }
+        if (!changedIds.isEmpty()) {
+            result.setPhonebookEntries(phonebookEntryMapper.rowsToDtos(phonebookEntryRepository.findAllEntryNumbersByIdIn(changedIds)));
+            for (PhonebookEntryDTO phonebookEntryDTO : result.getPhonebookEntries()) {
+                changedIds.remove(phonebookEntryDTO.getId());
+            }
+            result.getDeletedPhonebookEntryIds().addAll(changedIds);
+        }
+        result.setToken(new PhonebookChangeToken(seenId, now).toString());
+        // no more right away if the token is held back by a gap, the next changes would be the same
+        result.setMore(newChanges.size() == maxChanges && seenId > token.getChangeId());
+        return Optional.of(result);
+    }
+
+    /**
+     * Deletes the changes older than the retention, and records the last deleted change so that
+     * the tokens which would need any of them expire.
+     * <p>
+     * This is scheduled to run according to {@code application.changes.compaction-cron}.
+     *
+     * @return the number of deleted changes.
+     */
+    @Scheduled(cron = "${application.changes.compaction-cron:0 30 1 * * ?}")
+    public int compact() {
+        Instant now = Instant.now();
+        Instant before = now.minus(changes.getRetentionDays(), ChronoUnit.DAYS).minusMillis(changes.getLateCommitMs());
+        Long lastId = phonebookChangeRepository.findLastIdChangedBefore(before);
+        if (lastId == null) {
+            log.info("No phonebook changes logged before {}", before);
+            return 0;
+        }
+        int deleted = phonebookChangeRepository.deleteAllChangedBefore(before);
+        phonebookChangeCompactionRepository.save(new PhonebookChangeCompaction(lastId, now));
+        log.info("Deleted {} phonebook changes logged before {}", deleted, before);
+        return deleted;
+    }
+}
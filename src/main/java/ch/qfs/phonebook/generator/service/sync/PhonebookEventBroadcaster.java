@@ -0,0 +1,290 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEventDTO;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service fanning the phonebook events out to their subscribers.
+ * <p>
+ * Publishing never blocks: every subscriber buffers at most {@code application.events.buffer-size}
+ * events, which are sent to it by the few threads of {@code application.events.threads}. An idle
+ * subscriber holds no thread. A subscriber whose buffer is full has fallen behind, it is evicted and
+ * its sink closed, so it reconnects and reloads the phonebook instead of slowing the others down.
+ * <p>
+ * Writes to a sink block. A subscriber whose write has taken longer than
+ * {@code application.events.send-timeout-ms} at a heartbeat is evicted too, and the thread writing
+ * to it is interrupted, so a stalled client does not hold one of the few threads for long.
+ */
+@Service
+public class PhonebookEventBroadcaster {
+
+    /**
+     * The buffered item standing for a heartbeat, compared by identity.
+     */
+    private static final Object HEARTBEAT = new Object();
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEventBroadcaster.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final int bufferSize;
+
+    private final long sendTimeoutNanos;
+
+    private final Executor sender;
+
+    @Autowired
+    public PhonebookEventBroadcaster(ApplicationProperties applicationProperties) {
+        this(
+            applicationProperties.getEvents().getBufferSize(),
+            applicationProperties.getEvents().getSendTimeoutMs(),
+            Executors.newFixedThreadPool(
+                Math.max(1, applicationProperties.getEvents().getThreads()),
+                new CustomizableThreadFactory("phonebook-events-")
+            )
+        );
+    }
+
+    PhonebookEventBroadcaster(int bufferSize, long sendTimeoutMs, Executor sender) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.sender = sender;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::evict);
+        if (sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdownNow();
+        }
+    }
+
+    /**
+     * Subscribes to the events published from now on.
+     *
+     * @param sink the connection of the subscriber.
+     * @return the subscription, to be cancelled when the connection is closed.
+     */
+    public Subscription subscribe(PhonebookEventSink sink) {
+        Subscription subscription = new Subscription(sink);
+        subscriptions.add(subscription);
+        log.debug("Phonebook event subscription added, {} subscribers", subscriptions.size());
+        return subscription;
+    }
+
+    /**
+     * @return whether there are subscribers the events are worth building for.
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * @return the number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Buffers the given events for every subscriber, evicting the subscribers without room for them.
+     *
+     * @param events the events in the order they are to be sent.
+     */
+    public void publish(List<? extends PhonebookEventDTO<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(events);
+        }
+    }
+
+    /**
+     * Sends a heartbeat to every subscriber after its buffered events, dropping the broken connections.
+     * The heartbeat is skipped for a subscriber with a full buffer, a subscriber whose write is blocked
+     * for longer than the send timeout is evicted.
+     * <p>
+     * This is scheduled to run every {@code application.events.heartbeat-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isStalled(now)) {
+                log.info("Evicting phonebook event subscriber, a write is blocked for more than {} ms", sendTimeoutNanos / 1000000);
+                subscription.abort();
+            } else {
+                subscription.offer(List.of(HEARTBEAT));
+            }
+        }
+    }
+
+    /**
+     * The subscription of one sink, with its buffer. At most one task sending its buffered events is
+     * submitted at a time, so the sink is used by one thread at a time and gets the events in order.
+     */
+    public final class Subscription {
+
+        private final PhonebookEventSink sink;
+
+        private final Queue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+
+        /**
+         * Whether the subscription was evicted for a blocked write, guarded by the subscription.
+         */
+        private boolean aborted;
+
+        /**
+         * The thread sending to the sink, guarded by the subscription.
+         */
+        private Thread writer;
+
+        /**
+         * When the current write started, as of {@link System#nanoTime()}, if {@link #writing}.
+         */
+        private volatile long writeStarted;
+
+        private volatile boolean writing;
+
+        private Subscription(PhonebookEventSink sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Cancels the subscription, no more events are sent to the sink.
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                subscriptions.remove(this);
+                buffer.clear();
+                log.debug("Phonebook event subscription removed, {} subscribers", subscriptions.size());
+            }
+        }
+
+        /**
+         * @return whether the subscription was cancelled or evicted.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void offer(List<?> items) {
+            if (cancelled) {
+                return;
+            }
+            // publish and heartbeat may run concurrently, which may only reorder a heartbeat
+            for (Object item : items) {
+                if (!buffer.offer(item)) {
+                    if (item != HEARTBEAT) {
+                        log.info("Evicting phonebook event subscriber, {} events are buffered", buffer.size());
+                        evict();
+                        return;
+                    }
+                    break;
+                }
+            }
+            trySend();
+        }
+
+        private void evict() {
+            cancel();
+            sink.close();
+        }
+
+        private boolean isStalled(long now) {
+            return writing && now - writeStarted > sendTimeoutNanos;
+        }
+
+        /**
+         * Evicts the subscription for a blocked write. The sink is closed by the thread sending to it,
+         * if there still is one, as it is used by one thread at a time.
+         */
+        private void abort() {
+            cancel();
+            synchronized (this) {
+                aborted = true;
+                if (writer != null) {
+                    writer.interrupt();
+                    return;
+                }
+            }
+            sink.close();
+        }
+
+        private void trySend() {
+            if (!cancelled && !buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void send() {
+            synchronized (this) {
+                if (aborted) {
+                    sending.set(false);
+                    return;
+                }
+                writer = Thread.currentThread();
+            }
+            boolean close;
+            try {
+                Object item;
+                while (!cancelled && (item = buffer.poll()) != null) {
+                    writeStarted = System.nanoTime();
+                    writing = true;
+                    if (item == HEARTBEAT) {
+                        sink.sendHeartbeat();
+                    } else {
+                        sink.send((PhonebookEventDTO<?>) item);
+                    }
+                    writing = false;
+                }
+            } catch (Exception e) {
+                log.debug("Phonebook event subscriber disconnected: {}", e.toString());
+                cancel();
+            } finally {
+                writing = false;
+                synchronized (this) {
+                    writer = null;
+                    close = aborted;
+                    // an interrupt of the aborted write is not meant for the next task of the thread
+                    Thread.interrupted();
+                }
+                sending.set(false);
+            }
+            if (close) {
+                sink.close();
+                return;
+            }
+            // events buffered after the loop found the buffer empty
+            trySend();
+        }
+    }
+}
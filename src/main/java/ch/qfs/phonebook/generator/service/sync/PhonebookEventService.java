@@ -0,0 +1,176 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.PhonebookChangeTracker;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEventDTO;
+import ch.qfs.phonebook.generator.service.mapper.PhoneNumberMapper;
+import ch.qfs.phonebook.generator.service.mapper.PhonebookEntryMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service publishing the changes of the phonebook entries and phone numbers to the
+ * {@link PhonebookEventBroadcaster}.
+ * <p>
+ * The phonebook change log is polled every {@code application.events.delay-ms}, so only committed
+ * changes are published. The changes of an entity since the previous poll are merged into one event
+ * carrying its current state, or its deletion if it is gone. A change of a phone number is also
+ * published as a change of its entry, whose numbers it is part of. Nothing is read while there are
+ * no subscribers.
+ */
+@Service
+public class PhonebookEventService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEventService.class);
+
+    private final ApplicationProperties.Events events;
+
+    private final PhonebookEntryRepository phonebookEntryRepository;
+
+    private final PhoneNumberRepository phoneNumberRepository;
+
+    private final PhonebookEntryMapper phonebookEntryMapper;
+
+    private final PhoneNumberMapper phoneNumberMapper;
+
+    private final PhonebookEventBroadcaster phonebookEventBroadcaster;
+
+    private final PhonebookChangeTracker phonebookChangeTracker;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PhonebookEventService(
+        ApplicationProperties applicationProperties,
+        PhonebookEntryRepository phonebookEntryRepository,
+        PhoneNumberRepository phoneNumberRepository,
+        PhonebookChangeRepository phonebookChangeRepository,
+        PhonebookEntryMapper phonebookEntryMapper,
+        PhoneNumberMapper phoneNumberMapper,
+        PhonebookEventBroadcaster phonebookEventBroadcaster,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.events = applicationProperties.getEvents();
+        this.phonebookEntryRepository = phonebookEntryRepository;
+        this.phoneNumberRepository = phoneNumberRepository;
+        this.phonebookEntryMapper = phonebookEntryMapper;
+        this.phoneNumberMapper = phoneNumberMapper;
+        this.phonebookEventBroadcaster = phonebookEventBroadcaster;
+        this.phonebookChangeTracker = new PhonebookChangeTracker(phonebookChangeRepository);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Starts following the change log when {@code application.events.enabled} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (events.isEnabled()) {
+            start();
+        }
+    }
+
+    /**
+     * Publishes the changes logged since the previous poll.
+     */
+    @Scheduled(fixedDelayString = "${application.events.delay-ms:1000}")
+    public void scheduledPoll() {
+        if (isStarted()) {
+            poll();
+        }
+    }
+
+    /**
+     * Marks all changes logged so far as published.
+     */
+    public synchronized void start() {
+        long lastId = readOnlyTransaction.execute(status -> phonebookChangeTracker.start());
+        log.info("Phonebook events published from change {}", lastId);
+    }
+
+    public synchronized boolean isStarted() {
+        return phonebookChangeTracker.isStarted();
+    }
+
+    /**
+     * Publishes the changes logged since the previous poll.
+     *
+     * @return the number of published events.
+     * @throws IllegalStateException if the service was not started.
+     */
+    public synchronized int poll() {
+        List<PhonebookEventDTO<?>> changeEvents = readOnlyTransaction.execute(status -> {
+            List<PhonebookChange> changes = phonebookChangeTracker.pollChanges();
+            return phonebookEventBroadcaster.hasSubscribers() ? toEvents(changes) : List.of();
+        });
+        phonebookEventBroadcaster.publish(changeEvents);
+        if (!changeEvents.isEmpty()) {
+            log.debug("Published {} phonebook events to {} subscribers", changeEvents.size(), phonebookEventBroadcaster.getSubscriberCount());
+        }
+        return changeEvents.size();
+    }
+
+    private List<PhonebookEventDTO<?>> toEvents(List<PhonebookChange> changes) {
+        // the id of the last change by entity id
+        Map<Long, Long> changedEntryIds = new TreeMap<>();
+        Map<Long, Long> changedNumberIds = new TreeMap<>();
+        for (PhonebookChange change : changes) {
+            if (change.getPhonebookEntryId() != null) {
+                changedEntryIds.merge(change.getPhonebookEntryId(), change.getId(), Math::max);
+            }
+            if (change.getEntityType() == ChangedEntityType.PHONE_NUMBER) {
+                changedNumberIds.merge(change.getEntityId(), change.getId(), Math::max);
+            }
+        }
+        Map<Long, PhonebookEntryDTO> entries = new HashMap<>();
+        for (List<Long> batch : batches(changedEntryIds)) {
+            for (PhonebookEntryDTO entry : phonebookEntryMapper.rowsToDtos(phonebookEntryRepository.findAllEntryNumbersByIdIn(batch))) {
+                entries.put(entry.getId(), entry);
+            }
+        }
+        Map<Long, PhoneNumberDTO> numbers = new HashMap<>();
+        for (List<Long> batch : batches(changedNumberIds)) {
+            phoneNumberRepository.findAllViewsByIdIn(batch).forEach(view -> numbers.put(view.getId(), phoneNumberMapper.toDto(view)));
+        }
+        List<PhonebookEventDTO<?>> result = new ArrayList<>(changedEntryIds.size() + changedNumberIds.size());
+        changedEntryIds.forEach((id, changeId) -> result.add(event(changeId, ChangedEntityType.PHONEBOOK_ENTRY, id, entries.get(id))));
+        changedNumberIds.forEach((id, changeId) -> result.add(event(changeId, ChangedEntityType.PHONE_NUMBER, id, numbers.get(id))));
+        result.sort(Comparator.comparingLong(PhonebookEventDTO::getChangeId));
+        return result;
+    }
+
+    private static <T> PhonebookEventDTO<T> event(long changeId, ChangedEntityType entityType, Long id, T entity) {
+        return new PhonebookEventDTO<>(changeId, entityType, entity != null ? ChangeOperation.UPSERT : ChangeOperation.DELETE, id, entity);
+    }
+
+    private static List<List<Long>> batches(Map<Long, Long> changedIds) {
+        List<Long> ids = new ArrayList<>(changedIds.keySet());
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+}
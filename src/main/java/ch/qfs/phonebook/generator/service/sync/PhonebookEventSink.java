@@ -0,0 +1,32 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import ch.qfs.phonebook.generator.service.dto.PhonebookEventDTO;
+import java.io.IOException;
+
+/**
+ * The connection of one subscriber of the phonebook events, like a server-sent event stream.
+ * <p>
+ * The methods are called by one thread at a time, never by the thread publishing the events.
+ */
+public interface PhonebookEventSink {
+    /**
+     * Sends an event to the subscriber.
+     *
+     * @param event the event.
+     * @throws IOException if the connection is broken, the subscription is then cancelled.
+     */
+    void send(PhonebookEventDTO<?> event) throws IOException;
+
+    /**
+     * Sends a message without event, keeping an idle connection open and detecting a broken one.
+     *
+     * @throws IOException if the connection is broken, the subscription is then cancelled.
+     */
+    void sendHeartbeat() throws IOException;
+
+    /**
+     * Closes the connection of a subscriber that fell behind and missed events, for it to reconnect
+     * and reload the phonebook.
+     */
+    void close();
+}
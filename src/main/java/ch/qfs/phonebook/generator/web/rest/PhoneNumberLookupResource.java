@@ -0,0 +1,46 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import ch.qfs.phonebook.generator.service.lookup.PhoneNumberLookupService;
+import ch.qfs.phonebook.generator.service.lookup.PhoneNumberMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller resolving incoming phone numbers to their phonebook entry, for the caller-ID of the PBX.
+ */
+@RestController
+@RequestMapping("/api")
+public class PhoneNumberLookupResource {
+
+    private final Logger log = LoggerFactory.getLogger(PhoneNumberLookupResource.class);
+
+    private final PhoneNumberLookupService phoneNumberLookupService;
+
+    public PhoneNumberLookupResource(PhoneNumberLookupService phoneNumberLookupService) {
+        this.phoneNumberLookupService = phoneNumberLookupService;
+    }
+
+    /**
+     * {@code GET  /lookup?number=} : get the phonebook entry of a phone number.
+     *
+     * @param number the phone number in any notation, e.g. {@code 0041 44 123 45 67}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the match,
+     * or with status {@code 404 (Not Found)} if no phonebook entry has the number,
+     * or with status {@code 503 (Service Unavailable)} if the lookup index is not built.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<PhoneNumberMatch> lookup(@RequestParam String number) {
+        log.debug("REST request to look up phone number : {}", number);
+        if (!phoneNumberLookupService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseUtil.wrapOrNotFound(phoneNumberLookupService.lookup(number));
+    }
+}
@@ -1,8 +1,10 @@
 package ch.qfs.phonebook.generator.web.rest;
 
-import ch.qfs.phonebook.generator.domain.PhoneNumber;
-import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.service.PhoneNumberService;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
 import ch.qfs.phonebook.generator.web.rest.errors.BadRequestAlertException;
+import ch.qfs.phonebook.generator.web.rest.util.ETagUtil;
+import ch.qfs.phonebook.generator.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -13,10 +15,15 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -24,7 +31,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class PhoneNumberResource {
 
     private final Logger log = LoggerFactory.getLogger(PhoneNumberResource.class);
@@ -34,26 +40,26 @@ public class PhoneNumberResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final PhoneNumberRepository phoneNumberRepository;
+    private final PhoneNumberService phoneNumberService;
 
-    public PhoneNumberResource(PhoneNumberRepository phoneNumberRepository) {
-        this.phoneNumberRepository = phoneNumberRepository;
+    public PhoneNumberResource(PhoneNumberService phoneNumberService) {
+        this.phoneNumberService = phoneNumberService;
     }
 
     /**
      * {@code POST  /phone-numbers} : Create a new phoneNumber.
      *
-     * @param phoneNumber the phoneNumber to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new phoneNumber, or with status {@code 400 (Bad Request)} if the phoneNumber has already an ID.
+     * @param phoneNumberDTO the phoneNumberDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new phoneNumberDTO, or with status {@code 400 (Bad Request)} if the phoneNumber has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/phone-numbers")
-    public ResponseEntity<PhoneNumber> createPhoneNumber(@Valid @RequestBody PhoneNumber phoneNumber) throws URISyntaxException {
-        log.debug("REST request to save PhoneNumber : {}", phoneNumber);
-        if (phoneNumber.getId() != null) {
+    public ResponseEntity<PhoneNumberDTO> createPhoneNumber(@Valid @RequestBody PhoneNumberDTO phoneNumberDTO) throws URISyntaxException {
+        log.debug("REST request to save PhoneNumber : {}", phoneNumberDTO);
+        if (phoneNumberDTO.getId() != null) {
             throw new BadRequestAlertException("A new phoneNumber cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        PhoneNumber result = phoneNumberRepository.save(phoneNumber);
+        PhoneNumberDTO result = phoneNumberService.save(phoneNumberDTO);
         return ResponseEntity
             .created(new URI("/api/phone-numbers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -64,103 +70,108 @@ public class PhoneNumberResource {
      * {@code PUT  /phone-numbers/:id} : Updates an existing phoneNumber.
      *
      * @param id the id of the phoneNumber to save.
-     * @param phoneNumber the phoneNumber to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phoneNumber,
-     * or with status {@code 400 (Bad Request)} if the phoneNumber is not valid,
-     * or with status {@code 500 (Internal Server Error)} if the phoneNumber couldn't be updated.
+     * @param phoneNumberDTO the phoneNumberDTO to update.
+     * @param ifMatch the {@code ETag} of the phoneNumber read before, to update it only if it was not changed meanwhile,
+     * overriding the version of the phoneNumberDTO.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phoneNumberDTO and its {@code ETag},
+     * or with status {@code 400 (Bad Request)} if the phoneNumberDTO is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such phoneNumber,
+     * or with status {@code 409 (Conflict)} if the phoneNumber was changed meanwhile.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/phone-numbers/{id}")
-    public ResponseEntity<PhoneNumber> updatePhoneNumber(
+    public ResponseEntity<PhoneNumberDTO> updatePhoneNumber(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody PhoneNumber phoneNumber
+        @Valid @RequestBody PhoneNumberDTO phoneNumberDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
-        log.debug("REST request to update PhoneNumber : {}, {}", id, phoneNumber);
-        if (phoneNumber.getId() == null) {
+        log.debug("REST request to update PhoneNumber : {}, {}", id, phoneNumberDTO);
+        if (phoneNumberDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, phoneNumber.getId())) {
+        if (!Objects.equals(id, phoneNumberDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        phoneNumberDTO.setVersion(expectedVersion(ifMatch, phoneNumberDTO));
 
-        if (!phoneNumberRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        PhoneNumber result = phoneNumberRepository.save(phoneNumber);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phoneNumber.getId().toString()))
-            .body(result);
+        Optional<PhoneNumberDTO> result = phoneNumberService.update(phoneNumberDTO);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phoneNumberDTO.getId().toString());
+        return ResponseUtil.wrapOrNotFound(result, ETagUtil.withETag(headers, result.map(PhoneNumberDTO::getVersion).orElse(null)));
     }
 
     /**
      * {@code PATCH  /phone-numbers/:id} : Partial updates given fields of an existing phoneNumber, field will ignore if it is null
      *
      * @param id the id of the phoneNumber to save.
-     * @param phoneNumber the phoneNumber to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phoneNumber,
-     * or with status {@code 400 (Bad Request)} if the phoneNumber is not valid,
-     * or with status {@code 404 (Not Found)} if the phoneNumber is not found,
-     * or with status {@code 500 (Internal Server Error)} if the phoneNumber couldn't be updated.
+     * @param phoneNumberDTO the phoneNumberDTO to update.
+     * @param ifMatch the {@code ETag} of the phoneNumber read before, to update it only if it was not changed meanwhile,
+     * overriding the version of the phoneNumberDTO.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phoneNumberDTO and its {@code ETag},
+     * or with status {@code 400 (Bad Request)} if the phoneNumberDTO is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such phoneNumber,
+     * or with status {@code 409 (Conflict)} if the phoneNumber was changed meanwhile.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/phone-numbers/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<PhoneNumber> partialUpdatePhoneNumber(
+    public ResponseEntity<PhoneNumberDTO> partialUpdatePhoneNumber(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody PhoneNumber phoneNumber
+        @NotNull @RequestBody PhoneNumberDTO phoneNumberDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
-        log.debug("REST request to partial update PhoneNumber partially : {}, {}", id, phoneNumber);
-        if (phoneNumber.getId() == null) {
+        log.debug("REST request to partial update PhoneNumber partially : {}, {}", id, phoneNumberDTO);
+        if (phoneNumberDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, phoneNumber.getId())) {
+        if (!Objects.equals(id, phoneNumberDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        phoneNumberDTO.setVersion(expectedVersion(ifMatch, phoneNumberDTO));
 
-        if (!phoneNumberRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<PhoneNumber> result = phoneNumberRepository
-            .findById(phoneNumber.getId())
-            .map(existingPhoneNumber -> {
-                if (phoneNumber.getNumber() != null) {
-                    existingPhoneNumber.setNumber(phoneNumber.getNumber());
-                }
-
-                return existingPhoneNumber;
-            })
-            .map(phoneNumberRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phoneNumber.getId().toString())
-        );
+        Optional<PhoneNumberDTO> result = phoneNumberService.partialUpdate(phoneNumberDTO);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phoneNumberDTO.getId().toString());
+        return ResponseUtil.wrapOrNotFound(result, ETagUtil.withETag(headers, result.map(PhoneNumberDTO::getVersion).orElse(null)));
     }
 
     /**
      * {@code GET  /phone-numbers} : get all the phoneNumbers.
+     * <p>
+     * With an {@code after} parameter the phoneNumbers are read by keyset pagination: the slice of
+     * the given size following the given id, ordered by id.
      *
+     * @param pageable the pagination information.
+     * @param after the id after which the slice starts, for keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of phoneNumbers in body.
      */
     @GetMapping("/phone-numbers")
-    public List<PhoneNumber> getAllPhoneNumbers() {
-        log.debug("REST request to get all PhoneNumbers");
-        return phoneNumberRepository.findAll();
+    public ResponseEntity<List<PhoneNumberDTO>> getAllPhoneNumbers(Pageable pageable, @RequestParam(required = false) Long after) {
+        log.debug("REST request to get a page of PhoneNumbers");
+        if (after != null) {
+            Slice<PhoneNumberDTO> slice = phoneNumberService.findAllAfter(after, KeysetPaginationUtil.keysetPageable(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                PhoneNumberDTO::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<PhoneNumberDTO> page = phoneNumberService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
      * {@code GET  /phone-numbers/:id} : get the "id" phoneNumber.
      *
-     * @param id the id of the phoneNumber to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the phoneNumber, or with status {@code 404 (Not Found)}.
+     * @param id the id of the phoneNumberDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the phoneNumberDTO and its {@code ETag},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/phone-numbers/{id}")
-    public ResponseEntity<PhoneNumber> getPhoneNumber(@PathVariable Long id) {
+    public ResponseEntity<PhoneNumberDTO> getPhoneNumber(@PathVariable Long id) {
         log.debug("REST request to get PhoneNumber : {}", id);
-        Optional<PhoneNumber> phoneNumber = phoneNumberRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(phoneNumber);
+        Optional<PhoneNumberDTO> phoneNumberDTO = phoneNumberService.findOne(id);
+        HttpHeaders headers = ETagUtil.withETag(new HttpHeaders(), phoneNumberDTO.map(PhoneNumberDTO::getVersion).orElse(null));
+        return ResponseUtil.wrapOrNotFound(phoneNumberDTO, headers);
     }
 
     /**
@@ -172,10 +183,18 @@ public class PhoneNumberResource {
     @DeleteMapping("/phone-numbers/{id}")
     public ResponseEntity<Void> deletePhoneNumber(@PathVariable Long id) {
         log.debug("REST request to delete PhoneNumber : {}", id);
-        phoneNumberRepository.deleteById(id);
+        phoneNumberService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Long expectedVersion(String ifMatch, PhoneNumberDTO phoneNumberDTO) {
+        try {
+            return ETagUtil.expectedVersion(ifMatch, phoneNumberDTO.getVersion());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "etaginvalid");
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import ch.qfs.phonebook.generator.service.dto.PhonebookChangesDTO;
+import ch.qfs.phonebook.generator.service.sync.PhonebookDeltaService;
+import ch.qfs.phonebook.generator.web.rest.errors.BadRequestAlertException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the delta synchronization of clients mirroring the phonebook.
+ * <p>
+ * A client asks for a token without {@code since}, loads the whole phonebook, and then polls for
+ * the changes since the token of its last response. Entries may be sent more than once, applying
+ * the changes is idempotent.
+ */
+@RestController
+@RequestMapping("/api")
+public class PhonebookChangeResource {
+
+    private static final String ENTITY_NAME = "phonebookChange";
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookChangeResource.class);
+
+    private final PhonebookDeltaService phonebookDeltaService;
+
+    public PhonebookChangeResource(PhonebookDeltaService phonebookDeltaService) {
+        this.phonebookDeltaService = phonebookDeltaService;
+    }
+
+    /**
+     * {@code GET  /phonebook/changes?since=} : get the changes of the phonebook since a token.
+     *
+     * @param since the token of the previous response, none for the token of the current phonebook.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the changed and deleted entries and the next token,
+     * or with status {@code 400 (Bad Request)} if the token is invalid,
+     * or with status {@code 410 (Gone)} if the token has expired and the client must load the whole phonebook again.
+     */
+    @GetMapping("/phonebook/changes")
+    public ResponseEntity<PhonebookChangesDTO> getPhonebookChanges(@RequestParam(required = false) String since) {
+        log.debug("REST request to get the phonebook changes since : {}", since);
+        Optional<PhonebookChangesDTO> changes;
+        try {
+            changes = phonebookDeltaService.findChanges(since);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "tokeninvalid");
+        }
+        return changes.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
+}
@@ -1,8 +1,21 @@
 package ch.qfs.phonebook.generator.web.rest;
 
 import ch.qfs.phonebook.generator.domain.PhonebookEntry;
-import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.PhonebookEntryBulkService;
+import ch.qfs.phonebook.generator.service.PhonebookEntryExportService;
+import ch.qfs.phonebook.generator.service.PhonebookEntryService;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryBulkResultDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookImportResultDTO;
+import ch.qfs.phonebook.generator.service.importer.PhonebookImportFormat;
+import ch.qfs.phonebook.generator.service.importer.PhonebookImportService;
+import ch.qfs.phonebook.generator.service.search.PhonebookSearchMatch;
+import ch.qfs.phonebook.generator.service.search.PhonebookSearchService;
 import ch.qfs.phonebook.generator.web.rest.errors.BadRequestAlertException;
+import ch.qfs.phonebook.generator.web.rest.util.ETagUtil;
+import ch.qfs.phonebook.generator.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -13,10 +26,18 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -24,144 +45,248 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class PhonebookEntryResource {
 
     private final Logger log = LoggerFactory.getLogger(PhonebookEntryResource.class);
 
     private static final String ENTITY_NAME = "phonebookEntry";
 
+    static final int BULK_MAX_SIZE = 10_000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final PhonebookEntryRepository phonebookEntryRepository;
+    private final PhonebookEntryService phonebookEntryService;
+
+    private final PhonebookEntryBulkService phonebookEntryBulkService;
+
+    private final PhonebookSearchService phonebookSearchService;
 
-    public PhonebookEntryResource(PhonebookEntryRepository phonebookEntryRepository) {
-        this.phonebookEntryRepository = phonebookEntryRepository;
+    private final PhonebookEntryExportService phonebookEntryExportService;
+
+    private final PhonebookImportService phonebookImportService;
+
+    public PhonebookEntryResource(
+        PhonebookEntryService phonebookEntryService,
+        PhonebookEntryBulkService phonebookEntryBulkService,
+        PhonebookSearchService phonebookSearchService,
+        PhonebookEntryExportService phonebookEntryExportService,
+        PhonebookImportService phonebookImportService
+    ) {
+        this.phonebookEntryService = phonebookEntryService;
+        this.phonebookEntryBulkService = phonebookEntryBulkService;
+        this.phonebookSearchService = phonebookSearchService;
+        this.phonebookEntryExportService = phonebookEntryExportService;
+        this.phonebookImportService = phonebookImportService;
     }
 
     /**
      * {@code POST  /phonebook-entries} : Create a new phonebookEntry.
      *
-     * @param phonebookEntry the phonebookEntry to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new phonebookEntry, or with status {@code 400 (Bad Request)} if the phonebookEntry has already an ID.
+     * @param phonebookEntryDTO the phonebookEntryDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new phonebookEntryDTO, or with status {@code 400 (Bad Request)} if the phonebookEntry has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/phonebook-entries")
-    public ResponseEntity<PhonebookEntry> createPhonebookEntry(@Valid @RequestBody PhonebookEntry phonebookEntry)
+    public ResponseEntity<PhonebookEntryDTO> createPhonebookEntry(@Valid @RequestBody PhonebookEntryDTO phonebookEntryDTO)
         throws URISyntaxException {
-        log.debug("REST request to save PhonebookEntry : {}", phonebookEntry);
-        if (phonebookEntry.getId() != null) {
+        log.debug("REST request to save PhonebookEntry : {}", phonebookEntryDTO);
+        if (phonebookEntryDTO.getId() != null) {
             throw new BadRequestAlertException("A new phonebookEntry cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        PhonebookEntry result = phonebookEntryRepository.save(phonebookEntry);
+        PhonebookEntryDTO result = phonebookEntryService.save(phonebookEntryDTO);
         return ResponseEntity
             .created(new URI("/api/phonebook-entries/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /phonebook-entries/bulk} : Create or update many phonebookEntries with their phone numbers.
+     * <p>
+     * PhonebookEntries without an ID are created, the others are updated and their phone numbers are replaced
+     * by the given ones. Every item is validated and saved on its own, a failing item does not fail the others.
+     *
+     * @param phonebookEntries the phonebookEntries to save, at most {@value #BULK_MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of every item in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many phonebookEntries.
+     */
+    @PostMapping("/phonebook-entries/bulk")
+    public ResponseEntity<List<PhonebookEntryBulkResultDTO>> bulkSavePhonebookEntries(@RequestBody List<PhonebookEntry> phonebookEntries) {
+        log.debug("REST request to bulk save {} PhonebookEntries", phonebookEntries.size());
+        if (phonebookEntries.size() > BULK_MAX_SIZE) {
+            throw new BadRequestAlertException("At most " + BULK_MAX_SIZE + " phonebookEntries per request", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok().body(phonebookEntryBulkService.saveAll(phonebookEntries));
+    }
+
+    /**
+     * {@code POST  /phonebook-entries/_import} : Create phonebookEntries from a CSV or NDJSON dump.
+     * <p>
+     * The dump is parsed while it is uploaded and its records are saved in chunks, so its size is not limited
+     * by memory. Invalid records are skipped and reported, the others are created even if some fail.
+     *
+     * @param contentType the format of the dump, {@code text/csv} or {@code application/x-ndjson}.
+     * @param body the dump, encoded in UTF-8.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the counts of imported and failed records,
+     * or with status {@code 400 (Bad Request)} if the dump has no valid header.
+     * @throws IOException if the dump cannot be read.
+     */
+    @PostMapping(value = "/phonebook-entries/_import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<PhonebookImportResultDTO> importPhonebookEntries(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream body
+    ) throws IOException {
+        log.debug("REST request to import PhonebookEntries from {}", contentType);
+        PhonebookImportFormat format = PhonebookImportFormat
+            .forContentType(contentType)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported content type " + contentType, ENTITY_NAME, "importinvalid"));
+        try {
+            return ResponseEntity.ok().body(phonebookImportService.importEntries(body, format));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
     /**
      * {@code PUT  /phonebook-entries/:id} : Updates an existing phonebookEntry.
      *
      * @param id the id of the phonebookEntry to save.
-     * @param phonebookEntry the phonebookEntry to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phonebookEntry,
-     * or with status {@code 400 (Bad Request)} if the phonebookEntry is not valid,
-     * or with status {@code 500 (Internal Server Error)} if the phonebookEntry couldn't be updated.
+     * @param phonebookEntryDTO the phonebookEntryDTO to update, its phone numbers are ignored.
+     * @param ifMatch the {@code ETag} of the phonebookEntry read before, to update it only if it was not changed meanwhile,
+     * overriding the version of the phonebookEntryDTO.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phonebookEntryDTO and its {@code ETag},
+     * or with status {@code 400 (Bad Request)} if the phonebookEntryDTO is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such phonebookEntry,
+     * or with status {@code 409 (Conflict)} if the phonebookEntry was changed meanwhile.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/phonebook-entries/{id}")
-    public ResponseEntity<PhonebookEntry> updatePhonebookEntry(
+    public ResponseEntity<PhonebookEntryDTO> updatePhonebookEntry(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody PhonebookEntry phonebookEntry
+        @Valid @RequestBody PhonebookEntryDTO phonebookEntryDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
-        log.debug("REST request to update PhonebookEntry : {}, {}", id, phonebookEntry);
-        if (phonebookEntry.getId() == null) {
+        log.debug("REST request to update PhonebookEntry : {}, {}", id, phonebookEntryDTO);
+        if (phonebookEntryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, phonebookEntry.getId())) {
+        if (!Objects.equals(id, phonebookEntryDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        phonebookEntryDTO.setVersion(expectedVersion(ifMatch, phonebookEntryDTO));
 
-        if (!phonebookEntryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        PhonebookEntry result = phonebookEntryRepository.save(phonebookEntry);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phonebookEntry.getId().toString()))
-            .body(result);
+        Optional<PhonebookEntryDTO> result = phonebookEntryService.update(phonebookEntryDTO);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phonebookEntryDTO.getId().toString());
+        return ResponseUtil.wrapOrNotFound(result, withETag(headers, result));
     }
 
     /**
      * {@code PATCH  /phonebook-entries/:id} : Partial updates given fields of an existing phonebookEntry, field will ignore if it is null
      *
      * @param id the id of the phonebookEntry to save.
-     * @param phonebookEntry the phonebookEntry to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phonebookEntry,
-     * or with status {@code 400 (Bad Request)} if the phonebookEntry is not valid,
-     * or with status {@code 404 (Not Found)} if the phonebookEntry is not found,
-     * or with status {@code 500 (Internal Server Error)} if the phonebookEntry couldn't be updated.
+     * @param phonebookEntryDTO the phonebookEntryDTO to update.
+     * @param ifMatch the {@code ETag} of the phonebookEntry read before, to update it only if it was not changed meanwhile,
+     * overriding the version of the phonebookEntryDTO.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated phonebookEntryDTO and its {@code ETag},
+     * or with status {@code 400 (Bad Request)} if the phonebookEntryDTO is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such phonebookEntry,
+     * or with status {@code 409 (Conflict)} if the phonebookEntry was changed meanwhile.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/phonebook-entries/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<PhonebookEntry> partialUpdatePhonebookEntry(
+    public ResponseEntity<PhonebookEntryDTO> partialUpdatePhonebookEntry(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody PhonebookEntry phonebookEntry
+        @NotNull @RequestBody PhonebookEntryDTO phonebookEntryDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
-        log.debug("REST request to partial update PhonebookEntry partially : {}, {}", id, phonebookEntry);
-        if (phonebookEntry.getId() == null) {
+        log.debug("REST request to partial update PhonebookEntry partially : {}, {}", id, phonebookEntryDTO);
+        if (phonebookEntryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, phonebookEntry.getId())) {
+        if (!Objects.equals(id, phonebookEntryDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        phonebookEntryDTO.setVersion(expectedVersion(ifMatch, phonebookEntryDTO));
 
-        if (!phonebookEntryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<PhonebookEntry> result = phonebookEntryRepository
-            .findById(phonebookEntry.getId())
-            .map(existingPhonebookEntry -> {
-                if (phonebookEntry.getDescription() != null) {
-                    existingPhonebookEntry.setDescription(phonebookEntry.getDescription());
-                }
-
-                return existingPhonebookEntry;
-            })
-            .map(phonebookEntryRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phonebookEntry.getId().toString())
-        );
+        Optional<PhonebookEntryDTO> result = phonebookEntryService.partialUpdate(phonebookEntryDTO);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, phonebookEntryDTO.getId().toString());
+        return ResponseUtil.wrapOrNotFound(result, withETag(headers, result));
     }
 
     /**
      * {@code GET  /phonebook-entries} : get all the phonebookEntries.
+     * <p>
+     * With an {@code after} parameter the phonebookEntries are read by keyset pagination: the slice of
+     * the given size following the given id, ordered by id.
      *
+     * @param pageable the pagination information.
+     * @param after the id after which the slice starts, for keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of phonebookEntries in body.
      */
     @GetMapping("/phonebook-entries")
-    public List<PhonebookEntry> getAllPhonebookEntries() {
-        log.debug("REST request to get all PhonebookEntries");
-        return phonebookEntryRepository.findAll();
+    public ResponseEntity<List<PhonebookEntryDTO>> getAllPhonebookEntries(Pageable pageable, @RequestParam(required = false) Long after) {
+        log.debug("REST request to get a page of PhonebookEntries");
+        if (after != null) {
+            Slice<PhonebookEntryDTO> slice = phonebookEntryService.findAllAfter(after, KeysetPaginationUtil.keysetPageable(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                PhonebookEntryDTO::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<PhonebookEntryDTO> page = phonebookEntryService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /phonebook-entries/_search?q=} : search the phonebookEntries by description and phone number.
+     *
+     * @param q the words or the phone number to search for, e.g. {@code mei} or {@code 044 123}.
+     * @param size the maximal number of results.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matches in body, best first,
+     * or with status {@code 503 (Service Unavailable)} if the search index is not built.
+     */
+    @GetMapping("/phonebook-entries/_search")
+    public ResponseEntity<List<PhonebookSearchMatch>> searchPhonebookEntries(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        log.debug("REST request to search PhonebookEntries for query : {}", q);
+        if (!phonebookSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().body(phonebookSearchService.search(q, size));
+    }
+
+    /**
+     * {@code GET  /phonebook-entries/_export} : get all the phonebookEntries with their phone numbers in one response.
+     * <p>
+     * The phonebookEntries are streamed as they are read from the database, so the response starts at once
+     * and its size is not limited by memory.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JSON array of all phonebookEntries in body.
+     */
+    @GetMapping("/phonebook-entries/_export")
+    public ResponseEntity<StreamingResponseBody> exportPhonebookEntries() {
+        log.debug("REST request to export all PhonebookEntries");
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(phonebookEntryExportService::writeJson);
     }
 
     /**
      * {@code GET  /phonebook-entries/:id} : get the "id" phonebookEntry.
      *
-     * @param id the id of the phonebookEntry to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the phonebookEntry, or with status {@code 404 (Not Found)}.
+     * @param id the id of the phonebookEntryDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the phonebookEntryDTO and its {@code ETag},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/phonebook-entries/{id}")
-    public ResponseEntity<PhonebookEntry> getPhonebookEntry(@PathVariable Long id) {
+    public ResponseEntity<PhonebookEntryDTO> getPhonebookEntry(@PathVariable Long id) {
         log.debug("REST request to get PhonebookEntry : {}", id);
-        Optional<PhonebookEntry> phonebookEntry = phonebookEntryRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(phonebookEntry);
+        Optional<PhonebookEntryDTO> phonebookEntryDTO = phonebookEntryService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(phonebookEntryDTO, withETag(new HttpHeaders(), phonebookEntryDTO));
     }
 
     /**
@@ -173,10 +298,25 @@ public class PhonebookEntryResource {
     @DeleteMapping("/phonebook-entries/{id}")
     public ResponseEntity<Void> deletePhonebookEntry(@PathVariable Long id) {
         log.debug("REST request to delete PhonebookEntry : {}", id);
-        phonebookEntryRepository.deleteById(id);
+        phonebookEntryService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Tags the phonebookEntry with its version, which is incremented when its phone numbers change too.
+     */
+    private static HttpHeaders withETag(HttpHeaders headers, Optional<PhonebookEntryDTO> phonebookEntryDTO) {
+        return ETagUtil.withETag(headers, phonebookEntryDTO.map(PhonebookEntryDTO::getVersion).orElse(null));
+    }
+
+    private static Long expectedVersion(String ifMatch, PhonebookEntryDTO phonebookEntryDTO) {
+        try {
+            return ETagUtil.expectedVersion(ifMatch, phonebookEntryDTO.getVersion());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "etaginvalid");
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEventDTO;
+import ch.qfs.phonebook.generator.service.sync.PhonebookEventBroadcaster;
+import ch.qfs.phonebook.generator.service.sync.PhonebookEventSink;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming the changes of the phonebook as server-sent events.
+ * <p>
+ * The request is served asynchronously, an open stream holds no thread. Every event is named after
+ * the type of the changed entity, {@code phonebook-entry} or {@code phone-number}, and carries a
+ * {@link PhonebookEventDTO} with the id of its change as event id. A client whose stream is closed
+ * reconnects and must reload, as the events published meanwhile are not sent again.
+ */
+@RestController
+@RequestMapping("/api")
+public class PhonebookEventResource {
+
+    static final String PHONEBOOK_ENTRY_EVENT = "phonebook-entry";
+
+    static final String PHONE_NUMBER_EVENT = "phone-number";
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookEventResource.class);
+
+    private final ApplicationProperties.Events events;
+
+    private final PhonebookEventBroadcaster phonebookEventBroadcaster;
+
+    public PhonebookEventResource(ApplicationProperties applicationProperties, PhonebookEventBroadcaster phonebookEventBroadcaster) {
+        this.events = applicationProperties.getEvents();
+        this.phonebookEventBroadcaster = phonebookEventBroadcaster;
+    }
+
+    /**
+     * {@code GET  /phonebook/events} : subscribe to the changes of the phonebook.
+     *
+     * @return the event stream, closed after {@code application.events.timeout-ms},
+     * or the {@link ResponseEntity} with status {@code 404 (Not Found)} if the events are disabled.
+     */
+    @GetMapping(path = "/phonebook/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getPhonebookEvents() {
+        log.debug("REST request to subscribe to the phonebook events");
+        if (!events.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(events.getTimeoutMs());
+        PhonebookEventBroadcaster.Subscription subscription = phonebookEventBroadcaster.subscribe(new EmitterSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static final class EmitterSink implements PhonebookEventSink {
+
+        private final SseEmitter emitter;
+
+        private EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(PhonebookEventDTO<?> event) throws IOException {
+            emitter.send(
+                SseEmitter
+                    .event()
+                    .id(Long.toString(event.getChangeId()))
+                    .name(event.getEntityType() == ChangedEntityType.PHONE_NUMBER ? PHONE_NUMBER_EVENT : PHONEBOOK_ENTRY_EVENT)
+                    .data(event, MediaType.APPLICATION_JSON)
+            );
+        }
+
+        @Override
+        public void sendHeartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment(""));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import ch.qfs.phonebook.generator.service.export.PhonebookArtifact;
+import ch.qfs.phonebook.generator.service.export.PhonebookArtifactService;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving the generated phonebook files to the phones.
+ * <p>
+ * Files are served from memory and carry an {@code ETag} and a {@code Last-Modified} header, so
+ * conditional requests of polling phones are answered with {@code 304 (Not Modified)} without any
+ * database access. Clients accepting gzip get the pre-compressed content. The id of the published
+ * version is sent in the {@value #VERSION_HEADER} header.
+ */
+@RestController
+@RequestMapping("/api")
+public class PhonebookExportResource {
+
+    private static final String GZIP = "gzip";
+
+    public static final String VERSION_HEADER = "X-Phonebook-Version";
+
+    private final Logger log = LoggerFactory.getLogger(PhonebookExportResource.class);
+
+    private final PhonebookArtifactService phonebookArtifactService;
+
+    public PhonebookExportResource(PhonebookArtifactService phonebookArtifactService) {
+        this.phonebookArtifactService = phonebookArtifactService;
+    }
+
+    /**
+     * {@code GET  /phonebook-export/:fileName} : get the latest generated phonebook file.
+     *
+     * @param fileName the name of the generated file, e.g. {@code phonebook.xml}.
+     * @param acceptEncoding the encodings accepted by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the file as body,
+     * or with status {@code 304 (Not Modified)} if the client's copy is current,
+     * or with status {@code 404 (Not Found)} if no such file has been generated yet.
+     */
+    @GetMapping("/phonebook-export/{fileName:.+}")
+    public ResponseEntity<byte[]> getPhonebook(
+        @PathVariable String fileName,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        log.debug("REST request to get phonebook file : {}", fileName);
+        Optional<PhonebookArtifact> artifact = phonebookArtifactService.getArtifact(fileName);
+        if (artifact.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PhonebookArtifact phonebook = artifact.get();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // the checks of If-None-Match and If-Modified-Since are done by Spring when the response is written
+        ResponseEntity.BodyBuilder response = ResponseEntity
+            .ok()
+            .contentType(MediaType.parseMediaType(phonebook.getContentType() + ";charset=UTF-8"))
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .lastModified(phonebook.getLastModified())
+            .header(VERSION_HEADER, Long.toString(phonebook.getVersion()));
+        if (gzip) {
+            return response.eTag(phonebook.getEtag() + "-" + GZIP).header(HttpHeaders.CONTENT_ENCODING, GZIP).body(phonebook.getGzipContent());
+        }
+        return response.eTag(phonebook.getEtag()).body(phonebook.getContent());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim()) || "*".equals(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package ch.qfs.phonebook.generator.web.rest.util;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Utility class for the entity tags of versioned entities.
+ * <p>
+ * The tag of an entity is its version, e.g. {@code "3"}. A client sends it back in the
+ * {@code If-Match} header of an update, which then only applies if the entity still has that
+ * version. Weak tags are accepted too, as proxies compressing a response weaken its tag.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETagUtil() {}
+
+    /**
+     * Adds the entity tag of the given version to the given headers.
+     *
+     * @param headers the headers of the response.
+     * @param version the version of the entity, {@code null} to add no tag.
+     * @return the given headers.
+     */
+    public static HttpHeaders withETag(HttpHeaders headers, Long version) {
+        if (version != null) {
+            headers.setETag('"' + version.toString() + '"');
+        }
+        return headers;
+    }
+
+    /**
+     * Determines the version an update is conditional on.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, if any.
+     * @param version the version sent with the entity, if any.
+     * @return the version of the {@code If-Match} header, the version sent with the entity if there is
+     * no such header, or {@code null} if the header is {@code *} or neither is given.
+     * @throws IllegalArgumentException if the header is not a single tag of a version.
+     */
+    public static Long expectedVersion(String ifMatch, Long version) {
+        if (ifMatch == null) {
+            return version;
+        }
+        String tag = ifMatch.trim();
+        if (ANY.equals(tag)) {
+            return null;
+        }
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new IllegalArgumentException("Invalid If-Match header " + ifMatch);
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header " + ifMatch, e);
+        }
+    }
+}
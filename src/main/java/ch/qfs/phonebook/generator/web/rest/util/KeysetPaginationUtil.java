@@ -0,0 +1,68 @@
+package ch.qfs.phonebook.generator.web.rest.util;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination on the id of an entity.
+ * <p>
+ * Instead of a page number, the client passes the id of the last element it has seen as
+ * {@code after} parameter. The database seeks directly to that id through the primary key index,
+ * so deep pages are as cheap as the first one, unlike {@code OFFSET} based pages. The link to the
+ * next slice is given in the {@code Link} header, as for page based pagination.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Restricts the given pagination information to its size, ordered by id.
+     *
+     * @param pageable the pagination information of the request.
+     * @return the first page of the given size, sorted by ascending id.
+     */
+    public static Pageable keysetPageable(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize(), Sort.by("id"));
+    }
+
+    /**
+     * Generates the {@code Link} header of a slice read by keyset pagination.
+     *
+     * @param uriBuilder the builder of the request URI.
+     * @param slice the slice of elements, ordered by id.
+     * @param idExtractor the function returning the id of an element.
+     * @param <T> the type of the elements.
+     * @return the headers with links to the first and, if there are more elements, to the next slice.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> idExtractor) {
+        uriBuilder.replaceQueryParam("page").replaceQueryParam("sort").replaceQueryParam("size", slice.getSize());
+        StringBuilder link = new StringBuilder();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            Long last = idExtractor.apply(content.get(content.size() - 1));
+            link.append(prepareLink(uriBuilder, last, "next")).append(',');
+        }
+        link.append(prepareLink(uriBuilder, 0L, "first"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, Long after, String relType) {
+        return String.format(
+            HEADER_LINK_FORMAT,
+            uriBuilder.replaceQueryParam(AFTER_PARAMETER, after).toUriString().replace(",", "%2C").replace(";", "%3B"),
+            relType
+        );
+    }
+}
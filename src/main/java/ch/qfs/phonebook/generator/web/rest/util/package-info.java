@@ -0,0 +1,4 @@
+/**
+ * Utilities for the REST controllers.
+ */
+package ch.qfs.phonebook.generator.web.rest.util;
@@ -17,6 +17,7 @@ import { hasAnyAuthority } from 'app/shared/auth/private-route';
 import ErrorBoundary from 'app/shared/error/error-boundary';
 import { AUTHORITIES } from 'app/config/constants';
 import AppRoutes from 'app/routes';
+import subscribePhonebookEvents from 'app/config/phonebook-events';
 
 const baseHref = document.querySelector('base').getAttribute('href').replace(/\/$/, '');
 
@@ -35,6 +36,8 @@ export const App = () => {
   const isInProduction = useAppSelector(state => state.applicationProfile.inProduction);
   const isOpenAPIEnabled = useAppSelector(state => state.applicationProfile.isOpenAPIEnabled);
 
+  useEffect(() => (isAuthenticated ? subscribePhonebookEvents(dispatch) : undefined), [isAuthenticated]);
+
   const paddingTop = '60px';
   return (
     <Router basename={baseHref}>
@@ -0,0 +1,37 @@
+import { Storage } from 'react-jhipster';
+
+import { AppDispatch } from 'app/config/store';
+import {
+  applyEvent as applyPhonebookEntryEvent,
+  getEntities as getPhonebookEntries,
+} from 'app/entities/phonebook-entry/phonebook-entry.reducer';
+import { applyEvent as applyPhoneNumberEvent, getEntities as getPhoneNumbers } from 'app/entities/phone-number/phone-number.reducer';
+
+const eventsUrl = 'api/phonebook/events';
+
+/**
+ * Subscribes to the changes of the phonebook published by the server as server-sent events, and applies
+ * them to the entity lists. EventSource cannot send headers, so the token is passed as parameter.
+ * The browser reconnects a closed stream by itself, the lists are then reloaded, as the changes published
+ * meanwhile are not sent again.
+ *
+ * @returns the function closing the subscription
+ */
+const subscribePhonebookEvents = (dispatch: AppDispatch) => {
+  const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
+  const requestUrl = `${SERVER_API_URL}${eventsUrl}`;
+  const source = new EventSource(token ? `${requestUrl}?access_token=${encodeURIComponent(token)}` : requestUrl);
+  let opened = false;
+  source.onopen = () => {
+    if (opened) {
+      dispatch(getPhonebookEntries({}));
+      dispatch(getPhoneNumbers({}));
+    }
+    opened = true;
+  };
+  source.addEventListener('phonebook-entry', (event: MessageEvent) => dispatch(applyPhonebookEntryEvent(JSON.parse(event.data))));
+  source.addEventListener('phone-number', (event: MessageEvent) => dispatch(applyPhoneNumberEvent(JSON.parse(event.data))));
+  return () => source.close();
+};
+
+export default subscribePhonebookEvents;
@@ -1,15 +1,19 @@
 import axios from 'axios';
-import { createAsyncThunk, isFulfilled, isPending, isRejected } from '@reduxjs/toolkit';
+import { createAsyncThunk, isFulfilled, isPending, isRejected, PayloadAction } from '@reduxjs/toolkit';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { parseKeysetLinks, removeById, upsertById } from 'app/shared/util/keyset-pagination.utils';
+import { ITEMS_PER_PAGE } from 'app/shared/util/pagination.constants';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IPhoneNumber, defaultValue } from 'app/shared/model/phone-number.model';
+import { IPhonebookEvent } from 'app/shared/model/phonebook-event.model';
 
 const initialState: EntityState<IPhoneNumber> = {
   loading: false,
   errorMessage: null,
   entities: [],
   entity: defaultValue,
+  links: {},
   updating: false,
   updateSuccess: false,
 };
@@ -18,8 +22,8 @@ const apiUrl = 'api/phone-numbers';
 
 // Actions
 
-export const getEntities = createAsyncThunk('phoneNumber/fetch_entity_list', async ({ page, size, sort }: IQueryParams) => {
-  const requestUrl = `${apiUrl}?cacheBuster=${new Date().getTime()}`;
+export const getEntities = createAsyncThunk('phoneNumber/fetch_entity_list', async ({ after, size }: IQueryParams) => {
+  const requestUrl = `${apiUrl}?after=${after ?? 0}&size=${size ?? ITEMS_PER_PAGE}&cacheBuster=${new Date().getTime()}`;
   return axios.get<IPhoneNumber[]>(requestUrl);
 });
 
@@ -34,41 +38,33 @@ export const getEntity = createAsyncThunk(
 
 export const createEntity = createAsyncThunk(
   'phoneNumber/create_entity',
-  async (entity: IPhoneNumber, thunkAPI) => {
-    const result = await axios.post<IPhoneNumber>(apiUrl, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhoneNumber) => {
+    return axios.post<IPhoneNumber>(apiUrl, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const updateEntity = createAsyncThunk(
   'phoneNumber/update_entity',
-  async (entity: IPhoneNumber, thunkAPI) => {
-    const result = await axios.put<IPhoneNumber>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhoneNumber) => {
+    return axios.put<IPhoneNumber>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const partialUpdateEntity = createAsyncThunk(
   'phoneNumber/partial_update_entity',
-  async (entity: IPhoneNumber, thunkAPI) => {
-    const result = await axios.patch<IPhoneNumber>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhoneNumber) => {
+    return axios.patch<IPhoneNumber>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const deleteEntity = createAsyncThunk(
   'phoneNumber/delete_entity',
-  async (id: string | number, thunkAPI) => {
+  async (id: string | number) => {
     const requestUrl = `${apiUrl}/${id}`;
-    const result = await axios.delete<IPhoneNumber>(requestUrl);
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+    return axios.delete<IPhoneNumber>(requestUrl);
   },
   { serializeError: serializeAxiosError }
 );
@@ -78,22 +74,34 @@ export const deleteEntity = createAsyncThunk(
 export const PhoneNumberSlice = createEntitySlice({
   name: 'phoneNumber',
   initialState,
+  reducers: {
+    /**
+     * Applies a change published by the server, see app/config/phonebook-events
+     */
+    applyEvent(state, action: PayloadAction<IPhonebookEvent<IPhoneNumber>>) {
+      const { operation, id, entity } = action.payload;
+      state.entities = operation === 'DELETE' ? removeById(state.entities, id) : upsertById(state.entities, entity, state.links);
+    },
+  },
   extraReducers(builder) {
     builder
       .addCase(getEntity.fulfilled, (state, action) => {
         state.loading = false;
         state.entity = action.payload.data;
       })
-      .addCase(deleteEntity.fulfilled, state => {
+      .addCase(deleteEntity.fulfilled, (state, action) => {
         state.updating = false;
         state.updateSuccess = true;
         state.entity = {};
+        state.entities = removeById(state.entities, Number(action.meta.arg));
       })
       .addMatcher(isFulfilled(getEntities), (state, action) => {
+        const { data, headers } = action.payload;
         return {
           ...state,
           loading: false,
-          entities: action.payload.data,
+          links: parseKeysetLinks(headers.link),
+          entities: action.meta.arg.after ? [...state.entities, ...data] : data,
         };
       })
       .addMatcher(isFulfilled(createEntity, updateEntity, partialUpdateEntity), (state, action) => {
@@ -101,6 +109,7 @@ export const PhoneNumberSlice = createEntitySlice({
         state.loading = false;
         state.updateSuccess = true;
         state.entity = action.payload.data;
+        state.entities = upsertById(state.entities, action.payload.data, state.links);
       })
       .addMatcher(isPending(getEntities, getEntity), state => {
         state.errorMessage = null;
@@ -115,7 +124,7 @@ export const PhoneNumberSlice = createEntitySlice({
   },
 });
 
-export const { reset } = PhoneNumberSlice.actions;
+export const { reset, applyEvent } = PhoneNumberSlice.actions;
 
 // Reducer
 export default PhoneNumberSlice.reducer;
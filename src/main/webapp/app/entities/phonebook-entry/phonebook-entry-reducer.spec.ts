@@ -9,9 +9,11 @@ import reducer, {
   deleteEntity,
   getEntities,
   getEntity,
+  searchEntities,
   updateEntity,
   partialUpdateEntity,
   reset,
+  applyEvent,
 } from './phonebook-entry.reducer';
 import { EntityState } from 'app/shared/reducers/reducer.utils';
 import { IPhonebookEntry, defaultValue } from 'app/shared/model/phonebook-entry.model';
@@ -30,6 +32,7 @@ describe('Entities reducer tests', () => {
     errorMessage: null,
     entities: [],
     entity: defaultValue,
+    links: {},
     updating: false,
     updateSuccess: false,
   };
@@ -59,7 +62,7 @@ describe('Entities reducer tests', () => {
 
   describe('Requests', () => {
     it('should set state to loading', () => {
-      testMultipleTypes([getEntities.pending.type, getEntity.pending.type], {}, state => {
+      testMultipleTypes([getEntities.pending.type, searchEntities.pending.type, getEntity.pending.type], {}, state => {
         expect(state).toMatchObject({
           errorMessage: null,
           updateSuccess: false,
@@ -117,15 +120,55 @@ describe('Entities reducer tests', () => {
 
   describe('Successes', () => {
     it('should fetch all entities', () => {
-      const payload = { data: [{ 1: 'fake1' }, { 2: 'fake2' }] };
+      const payload = { data: [{ 1: 'fake1' }, { 2: 'fake2' }], headers: { link: '<api?size=2&after=2>; rel="next"' } };
       expect(
         reducer(undefined, {
           type: getEntities.fulfilled.type,
           payload,
+          meta: { arg: {} },
         })
       ).toEqual({
         ...initialState,
         loading: false,
+        links: { next: 2 },
+        entities: payload.data,
+      });
+    });
+
+    it('should append the next slice of entities', () => {
+      const payload = { data: [{ id: 3 }], headers: { link: '<api?size=2&after=0>; rel="first"' } };
+      expect(
+        reducer(
+          { ...initialState, entities: [{ id: 1 }, { id: 2 }], links: { next: 2 } },
+          {
+            type: getEntities.fulfilled.type,
+            payload,
+            meta: { arg: { after: 2 } },
+          }
+        )
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        links: {},
+        entities: [{ id: 1 }, { id: 2 }, { id: 3 }],
+      });
+    });
+
+    it('should replace the entities by the search results', () => {
+      const payload = { data: [{ id: 3, description: 'Meier' }] };
+      expect(
+        reducer(
+          { ...initialState, entities: [{ id: 1 }, { id: 2 }], links: { next: 2 } },
+          {
+            type: searchEntities.fulfilled.type,
+            payload,
+            meta: { arg: { query: 'mei' } },
+          }
+        )
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        links: {},
         entities: payload.data,
       });
     });
@@ -145,31 +188,53 @@ describe('Entities reducer tests', () => {
     });
 
     it('should create/update entity', () => {
-      const payload = { data: 'fake payload' };
+      const payload = { data: { id: 2, description: 'Reception' } };
       expect(
-        reducer(undefined, {
-          type: createEntity.fulfilled.type,
-          payload,
-        })
+        reducer(
+          { ...initialState, entities: [{ id: 1 }, { id: 2 }, { id: 3 }] },
+          {
+            type: createEntity.fulfilled.type,
+            payload,
+          }
+        )
       ).toEqual({
         ...initialState,
         updating: false,
         updateSuccess: true,
         entity: payload.data,
+        entities: [{ id: 1 }, payload.data, { id: 3 }],
       });
     });
 
     it('should delete entity', () => {
       const payload = 'fake payload';
-      const toTest = reducer(undefined, {
-        type: deleteEntity.fulfilled.type,
-        payload,
-      });
+      const toTest = reducer(
+        { ...initialState, entities: [{ id: 1 }, { id: 2 }] },
+        {
+          type: deleteEntity.fulfilled.type,
+          payload,
+          meta: { arg: '2' },
+        }
+      );
       expect(toTest).toMatchObject({
         updating: false,
         updateSuccess: true,
+        entities: [{ id: 1 }],
       });
     });
+
+    it('should apply the events of the server', () => {
+      const state = { ...initialState, entities: [{ id: 1 }, { id: 3 }], links: { next: 3 } };
+      const changed = { id: 3, description: 'Reception' };
+      expect(reducer(state, applyEvent({ operation: 'UPSERT', id: 3, entity: changed })).entities).toEqual([{ id: 1 }, changed]);
+      expect(reducer(state, applyEvent({ operation: 'UPSERT', id: 2, entity: { id: 2 } })).entities).toEqual([
+        { id: 1 },
+        { id: 2 },
+        { id: 3 },
+      ]);
+      expect(reducer(state, applyEvent({ operation: 'UPSERT', id: 4, entity: { id: 4 } })).entities).toEqual(state.entities);
+      expect(reducer(state, applyEvent({ operation: 'DELETE', id: 1 })).entities).toEqual([{ id: 3 }]);
+    });
   });
 
   describe('Actions', () => {
@@ -221,9 +286,6 @@ describe('Entities reducer tests', () => {
         {
           type: createEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: createEntity.fulfilled.type,
           payload: resolvedObject,
@@ -232,7 +294,7 @@ describe('Entities reducer tests', () => {
       await store.dispatch(createEntity({ id: 456 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
+      expect(store.getActions()).toHaveLength(2);
     });
 
     it('dispatches UPDATE_PHONEBOOKENTRY actions', async () => {
@@ -240,9 +302,6 @@ describe('Entities reducer tests', () => {
         {
           type: updateEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: updateEntity.fulfilled.type,
           payload: resolvedObject,
@@ -251,7 +310,7 @@ describe('Entities reducer tests', () => {
       await store.dispatch(updateEntity({ id: 456 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
+      expect(store.getActions()).toHaveLength(2);
     });
 
     it('dispatches PARTIAL_UPDATE_PHONEBOOKENTRY actions', async () => {
@@ -259,9 +318,6 @@ describe('Entities reducer tests', () => {
         {
           type: partialUpdateEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: partialUpdateEntity.fulfilled.type,
           payload: resolvedObject,
@@ -270,7 +326,7 @@ describe('Entities reducer tests', () => {
       await store.dispatch(partialUpdateEntity({ id: 123 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
+      expect(store.getActions()).toHaveLength(2);
     });
 
     it('dispatches DELETE_PHONEBOOKENTRY actions', async () => {
@@ -278,9 +334,6 @@ describe('Entities reducer tests', () => {
         {
           type: deleteEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: deleteEntity.fulfilled.type,
           payload: resolvedObject,
@@ -289,7 +342,7 @@ describe('Entities reducer tests', () => {
       await store.dispatch(deleteEntity(42666));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
+      expect(store.getActions()).toHaveLength(2);
     });
 
     it('dispatches RESET actions', async () => {
@@ -1,15 +1,19 @@
 import axios from 'axios';
-import { createAsyncThunk, isFulfilled, isPending, isRejected } from '@reduxjs/toolkit';
+import { createAsyncThunk, isFulfilled, isPending, isRejected, PayloadAction } from '@reduxjs/toolkit';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { parseKeysetLinks, removeById, upsertById } from 'app/shared/util/keyset-pagination.utils';
+import { ITEMS_PER_PAGE } from 'app/shared/util/pagination.constants';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IPhonebookEntry, defaultValue } from 'app/shared/model/phonebook-entry.model';
+import { IPhonebookEvent } from 'app/shared/model/phonebook-event.model';
 
 const initialState: EntityState<IPhonebookEntry> = {
   loading: false,
   errorMessage: null,
   entities: [],
   entity: defaultValue,
+  links: {},
   updating: false,
   updateSuccess: false,
 };
@@ -18,8 +22,13 @@ const apiUrl = 'api/phonebook-entries';
 
 // Actions
 
-export const getEntities = createAsyncThunk('phonebookEntry/fetch_entity_list', async ({ page, size, sort }: IQueryParams) => {
-  const requestUrl = `${apiUrl}?cacheBuster=${new Date().getTime()}`;
+export const getEntities = createAsyncThunk('phonebookEntry/fetch_entity_list', async ({ after, size }: IQueryParams) => {
+  const requestUrl = `${apiUrl}?after=${after ?? 0}&size=${size ?? ITEMS_PER_PAGE}&cacheBuster=${new Date().getTime()}`;
+  return axios.get<IPhonebookEntry[]>(requestUrl);
+});
+
+export const searchEntities = createAsyncThunk('phonebookEntry/search_entities', async ({ query, size }: IQueryParams) => {
+  const requestUrl = `${apiUrl}/_search?q=${encodeURIComponent(query)}&size=${size ?? ITEMS_PER_PAGE}`;
   return axios.get<IPhonebookEntry[]>(requestUrl);
 });
 
@@ -34,41 +43,33 @@ export const getEntity = createAsyncThunk(
 
 export const createEntity = createAsyncThunk(
   'phonebookEntry/create_entity',
-  async (entity: IPhonebookEntry, thunkAPI) => {
-    const result = await axios.post<IPhonebookEntry>(apiUrl, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhonebookEntry) => {
+    return axios.post<IPhonebookEntry>(apiUrl, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const updateEntity = createAsyncThunk(
   'phonebookEntry/update_entity',
-  async (entity: IPhonebookEntry, thunkAPI) => {
-    const result = await axios.put<IPhonebookEntry>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhonebookEntry) => {
+    return axios.put<IPhonebookEntry>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const partialUpdateEntity = createAsyncThunk(
   'phonebookEntry/partial_update_entity',
-  async (entity: IPhonebookEntry, thunkAPI) => {
-    const result = await axios.patch<IPhonebookEntry>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+  async (entity: IPhonebookEntry) => {
+    return axios.patch<IPhonebookEntry>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
   },
   { serializeError: serializeAxiosError }
 );
 
 export const deleteEntity = createAsyncThunk(
   'phonebookEntry/delete_entity',
-  async (id: string | number, thunkAPI) => {
+  async (id: string | number) => {
     const requestUrl = `${apiUrl}/${id}`;
-    const result = await axios.delete<IPhonebookEntry>(requestUrl);
-    thunkAPI.dispatch(getEntities({}));
-    return result;
+    return axios.delete<IPhonebookEntry>(requestUrl);
   },
   { serializeError: serializeAxiosError }
 );
@@ -78,31 +79,49 @@ export const deleteEntity = createAsyncThunk(
 export const PhonebookEntrySlice = createEntitySlice({
   name: 'phonebookEntry',
   initialState,
+  reducers: {
+    /**
+     * Applies a change published by the server, see app/config/phonebook-events
+     */
+    applyEvent(state, action: PayloadAction<IPhonebookEvent<IPhonebookEntry>>) {
+      const { operation, id, entity } = action.payload;
+      state.entities = operation === 'DELETE' ? removeById(state.entities, id) : upsertById(state.entities, entity, state.links);
+    },
+  },
   extraReducers(builder) {
     builder
       .addCase(getEntity.fulfilled, (state, action) => {
         state.loading = false;
         state.entity = action.payload.data;
       })
-      .addCase(deleteEntity.fulfilled, state => {
+      .addCase(deleteEntity.fulfilled, (state, action) => {
         state.updating = false;
         state.updateSuccess = true;
         state.entity = {};
+        state.entities = removeById(state.entities, Number(action.meta.arg));
       })
       .addMatcher(isFulfilled(getEntities), (state, action) => {
+        const { data, headers } = action.payload;
         return {
           ...state,
           loading: false,
-          entities: action.payload.data,
+          links: parseKeysetLinks(headers.link),
+          entities: action.meta.arg.after ? [...state.entities, ...data] : data,
         };
       })
+      .addMatcher(isFulfilled(searchEntities), (state, action) => {
+        state.loading = false;
+        state.links = {};
+        state.entities = action.payload.data;
+      })
       .addMatcher(isFulfilled(createEntity, updateEntity, partialUpdateEntity), (state, action) => {
         state.updating = false;
         state.loading = false;
         state.updateSuccess = true;
         state.entity = action.payload.data;
+        state.entities = upsertById(state.entities, action.payload.data, state.links);
       })
-      .addMatcher(isPending(getEntities, getEntity), state => {
+      .addMatcher(isPending(getEntities, searchEntities, getEntity), state => {
         state.errorMessage = null;
         state.updateSuccess = false;
         state.loading = true;
@@ -115,7 +134,7 @@ export const PhonebookEntrySlice = createEntitySlice({
   },
 });
 
-export const { reset } = PhonebookEntrySlice.actions;
+export const { reset, applyEvent } = PhonebookEntrySlice.actions;
 
 // Reducer
 export default PhonebookEntrySlice.reducer;
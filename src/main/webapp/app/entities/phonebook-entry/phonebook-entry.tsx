@@ -1,26 +1,49 @@
 import React, { useState, useEffect } from 'react';
 import { Link, RouteComponentProps } from 'react-router-dom';
-import { Button, Table } from 'reactstrap';
-import { Translate } from 'react-jhipster';
+import { Button, Input, Table } from 'reactstrap';
+import { Translate, translate } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroll-component';
 
-import { getEntities } from './phonebook-entry.reducer';
+import { getEntities, searchEntities } from './phonebook-entry.reducer';
 import { IPhonebookEntry } from 'app/shared/model/phonebook-entry.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
+import { ITEMS_PER_PAGE } from 'app/shared/util/pagination.constants';
 import { useAppDispatch, useAppSelector } from 'app/config/store';
 
+const SEARCH_DEBOUNCE_MS = 300;
+
 export const PhonebookEntry = (props: RouteComponentProps<{ url: string }>) => {
   const dispatch = useAppDispatch();
 
+  const [search, setSearch] = useState('');
+
   const phonebookEntryList = useAppSelector(state => state.phonebookEntry.entities);
   const loading = useAppSelector(state => state.phonebookEntry.loading);
+  const links = useAppSelector(state => state.phonebookEntry.links);
+
+  const loadEntities = () => {
+    const query = search.trim();
+    if (query) {
+      dispatch(searchEntities({ query, size: ITEMS_PER_PAGE }));
+    } else {
+      dispatch(getEntities({ size: ITEMS_PER_PAGE }));
+    }
+  };
 
   useEffect(() => {
-    dispatch(getEntities({}));
-  }, []);
+    const timeout = setTimeout(loadEntities, search.trim() ? SEARCH_DEBOUNCE_MS : 0);
+    return () => clearTimeout(timeout);
+  }, [search]);
 
   const handleSyncList = () => {
-    dispatch(getEntities({}));
+    loadEntities();
+  };
+
+  const handleLoadMore = () => {
+    if (links.next !== undefined) {
+      dispatch(getEntities({ after: links.next, size: ITEMS_PER_PAGE }));
+    }
   };
 
   const { match } = props;
@@ -41,68 +64,89 @@ export const PhonebookEntry = (props: RouteComponentProps<{ url: string }>) => {
           </Link>
         </div>
       </h2>
+      <Input
+        type="search"
+        className="mb-3"
+        value={search}
+        onChange={event => setSearch(event.target.value)}
+        placeholder={translate('phonebookgeneratorApp.phonebookEntry.home.search')}
+        data-cy="entitySearch"
+      />
       <div className="table-responsive">
-        {phonebookEntryList && phonebookEntryList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="phonebookgeneratorApp.phonebookEntry.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="phonebookgeneratorApp.phonebookEntry.description">Description</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {phonebookEntryList.map((phonebookEntry, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${phonebookEntry.id}`} color="link" size="sm">
-                      {phonebookEntry.id}
-                    </Button>
-                  </td>
-                  <td>{phonebookEntry.description}</td>
-                  <td className="text-end">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${phonebookEntry.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${phonebookEntry.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button
-                        tag={Link}
-                        to={`${match.url}/${phonebookEntry.id}/delete`}
-                        color="danger"
-                        size="sm"
-                        data-cy="entityDeleteButton"
-                      >
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+        <InfiniteScroll
+          dataLength={phonebookEntryList ? phonebookEntryList.length : 0}
+          next={handleLoadMore}
+          hasMore={links.next !== undefined}
+          loader={<div className="loader">Loading ...</div>}
+        >
+          {phonebookEntryList && phonebookEntryList.length > 0 ? (
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="phonebookgeneratorApp.phonebookEntry.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="phonebookgeneratorApp.phonebookEntry.description">Description</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
-        ) : (
-          !loading && (
-            <div className="alert alert-warning">
-              <Translate contentKey="phonebookgeneratorApp.phonebookEntry.home.notFound">No Phonebook Entries found</Translate>
-            </div>
-          )
-        )}
+              </thead>
+              <tbody>
+                {phonebookEntryList.map((phonebookEntry, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${phonebookEntry.id}`} color="link" size="sm">
+                        {phonebookEntry.id}
+                      </Button>
+                    </td>
+                    <td>{phonebookEntry.description}</td>
+                    <td className="text-end">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${phonebookEntry.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button
+                          tag={Link}
+                          to={`${match.url}/${phonebookEntry.id}/edit`}
+                          color="primary"
+                          size="sm"
+                          data-cy="entityEditButton"
+                        >
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button
+                          tag={Link}
+                          to={`${match.url}/${phonebookEntry.id}/delete`}
+                          color="danger"
+                          size="sm"
+                          data-cy="entityDeleteButton"
+                        >
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          ) : (
+            !loading && (
+              <div className="alert alert-warning">
+                <Translate contentKey="phonebookgeneratorApp.phonebookEntry.home.notFound">No Phonebook Entries found</Translate>
+              </div>
+            )
+          )}
+        </InfiniteScroll>
       </div>
     </div>
   );
@@ -3,6 +3,8 @@ import { IPhonebookEntry } from 'app/shared/model/phonebook-entry.model';
 export interface IPhoneNumber {
   id?: number;
   number?: string;
+  normalizedNumber?: string | null;
+  version?: number;
   phonebookEntry?: IPhonebookEntry | null;
 }
 
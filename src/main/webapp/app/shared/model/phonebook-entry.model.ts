@@ -3,6 +3,8 @@ import { IPhoneNumber } from 'app/shared/model/phone-number.model';
 export interface IPhonebookEntry {
   id?: number;
   description?: string;
+  externalId?: string | null;
+  version?: number;
   phoneNumbers?: IPhoneNumber[] | null;
 }
 
@@ -0,0 +1,7 @@
+export interface IPhonebookEvent<T> {
+  changeId?: number;
+  entityType?: 'PHONEBOOK_ENTRY' | 'PHONE_NUMBER';
+  operation?: 'UPSERT' | 'DELETE';
+  id?: number;
+  entity?: T | null;
+}
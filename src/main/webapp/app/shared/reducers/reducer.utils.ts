@@ -10,9 +10,9 @@ import {
 import { AxiosError } from 'axios';
 
 /**
- * Model for redux actions with pagination
+ * Model for redux actions with pagination, `after` is the id after which a keyset paginated slice starts
  */
-export type IQueryParams = { query?: string; page?: number; size?: number; sort?: string };
+export type IQueryParams = { query?: string; page?: number; size?: number; sort?: string; after?: number };
 
 /**
  * Useful types for working with actions
@@ -0,0 +1,29 @@
+import { parseKeysetLinks, removeById, upsertById } from './keyset-pagination.utils';
+
+describe('Keyset pagination utils', () => {
+  it('should return the id after which the next slice starts', () => {
+    const header = '<api/phone-numbers?size=20&after=1234>; rel="next",<api/phone-numbers?size=20&after=0>; rel="first"';
+    expect(parseKeysetLinks(header)).toEqual({ next: 1234 });
+  });
+
+  it('should return no next link on the last slice', () => {
+    expect(parseKeysetLinks('<api/phonebook-entries?size=20&after=0>; rel="first"')).toEqual({});
+    expect(parseKeysetLinks(undefined)).toEqual({});
+  });
+
+  it('should replace a changed entity and insert a new one in id order', () => {
+    const entities = [{ id: 1 }, { id: 3, description: 'Sales' }];
+    expect(upsertById(entities, { id: 3, description: 'Support' }, {})).toEqual([{ id: 1 }, { id: 3, description: 'Support' }]);
+    expect(upsertById(entities, { id: 2 }, {})).toEqual([{ id: 1 }, { id: 2 }, { id: 3, description: 'Sales' }]);
+    expect(upsertById(entities, { id: 4 }, {})).toEqual([{ id: 1 }, { id: 3, description: 'Sales' }, { id: 4 }]);
+  });
+
+  it('should leave a new entity beyond the loaded slices to the next slice', () => {
+    expect(upsertById([{ id: 1 }, { id: 3 }], { id: 4 }, { next: 3 })).toEqual([{ id: 1 }, { id: 3 }]);
+  });
+
+  it('should remove a deleted entity', () => {
+    expect(removeById([{ id: 1 }, { id: 3 }], 3)).toEqual([{ id: 1 }]);
+    expect(removeById([{ id: 1 }], 3)).toEqual([{ id: 1 }]);
+  });
+});
@@ -0,0 +1,45 @@
+/**
+ * Links of a slice read by keyset pagination.
+ * `next` is the id after which the next slice starts, undefined on the last slice.
+ */
+export interface IKeysetLinks {
+  next?: number;
+}
+
+/**
+ * Parses the `Link` header of a keyset paginated response.
+ */
+export const parseKeysetLinks = (header?: string): IKeysetLinks => {
+  const links: IKeysetLinks = {};
+  if (!header) {
+    return links;
+  }
+  header.split(',').forEach(part => {
+    const match = /<[^>]*[?&]after=(\d+)[^>]*>;\s*rel="next"/.exec(part);
+    if (match) {
+      links.next = parseInt(match[1], 10);
+    }
+  });
+  return links;
+};
+
+/**
+ * Applies a created or changed entity to a list read by keyset pagination, which is ordered by id.
+ * A new entity beyond the slices loaded so far is left to the next slice.
+ */
+export const upsertById = <T extends { id?: number }>(entities: ReadonlyArray<T>, entity: T, links?: IKeysetLinks): T[] => {
+  const index = entities.findIndex(e => e.id === entity.id);
+  if (index >= 0) {
+    return entities.map((e, i) => (i === index ? entity : e));
+  }
+  if (links?.next !== undefined && entity.id > links.next) {
+    return [...entities];
+  }
+  const position = entities.findIndex(e => e.id > entity.id);
+  return position < 0 ? [...entities, entity] : [...entities.slice(0, position), entity, ...entities.slice(position)];
+};
+
+/**
+ * Removes a deleted entity from a list.
+ */
+export const removeById = <T extends { id?: number }>(entities: ReadonlyArray<T>, id: number): T[] => entities.filter(e => e.id !== id);
@@ -0,0 +1,83 @@
+package ch.qfs.phonebook.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the cache regions of {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private static final String PHONEBOOK_ENTRY_REGION = ch.qfs.phonebook.generator.domain.PhonebookEntry.class.getName();
+    private static final String PHONE_NUMBER_REGION = ch.qfs.phonebook.generator.domain.PhoneNumber.class.getName();
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion();
+        region.setHeapEntries(10L);
+        region.setOffHeapMb(1);
+        region.setTimeToIdleSeconds(60);
+        applicationProperties.getCache().getRegions().put(PHONEBOOK_ENTRY_REGION, region);
+
+        CachingProvider cachingProvider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), getClass().getClassLoader());
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void configuresRegionsWithTheirOwnSettings() {
+        ResourcePools resourcePools = resourcePools(PHONEBOOK_ENTRY_REGION);
+        assertThat(((SizedResourcePool) resourcePools.getPoolForResource(ResourceType.Core.HEAP)).getSize()).isEqualTo(10);
+        SizedResourcePool offHeap = resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(offHeap.getSize()).isEqualTo(1);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.MB);
+    }
+
+    @Test
+    void configuresOtherRegionsWithDefaults() {
+        ResourcePools resourcePools = resourcePools(PHONE_NUMBER_REGION);
+        assertThat(((SizedResourcePool) resourcePools.getPoolForResource(ResourceType.Core.HEAP)).getSize()).isEqualTo(100);
+        assertThat(resourcePools.getResourceTypeSet()).doesNotContain(ResourceType.Core.OFFHEAP);
+    }
+
+    @Test
+    void keepsEntriesEvictedFromTheHeapOffHeap() {
+        Cache<Object, Object> cache = cacheManager.getCache(PHONEBOOK_ENTRY_REGION);
+        for (long id = 0; id < 50; id++) {
+            cache.put(id, "entry " + id);
+        }
+        for (long id = 0; id < 50; id++) {
+            assertThat(cache.get(id)).isEqualTo("entry " + id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourcePools resourcePools(String region) {
+        Eh107Configuration<Object, Object> configuration = cacheManager.getCache(region).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class).getResourcePools();
+    }
+}
@@ -0,0 +1,126 @@
+package ch.qfs.phonebook.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for {@link CacheRegionStatistics}, {@link CacheRegionMetrics}, {@link CacheRegionsEndpoint} and
+ * {@link EhcacheTierStatistics}.
+ */
+class CacheRegionMetricsTest {
+
+    private static final String PHONEBOOK_ENTRY_REGION = ch.qfs.phonebook.generator.domain.PhonebookEntry.class.getName();
+    private static final String PHONE_NUMBER_REGION = ch.qfs.phonebook.generator.domain.PhoneNumber.class.getName();
+
+    private CacheManager cacheManager;
+
+    private Cache<Object, Object> cache;
+
+    private EhcacheTierStatistics tierStatistics;
+
+    @BeforeEach
+    void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion();
+        region.setHeapEntries(2L);
+        region.setOffHeapMb(1);
+        applicationProperties.getCache().getRegions().put(PHONEBOOK_ENTRY_REGION, region);
+
+        CachingProvider cachingProvider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), getClass().getClassLoader());
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+        tierStatistics = new EhcacheTierStatistics(cacheManager);
+
+        cache = cacheManager.getCache(PHONEBOOK_ENTRY_REGION);
+        for (long id = 0; id < 5; id++) {
+            cache.put(id, "entry " + id);
+        }
+        cache.get(1L);
+        cache.get(42L);
+        cache.remove(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tierStatistics.close();
+        cacheManager.close();
+    }
+
+    @Test
+    void readsTheStatisticsOfARegion() {
+        CacheRegionStatistics statistics = new CacheRegionStatistics(cache, tierStatistics);
+
+        assertThat(statistics.isStatisticsEnabled()).isTrue();
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getPuts()).isEqualTo(5);
+        assertThat(statistics.getRemovals()).isEqualTo(1);
+        assertThat(statistics.getSize()).isEqualTo(4);
+        assertThat(statistics.getHeapSize()).isBetween(1L, 2L);
+        assertThat(statistics.getOffHeapSize()).isEqualTo(4);
+        assertThat(statistics.getAverageGetTime()).isPositive();
+    }
+
+    @Test
+    void reportsRegionsWithoutOffHeapTier() {
+        cacheManager.getCache(PHONE_NUMBER_REGION).put(1L, "number");
+
+        CacheRegionStatistics statistics = new CacheRegionStatistics(cacheManager.getCache(PHONE_NUMBER_REGION), tierStatistics);
+
+        assertThat(statistics.getSize()).isEqualTo(1);
+        assertThat(statistics.getOffHeapSize()).isNull();
+    }
+
+    @Test
+    void bindsTheStatisticsToTheMeterRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheRegionMetrics(cache, Tags.of("cacheManager", "test"), tierStatistics).bindTo(registry);
+
+        Tags tags = Tags.of("cache", PHONEBOOK_ENTRY_REGION, "cacheManager", "test");
+        assertThat(registry.get("cache.gets").tags(tags).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags(tags).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.puts").tags(tags).functionCounter().count()).isEqualTo(5);
+        assertThat(registry.get("cache.removals").tags(tags).functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tags(tags).gauge().value()).isEqualTo(4);
+        assertThat(registry.get("cache.tier.size").tags(tags).tag("tier", "offheap").gauge().value()).isEqualTo(4);
+        assertThat(registry.get("cache.gets.latency").tags(tags).gauge().value()).isPositive();
+    }
+
+    @Test
+    void showsTheRegionsOnTheEndpoint() {
+        CacheRegionsEndpoint endpoint = new CacheRegionsEndpoint(cacheManager, tierStatistics);
+
+        assertThat(endpoint.regions()).containsKeys(PHONEBOOK_ENTRY_REGION, PHONE_NUMBER_REGION);
+        assertThat(endpoint.region(PHONEBOOK_ENTRY_REGION).getSize()).isEqualTo(4);
+        assertThat(endpoint.region("unknown")).isNull();
+    }
+
+    @Test
+    void readsTheTiersOfRegionsCreatedAfterwards() {
+        cacheManager.createCache("other", new MutableConfiguration<>()).put(1L, "other");
+
+        assertThat(tierStatistics.of("other").get("OnHeap").getMappings()).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsTheRegionsOfAClosedCacheManager() {
+        assertThat(tierStatistics.of(PHONEBOOK_ENTRY_REGION).get("OffHeap").getMappings()).isEqualTo(4);
+
+        cacheManager.close();
+
+        assertThatThrownBy(() -> tierStatistics.of(PHONEBOOK_ENTRY_REGION)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
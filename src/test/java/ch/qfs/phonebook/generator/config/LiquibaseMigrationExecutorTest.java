@@ -0,0 +1,48 @@
+package ch.qfs.phonebook.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LiquibaseMigrationExecutor}.
+ */
+class LiquibaseMigrationExecutorTest {
+
+    @Test
+    void isMigratedWithoutAsynchronousMigration() {
+        LiquibaseMigrationExecutor executor = new LiquibaseMigrationExecutor(Runnable::run);
+
+        assertThat(executor.whenMigrated()).isCompleted();
+    }
+
+    @Test
+    void isMigratedOnceTheAsynchronousMigrationIsDone() {
+        List<Runnable> tasks = new ArrayList<>();
+        LiquibaseMigrationExecutor executor = new LiquibaseMigrationExecutor(tasks::add);
+        executor.execute(() -> {});
+
+        assertThat(executor.whenMigrated()).isNotDone();
+
+        tasks.forEach(Runnable::run);
+        assertThat(executor.whenMigrated()).isCompleted();
+    }
+
+    @Test
+    void isMigratedWhenTheAsynchronousMigrationFails() {
+        List<Runnable> tasks = new ArrayList<>();
+        LiquibaseMigrationExecutor executor = new LiquibaseMigrationExecutor(tasks::add);
+        executor.execute(() -> {
+            throw new IllegalStateException("migration failed");
+        });
+
+        try {
+            tasks.forEach(Runnable::run);
+        } catch (IllegalStateException e) {
+            // thrown to the executor
+        }
+        assertThat(executor.whenMigrated()).isCompleted();
+    }
+}
@@ -0,0 +1,117 @@
+package ch.qfs.phonebook.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+/**
+ * Unit tests for {@link PhonebookProtobufHttpMessageConverter}.
+ */
+class PhonebookProtobufHttpMessageConverterTest {
+
+    private static final Type ENTRY_LIST = new TypeReference<List<PhonebookEntryDTO>>() {}.getType();
+
+    private static final Type NUMBER_LIST = new TypeReference<List<PhoneNumberDTO>>() {}.getType();
+
+    private PhonebookProtobufHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new PhonebookProtobufHttpMessageConverter(new ObjectMapper(new ProtobufFactory()));
+    }
+
+    @Test
+    void supportsTheDtosAndListsOfThem() {
+        MediaType protobuf = PhonebookProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+        assertThat(converter.canWrite(PhonebookEntryDTO.class, PhonebookEntryDTO.class, protobuf)).isTrue();
+        assertThat(converter.canWrite(ENTRY_LIST, ArrayList.class, protobuf)).isTrue();
+        assertThat(converter.canRead(NUMBER_LIST, null, protobuf)).isTrue();
+        assertThat(converter.getSupportedMediaTypes(ArrayList.class)).containsExactly(protobuf);
+        assertThat(converter.canWrite(PhonebookEntryDTO.class, PhonebookEntryDTO.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(String.class, String.class, protobuf)).isFalse();
+        assertThat(converter.canWrite(new TypeReference<Set<PhoneNumberDTO>>() {}.getType(), Set.class, protobuf)).isFalse();
+    }
+
+    @Test
+    void writesAndReadsAnEntryWithItsPhoneNumbers() throws IOException {
+        PhonebookEntryDTO entry = entry(1L, "Meier Hans");
+        entry.setExternalId("ivy-1");
+        entry.getPhoneNumbers().add(phoneNumber(2L, "044 123 45 67", null));
+        entry.getPhoneNumbers().add(phoneNumber(3L, "079 765 43 21", null));
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(entry, PhonebookEntryDTO.class, null, outputMessage);
+
+        assertThat(outputMessage.getHeaders().getContentType()).isEqualTo(PhonebookProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+        assertThat(outputMessage.getHeaders().getFirst(PhonebookProtobufHttpMessageConverter.MESSAGE_HEADER)).isEqualTo("PhonebookEntry");
+        PhonebookEntryDTO read = (PhonebookEntryDTO) converter.read(PhonebookEntryDTO.class, null, input(outputMessage));
+        // the read-only fields are ignored, as in JSON
+        assertThat(read).usingRecursiveComparison().ignoringFields("externalId", "phoneNumbers.normalizedNumber").isEqualTo(entry);
+        assertThat(read.getExternalId()).isNull();
+    }
+
+    @Test
+    void writesAndReadsListsWrappedInTheirMessage() throws IOException {
+        List<PhoneNumberDTO> phoneNumbers = List.of(
+            phoneNumber(2L, "044 123 45 67", entry(1L, "Meier Hans")),
+            phoneNumber(3L, "079 765 43 21", null)
+        );
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(phoneNumbers, NUMBER_LIST, null, outputMessage);
+
+        assertThat(outputMessage.getHeaders().getFirst(PhonebookProtobufHttpMessageConverter.MESSAGE_HEADER)).isEqualTo("PhoneNumberList");
+        List<?> read = (List<?>) converter.read(NUMBER_LIST, null, input(outputMessage));
+        assertThat(read).hasSize(2);
+        assertThat(read.get(0)).usingRecursiveComparison().ignoringFields("normalizedNumber").isEqualTo(phoneNumbers.get(0));
+        assertThat(read.get(1)).usingRecursiveComparison().ignoringFields("normalizedNumber").isEqualTo(phoneNumbers.get(1));
+
+        MockHttpOutputMessage emptyMessage = new MockHttpOutputMessage();
+        converter.write(List.of(), ENTRY_LIST, null, emptyMessage);
+        assertThat(converter.read(ENTRY_LIST, null, input(emptyMessage))).asList().isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidMessages() {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(new byte[] { 0x12, 0x7f, 0x01 });
+
+        assertThatThrownBy(() -> converter.read(PhonebookEntryDTO.class, null, inputMessage))
+            .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    private static MockHttpInputMessage input(MockHttpOutputMessage outputMessage) {
+        return new MockHttpInputMessage(outputMessage.getBodyAsBytes());
+    }
+
+    private static PhonebookEntryDTO entry(Long id, String description) {
+        PhonebookEntryDTO entry = new PhonebookEntryDTO();
+        entry.setId(id);
+        entry.setDescription(description);
+        return entry;
+    }
+
+    private static PhoneNumberDTO phoneNumber(Long id, String number, PhonebookEntryDTO entry) {
+        PhoneNumberDTO phoneNumber = new PhoneNumberDTO();
+        phoneNumber.setId(id);
+        phoneNumber.setNumber(number);
+        phoneNumber.setNormalizedNumber(number.replace(" ", ""));
+        phoneNumber.setPhonebookEntry(entry);
+        return phoneNumber;
+    }
+}
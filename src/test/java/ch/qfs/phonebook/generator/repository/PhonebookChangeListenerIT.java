@@ -0,0 +1,108 @@
+package ch.qfs.phonebook.generator.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link PhonebookChangeListener}.
+ */
+@IntegrationTest
+class PhonebookChangeListenerIT {
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long lastChangeId;
+
+    @BeforeEach
+    public void init() {
+        lastChangeId = phonebookChangeRepository.findLastId();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void recordsCreateMoveAndDelete() {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhonebookEntry support = phonebookEntryRepository.save(new PhonebookEntry().description("Support"));
+        PhoneNumber number = phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+
+        number.setPhonebookEntry(support);
+        number = phoneNumberRepository.save(number);
+        phoneNumberRepository.delete(number);
+
+        List<PhonebookChange> changes = phonebookChangeRepository.findAllByIdGreaterThanOrderById(lastChangeId);
+        assertThat(changes)
+            .extracting(PhonebookChange::getEntityType, PhonebookChange::getEntityId, PhonebookChange::getPhonebookEntryId, PhonebookChange::getOperation)
+            .containsExactly(
+                tuple(ChangedEntityType.PHONEBOOK_ENTRY, reception.getId(), reception.getId(), ChangeOperation.UPSERT),
+                tuple(ChangedEntityType.PHONEBOOK_ENTRY, support.getId(), support.getId(), ChangeOperation.UPSERT),
+                tuple(ChangedEntityType.PHONE_NUMBER, number.getId(), reception.getId(), ChangeOperation.UPSERT),
+                tuple(ChangedEntityType.PHONE_NUMBER, number.getId(), reception.getId(), ChangeOperation.DELETE),
+                tuple(ChangedEntityType.PHONE_NUMBER, number.getId(), support.getId(), ChangeOperation.UPSERT),
+                tuple(ChangedEntityType.PHONE_NUMBER, number.getId(), support.getId(), ChangeOperation.DELETE)
+            );
+        assertThat(changes).allMatch(change -> change.getChangedDate() != null);
+    }
+
+    @Test
+    void incrementsTheVersionOfTheEntriesOfChangedNumbers() {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhonebookEntry support = phonebookEntryRepository.save(new PhonebookEntry().description("Support"));
+        PhoneNumber number = phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+        assertThat(phonebookEntryRepository.findById(reception.getId()).get().getVersion()).isEqualTo(1L);
+
+        number.setPhonebookEntry(support);
+        phoneNumberRepository.save(number);
+        assertThat(phonebookEntryRepository.findById(reception.getId()).get().getVersion()).isEqualTo(2L);
+        assertThat(phonebookEntryRepository.findById(support.getId()).get().getVersion()).isEqualTo(1L);
+
+        // An entry written along with its numbers is only incremented once
+        PhonebookEntry sales = new TransactionTemplate(transactionManager)
+            .execute(status -> {
+                PhonebookEntry entry = phonebookEntryRepository.save(new PhonebookEntry().description("Sales"));
+                phoneNumberRepository.save(new PhoneNumber("200").phonebookEntry(entry));
+                return entry;
+            });
+        assertThat(phonebookEntryRepository.findById(sales.getId()).get().getVersion()).isZero();
+    }
+
+    @Test
+    void recordsNothingOnRollback() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                phonebookEntryRepository.saveAndFlush(new PhonebookEntry().description("Reception"));
+                status.setRollbackOnly();
+            });
+
+        assertThat(phonebookChangeRepository.findAllByIdGreaterThanOrderById(lastChangeId)).isEmpty();
+    }
+}
@@ -0,0 +1,98 @@
+package ch.qfs.phonebook.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link PhoneNumberNormalizationService} and the normalization of saved phone numbers.
+ */
+@IntegrationTest
+class PhoneNumberNormalizationServiceIT {
+
+    @Autowired
+    private PhoneNumberNormalizationService phoneNumberNormalizationService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getNormalization().getBackfill().setBatchSize(1000);
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void normalizesSavedNumbers() {
+        PhoneNumber phoneNumber = phoneNumberRepository.save(new PhoneNumber("044 123 45 67"));
+        assertThat(phoneNumberRepository.findById(phoneNumber.getId()).orElseThrow().getNormalizedNumber()).isEqualTo("+41441234567");
+
+        phoneNumber.setNumber("0041 (0)44 123 45 68");
+        phoneNumberRepository.save(phoneNumber);
+        assertThat(phoneNumberRepository.findById(phoneNumber.getId()).orElseThrow().getNormalizedNumber()).isEqualTo("+41441234568");
+    }
+
+    @Test
+    void backfillsNumbersWithoutCanonicalForm() {
+        phoneNumberRepository.saveAll(
+            List.of(new PhoneNumber("044 123 45 67"), new PhoneNumber("+41 44 123 45 68"), new PhoneNumber("1234"), new PhoneNumber("n/a"))
+        );
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("update phone_number set normalized_number = null")
+        );
+        long changes = phonebookChangeRepository.count();
+        applicationProperties.getNormalization().getBackfill().setBatchSize(3);
+
+        assertThat(phoneNumberNormalizationService.backfill()).isEqualTo(3);
+
+        assertThat(phoneNumberRepository.findAll())
+            .extracting(PhoneNumber::getNormalizedNumber)
+            .containsExactlyInAnyOrder("+41441234567", "+41441234568", "1234", null);
+        assertThat(phonebookChangeRepository.count()).isEqualTo(changes);
+        assertThat(phoneNumberNormalizationService.backfill()).isZero();
+    }
+
+    @Test
+    void backfillReplacesCanonicalFormsOfPreviousSettings() {
+        PhoneNumber phoneNumber = phoneNumberRepository.save(new PhoneNumber("044 123 45 67"));
+        phoneNumberRepository.save(new PhoneNumber("+41 44 123 45 68"));
+        // stored while the country code was 49
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("update phone_number set normalized_number = '+49441234567' where id = ?", phoneNumber.getId())
+        );
+
+        assertThat(phoneNumberNormalizationService.backfill()).isEqualTo(1);
+
+        assertThat(phoneNumberRepository.findById(phoneNumber.getId()).orElseThrow().getNormalizedNumber()).isEqualTo("+41441234567");
+        assertThat(phoneNumberNormalizationService.backfill()).isZero();
+    }
+}
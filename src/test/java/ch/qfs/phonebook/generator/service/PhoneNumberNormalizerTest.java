@@ -0,0 +1,52 @@
+package ch.qfs.phonebook.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PhoneNumberNormalizer}.
+ */
+class PhoneNumberNormalizerTest {
+
+    private final PhoneNumberNormalizer phoneNumberNormalizer = new PhoneNumberNormalizer("41", "", 6);
+
+    @Test
+    void removesSeparators() {
+        assertThat(phoneNumberNormalizer.normalize(" +41 / 44-123.45.67 ")).isEqualTo("+41441234567");
+        assertThat(phoneNumberNormalizer.normalize("+41 (44) 123 45 67")).isEqualTo("+41441234567");
+    }
+
+    @Test
+    void writesInternationalPrefixAsPlus() {
+        assertThat(phoneNumberNormalizer.normalize("0041 44 123 45 67")).isEqualTo(phoneNumberNormalizer.normalize("+41 44 123 45 67"));
+    }
+
+    @Test
+    void dropsTrunkPrefixAfterCountryCode() {
+        assertThat(phoneNumberNormalizer.normalize("+41 (0)44 123 45 67")).isEqualTo("+41441234567");
+    }
+
+    @Test
+    void addsCountryCodeToNationalNumbers() {
+        assertThat(phoneNumberNormalizer.normalize("044 123 45 67")).isEqualTo("+41441234567");
+    }
+
+    @Test
+    void addsAreaCodeToLocalNumbers() {
+        assertThat(phoneNumberNormalizer.normalize("123 45 67")).isEqualTo("1234567");
+        assertThat(new PhoneNumberNormalizer("41", "44", 6).normalize("123 45 67")).isEqualTo("+41441234567");
+    }
+
+    @Test
+    void keepsExtensions() {
+        assertThat(phoneNumberNormalizer.normalize("12-34")).isEqualTo("1234");
+        assertThat(phoneNumberNormalizer.normalize("0123")).isEqualTo("0123");
+    }
+
+    @Test
+    void rejectsNumbersWithoutDigits() {
+        assertThat(phoneNumberNormalizer.normalize(null)).isNull();
+        assertThat(phoneNumberNormalizer.normalize("n/a")).isNull();
+    }
+}
@@ -0,0 +1,137 @@
+package ch.qfs.phonebook.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link PhonebookCacheWarmUpService}, with the second-level cache enabled.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class PhonebookCacheWarmUpServiceIT {
+
+    private static final String PHONE_NUMBERS_REGION = PhonebookEntry.class.getName() + ".phoneNumbers";
+
+    private static final long TIMEOUT_MS = 5000;
+
+    @Autowired
+    private PhonebookCacheWarmUpService phonebookCacheWarmUpService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private PhonebookEntry reception;
+
+    private PhonebookEntry sales;
+
+    private PhoneNumber receptionNumber;
+
+    @BeforeEach
+    public void init() {
+        reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        sales = phonebookEntryRepository.save(new PhonebookEntry().description("Sales"));
+        receptionNumber = phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+        phoneNumberRepository.save(new PhoneNumber("200").phonebookEntry(sales));
+        cache().evictAllRegions();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getCache().getWarmUp().setBatchSize(500);
+        applicationProperties.getCache().getWarmUp().setMaxChangedEntries(10000);
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+        cache().evictAllRegions();
+    }
+
+    @Test
+    void loadsEntriesWithTheirPhoneNumbersInBatches() {
+        applicationProperties.getCache().getWarmUp().setBatchSize(1);
+
+        assertThat(phonebookCacheWarmUpService.warmUp()).isEqualTo(2);
+
+        assertThat(cache().containsEntity(PhonebookEntry.class, reception.getId())).isTrue();
+        assertThat(cache().containsEntity(PhonebookEntry.class, sales.getId())).isTrue();
+        assertThat(cache().containsCollection(PHONE_NUMBERS_REGION, reception.getId())).isTrue();
+        assertThat(cache().containsCollection(PHONE_NUMBERS_REGION, sales.getId())).isTrue();
+        assertThat(cache().containsEntity(PhoneNumber.class, receptionNumber.getId())).isTrue();
+    }
+
+    @Test
+    void warmsUpAgainAfterReload() throws InterruptedException {
+        applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("test", 2));
+
+        awaitCached(sales);
+        assertThat(cache().containsEntity(PhonebookEntry.class, reception.getId())).isTrue();
+        assertThat(cache().containsCollection(PHONE_NUMBERS_REGION, sales.getId())).isTrue();
+    }
+
+    @Test
+    void warmsUpOnlyTheChangedEntriesAfterReload() throws InterruptedException {
+        applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("test", 1, Set.of(sales.getId())));
+
+        awaitCached(sales);
+        assertThat(cache().containsEntity(PhonebookEntry.class, reception.getId())).isFalse();
+        assertThat(cache().containsEntity(PhonebookEntry.class, sales.getId())).isTrue();
+        assertThat(cache().containsCollection(PHONE_NUMBERS_REGION, sales.getId())).isTrue();
+    }
+
+    @Test
+    void warmsUpAllEntriesAfterReloadOfTooManyEntries() throws InterruptedException {
+        applicationProperties.getCache().getWarmUp().setMaxChangedEntries(0);
+
+        applicationEventPublisher.publishEvent(new PhonebookReloadedEvent("test", 1, Set.of(sales.getId())));
+
+        awaitCached(sales);
+        assertThat(cache().containsEntity(PhonebookEntry.class, reception.getId())).isTrue();
+        assertThat(cache().containsEntity(PhonebookEntry.class, sales.getId())).isTrue();
+    }
+
+    /**
+     * Waits for the warm-up running in the background, which loads the entries in id order with their phone numbers.
+     */
+    private void awaitCached(PhonebookEntry last) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!cache().containsCollection(PHONE_NUMBERS_REGION, last.getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache().containsCollection(PHONE_NUMBERS_REGION, last.getId())).isTrue();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,47 @@
+package ch.qfs.phonebook.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.ExportedEntryNumber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link PhonebookEntryExportService}.
+ */
+class PhonebookEntryExportServiceTest {
+
+    @Test
+    void writesMissingVersionsAsNull() throws Exception {
+        ExportedEntryNumber row = mock(ExportedEntryNumber.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getDescription()).thenReturn("Reception");
+        when(row.getVersion()).thenReturn(null);
+        when(row.getPhoneNumberId()).thenReturn(2L);
+        when(row.getNumber()).thenReturn("044 2000000");
+        when(row.getPhoneNumberVersion()).thenReturn(null);
+        PhonebookEntryRepository phonebookEntryRepository = mock(PhonebookEntryRepository.class);
+        when(phonebookEntryRepository.streamAllEntryNumbers()).thenReturn(Stream.of(row));
+        PhonebookEntryExportService exportService = new PhonebookEntryExportService(
+            phonebookEntryRepository,
+            new ObjectMapper(),
+            mock(PlatformTransactionManager.class)
+        );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exportService.writeJson(out)).isEqualTo(1);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+            .isEqualTo(
+                "[{\"id\":1,\"description\":\"Reception\",\"externalId\":null,\"version\":null,\"phoneNumbers\":" +
+                "[{\"id\":2,\"number\":\"044 2000000\",\"normalizedNumber\":null,\"version\":null}]}]"
+            );
+    }
+}
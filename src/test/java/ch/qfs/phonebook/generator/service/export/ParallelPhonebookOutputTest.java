@@ -0,0 +1,94 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParallelPhonebookOutput}.
+ */
+class ParallelPhonebookOutputTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void init() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void writesSameDocumentAsSequentialOutput() throws Exception {
+        List<PhonebookEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= 2345; i++) {
+            PhonebookEntry entry = new PhonebookEntry().description("Employee " + i + " & <Co>; \"East\"");
+            if (i % 3 != 0) {
+                entry.addPhoneNumber(new PhoneNumber(String.valueOf(1000 + i)));
+            }
+            entries.add(entry);
+        }
+        List<PhonebookFormat> formats = List.of(
+            new PhonebookXmlWriter(),
+            new CiscoPhonebookFormat(),
+            new SnomPhonebookFormat(),
+            new GrandstreamPhonebookFormat(),
+            new VcardPhonebookFormat(),
+            new CsvPhonebookFormat()
+        );
+        for (PhonebookFormat format : formats) {
+            ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+            try (PhonebookOutput phonebook = format.open(sequential)) {
+                for (PhonebookEntry entry : entries) {
+                    phonebook.write(entry);
+                }
+            }
+            ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+            try (PhonebookOutput phonebook = new ParallelPhonebookOutput(format, parallel, pool, 100, 3)) {
+                for (PhonebookEntry entry : entries) {
+                    phonebook.write(entry);
+                }
+            }
+
+            assertThat(parallel.toByteArray()).as(format.getName()).isEqualTo(sequential.toByteArray());
+        }
+    }
+
+    @Test
+    void writesEmptyDocument() throws Exception {
+        PhonebookXmlWriter format = new PhonebookXmlWriter();
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        format.open(sequential).close();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        new ParallelPhonebookOutput(format, parallel, pool, 100, 3).close();
+
+        assertThat(parallel.toByteArray()).isEqualTo(sequential.toByteArray());
+    }
+
+    @Test
+    void reportsRenderingFailure() throws Exception {
+        PhonebookFormat failing = new CsvPhonebookFormat() {
+            @Override
+            public byte[] renderEntries(List<PhonebookEntry> entries) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        PhonebookOutput phonebook = new ParallelPhonebookOutput(failing, new ByteArrayOutputStream(), pool, 2, 1);
+        phonebook.write(new PhonebookEntry().description("Reception"));
+
+        assertThatThrownBy(phonebook::close).isInstanceOf(IOException.class).hasMessage("disk full");
+    }
+}
@@ -0,0 +1,74 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link PhonebookExportService}.
+ */
+class PhonebookExportServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private PhonebookExportService phonebookExportService;
+
+    @BeforeEach
+    public void init() {
+        applicationProperties = new ApplicationProperties();
+        PhonebookFormatRegistry registry = new PhonebookFormatRegistry(
+            List.of(new PhonebookXmlWriter(), new CiscoPhonebookFormat(), new CsvPhonebookFormat())
+        );
+        phonebookExportService = new PhonebookExportService(applicationProperties, registry, new PhonebookPublisher(applicationProperties));
+    }
+
+    @Test
+    void writesEveryConfiguredFormatInOnePass(@TempDir Path dir) throws Exception {
+        applicationProperties.getExport().setDirectory(dir.toString());
+        applicationProperties.getExport().setFormats(List.of(PhonebookXmlWriter.NAME, CsvPhonebookFormat.NAME));
+
+        try (MultiFormatPhonebookOutput phonebooks = phonebookExportService.open()) {
+            phonebooks.write(new PhonebookEntry().description("Reception").addPhoneNumber(new PhoneNumber("100")));
+            assertThat(phonebooks.getEntryCount()).isEqualTo(1);
+            phonebooks.commit();
+        }
+
+        assertThat(Files.readString(dir.resolve("phonebook.xml"))).contains("<Name>Reception</Name>");
+        assertThat(Files.readString(dir.resolve("phonebook.csv"))).contains("Reception;100");
+        assertThat(dir.resolve("phonebook-cisco.xml")).doesNotExist();
+    }
+
+    @Test
+    void keepsPreviousFilesWhenNotCommitted(@TempDir Path dir) throws Exception {
+        applicationProperties.getExport().setDirectory(dir.toString());
+        Files.writeString(dir.resolve("phonebook.xml"), "previous");
+
+        try (MultiFormatPhonebookOutput phonebooks = phonebookExportService.open()) {
+            phonebooks.write(new PhonebookEntry().description("Reception"));
+        }
+
+        assertThat(Files.readString(dir.resolve("phonebook.xml"))).isEqualTo("previous");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(dir.resolve("phonebook.xml"));
+        }
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        applicationProperties.getExport().setFormats(List.of("fax"));
+
+        assertThatThrownBy(() -> phonebookExportService.getConfiguredFormats())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("fax");
+    }
+}
@@ -0,0 +1,123 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link PhonebookFormat} implementations.
+ */
+class PhonebookFormatTest {
+
+    private static String render(PhonebookFormat format, PhonebookEntry... entries) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PhonebookOutput output = format.open(out)) {
+            for (PhonebookEntry entry : entries) {
+                output.write(entry);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static PhonebookEntry entry(String description, String... numbers) {
+        PhonebookEntry entry = new PhonebookEntry().description(description);
+        for (String number : numbers) {
+            entry.addPhoneNumber(new PhoneNumber(number));
+        }
+        return entry;
+    }
+
+    @Test
+    void writesCiscoDirectoryEntryPerNumber() throws Exception {
+        assertThat(render(new CiscoPhonebookFormat(), entry("Support", "200")))
+            .isEqualTo(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<CiscoIPPhoneDirectory>\n" +
+                "    <DirectoryEntry>\n" +
+                "        <Name>Support</Name>\n" +
+                "        <Telephone>200</Telephone>\n" +
+                "    </DirectoryEntry>\n" +
+                "</CiscoIPPhoneDirectory>\n"
+            );
+        assertThat(render(new CiscoPhonebookFormat(), entry("Support", "200", "201"))).containsOnlyOnce("<Telephone>201</Telephone>");
+    }
+
+    @Test
+    void writesSnomTbook() throws Exception {
+        assertThat(render(new SnomPhonebookFormat(), entry("Support", "200")))
+            .contains("<tbook complete=\"true\">")
+            .contains("<item context=\"active\" type=\"none\">\n        <name>Support</name>\n        <number>200</number>\n    </item>");
+    }
+
+    @Test
+    void writesGrandstreamAddressBook() throws Exception {
+        assertThat(render(new GrandstreamPhonebookFormat(), entry("Support", "200")))
+            .contains("<AddressBook>")
+            .contains(
+                "    <Contact>\n" +
+                "        <LastName>Support</LastName>\n" +
+                "        <Phone type=\"Work\">\n" +
+                "            <phonenumber>200</phonenumber>\n" +
+                "            <accountindex>1</accountindex>\n" +
+                "        </Phone>\n" +
+                "    </Contact>\n"
+            );
+    }
+
+    @Test
+    void writesEscapedVcards() throws Exception {
+        assertThat(render(new VcardPhonebookFormat(), entry("Smith, John; Sales", "+41 44 123 45 67")))
+            .isEqualTo(
+                "BEGIN:VCARD\r\n" +
+                "VERSION:3.0\r\n" +
+                "FN:Smith\\, John\\; Sales\r\n" +
+                "N:Smith\\, John\\; Sales;;;;\r\n" +
+                "TEL;TYPE=WORK,VOICE:+41 44 123 45 67\r\n" +
+                "END:VCARD\r\n"
+            );
+    }
+
+    @Test
+    void writesQuotedCsv() throws Exception {
+        assertThat(render(new CsvPhonebookFormat(), entry("Sales; \"East\"", "300"), entry("Lobby")))
+            .isEqualTo("name;number\n" + "\"Sales; \"\"East\"\"\";300\n" + "Lobby;\n");
+    }
+
+    @Test
+    void fragmentsConcatenateToStreamedDocument() throws Exception {
+        PhonebookEntry[] entries = {
+            entry("Reception", "100", "101"),
+            entry("Sales & <Marketing>; \"East\"", "+41 44 123 45 67"),
+            entry("Lobby"),
+        };
+        List<PhonebookFormat> formats = List.of(
+            new PhonebookXmlWriter(),
+            new CiscoPhonebookFormat(),
+            new SnomPhonebookFormat(),
+            new GrandstreamPhonebookFormat(),
+            new VcardPhonebookFormat(),
+            new CsvPhonebookFormat()
+        );
+        for (PhonebookFormat format : formats) {
+            ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+            assembled.write(format.renderHeader());
+            for (PhonebookEntry entry : entries) {
+                assembled.write(format.renderEntry(entry));
+            }
+            assembled.write(format.renderFooter());
+
+            assertThat(assembled.toString(StandardCharsets.UTF_8)).as(format.getName()).isEqualTo(render(format, entries));
+            assertThat(format.renderEntries(List.of(entries)))
+                .as(format.getName())
+                .isEqualTo(Arrays.copyOfRange(assembled.toByteArray(), format.renderHeader().length, assembled.size() - format.renderFooter().length));
+            String emptyDocument = new String(format.renderHeader(), StandardCharsets.UTF_8) + new String(format.renderFooter(), StandardCharsets.UTF_8);
+            assertThat(emptyDocument).as(format.getName()).isEqualTo(render(format));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link PhonebookPublisher}.
+ */
+class PhonebookPublisherTest {
+
+    private static final String SHA256_OF_ABC = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private ApplicationProperties applicationProperties;
+
+    private PhonebookPublisher phonebookPublisher;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void init() {
+        applicationProperties = new ApplicationProperties();
+        phonebookPublisher = new PhonebookPublisher(applicationProperties);
+    }
+
+    @Test
+    void publishesFilesAsChecksummedVersion() throws Exception {
+        PhonebookVersion version = publish("abc");
+
+        assertThat(Files.readString(directory.resolve("phonebook.xml"))).isEqualTo("abc");
+        assertThat(version.getId()).isEqualTo(1);
+        assertThat(version.getChecksums()).containsEntry("phonebook.xml", SHA256_OF_ABC);
+        assertThat(Files.readString(version.getFile("phonebook.xml"))).isEqualTo("abc");
+        assertThat(Files.readString(version.getDirectory().resolve(PhonebookPublisher.CHECKSUMS_FILE)))
+            .isEqualTo(SHA256_OF_ABC + "  phonebook.xml\n");
+        assertThat(countTempFiles()).isZero();
+    }
+
+    @Test
+    void keepsPublishedFileWhenNotCommitted() throws Exception {
+        publish("abc");
+
+        try (PhonebookPublication publication = phonebookPublisher.begin(directory)) {
+            try (OutputStream out = publication.newFile("phonebook.xml")) {
+                out.write("partial".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertThat(Files.readString(directory.resolve("phonebook.xml"))).isEqualTo("abc");
+        assertThat(phonebookPublisher.findCurrentVersion(directory)).map(PhonebookVersion::getId).contains(1L);
+        assertThat(countTempFiles()).isZero();
+    }
+
+    @Test
+    void findsCurrentVersion() throws Exception {
+        assertThat(phonebookPublisher.findCurrentVersion(directory)).isEmpty();
+
+        publish("first");
+        publish("abc");
+
+        PhonebookVersion current = phonebookPublisher.findCurrentVersion(directory).orElseThrow();
+        assertThat(current.getId()).isEqualTo(2);
+        assertThat(current.getChecksums()).containsEntry("phonebook.xml", SHA256_OF_ABC);
+        assertThat(Files.readString(current.getFile("phonebook.xml"))).isEqualTo("abc");
+    }
+
+    @Test
+    void removesVersionsBeyondRetained() throws Exception {
+        applicationProperties.getExport().setRetainedVersions(2);
+
+        for (int i = 1; i <= 4; i++) {
+            publish("version " + i);
+        }
+
+        Path versions = directory.resolve(PhonebookPublisher.VERSIONS_DIRECTORY);
+        assertThat(versions.resolve("1")).doesNotExist();
+        assertThat(versions.resolve("2")).doesNotExist();
+        assertThat(Files.readString(versions.resolve("3").resolve("phonebook.xml"))).isEqualTo("version 3");
+        assertThat(Files.readString(versions.resolve("4").resolve("phonebook.xml"))).isEqualTo("version 4");
+        assertThat(Files.readString(directory.resolve("phonebook.xml"))).isEqualTo("version 4");
+    }
+
+    private PhonebookVersion publish(String content) throws IOException {
+        try (PhonebookPublication publication = phonebookPublisher.begin(directory)) {
+            try (OutputStream out = publication.newFile("phonebook.xml")) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            return publication.commit();
+        }
+    }
+
+    private long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+}
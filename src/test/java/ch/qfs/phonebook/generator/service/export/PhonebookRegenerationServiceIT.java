@@ -0,0 +1,96 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link PhonebookRegenerationService}.
+ */
+@IntegrationTest
+class PhonebookRegenerationServiceIT {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PhonebookRegenerationService phonebookRegenerationService;
+
+    @Autowired
+    private PhonebookExportService phonebookExportService;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @TempDir
+    Path directory;
+
+    private String previousDirectory;
+
+    private List<String> previousFormats;
+
+    @BeforeEach
+    public void init() {
+        previousDirectory = applicationProperties.getExport().getDirectory();
+        previousFormats = applicationProperties.getExport().getFormats();
+        applicationProperties.getExport().setDirectory(directory.resolve("incremental").toString());
+        applicationProperties.getExport().setFormats(List.of(PhonebookXmlWriter.NAME, CsvPhonebookFormat.NAME));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getExport().setDirectory(previousDirectory);
+        applicationProperties.getExport().setFormats(previousFormats);
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void incrementalRegenerationMatchesFullRebuild() throws Exception {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhonebookEntry support = phonebookEntryRepository.save(new PhonebookEntry().description("Support"));
+        PhoneNumber number = phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+        phoneNumberRepository.save(new PhoneNumber("200").phonebookEntry(support));
+        phonebookRegenerationService.regenerate();
+
+        number.setPhonebookEntry(support);
+        phoneNumberRepository.save(number);
+        PhonebookEntry lobby = phonebookEntryRepository.save(new PhonebookEntry().description("Lobby & Bar"));
+        phoneNumberRepository.save(new PhoneNumber("300").phonebookEntry(lobby));
+
+        assertThat(phonebookRegenerationService.regenerate()).isEqualTo(3);
+        assertThat(phonebookRegenerationService.regenerate()).isZero();
+
+        phonebookRegenerationService.generateFull(phonebookExportService.getConfiguredFormats(), directory.resolve("full"));
+        for (String file : List.of("phonebook.xml", "phonebook.csv")) {
+            assertThat(Files.readAllBytes(directory.resolve("incremental").resolve(file)))
+                .as(file)
+                .isEqualTo(Files.readAllBytes(directory.resolve("full").resolve(file)));
+        }
+        assertThat(Files.readString(directory.resolve("incremental").resolve("phonebook.csv")))
+            .contains("Support;100\nSupport;200\n")
+            .contains("Lobby & Bar;300")
+            .contains("Reception;\n");
+    }
+}
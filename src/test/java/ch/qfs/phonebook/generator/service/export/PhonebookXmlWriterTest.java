@@ -0,0 +1,69 @@
+package ch.qfs.phonebook.generator.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link PhonebookXmlWriter}.
+ */
+class PhonebookXmlWriterTest {
+
+    private PhonebookXmlWriter phonebookXmlWriter;
+
+    @BeforeEach
+    public void init() {
+        phonebookXmlWriter = new PhonebookXmlWriter();
+    }
+
+    @Test
+    void writesYealinkDirectory() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PhonebookOutput phonebook = phonebookXmlWriter.open(out)) {
+            phonebook.write(new PhonebookEntry().description("Reception").addPhoneNumber(new PhoneNumber("100")));
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+            .isEqualTo(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<VitabadIPPhoneDirectory>\n" +
+                "    <DirectoryEntry>\n" +
+                "        <Name>Reception</Name>\n" +
+                "        <Telephone>100</Telephone>\n" +
+                "    </DirectoryEntry>\n" +
+                "</VitabadIPPhoneDirectory>\n"
+            );
+    }
+
+    @Test
+    void escapesMarkupInDescription() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PhonebookOutput phonebook = phonebookXmlWriter.open(out)) {
+            phonebook.write(new PhonebookEntry().description("Sales & <Marketing>"));
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("<Name>Sales &amp; &lt;Marketing&gt;</Name>");
+    }
+
+    @Test
+    void replacesExistingFile(@TempDir Path dir) throws Exception {
+        Path target = dir.resolve("phonebook.xml");
+        Files.writeString(target, "stale content that is longer than the new document".repeat(10));
+
+        try (PhonebookOutput phonebook = phonebookXmlWriter.open(target)) {
+            phonebook.write(new PhonebookEntry().description("A"));
+            phonebook.write(new PhonebookEntry().description("B"));
+        }
+
+        String content = Files.readString(target);
+        assertThat(content).startsWith("<?xml").endsWith("</VitabadIPPhoneDirectory>\n").doesNotContain("stale");
+    }
+}
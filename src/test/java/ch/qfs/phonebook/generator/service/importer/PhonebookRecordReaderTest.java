@@ -0,0 +1,105 @@
+package ch.qfs.phonebook.generator.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CsvPhonebookRecordReader}, {@link NdjsonPhonebookRecordReader} and {@link PhonebookImportFormat}.
+ */
+class PhonebookRecordReaderTest {
+
+    @Test
+    void readsCsvRecordsMergingConsecutiveLinesOfAnEntry() throws IOException {
+        List<PhonebookImportRecord> records = readAll(
+            PhonebookImportFormat.CSV,
+            CsvPhonebookRecordReader.BYTE_ORDER_MARK +
+            "id;description;number;comment\n" +
+            "1;Meier Hans;044 123 45 67;\n" +
+            "1;Meier Hans;079 765 43 21;mobile\n" +
+            "\n" +
+            "2;\"Müller; \"\"Fritz\"\"\";;\n" +
+            "3;;044 000 00 00;\n"
+        );
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).getLine()).isEqualTo(2);
+        assertThat(records.get(0).getEntry().getDescription()).isEqualTo("Meier Hans");
+        assertThat(records.get(0).getEntry().getPhoneNumbers())
+            .extracting(PhoneNumber::getNumber)
+            .containsExactlyInAnyOrder("044 123 45 67", "079 765 43 21");
+        assertThat(records.get(1).getLine()).isEqualTo(5);
+        assertThat(records.get(1).getEntry().getDescription()).isEqualTo("Müller; \"Fritz\"");
+        assertThat(records.get(1).getEntry().getPhoneNumbers()).isEmpty();
+        assertThat(records.get(2).getEntry().getDescription()).isNull();
+    }
+
+    @Test
+    void reportsCsvLinesWithTheWrongNumberOfValues() throws IOException {
+        List<PhonebookImportRecord> records = readAll(
+            PhonebookImportFormat.CSV,
+            "name;number\n" + "Meier Hans\n" + "\"Müller\nFritz\";044 123 45 67\n" + "Huber Anna;\"079"
+        );
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).getError()).isEqualTo("Expected 2 values but found 1");
+        assertThat(records.get(1).getLine()).isEqualTo(3);
+        assertThat(records.get(1).getEntry().getDescription()).isEqualTo("Müller\nFritz");
+        assertThat(records.get(2).getLine()).isEqualTo(5);
+        assertThat(records.get(2).getError()).isEqualTo("Unterminated quoted value");
+    }
+
+    @Test
+    void rejectsCsvWithoutDescriptionColumn() {
+        assertThatThrownBy(() -> readAll(PhonebookImportFormat.CSV, "id;number\n1;044 123 45 67\n"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> readAll(PhonebookImportFormat.CSV, "")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsNdjsonRecordsIgnoringTheirIds() throws IOException {
+        List<PhonebookImportRecord> records = readAll(
+            PhonebookImportFormat.NDJSON,
+            "{\"id\":7,\"description\":\"Meier Hans\",\"phoneNumbers\":[{\"number\":\"044 123 45 67\"}]}\n" +
+            "\n" +
+            "{\"description\":\n" +
+            "{\"description\":\"Müller Fritz\"}"
+        );
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).getEntry().getId()).isNull();
+        assertThat(records.get(0).getEntry().getDescription()).isEqualTo("Meier Hans");
+        assertThat(records.get(0).getEntry().getPhoneNumbers()).extracting(PhoneNumber::getNumber).containsExactly("044 123 45 67");
+        assertThat(records.get(1).getLine()).isEqualTo(3);
+        assertThat(records.get(1).getError()).startsWith("Invalid JSON");
+        assertThat(records.get(2).getLine()).isEqualTo(4);
+        assertThat(records.get(2).getEntry().getDescription()).isEqualTo("Müller Fritz");
+    }
+
+    @Test
+    void findsTheFormatOfContentTypesAndFileNames() {
+        assertThat(PhonebookImportFormat.forContentType("text/csv; charset=UTF-8")).contains(PhonebookImportFormat.CSV);
+        assertThat(PhonebookImportFormat.forContentType("application/x-ndjson")).contains(PhonebookImportFormat.NDJSON);
+        assertThat(PhonebookImportFormat.forContentType("application/json")).isEmpty();
+        assertThat(PhonebookImportFormat.forFileName("Phonebook.CSV")).contains(PhonebookImportFormat.CSV);
+        assertThat(PhonebookImportFormat.forFileName("phonebook.jsonl")).contains(PhonebookImportFormat.NDJSON);
+        assertThat(PhonebookImportFormat.forFileName("phonebook.xml")).isEmpty();
+    }
+
+    private static List<PhonebookImportRecord> readAll(PhonebookImportFormat format, String dump) throws IOException {
+        PhonebookRecordReader reader = format.reader(new BufferedReader(new StringReader(dump)), new ObjectMapper());
+        List<PhonebookImportRecord> records = new ArrayList<>();
+        for (PhonebookImportRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
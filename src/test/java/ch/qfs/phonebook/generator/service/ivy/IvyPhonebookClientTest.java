@@ -0,0 +1,60 @@
+package ch.qfs.phonebook.generator.service.ivy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+/**
+ * Unit tests for {@link IvyPhonebookClient}.
+ */
+class IvyPhonebookClientTest {
+
+    private IvyPhonebookClient ivyPhonebookClient;
+
+    @BeforeEach
+    public void init() {
+        ivyPhonebookClient = new IvyPhonebookClient(new ApplicationProperties(), new RestTemplateBuilder(), new ObjectMapper());
+    }
+
+    @Test
+    void readsEntriesOneByOne() throws Exception {
+        String json =
+            "[{\"id\":1,\"description\":\"Reception\",\"phoneNumbers\":[{\"number\":\"100\"},{\"number\":\"101\"}]}," +
+            "{\"id\":2,\"description\":\"Support\",\"phoneNumbers\":[]}]";
+        List<PhonebookEntry> entries = new ArrayList<>();
+
+        long count = ivyPhonebookClient.readEntries(stream(json), entries::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(entries).extracting(PhonebookEntry::getDescription).containsExactly("Reception", "Support");
+        assertThat(entries.get(0).getPhoneNumbers()).extracting(PhoneNumber::getNumber).containsExactlyInAnyOrder("100", "101");
+        assertThat(entries.get(0).getPhoneNumbers()).allMatch(number -> number.getPhonebookEntry() == entries.get(0));
+    }
+
+    @Test
+    void readsEmptyPhonebook() throws Exception {
+        assertThat(ivyPhonebookClient.readEntries(stream("[]"), entry -> {})).isZero();
+    }
+
+    @Test
+    void rejectsNonArrayResponse() {
+        assertThatThrownBy(() -> ivyPhonebookClient.readEntries(stream("{\"error\":\"unauthorized\"}"), entry -> {}))
+            .isInstanceOf(IOException.class);
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
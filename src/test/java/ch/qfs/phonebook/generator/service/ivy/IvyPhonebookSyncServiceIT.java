@@ -0,0 +1,171 @@
+package ch.qfs.phonebook.generator.service.ivy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link IvyPhonebookSyncService}.
+ */
+@IntegrationTest
+class IvyPhonebookSyncServiceIT {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private IvyPhonebookSyncService ivyPhonebookSyncService;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getIvy().getSync().setMinEntries(1);
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void synchronizesOnlyDifferences() {
+        PhonebookEntry local = phonebookEntryRepository.save(new PhonebookEntry().description("Maintained locally"));
+
+        IvySyncResult first = ivyPhonebookSyncService.synchronize(
+            List.of(ivyEntry(1, "Reception", "100", "101"), ivyEntry(2, "Support", "200"), ivyEntry(3, "Sales", "300"))
+        );
+        assertThat(first.getInserted()).isEqualTo(3);
+        assertThat(phonebookEntryRepository.count()).isEqualTo(4);
+
+        long changes = phonebookChangeRepository.count();
+        IvySyncResult unchanged = ivyPhonebookSyncService.synchronize(
+            List.of(ivyEntry(3, "Sales", "300"), ivyEntry(1, "Reception", "101", "100"), ivyEntry(2, "Support", "200"))
+        );
+        assertThat(unchanged.getUnchanged()).isEqualTo(3);
+        assertThat(unchanged.getInserted() + unchanged.getUpdated() + unchanged.getDeleted()).isZero();
+        assertThat(phonebookChangeRepository.count()).isEqualTo(changes);
+
+        Long keptNumberId = numbersByValue("1").get("100");
+        IvySyncResult changed = ivyPhonebookSyncService.synchronize(
+            List.of(ivyEntry(1, "Reception desk", "100", "102"), ivyEntry(2, "Support", "200"), ivyEntry(4, "Lobby", "400"))
+        );
+        assertThat(changed.getInserted()).isEqualTo(1);
+        assertThat(changed.getUpdated()).isEqualTo(1);
+        assertThat(changed.getDeleted()).isEqualTo(1);
+        assertThat(changed.getUnchanged()).isEqualTo(1);
+
+        Map<String, PhonebookEntry> synced = phonebookEntryRepository
+            .findAll()
+            .stream()
+            .filter(entry -> entry.getExternalId() != null)
+            .collect(Collectors.toMap(PhonebookEntry::getExternalId, entry -> entry));
+        assertThat(synced).containsOnlyKeys("1", "2", "4");
+        assertThat(synced.get("1").getDescription()).isEqualTo("Reception desk");
+        assertThat(numbersByValue("1")).containsOnlyKeys("100", "102").containsEntry("100", keptNumberId);
+        assertThat(numbersByValue("4")).containsOnlyKeys("400");
+        assertThat(phonebookEntryRepository.findById(local.getId())).isPresent();
+    }
+
+    @Test
+    void skipsInvalidAndDuplicateEntries() {
+        IvySyncResult result = ivyPhonebookSyncService.synchronize(
+            List.of(
+                ivyEntry(1, "Reception", "100"),
+                ivyEntry(1, "Reception again"),
+                new PhonebookEntry().description("No id"),
+                ivyEntry(2, null)
+            )
+        );
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(3);
+        assertThat(phonebookEntryRepository.findAll()).extracting(PhonebookEntry::getDescription).containsExactly("Reception");
+    }
+
+    @Test
+    void keepsEntriesIfIvyReturnsTooFewEntries() {
+        ivyPhonebookSyncService.synchronize(List.of(ivyEntry(1, "Reception", "100"), ivyEntry(2, "Support", "200")));
+
+        IvySyncResult empty = ivyPhonebookSyncService.synchronize(List.of(new PhonebookEntry().description("No id")));
+        assertThat(empty.getDeleted()).isZero();
+        assertThat(phonebookEntryRepository.count()).isEqualTo(2);
+
+        applicationProperties.getIvy().getSync().setMinEntries(2);
+        IvySyncResult truncated = ivyPhonebookSyncService.synchronize(List.of(ivyEntry(2, "Support desk", "200")));
+        assertThat(truncated.getUpdated()).isEqualTo(1);
+        assertThat(truncated.getDeleted()).isZero();
+        assertThat(phonebookEntryRepository.count()).isEqualTo(2);
+
+        IvySyncResult complete = ivyPhonebookSyncService.synchronize(List.of(ivyEntry(2, "Support desk", "200"), ivyEntry(3, "Sales")));
+        assertThat(complete.getInserted()).isEqualTo(1);
+        assertThat(complete.getDeleted()).isEqualTo(1);
+        assertThat(phonebookEntryRepository.findAll()).extracting(PhonebookEntry::getExternalId).containsOnly("2", "3");
+    }
+
+    @Test
+    void synchronizesInChunks() {
+        List<PhonebookEntry> entries = new ArrayList<>();
+        for (int i = 0; i <= IvyPhonebookSyncService.TRANSACTION_SIZE; i++) {
+            entries.add(ivyEntry(i, "Entry " + i, Integer.toString(1000 + i)));
+        }
+        assertThat(ivyPhonebookSyncService.synchronize(entries).getInserted()).isEqualTo(entries.size());
+
+        // the first entry gone, the last one changed and a duplicate in the next chunk
+        int last = entries.size() - 1;
+        entries.remove(0);
+        entries.set(last - 1, ivyEntry(last, "Last entry", "999"));
+        entries.add(ivyEntry(1, "Entry 1 again"));
+        IvySyncResult result = ivyPhonebookSyncService.synchronize(entries);
+
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getDeleted()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(last - 1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(numbersByValue(Integer.toString(last))).containsOnlyKeys("999");
+        assertThat(numbersByValue("1")).containsOnlyKeys("1001");
+        assertThat(phonebookEntryRepository.count()).isEqualTo(last);
+    }
+
+    private Map<String, Long> numbersByValue(String externalId) {
+        PhonebookEntry entry = phonebookEntryRepository
+            .findAll()
+            .stream()
+            .filter(candidate -> externalId.equals(candidate.getExternalId()))
+            .findFirst()
+            .orElseThrow();
+        return phonebookEntryRepository
+            .findOneWithPhoneNumbersById(entry.getId())
+            .orElseThrow()
+            .getPhoneNumbers()
+            .stream()
+            .collect(Collectors.toMap(PhoneNumber::getNumber, PhoneNumber::getId));
+    }
+
+    private static PhonebookEntry ivyEntry(long id, String description, String... numbers) {
+        PhonebookEntry entry = new PhonebookEntry().id(id).description(description);
+        for (String number : numbers) {
+            entry.addPhoneNumber(new PhoneNumber(number));
+        }
+        return entry;
+    }
+}
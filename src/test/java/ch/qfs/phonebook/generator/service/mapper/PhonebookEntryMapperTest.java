@@ -0,0 +1,114 @@
+package ch.qfs.phonebook.generator.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository.ExportedEntryNumber;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PhonebookEntryMapper}.
+ */
+class PhonebookEntryMapperTest {
+
+    private PhonebookEntryMapper phonebookEntryMapper;
+
+    @BeforeEach
+    public void setUp() {
+        phonebookEntryMapper = new PhonebookEntryMapperImpl();
+    }
+
+    @Test
+    void mapsTheRowsOfAnEntryToOneDto() {
+        List<PhonebookEntryDTO> phonebookEntryDTOs = phonebookEntryMapper.rowsToDtos(
+            List.of(row(1L, "Reception", 10L, "100"), row(1L, "Reception", 11L, "101"), row(2L, "Sales", null, null))
+        );
+
+        assertThat(phonebookEntryDTOs).extracting(PhonebookEntryDTO::getId).containsExactly(1L, 2L);
+        assertThat(phonebookEntryDTOs.get(0).getDescription()).isEqualTo("Reception");
+        assertThat(phonebookEntryDTOs.get(0).getExternalId()).isEqualTo("ivy-1");
+        assertThat(phonebookEntryDTOs.get(0).getVersion()).isEqualTo(3L);
+        assertThat(phonebookEntryDTOs.get(0).getPhoneNumbers()).extracting(PhoneNumberDTO::getNumber).containsExactly("100", "101");
+        assertThat(phonebookEntryDTOs.get(0).getPhoneNumbers()).extracting(PhoneNumberDTO::getNormalizedNumber).containsOnly("+41100");
+        assertThat(phonebookEntryDTOs.get(0).getPhoneNumbers()).extracting(PhoneNumberDTO::getVersion).containsOnly(7L);
+        assertThat(phonebookEntryDTOs.get(1).getPhoneNumbers()).isEmpty();
+    }
+
+    @Test
+    void mapsThePhoneNumbersWithoutTheirEntry() {
+        PhonebookEntry phonebookEntry = new PhonebookEntry().id(1L).description("Reception");
+        phonebookEntry.addPhoneNumber(new PhoneNumber("100").id(10L));
+
+        PhonebookEntryDTO phonebookEntryDTO = phonebookEntryMapper.toDto(phonebookEntry);
+
+        assertThat(phonebookEntryDTO.getPhoneNumbers()).singleElement().satisfies(phoneNumberDTO -> {
+            assertThat(phoneNumberDTO.getId()).isEqualTo(10L);
+            assertThat(phoneNumberDTO.getPhonebookEntry()).isNull();
+        });
+    }
+
+    @Test
+    void doesNotMapReadOnlyFieldsToTheEntity() {
+        PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+        phonebookEntryDTO.setDescription("Reception");
+        phonebookEntryDTO.setExternalId("ivy-1");
+        phonebookEntryDTO.setVersion(3L);
+        phonebookEntryDTO.getPhoneNumbers().add(new PhoneNumberDTO());
+
+        PhonebookEntry phonebookEntry = phonebookEntryMapper.toEntity(phonebookEntryDTO);
+
+        assertThat(phonebookEntry.getDescription()).isEqualTo("Reception");
+        assertThat(phonebookEntry.getExternalId()).isNull();
+        assertThat(phonebookEntry.getVersion()).isNull();
+        assertThat(phonebookEntry.getPhoneNumbers()).isEmpty();
+    }
+
+    private static ExportedEntryNumber row(Long id, String description, Long phoneNumberId, String number) {
+        return new ExportedEntryNumber() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public String getExternalId() {
+                return "ivy-" + id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 3L;
+            }
+
+            @Override
+            public Long getPhoneNumberId() {
+                return phoneNumberId;
+            }
+
+            @Override
+            public String getNumber() {
+                return number;
+            }
+
+            @Override
+            public String getNormalizedNumber() {
+                return number == null ? null : "+41100";
+            }
+
+            @Override
+            public Long getPhoneNumberVersion() {
+                return number == null ? null : 7L;
+            }
+        };
+    }
+}
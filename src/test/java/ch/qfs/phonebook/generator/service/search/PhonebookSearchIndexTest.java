@@ -0,0 +1,69 @@
+package ch.qfs.phonebook.generator.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PhonebookSearchIndex}.
+ */
+class PhonebookSearchIndexTest {
+
+    private PhonebookSearchIndex index;
+
+    @BeforeEach
+    void initIndex() {
+        index = new PhonebookSearchIndex("41");
+        index.put(1L, "Hans Meier", List.of("044 123 45 67"), List.of("+41441234567"));
+        index.put(2L, "Anna Meierhofer", List.of("4711"), List.of("4711"));
+        index.put(3L, "Jürg Müller", List.of(), List.of());
+        index.put(4L, "Meier", List.of(), List.of());
+    }
+
+    @Test
+    void ranksExactWordsBeforePrefixes() {
+        assertThat(index.search("meier", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(4L, 1L, 2L);
+        assertThat(index.search("me", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(4L, 1L, 2L);
+        assertThat(index.search("hofer", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(2L);
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertThat(index.search("anna mei", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(2L);
+        assertThat(index.search("anna hans", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertThat(index.search("MULL", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(3L);
+        assertThat(index.search("jurg", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(3L);
+    }
+
+    @Test
+    void findsNumbersInAnyNotation() {
+        assertThat(index.search("044 123", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L);
+        assertThat(index.search("+41 44 123 45 67", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L);
+        assertThat(index.search("4567", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L);
+        assertThat(index.search("47", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(2L);
+        assertThat(index.search("44", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L);
+        assertThat(index.search("hans 044", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L);
+    }
+
+    @Test
+    void limitsMatches() {
+        assertThat(index.search("meier", 2)).extracting(PhonebookSearchMatch::getId).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void replacesAndRemovesEntries() {
+        index.put(4L, "Reception", List.of(), List.of());
+        assertThat(index.search("meier", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(1L, 2L);
+        assertThat(index.search("rec", 10)).extracting(PhonebookSearchMatch::getId).containsExactly(4L);
+
+        index.remove(4L);
+        assertThat(index.search("rec", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,29 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PhonebookChangeToken}.
+ */
+class PhonebookChangeTokenTest {
+
+    @Test
+    void parsesItsText() {
+        PhonebookChangeToken token = new PhonebookChangeToken(42, Instant.ofEpochMilli(1760745600123L));
+
+        assertThat(token).hasToString("42.1760745600123");
+        assertThat(PhonebookChangeToken.parse(token.toString())).isEqualTo(token);
+        assertThat(PhonebookChangeToken.parse("0.0").getChangeId()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidText() {
+        for (String text : new String[] { "", "42", ".1", "42.", "-1.5", "a.b", "1.2.3" }) {
+            assertThatThrownBy(() -> PhonebookChangeToken.parse(text)).as(text).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
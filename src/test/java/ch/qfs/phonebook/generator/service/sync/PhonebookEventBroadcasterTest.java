@@ -0,0 +1,204 @@
+package ch.qfs.phonebook.generator.service.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEventDTO;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PhonebookEventBroadcaster}.
+ */
+class PhonebookEventBroadcasterTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private PhonebookEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new PhonebookEventBroadcaster(3, 60000, tasks::add);
+    }
+
+    @Test
+    void sendsTheEventsInOrderFromOneTaskPerSubscriber() {
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        broadcaster.subscribe(first);
+        broadcaster.subscribe(second);
+
+        broadcaster.publish(List.of(event(1), event(2)));
+        broadcaster.publish(List.of(event(3)));
+
+        assertThat(tasks).hasSize(2);
+        runTasks();
+        assertThat(first.sent).containsExactly("1", "2", "3");
+        assertThat(second.sent).containsExactly("1", "2", "3");
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsASubscriberFallingBehind() {
+        RecordingSink slow = new RecordingSink();
+        PhonebookEventBroadcaster.Subscription slowSubscription = broadcaster.subscribe(slow);
+        broadcaster.publish(List.of(event(1)));
+        // the task sending to the slow subscriber does not get to run
+        Runnable stuck = tasks.remove();
+        RecordingSink fast = new RecordingSink();
+        broadcaster.subscribe(fast);
+
+        broadcaster.publish(List.of(event(2)));
+        broadcaster.publish(List.of(event(3)));
+        runTasks();
+        assertThat(slowSubscription.isCancelled()).isFalse();
+        broadcaster.publish(List.of(event(4)));
+        runTasks();
+        stuck.run();
+
+        assertThat(slowSubscription.isCancelled()).isTrue();
+        assertThat(slow.closed).isTrue();
+        assertThat(slow.sent).isEmpty();
+        assertThat(fast.closed).isFalse();
+        assertThat(fast.sent).containsExactly("2", "3", "4");
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelsASubscriptionWhoseConnectionIsBroken() {
+        RecordingSink broken = new RecordingSink();
+        broken.broken = true;
+        PhonebookEventBroadcaster.Subscription subscription = broadcaster.subscribe(broken);
+
+        broadcaster.heartbeat();
+        runTasks();
+
+        assertThat(subscription.isCancelled()).isTrue();
+        assertThat(broadcaster.hasSubscribers()).isFalse();
+        broadcaster.publish(List.of(event(1)));
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void skipsTheHeartbeatOfAFullBuffer() {
+        RecordingSink sink = new RecordingSink();
+        PhonebookEventBroadcaster.Subscription subscription = broadcaster.subscribe(sink);
+
+        broadcaster.publish(List.of(event(1), event(2), event(3)));
+        broadcaster.heartbeat();
+        runTasks();
+        broadcaster.heartbeat();
+        runTasks();
+
+        assertThat(subscription.isCancelled()).isFalse();
+        assertThat(sink.sent).containsExactly("1", "2", "3", "heartbeat");
+    }
+
+    @Test
+    void evictsASubscriberWhoseWriteIsBlocked() throws Exception {
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        try {
+            broadcaster = new PhonebookEventBroadcaster(3, 0, sender);
+            BlockingSink stalled = new BlockingSink();
+            PhonebookEventBroadcaster.Subscription stalledSubscription = broadcaster.subscribe(stalled);
+            broadcaster.publish(List.of(event(1)));
+            assertThat(stalled.blocked.await(10, TimeUnit.SECONDS)).isTrue();
+            RecordingSink other = new RecordingSink();
+            broadcaster.subscribe(other);
+
+            broadcaster.heartbeat();
+
+            assertThat(stalledSubscription.isCancelled()).isTrue();
+            assertThat(stalled.closed.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(stalled.interrupted).isTrue();
+            // the thread is free again for the other subscribers
+            broadcaster.publish(List.of(event(2)));
+            sender.shutdown();
+            assertThat(sender.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(other.sent).containsExactly("heartbeat", "2");
+            assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        } finally {
+            sender.shutdownNow();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static PhonebookEventDTO<?> event(long changeId) {
+        return new PhonebookEventDTO<>(changeId, ChangedEntityType.PHONEBOOK_ENTRY, ChangeOperation.DELETE, changeId, null);
+    }
+
+    private static final class BlockingSink implements PhonebookEventSink {
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private volatile boolean interrupted;
+
+        @Override
+        public void send(PhonebookEventDTO<?> event) throws IOException {
+            blocked.countDown();
+            try {
+                // a client that stopped reading
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                throw new IOException("Write interrupted", e);
+            }
+        }
+
+        @Override
+        public void sendHeartbeat() {}
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    private static final class RecordingSink implements PhonebookEventSink {
+
+        private final List<String> sent = new ArrayList<>();
+
+        private boolean broken;
+
+        private boolean closed;
+
+        @Override
+        public void send(PhonebookEventDTO<?> event) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(Long.toString(event.getChangeId()));
+        }
+
+        @Override
+        public void sendHeartbeat() throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add("heartbeat");
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
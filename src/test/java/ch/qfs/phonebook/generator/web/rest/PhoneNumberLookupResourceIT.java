@@ -0,0 +1,103 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.lookup.PhoneNumberLookupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link PhoneNumberLookupResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PhoneNumberLookupResourceIT {
+
+    private static final String LOOKUP_API_URL = "/api/lookup?number={number}";
+
+    @Autowired
+    private PhoneNumberLookupService phoneNumberLookupService;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private MockMvc restPhoneNumberLookupMockMvc;
+
+    private PhonebookEntry reception;
+
+    private PhoneNumber number;
+
+    @BeforeEach
+    public void initTest() {
+        phoneNumberLookupService.build();
+        reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        number = phoneNumberRepository.save(new PhoneNumber("+41 44 123 45 67").phonebookEntry(reception));
+        phoneNumberLookupService.refresh();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void lookupNumberInAnyNotation() throws Exception {
+        restPhoneNumberLookupMockMvc
+            .perform(get(LOOKUP_API_URL, "0041441234567"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.number").value("+41441234567"))
+            .andExpect(jsonPath("$.phonebookEntryId").value(reception.getId().intValue()))
+            .andExpect(jsonPath("$.description").value("Reception"));
+    }
+
+    @Test
+    void lookupUnknownNumber() throws Exception {
+        restPhoneNumberLookupMockMvc.perform(get(LOOKUP_API_URL, "+41 44 999 99 99")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void lookupFollowsChanges() throws Exception {
+        // Adding the number incremented the version of the entry
+        reception = phonebookEntryRepository.findById(reception.getId()).get();
+        reception.setDescription("Front desk");
+        reception = phonebookEntryRepository.save(reception);
+        phoneNumberLookupService.refresh();
+        restPhoneNumberLookupMockMvc
+            .perform(get(LOOKUP_API_URL, "+41441234567"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value("Front desk"));
+
+        number.setNumber("+41 44 123 45 68");
+        number = phoneNumberRepository.save(number);
+        phoneNumberLookupService.refresh();
+        restPhoneNumberLookupMockMvc.perform(get(LOOKUP_API_URL, "+41441234567")).andExpect(status().isNotFound());
+        restPhoneNumberLookupMockMvc.perform(get(LOOKUP_API_URL, "+41441234568")).andExpect(status().isOk());
+
+        phoneNumberRepository.delete(number);
+        phoneNumberLookupService.refresh();
+        restPhoneNumberLookupMockMvc.perform(get(LOOKUP_API_URL, "+41441234568")).andExpect(status().isNotFound());
+    }
+}
@@ -1,21 +1,35 @@
 package ch.qfs.phonebook.generator.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import ch.qfs.phonebook.generator.IntegrationTest;
 import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
 import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.service.dto.PhoneNumberDTO;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -41,6 +55,9 @@ class PhoneNumberResourceIT {
     @Autowired
     private PhoneNumberRepository phoneNumberRepository;
 
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -142,6 +159,82 @@ class PhoneNumberResourceIT {
             .andExpect(jsonPath("$.[*].number").value(hasItem(DEFAULT_NUMBER)));
     }
 
+    @Test
+    @Transactional
+    void getAllPhoneNumbersPaginated() throws Exception {
+        // Initialize the database
+        phoneNumberRepository.saveAndFlush(phoneNumber);
+
+        restPhoneNumberMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=1&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"first\"")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(phoneNumber.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllPhoneNumbersByKeyset() throws Exception {
+        // Initialize the database
+        phoneNumberRepository.saveAndFlush(phoneNumber);
+        PhoneNumber second = phoneNumberRepository.saveAndFlush(new PhoneNumber().number(DEFAULT_NUMBER));
+        PhoneNumber third = phoneNumberRepository.saveAndFlush(new PhoneNumber().number(DEFAULT_NUMBER));
+        long after = phoneNumber.getId() - 1;
+
+        restPhoneNumberMockMvc
+            .perform(get(ENTITY_API_URL + "?after={after}&size=2", after))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + second.getId() + ">; rel=\"next\"")))
+            .andExpect(jsonPath("$.[*].id").value(contains(phoneNumber.getId().intValue(), second.getId().intValue())));
+
+        restPhoneNumberMockMvc
+            .perform(get(ENTITY_API_URL + "?after={after}&size=2", second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllPhoneNumbersWithoutQueryPerEntity() throws Exception {
+        // Initialize the database
+        for (int i = 0; i < 5; i++) {
+            PhonebookEntry entry = new PhonebookEntry().description("Entry " + i);
+            em.persist(entry);
+            em.persist(new PhoneNumber("10" + i).phonebookEntry(entry));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            restPhoneNumberMockMvc
+                .perform(get(ENTITY_API_URL + "?page=0&size=50&sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].phonebookEntry.description").value(hasItem("Entry 4")));
+            // the phone numbers joined with their entries, and their count
+            assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+            // read as projections, without loading entities
+            assertThat(statistics.getEntityLoadCount()).isZero();
+
+            em.clear();
+            statistics.clear();
+            restPhoneNumberMockMvc
+                .perform(get(ENTITY_API_URL + "?after=0&size=50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].phonebookEntry.description").value(hasItem("Entry 4")));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @Transactional
     void getPhoneNumber() throws Exception {
@@ -153,8 +246,10 @@ class PhoneNumberResourceIT {
             .perform(get(ENTITY_API_URL_ID, phoneNumber.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
             .andExpect(jsonPath("$.id").value(phoneNumber.getId().intValue()))
-            .andExpect(jsonPath("$.number").value(DEFAULT_NUMBER));
+            .andExpect(jsonPath("$.number").value(DEFAULT_NUMBER))
+            .andExpect(jsonPath("$.version").value(0));
     }
 
     @Test
@@ -199,14 +294,14 @@ class PhoneNumberResourceIT {
         int databaseSizeBeforeUpdate = phoneNumberRepository.findAll().size();
         phoneNumber.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPhoneNumberMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, phoneNumber.getId())
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(phoneNumber))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the PhoneNumber in the database
         List<PhoneNumber> phoneNumberList = phoneNumberRepository.findAll();
@@ -311,14 +406,14 @@ class PhoneNumberResourceIT {
         int databaseSizeBeforeUpdate = phoneNumberRepository.findAll().size();
         phoneNumber.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPhoneNumberMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, phoneNumber.getId())
                     .contentType("application/merge-patch+json")
                     .content(TestUtil.convertObjectToJsonBytes(phoneNumber))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the PhoneNumber in the database
         List<PhoneNumber> phoneNumberList = phoneNumberRepository.findAll();
@@ -363,6 +458,77 @@ class PhoneNumberResourceIT {
         assertThat(phoneNumberList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putPhoneNumberMovedToAnotherEntry() throws Exception {
+        // Initialize the database
+        PhonebookEntry reception = new PhonebookEntry().description("Reception");
+        PhonebookEntry sales = new PhonebookEntry().description("Sales");
+        em.persist(reception);
+        em.persist(sales);
+        phoneNumberRepository.saveAndFlush(phoneNumber.phonebookEntry(reception));
+
+        PhoneNumberDTO phoneNumberDTO = new PhoneNumberDTO();
+        phoneNumberDTO.setId(phoneNumber.getId());
+        phoneNumberDTO.setNumber("044 123 45 67");
+        phoneNumberDTO.setVersion(0L);
+        PhonebookEntryDTO salesDTO = new PhonebookEntryDTO();
+        salesDTO.setId(sales.getId());
+        phoneNumberDTO.setPhonebookEntry(salesDTO);
+
+        restPhoneNumberMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, phoneNumber.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(phoneNumberDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.normalizedNumber").value("+41441234567"))
+            .andExpect(jsonPath("$.phonebookEntry.id").value(sales.getId().intValue()));
+
+        // Validate the PhoneNumber in the database
+        PhoneNumber testPhoneNumber = phoneNumberRepository.findById(phoneNumber.getId()).get();
+        assertThat(testPhoneNumber.getNormalizedNumber()).isEqualTo("+41441234567");
+        assertThat(testPhoneNumber.getPhonebookEntry()).isEqualTo(sales);
+        assertThat(testPhoneNumber.getVersion()).isEqualTo(1L);
+        assertThat(phonebookChangeRepository.findAll())
+            .filteredOn(change -> change.getEntityType() == ChangedEntityType.PHONE_NUMBER)
+            .filteredOn(change -> change.getEntityId().equals(phoneNumber.getId()))
+            .extracting(PhonebookChange::getPhonebookEntryId, PhonebookChange::getOperation)
+            .containsExactly(tuple(reception.getId(), ChangeOperation.DELETE), tuple(sales.getId(), ChangeOperation.UPSERT));
+        // The number is part of both entries, so both got a new version
+        em.refresh(reception);
+        em.refresh(sales);
+        assertThat(reception.getVersion()).isEqualTo(1L);
+        assertThat(sales.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @Transactional
+    void patchPhoneNumberChangedMeanwhile() throws Exception {
+        // Initialize the database
+        phoneNumberRepository.saveAndFlush(phoneNumber);
+
+        PhoneNumberDTO phoneNumberDTO = new PhoneNumberDTO();
+        phoneNumberDTO.setId(phoneNumber.getId());
+        phoneNumberDTO.setNumber(UPDATED_NUMBER);
+
+        restPhoneNumberMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, phoneNumber.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(phoneNumberDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the PhoneNumber in the database
+        PhoneNumber testPhoneNumber = phoneNumberRepository.findById(phoneNumber.getId()).get();
+        assertThat(testPhoneNumber.getNumber()).isEqualTo(DEFAULT_NUMBER);
+        assertThat(testPhoneNumber.getVersion()).isZero();
+    }
+
     @Test
     @Transactional
     void deletePhoneNumber() throws Exception {
@@ -0,0 +1,291 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookChange;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeCompactionRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeListener;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.sync.PhonebookChangeToken;
+import ch.qfs.phonebook.generator.service.sync.PhonebookDeltaService;
+import com.jayway.jsonpath.JsonPath;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PhonebookChangeResource} REST controller and the compaction of {@link PhonebookDeltaService}.
+ * <p>
+ * The changes are logged when their transaction commits, so the data is committed and removed after each test.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PhonebookChangeResourceIT {
+
+    private static final String API_URL = "/api/phonebook/changes";
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private PhonebookChangeCompactionRepository phonebookChangeCompactionRepository;
+
+    @Autowired
+    private PhonebookDeltaService phonebookDeltaService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restPhonebookChangeMockMvc;
+
+    private long lateCommitMs;
+
+    @BeforeEach
+    public void init() {
+        lateCommitMs = applicationProperties.getChanges().getLateCommitMs();
+        // the ids of the changes of other tests are gaps in the log, which would hold the tokens back
+        applicationProperties.getChanges().setLateCommitMs(0);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getChanges().setLateCommitMs(lateCommitMs);
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+        phonebookChangeCompactionRepository.deleteAll();
+    }
+
+    @Test
+    void getPhonebookChangesSinceToken() throws Exception {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhonebookEntry support = phonebookEntryRepository.save(new PhonebookEntry().description("Support"));
+        String token = getToken(null);
+
+        phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+        PhonebookEntry sales = phonebookEntryRepository.save(new PhonebookEntry().description("Sales"));
+        phonebookEntryRepository.deleteById(support.getId());
+
+        String next = JsonPath.read(
+            restPhonebookChangeMockMvc
+                .perform(get(API_URL).param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.more").value(false))
+                .andExpect(jsonPath("$.phonebookEntries[*].id").value(contains(reception.getId().intValue(), sales.getId().intValue())))
+                .andExpect(jsonPath("$.phonebookEntries[0].phoneNumbers[0].number").value("100"))
+                .andExpect(jsonPath("$.deletedPhonebookEntryIds").value(contains(support.getId().intValue())))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            "$.token"
+        );
+
+        restPhonebookChangeMockMvc
+            .perform(get(API_URL).param("since", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phonebookEntries").value(empty()))
+            .andExpect(jsonPath("$.deletedPhonebookEntryIds").value(empty()));
+    }
+
+    @Test
+    void getPhonebookChangesInPages() throws Exception {
+        int maxChanges = applicationProperties.getChanges().getMaxChanges();
+        applicationProperties.getChanges().setMaxChanges(2);
+        try {
+            String token = getToken(null);
+            for (int i = 0; i < 3; i++) {
+                phonebookEntryRepository.save(new PhonebookEntry().description("Entry " + i));
+            }
+
+            restPhonebookChangeMockMvc
+                .perform(get(API_URL).param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.more").value(true))
+                .andExpect(jsonPath("$.phonebookEntries.length()").value(2));
+        } finally {
+            applicationProperties.getChanges().setMaxChanges(maxChanges);
+        }
+    }
+
+    @Test
+    void getPhonebookChangesAfterGapAgain() throws Exception {
+        applicationProperties.getChanges().setLateCommitMs(60000);
+        PhonebookChangeToken token = new PhonebookChangeToken(phonebookChangeRepository.findLastId(), Instant.now());
+        // a change that may still be committed with a lower id than the following ones
+        long skippedId = phonebookEntryRepository.save(new PhonebookEntry().description("Rolled back")).getId();
+        phonebookEntryRepository.deleteById(skippedId);
+        phonebookChangeRepository.deleteAll(phonebookChangeRepository.findAllByIdGreaterThanOrderById(token.getChangeId()));
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+
+        String next = getToken(token.toString());
+
+        assertThat(PhonebookChangeToken.parse(next).getChangeId()).isEqualTo(token.getChangeId());
+        restPhonebookChangeMockMvc
+            .perform(get(API_URL).param("since", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phonebookEntries[*].id").value(contains(reception.getId().intValue())));
+    }
+
+    @Test
+    void getPhonebookChangesAfterGapOfLongTransaction() throws Exception {
+        applicationProperties.getChanges().setLateCommitMs(2000);
+        PhonebookEntry support = phonebookEntryRepository.save(new PhonebookEntry().description("Support"));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // the id of a change that is not committed yet
+        long pendingId = transactionTemplate.execute(status ->
+            ((Number) em.createNativeQuery("select next value for phonebook_change_sequence").getSingleResult()).longValue()
+        );
+        PhonebookChangeToken token = new PhonebookChangeToken(pendingId - 1, Instant.now());
+        // a transaction that stays open longer than the late commit time before its change is logged
+        PhonebookEntry reception = transactionTemplate.execute(status -> {
+            PhonebookEntry entry = phonebookEntryRepository.saveAndFlush(new PhonebookEntry().description("Reception"));
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return entry;
+        });
+
+        String next = getToken(token.toString());
+
+        assertThat(PhonebookChangeToken.parse(next).getChangeId()).isEqualTo(token.getChangeId());
+        transactionTemplate.executeWithoutResult(status ->
+            em
+                .createNativeQuery(
+                    "insert into phonebook_change (id, entity_type, entity_id, phonebook_entry_id, operation, changed_date) " +
+                    "values (?, ?, ?, ?, ?, ?)"
+                )
+                .setParameter(1, pendingId)
+                .setParameter(2, ChangedEntityType.PHONEBOOK_ENTRY.name())
+                .setParameter(3, support.getId())
+                .setParameter(4, support.getId())
+                .setParameter(5, ChangeOperation.UPSERT.name())
+                .setParameter(6, Instant.now())
+                .executeUpdate()
+        );
+        restPhonebookChangeMockMvc
+            .perform(get(API_URL).param("since", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phonebookEntries[*].id").value(contains(support.getId().intValue(), reception.getId().intValue())));
+    }
+
+    @Test
+    void getPhonebookChangesWithExpiredToken() throws Exception {
+        Instant expired = Instant.now().minus(applicationProperties.getChanges().getRetentionDays() + 1, ChronoUnit.DAYS);
+
+        restPhonebookChangeMockMvc
+            .perform(get(API_URL).param("since", new PhonebookChangeToken(0, expired).toString()))
+            .andExpect(status().isGone());
+    }
+
+    @Test
+    void getPhonebookChangesCompactedBetweenPages() throws Exception {
+        int maxChanges = applicationProperties.getChanges().getMaxChanges();
+        applicationProperties.getChanges().setMaxChanges(2);
+        try {
+            String token = getToken(null);
+            for (int i = 0; i < 3; i++) {
+                phonebookEntryRepository.save(new PhonebookEntry().description("Entry " + i));
+            }
+            String next = JsonPath.read(
+                restPhonebookChangeMockMvc
+                    .perform(get(API_URL).param("since", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.more").value(true))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(),
+                "$.token"
+            );
+            Instant old = Instant.now().minus(applicationProperties.getChanges().getRetentionDays() + 1, ChronoUnit.DAYS);
+            new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status ->
+                    em.createNativeQuery("update phonebook_change set changed_date = ?").setParameter(1, old).executeUpdate()
+                );
+
+            assertThat(phonebookDeltaService.compact()).isEqualTo(3);
+
+            restPhonebookChangeMockMvc.perform(get(API_URL).param("since", next)).andExpect(status().isGone());
+            restPhonebookChangeMockMvc
+                .perform(get(API_URL).param("since", getToken(null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phonebookEntries").value(empty()));
+        } finally {
+            applicationProperties.getChanges().setMaxChanges(maxChanges);
+        }
+    }
+
+    @Test
+    void getPhonebookChangesWithInvalidToken() throws Exception {
+        restPhonebookChangeMockMvc.perform(get(API_URL).param("since", "invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void compactDeletesChangesOlderThanTheRetention() {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhonebookChange old = new PhonebookChange(ChangedEntityType.PHONEBOOK_ENTRY, 0L, 0L, ChangeOperation.DELETE);
+        old.setChangedDate(Instant.now().minus(applicationProperties.getChanges().getRetentionDays() + 1, ChronoUnit.DAYS));
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status ->
+                em.unwrap(Session.class).doWork(connection -> PhonebookChangeListener.insert(connection, List.of(old)))
+            );
+        assertThat(phonebookChangeRepository.findAll()).extracting(PhonebookChange::getEntityId).contains(0L, reception.getId());
+
+        assertThat(phonebookDeltaService.compact()).isEqualTo(1);
+
+        assertThat(phonebookChangeRepository.findAll())
+            .extracting(PhonebookChange::getEntityId)
+            .doesNotContain(0L)
+            .contains(reception.getId());
+    }
+
+    private String getToken(String since) throws Exception {
+        return JsonPath.read(
+            restPhonebookChangeMockMvc
+                .perform(since == null ? get(API_URL) : get(API_URL).param("since", since))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            "$.token"
+        );
+    }
+}
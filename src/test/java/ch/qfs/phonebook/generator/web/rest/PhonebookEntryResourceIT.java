@@ -1,24 +1,53 @@
 package ch.qfs.phonebook.generator.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.config.PhonebookProtobufHttpMessageConverter;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
 import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangeOperation;
+import ch.qfs.phonebook.generator.domain.enumeration.ChangedEntityType;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
 import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.dto.PhonebookEntryDTO;
+import ch.qfs.phonebook.generator.service.search.PhonebookSearchService;
+import ch.qfs.phonebook.generator.web.rest.errors.ErrorConstants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -35,12 +64,27 @@ class PhonebookEntryResourceIT {
     private static final String ENTITY_API_URL = "/api/phonebook-entries";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
 
     @Autowired
     private PhonebookEntryRepository phonebookEntryRepository;
 
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private PhonebookSearchService phonebookSearchService;
+
     @Autowired
     private EntityManager em;
 
@@ -148,6 +192,136 @@ class PhonebookEntryResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void getAllPhonebookEntriesPaginated() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+
+        restPhonebookEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=1&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"first\"")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(phonebookEntry.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllPhonebookEntriesByKeyset() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+        PhonebookEntry second = phonebookEntryRepository.saveAndFlush(new PhonebookEntry().description(DEFAULT_DESCRIPTION));
+        PhonebookEntry third = phonebookEntryRepository.saveAndFlush(new PhonebookEntry().description(DEFAULT_DESCRIPTION));
+        long after = phonebookEntry.getId() - 1;
+
+        restPhonebookEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?after={after}&size=2", after))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + second.getId() + ">; rel=\"next\"")))
+            .andExpect(jsonPath("$.[*].id").value(contains(phonebookEntry.getId().intValue(), second.getId().intValue())));
+
+        restPhonebookEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?after={after}&size=2", second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllPhonebookEntriesWithoutQueryPerEntity() throws Exception {
+        // Initialize the database
+        for (int i = 0; i < 5; i++) {
+            PhonebookEntry entry = new PhonebookEntry().description(DEFAULT_DESCRIPTION + i);
+            em.persist(entry);
+            em.persist(new PhoneNumber("10" + i).phonebookEntry(entry));
+            em.persist(new PhoneNumber("20" + i).phonebookEntry(entry));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "?page=0&size=50&sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].phoneNumbers[*].number").value(hasItem("204")));
+            // the ids of the page, their count and the entries with their phone numbers
+            assertThat(statistics.getPrepareStatementCount()).isBetween(2L, 3L);
+            // read as projections, without loading entities
+            assertThat(statistics.getEntityLoadCount()).isZero();
+
+            em.clear();
+            statistics.clear();
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "?after=0&size=50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].phoneNumbers[*].number").value(hasItem("204")));
+            assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getPhonebookEntriesInBinaryRepresentations() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+        em.persist(new PhoneNumber("044 123 45 67").phonebookEntry(phonebookEntry));
+        em.flush();
+
+        // clients not asking for a representation still get JSON
+        restPhonebookEntryMockMvc
+            .perform(get(ENTITY_API_URL_ID, phonebookEntry.getId()).accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        for (Map.Entry<MediaType, JsonFactory> format : Map.of(CBOR, new CBORFactory(), SMILE, new SmileFactory()).entrySet()) {
+            MvcResult result = restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL_ID, phonebookEntry.getId()).accept(format.getKey()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(format.getKey()))
+                .andReturn();
+            JsonNode entry = new ObjectMapper(format.getValue()).readTree(result.getResponse().getContentAsByteArray());
+            assertThat(entry.get("description").asText()).isEqualTo(DEFAULT_DESCRIPTION);
+            assertThat(entry.at("/phoneNumbers/0/number").asText()).isEqualTo("044 123 45 67");
+        }
+
+        MvcResult result = restPhonebookEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").accept(PhonebookProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(PhonebookProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+            .andExpect(header().string(PhonebookProtobufHttpMessageConverter.MESSAGE_HEADER, "PhonebookEntryList"))
+            .andReturn();
+        JsonNode entries = new ObjectMapper(new ProtobufFactory())
+            .readerFor(JsonNode.class)
+            .with(PhonebookProtobufHttpMessageConverter.loadSchema().forType("PhonebookEntryList"))
+            .readValue(result.getResponse().getContentAsByteArray());
+        assertThat(entries.at("/phonebookEntries/0/id").asLong()).isEqualTo(phonebookEntry.getId());
+        assertThat(entries.at("/phonebookEntries/0/phoneNumbers/0/normalizedNumber").asText()).isNotEmpty();
+    }
+
+    @Test
+    @Transactional
+    void createPhonebookEntryFromCbor() throws Exception {
+        int databaseSizeBeforeCreate = phonebookEntryRepository.findAll().size();
+        byte[] content = new ObjectMapper(new CBORFactory()).writeValueAsBytes(Map.of("description", DEFAULT_DESCRIPTION));
+
+        restPhonebookEntryMockMvc
+            .perform(post(ENTITY_API_URL).contentType(CBOR).accept(MediaType.APPLICATION_JSON).content(content))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
+
+        assertThat(phonebookEntryRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
     @Test
     @Transactional
     void getPhonebookEntry() throws Exception {
@@ -159,8 +333,10 @@ class PhonebookEntryResourceIT {
             .perform(get(ENTITY_API_URL_ID, phonebookEntry.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
             .andExpect(jsonPath("$.id").value(phonebookEntry.getId().intValue()))
-            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
+            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION))
+            .andExpect(jsonPath("$.version").value(0));
     }
 
     @Test
@@ -205,14 +381,14 @@ class PhonebookEntryResourceIT {
         int databaseSizeBeforeUpdate = phonebookEntryRepository.findAll().size();
         phonebookEntry.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPhonebookEntryMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, phonebookEntry.getId())
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(phonebookEntry))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the PhonebookEntry in the database
         List<PhonebookEntry> phonebookEntryList = phonebookEntryRepository.findAll();
@@ -319,14 +495,14 @@ class PhonebookEntryResourceIT {
         int databaseSizeBeforeUpdate = phonebookEntryRepository.findAll().size();
         phonebookEntry.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPhonebookEntryMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, phonebookEntry.getId())
                     .contentType("application/merge-patch+json")
                     .content(TestUtil.convertObjectToJsonBytes(phonebookEntry))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the PhonebookEntry in the database
         List<PhonebookEntry> phonebookEntryList = phonebookEntryRepository.findAll();
@@ -371,6 +547,171 @@ class PhonebookEntryResourceIT {
         assertThat(phonebookEntryList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putPhonebookEntryIfMatch() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+
+        PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+        phonebookEntryDTO.setId(phonebookEntry.getId());
+        phonebookEntryDTO.setDescription(UPDATED_DESCRIPTION);
+
+        restPhonebookEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, phonebookEntry.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(phonebookEntryDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.description").value(UPDATED_DESCRIPTION))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // Validate the PhonebookEntry in the database
+        PhonebookEntry testPhonebookEntry = phonebookEntryRepository.findById(phonebookEntry.getId()).get();
+        assertThat(testPhonebookEntry.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
+        assertThat(testPhonebookEntry.getVersion()).isEqualTo(1L);
+        assertThat(phonebookChangeRepository.findAll())
+            .anySatisfy(change -> {
+                assertThat(change.getEntityType()).isEqualTo(ChangedEntityType.PHONEBOOK_ENTRY);
+                assertThat(change.getEntityId()).isEqualTo(phonebookEntry.getId());
+                assertThat(change.getOperation()).isEqualTo(ChangeOperation.UPSERT);
+            });
+    }
+
+    @Test
+    @Transactional
+    void putPhonebookEntryChangedMeanwhile() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+
+        PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+        phonebookEntryDTO.setId(phonebookEntry.getId());
+        phonebookEntryDTO.setDescription(UPDATED_DESCRIPTION);
+
+        // The ETag of the request takes precedence over the version of the body
+        phonebookEntryDTO.setVersion(0L);
+        restPhonebookEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, phonebookEntry.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(phonebookEntryDTO))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+
+        // Validate the PhonebookEntry in the database
+        PhonebookEntry testPhonebookEntry = phonebookEntryRepository.findById(phonebookEntry.getId()).get();
+        assertThat(testPhonebookEntry.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        assertThat(testPhonebookEntry.getVersion()).isZero();
+    }
+
+    @Test
+    void putPhonebookEntryWhosePhoneNumbersChangedMeanwhile() throws Exception {
+        // Initialize the database
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description(DEFAULT_DESCRIPTION));
+        try {
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL_ID, reception.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+            // The phone numbers are part of the body, so their changes increment the version of the entry
+            phoneNumberRepository.save(new PhoneNumber("044 123 45 67").phonebookEntry(reception));
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL_ID, reception.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+            PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+            phonebookEntryDTO.setId(reception.getId());
+            phonebookEntryDTO.setDescription(UPDATED_DESCRIPTION);
+            restPhonebookEntryMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, reception.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(phonebookEntryDTO))
+                )
+                .andExpect(status().isConflict());
+
+            // Validate the PhonebookEntry in the database
+            assertThat(phonebookEntryRepository.findById(reception.getId()).get().getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        } finally {
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    @Transactional
+    void patchPhonebookEntryWithUnchangedDescription() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+        long changes = phonebookChangeRepository.count();
+
+        PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+        phonebookEntryDTO.setId(phonebookEntry.getId());
+        phonebookEntryDTO.setDescription(DEFAULT_DESCRIPTION);
+
+        restPhonebookEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, phonebookEntry.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(phonebookEntryDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION))
+            .andExpect(jsonPath("$.version").value(0));
+
+        // Validate that nothing was written
+        assertThat(phonebookEntryRepository.findById(phonebookEntry.getId()).get().getVersion()).isZero();
+        assertThat(phonebookChangeRepository.count()).isEqualTo(changes);
+    }
+
+    @Test
+    @Transactional
+    void patchPhonebookEntryChangedMeanwhile() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+
+        PhonebookEntryDTO phonebookEntryDTO = new PhonebookEntryDTO();
+        phonebookEntryDTO.setId(phonebookEntry.getId());
+        phonebookEntryDTO.setDescription(UPDATED_DESCRIPTION);
+        phonebookEntryDTO.setVersion(1L);
+
+        restPhonebookEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, phonebookEntry.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(phonebookEntryDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the PhonebookEntry in the database
+        assertThat(phonebookEntryRepository.findById(phonebookEntry.getId()).get().getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+    }
+
+    @Test
+    @Transactional
+    void putPhonebookEntryWithInvalidIfMatch() throws Exception {
+        // Initialize the database
+        phonebookEntryRepository.saveAndFlush(phonebookEntry);
+
+        restPhonebookEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, phonebookEntry.getId())
+                    .header(HttpHeaders.IF_MATCH, "version-0")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(phonebookEntry))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void deletePhonebookEntry() throws Exception {
@@ -388,4 +729,242 @@ class PhonebookEntryResourceIT {
         List<PhonebookEntry> phonebookEntryList = phonebookEntryRepository.findAll();
         assertThat(phonebookEntryList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    void bulkSavePhonebookEntries() throws Exception {
+        PhonebookEntry existing = phonebookEntryRepository.save(new PhonebookEntry().description(DEFAULT_DESCRIPTION));
+        PhoneNumber kept = phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(existing));
+        PhoneNumber removed = phoneNumberRepository.save(new PhoneNumber("101").phonebookEntry(existing));
+        try {
+            List<PhonebookEntry> request = List.of(
+                new PhonebookEntry().description("Reception").addPhoneNumber(new PhoneNumber("200")).addPhoneNumber(new PhoneNumber("201")),
+                new PhonebookEntry()
+                    .id(existing.getId())
+                    .description(UPDATED_DESCRIPTION)
+                    .addPhoneNumber(new PhoneNumber("110").id(kept.getId()))
+                    .addPhoneNumber(new PhoneNumber("102")),
+                new PhonebookEntry().addPhoneNumber(new PhoneNumber("300")),
+                new PhonebookEntry().id(count.incrementAndGet()).description(UPDATED_DESCRIPTION)
+            );
+
+            MvcResult result = restPhonebookEntryMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "UPDATED", "FAILED", "FAILED")))
+                .andExpect(jsonPath("$.[1].id").value(existing.getId().intValue()))
+                .andExpect(jsonPath("$.[2].message").value(containsString("description")))
+                .andExpect(jsonPath("$.[3].message").value("Entity not found"))
+                .andReturn();
+
+            long createdId = ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.[0].id")).longValue();
+            PhonebookEntry created = phonebookEntryRepository.findOneWithPhoneNumbersById(createdId).orElseThrow();
+            assertThat(created.getDescription()).isEqualTo("Reception");
+            assertThat(created.getPhoneNumbers()).extracting(PhoneNumber::getNumber).containsExactlyInAnyOrder("200", "201");
+
+            PhonebookEntry updated = phonebookEntryRepository.findOneWithPhoneNumbersById(existing.getId()).orElseThrow();
+            assertThat(updated.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
+            assertThat(updated.getPhoneNumbers()).extracting(PhoneNumber::getNumber).containsExactlyInAnyOrder("110", "102");
+            assertThat(updated.getPhoneNumbers()).extracting(PhoneNumber::getId).contains(kept.getId());
+            assertThat(phoneNumberRepository.existsById(removed.getId())).isFalse();
+        } finally {
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void bulkSavePhonebookEntriesInJdbcBatches() throws Exception {
+        List<PhonebookEntry> request = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            request.add(
+                new PhonebookEntry()
+                    .description(DEFAULT_DESCRIPTION + i)
+                    .addPhoneNumber(new PhoneNumber("10" + i))
+                    .addPhoneNumber(new PhoneNumber("20" + i))
+            );
+        }
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            restPhonebookEntryMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].status").value(everyItem(is("CREATED"))));
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(180);
+            // one statement per JDBC batch and per 50 allocated ids, instead of one per row
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void bulkSaveTooManyPhonebookEntries() throws Exception {
+        String request = "[" + "{},".repeat(PhonebookEntryResource.BULK_MAX_SIZE) + "{}]";
+
+        restPhonebookEntryMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(request))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchPhonebookEntries() throws Exception {
+        phonebookSearchService.build();
+        PhonebookEntry meier = phonebookEntryRepository.save(new PhonebookEntry().description("Hans Meier"));
+        phoneNumberRepository.save(new PhoneNumber("044 123 45 67").phonebookEntry(meier));
+        PhonebookEntry meierhofer = phonebookEntryRepository.save(new PhonebookEntry().description("Anna Meierhofer"));
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        phoneNumberRepository.save(new PhoneNumber("+41 44 123 45 00").phonebookEntry(reception));
+        try {
+            phonebookSearchService.refresh();
+
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "mei"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(meier.getId().intValue(), meierhofer.getId().intValue())));
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "meier"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(meier.getId().intValue()))
+                .andExpect(jsonPath("$.[0].numbers").value(contains("044 123 45 67")));
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}&size=1", "0041 44 123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "044 123 45 00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(reception.getId().intValue())));
+
+            // Adding the phone number incremented the version of the entry
+            reception = phonebookEntryRepository.findById(reception.getId()).get();
+            reception.setDescription("Front desk");
+            phonebookEntryRepository.save(reception);
+            phonebookSearchService.refresh();
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "front"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(reception.getId().intValue())));
+            restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "recep"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        } finally {
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void exportPhonebookEntries() throws Exception {
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        phoneNumberRepository.save(new PhoneNumber("044 123 45 00").phonebookEntry(reception));
+        phoneNumberRepository.save(new PhoneNumber("100").phonebookEntry(reception));
+        PhonebookEntry sales = phonebookEntryRepository.save(new PhonebookEntry().description("Sales"));
+        try {
+            MvcResult result = restPhonebookEntryMockMvc
+                .perform(get(ENTITY_API_URL + "/_export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restPhonebookEntryMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.[*].id").value(contains(reception.getId().intValue(), sales.getId().intValue())))
+                .andExpect(jsonPath("$.[0].description").value("Reception"))
+                .andExpect(jsonPath("$.[0].version").value(2))
+                .andExpect(jsonPath("$.[0].phoneNumbers[*].number").value(contains("044 123 45 00", "100")))
+                .andExpect(jsonPath("$.[0].phoneNumbers[0].normalizedNumber").value("+41441234500"))
+                .andExpect(jsonPath("$.[0].phoneNumbers[*].version").value(contains(0, 0)))
+                .andExpect(jsonPath("$.[1].phoneNumbers").isEmpty());
+        } finally {
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void importPhonebookEntriesFromCsv() throws Exception {
+        applicationProperties.getBulkImport().setChunkSize(2);
+        try {
+            String csv =
+                "id;description;number\n" +
+                "1;Reception;044 123 45 00\n" +
+                "1;Reception;100\n" +
+                "2;Sales;\n" +
+                "3;;044 123 45 01\n" +
+                "4;Support;044 123 45 02;\n" +
+                "5;Marketing;044 123 45 03\n";
+
+            restPhonebookEntryMockMvc
+                .perform(post(ENTITY_API_URL + "/_import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(5))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(5, 6)))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("description")))
+                .andExpect(jsonPath("$.errors[1].message").value("Expected 3 values but found 4"));
+
+            List<PhonebookEntry> imported = phonebookEntryRepository.findAllWithPhoneNumbersByIdIn(
+                phonebookEntryRepository.findAll().stream().map(PhonebookEntry::getId).collect(Collectors.toList())
+            );
+            assertThat(imported).extracting(PhonebookEntry::getDescription).containsExactlyInAnyOrder("Reception", "Sales", "Marketing");
+            PhonebookEntry reception = imported
+                .stream()
+                .filter(entry -> "Reception".equals(entry.getDescription()))
+                .findFirst()
+                .orElseThrow();
+            assertThat(reception.getPhoneNumbers()).extracting(PhoneNumber::getNumber).containsExactlyInAnyOrder("044 123 45 00", "100");
+            assertThat(reception.getPhoneNumbers()).extracting(PhoneNumber::getNormalizedNumber).contains("+41441234500");
+        } finally {
+            applicationProperties.getBulkImport().setChunkSize(1000);
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void importPhonebookEntriesFromNdjson() throws Exception {
+        String ndjson =
+            "{\"description\":\"Reception\",\"phoneNumbers\":[{\"number\":\"044 123 45 00\"}]}\n" +
+            "not json\n" +
+            "{\"description\":\"Sales\"}\n";
+        try {
+            restPhonebookEntryMockMvc
+                .perform(post(ENTITY_API_URL + "/_import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+
+            assertThat(phonebookEntryRepository.findAll())
+                .extracting(PhonebookEntry::getDescription)
+                .containsExactlyInAnyOrder("Reception", "Sales");
+        } finally {
+            deleteAllCommitted();
+        }
+    }
+
+    @Test
+    void importPhonebookEntriesWithoutHeader() throws Exception {
+        restPhonebookEntryMockMvc
+            .perform(post(ENTITY_API_URL + "/_import").contentType("text/csv").content("id;number\n1;100\n"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(phonebookEntryRepository.count()).isZero();
+    }
+
+    /**
+     * Removes the data committed by the bulk saves, which run in their own transactions.
+     */
+    private void deleteAllCommitted() {
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
 }
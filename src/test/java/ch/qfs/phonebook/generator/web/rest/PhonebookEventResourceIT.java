@@ -0,0 +1,150 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.config.ApplicationProperties;
+import ch.qfs.phonebook.generator.domain.PhoneNumber;
+import ch.qfs.phonebook.generator.domain.PhonebookEntry;
+import ch.qfs.phonebook.generator.repository.PhoneNumberRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookChangeRepository;
+import ch.qfs.phonebook.generator.repository.PhonebookEntryRepository;
+import ch.qfs.phonebook.generator.service.sync.PhonebookEventBroadcaster;
+import ch.qfs.phonebook.generator.service.sync.PhonebookEventService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link PhonebookEventResource} REST controller.
+ * <p>
+ * The events are published from the changes logged when their transaction commits, so the data is
+ * committed and removed after each test.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PhonebookEventResourceIT {
+
+    private static final String API_URL = "/api/phonebook/events";
+
+    private static final long TIMEOUT_MS = 5000;
+
+    @Autowired
+    private PhonebookEntryRepository phonebookEntryRepository;
+
+    @Autowired
+    private PhoneNumberRepository phoneNumberRepository;
+
+    @Autowired
+    private PhonebookChangeRepository phonebookChangeRepository;
+
+    @Autowired
+    private PhonebookEventService phonebookEventService;
+
+    @Autowired
+    private PhonebookEventBroadcaster phonebookEventBroadcaster;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MockMvc restPhonebookEventMockMvc;
+
+    private final List<MvcResult> subscriptions = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        if (!phonebookEventService.isStarted()) {
+            phonebookEventService.start();
+        }
+        // skip the changes of other tests
+        phonebookEventService.poll();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        subscriptions.forEach(subscription -> subscription.getRequest().getAsyncContext().complete());
+        phoneNumberRepository.deleteAll();
+        phonebookEntryRepository.deleteAll();
+        phonebookChangeRepository.deleteAll();
+    }
+
+    @Test
+    void streamsTheChangedEntriesAndNumbers() throws Exception {
+        MvcResult subscription = subscribe();
+
+        PhonebookEntry reception = phonebookEntryRepository.save(new PhonebookEntry().description("Reception"));
+        PhoneNumber phoneNumber = phoneNumberRepository.save(new PhoneNumber("044 123 45 67").phonebookEntry(reception));
+        assertThat(phonebookEventService.poll()).isEqualTo(2);
+
+        String events = awaitContent(subscription, "event:phone-number");
+        assertThat(events)
+            .contains("event:phonebook-entry")
+            .contains("\"id\":" + reception.getId() + ",\"entity\":{\"id\":" + reception.getId() + ",\"description\":\"Reception\"")
+            .contains("\"operation\":\"UPSERT\"")
+            .contains("\"number\":\"044 123 45 67\"");
+
+        phoneNumberRepository.deleteById(phoneNumber.getId());
+        phonebookEntryRepository.deleteById(reception.getId());
+        assertThat(phonebookEventService.poll()).isEqualTo(2);
+
+        assertThat(awaitContent(subscription, "\"operation\":\"DELETE\",\"id\":" + phoneNumber.getId()))
+            .contains("\"operation\":\"DELETE\",\"id\":" + reception.getId());
+    }
+
+    @Test
+    void removesTheSubscriptionOfAClosedStream() throws Exception {
+        int subscribers = phonebookEventBroadcaster.getSubscriberCount();
+        MvcResult subscription = subscribe();
+        assertThat(phonebookEventBroadcaster.getSubscriberCount()).isEqualTo(subscribers + 1);
+
+        subscription.getRequest().getAsyncContext().complete();
+        subscriptions.remove(subscription);
+
+        assertThat(phonebookEventBroadcaster.getSubscriberCount()).isEqualTo(subscribers);
+    }
+
+    @Test
+    void getPhonebookEventsWhenDisabled() throws Exception {
+        applicationProperties.getEvents().setEnabled(false);
+        try {
+            restPhonebookEventMockMvc.perform(get(API_URL).accept(MediaType.TEXT_EVENT_STREAM)).andExpect(status().isNotFound());
+        } finally {
+            applicationProperties.getEvents().setEnabled(true);
+        }
+    }
+
+    private MvcResult subscribe() throws Exception {
+        MvcResult subscription = restPhonebookEventMockMvc
+            .perform(get(API_URL).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Waits for the events sent by the threads of the broadcaster.
+     */
+    private static String awaitContent(MvcResult subscription, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        String content = subscription.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = subscription.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -0,0 +1,127 @@
+package ch.qfs.phonebook.generator.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.qfs.phonebook.generator.IntegrationTest;
+import ch.qfs.phonebook.generator.service.export.PhonebookArtifactService;
+import ch.qfs.phonebook.generator.service.export.PhonebookFormat;
+import ch.qfs.phonebook.generator.service.export.PhonebookFormatRegistry;
+import ch.qfs.phonebook.generator.service.export.PhonebookPublication;
+import ch.qfs.phonebook.generator.service.export.PhonebookPublisher;
+import ch.qfs.phonebook.generator.service.export.PhonebookVersion;
+import ch.qfs.phonebook.generator.service.export.PhonebookXmlWriter;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link PhonebookExportResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class PhonebookExportResourceIT {
+
+    private static final String DOCUMENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<VitabadIPPhoneDirectory>\n</VitabadIPPhoneDirectory>\n";
+
+    @Autowired
+    private PhonebookArtifactService phonebookArtifactService;
+
+    @Autowired
+    private PhonebookPublisher phonebookPublisher;
+
+    @Autowired
+    private PhonebookFormatRegistry phonebookFormatRegistry;
+
+    @Autowired
+    private MockMvc restPhonebookExportMockMvc;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void init() throws Exception {
+        PhonebookFormat format = phonebookFormatRegistry.getFormat(PhonebookXmlWriter.NAME).orElseThrow();
+        PhonebookVersion version;
+        try (PhonebookPublication publication = phonebookPublisher.begin(directory)) {
+            try (OutputStream out = publication.newFile(format.getFileName())) {
+                out.write(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            }
+            version = publication.commit();
+        }
+        phonebookArtifactService.publish(List.of(format), version);
+    }
+
+    @Test
+    void getPhonebookWithoutAuthentication() throws Exception {
+        restPhonebookExportMockMvc
+            .perform(get("/api/phonebook-export/phonebook.xml"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/xml"))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().exists(PhonebookExportResource.VERSION_HEADER))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string(DOCUMENT));
+    }
+
+    @Test
+    void getPhonebookNotModified() throws Exception {
+        MvcResult result = restPhonebookExportMockMvc.perform(get("/api/phonebook-export/phonebook.xml")).andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        restPhonebookExportMockMvc
+            .perform(get("/api/phonebook-export/phonebook.xml").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+        restPhonebookExportMockMvc
+            .perform(get("/api/phonebook-export/phonebook.xml").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+        restPhonebookExportMockMvc
+            .perform(get("/api/phonebook-export/phonebook.xml").header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getPhonebookGzipped() throws Exception {
+        MvcResult result = restPhonebookExportMockMvc
+            .perform(get("/api/phonebook-export/phonebook.xml").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+            .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), "UTF-8")).isEqualTo(DOCUMENT);
+        }
+        restPhonebookExportMockMvc
+            .perform(
+                get("/api/phonebook-export/phonebook.xml")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG))
+            )
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUnknownPhonebook() throws Exception {
+        restPhonebookExportMockMvc.perform(get("/api/phonebook-export/unknown.xml")).andExpect(status().isNotFound());
+    }
+}